@@ -0,0 +1,84 @@
+package org.samvelaivazian.diagramtraversal.benchmarks;
+
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.samvelaivazian.diagramtraversal.solution.generator.BpmnDiagramGenerator;
+import org.samvelaivazian.diagramtraversal.solution.graph.FlowNodeWeigher;
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraph;
+import org.samvelaivazian.diagramtraversal.solution.parsers.BpmnParser;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the compile stage: turning an already parsed Camunda model instance into a {@link RouteGraph}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompileBenchmark {
+
+    /**
+     * Benchmark state holding the parsed model instance of the diagram.
+     */
+    @State(Scope.Benchmark)
+    public static class ModelState {
+
+        /**
+         * The parsed model instance.
+         */
+        public BpmnModelInstance bpmnModelInstance;
+
+        /**
+         * Parses the diagram once per trial.
+         *
+         * @param diagramState The diagram to parse.
+         */
+        @Setup(Level.Trial)
+        public void parseModel(final DiagramState diagramState) {
+            bpmnModelInstance = new BpmnParser().getBpmnModelFromXml(diagramState.bpmnXml);
+        }
+
+    }
+
+    /**
+     * The weigher reading the same weights as the generated diagrams carry.
+     */
+    private final FlowNodeWeigher weigher = FlowNodeWeigher.extensionProperty(
+            BpmnDiagramGenerator.DURATION_PROPERTY_NAME, FlowNodeWeigher.DEFAULT_WEIGHT);
+
+    /**
+     * Compiles the model into a route graph with unit weights.
+     *
+     * @param modelState The model state.
+     * @return The route graph.
+     */
+    @Benchmark
+    public RouteGraph compile(final ModelState modelState) {
+        return RouteGraph.compile(modelState.bpmnModelInstance);
+    }
+
+    /**
+     * Compiles the model into a route graph, reading the weight of every node from its extension properties.
+     *
+     * @param modelState The model state.
+     * @return The route graph.
+     */
+    @Benchmark
+    public RouteGraph compileWeighted(final ModelState modelState) {
+        return RouteGraph.compile(modelState.bpmnModelInstance, weigher);
+    }
+
+}
@@ -0,0 +1,101 @@
+package org.samvelaivazian.diagramtraversal.benchmarks;
+
+import org.camunda.bpm.engine.impl.util.json.JSONObject;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.samvelaivazian.diagramtraversal.solution.generator.BpmnDiagramGenerator;
+import org.samvelaivazian.diagramtraversal.solution.generator.DiagramSpec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Benchmark state holding the input diagram of every stage: the bundled invoice diagram, or a synthetic diagram
+ * generated from a {@link DiagramSpec} of the form {@code <nodeCount>/<branchingDensity>/<loopDensity>}.
+ */
+@State(Scope.Benchmark)
+public class DiagramState {
+
+    /**
+     * The parameter value selecting the bundled invoice diagram.
+     */
+    public static final String INVOICE = "invoice";
+
+    /**
+     * The classpath resource of the bundled invoice diagram.
+     */
+    private static final String INVOICE_RESOURCE = "/invoice.xml";
+
+    /**
+     * The seed of all synthetic diagrams, so every run measures the same graphs.
+     */
+    private static final long SEED = 20_240_601L;
+
+    /**
+     * The diagram to benchmark: {@link #INVOICE} or a synthetic diagram spec.
+     */
+    @Param({INVOICE, "100/0.1/0.0", "100/0.3/0.1", "10000/0.1/0.0", "10000/0.3/0.1", "100000/0.1/0.0",
+            "100000/0.3/0.1"})
+    public String diagram;
+
+    /**
+     * The BPMN 2.0 XML of the diagram.
+     */
+    public String bpmnXml;
+
+    /**
+     * The engine-rest JSON response wrapping the BPMN 2.0 XML.
+     */
+    public String jsonResponse;
+
+    /**
+     * The ID of the node every route query starts at.
+     */
+    public String startNodeId;
+
+    /**
+     * The ID of the node every route query ends at.
+     */
+    public String endNodeId;
+
+    /**
+     * Loads or generates the diagram once per trial.
+     */
+    @Setup(Level.Trial)
+    public void setUpDiagram() {
+        if (INVOICE.equals(diagram)) {
+            bpmnXml = readInvoiceXml();
+            startNodeId = "StartEvent_1";
+            endNodeId = "invoiceProcessed";
+        } else {
+            bpmnXml = new BpmnDiagramGenerator().generate(DiagramSpec.parse(diagram, SEED));
+            startNodeId = BpmnDiagramGenerator.START_EVENT_ID;
+            endNodeId = BpmnDiagramGenerator.END_EVENT_ID;
+        }
+
+        jsonResponse = new JSONObject().put("id", diagram).put("bpmn20Xml", bpmnXml).toString();
+    }
+
+    /**
+     * Reads the bundled invoice diagram from the classpath.
+     *
+     * @return The BPMN 2.0 XML of the invoice diagram.
+     */
+    private static String readInvoiceXml() {
+        try (InputStream stream = DiagramState.class.getResourceAsStream(INVOICE_RESOURCE)) {
+            if (stream == null) {
+                throw new IllegalStateException("Missing benchmark resource " + INVOICE_RESOURCE);
+            }
+
+            return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,117 @@
+package org.samvelaivazian.diagramtraversal.benchmarks;
+
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.samvelaivazian.diagramtraversal.solution.utils.HttpFetcher;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the fetch stage: one GET of the engine-rest JSON response through the shared-client
+ * {@link HttpFetcher}, served from a loopback stub server so that the network is out of the measurement.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FetchBenchmark {
+
+    /**
+     * Benchmark state running the stub server that serves the JSON response of the diagram.
+     */
+    @State(Scope.Benchmark)
+    public static class StubServerState {
+
+        /**
+         * The fetcher under benchmark.
+         */
+        public final HttpFetcher httpFetcher = new HttpFetcher();
+
+        /**
+         * The URL of the JSON response.
+         */
+        public String url;
+
+        /**
+         * The stub server.
+         */
+        private HttpServer stubServer;
+
+        /**
+         * Starts the stub server once per trial.
+         *
+         * @param diagramState The diagram to serve.
+         * @throws IOException if the server cannot be bound.
+         */
+        @Setup(Level.Trial)
+        public void startStubServer(final DiagramState diagramState) throws IOException {
+            final byte[] body = diagramState.jsonResponse.getBytes(StandardCharsets.UTF_8);
+
+            stubServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            stubServer.createContext("/xml", exchange -> {
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+
+                try (OutputStream responseBody = exchange.getResponseBody()) {
+                    responseBody.write(body);
+                }
+            });
+            stubServer.start();
+
+            url = "http://localhost:" + stubServer.getAddress().getPort() + "/xml";
+        }
+
+        /**
+         * Stops the stub server after the trial.
+         */
+        @TearDown(Level.Trial)
+        public void stopStubServer() {
+            stubServer.stop(0);
+        }
+
+    }
+
+    /**
+     * Fetches the whole response body as a String, as the MODEL_INSTANCE parse mode does.
+     *
+     * @param state The stub server state.
+     * @return The response body.
+     */
+    @Benchmark
+    public String fetchString(final StubServerState state) {
+        return state.httpFetcher.fetch(state.url);
+    }
+
+    /**
+     * Fetches and drains the response body as a stream, as the STREAMING_GRAPH parse mode does.
+     *
+     * @param state The stub server state.
+     * @return The number of bytes read.
+     * @throws IOException if reading the body fails.
+     */
+    @Benchmark
+    public long fetchStream(final StubServerState state) throws IOException {
+        try (InputStream body = state.httpFetcher.fetchStream(state.url)) {
+            return body.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+}
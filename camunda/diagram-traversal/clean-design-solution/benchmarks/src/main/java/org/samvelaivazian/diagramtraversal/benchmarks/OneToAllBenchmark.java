@@ -0,0 +1,108 @@
+package org.samvelaivazian.diagramtraversal.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.samvelaivazian.diagramtraversal.solution.generator.BpmnDiagramGenerator;
+import org.samvelaivazian.diagramtraversal.solution.graph.FlowNodeWeigher;
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraph;
+import org.samvelaivazian.diagramtraversal.solution.parsers.StreamingBpmnGraphExtractor;
+import org.samvelaivazian.diagramtraversal.solution.traversal.ParallelBreadthFirstSearch;
+import org.samvelaivazian.diagramtraversal.solution.traversal.SearchTree;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks one-to-all searches from the start of the diagram: the sequential BFS against the
+ * {@link ParallelBreadthFirstSearch} with a varying number of workers.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OneToAllBenchmark {
+
+    /**
+     * Benchmark state holding the compiled route graph and the parallel search.
+     */
+    @State(Scope.Benchmark)
+    public static class SearchState {
+
+        /**
+         * The number of workers of the parallel search.
+         */
+        @Param({"1", "4", "8"})
+        public int parallelism;
+
+        /**
+         * The compiled route graph.
+         */
+        public RouteGraph routeGraph;
+
+        /**
+         * The node index of the start event.
+         */
+        public int root;
+
+        /**
+         * The parallel search, without sequential fallback so that every diagram size is searched in parallel.
+         */
+        public ParallelBreadthFirstSearch search;
+
+        /**
+         * Compiles the diagram and starts the pool once per trial.
+         *
+         * @param diagramState The diagram to compile.
+         */
+        @Setup(Level.Trial)
+        public void setUpSearch(final DiagramState diagramState) {
+            routeGraph = new StreamingBpmnGraphExtractor(BpmnDiagramGenerator.DURATION_PROPERTY_NAME,
+                    FlowNodeWeigher.DEFAULT_WEIGHT).extractRouteGraph(diagramState.bpmnXml);
+            root = routeGraph.indexOf(diagramState.startNodeId);
+            search = new ParallelBreadthFirstSearch(parallelism, 0);
+        }
+
+        /**
+         * Shuts the pool down after the trial.
+         */
+        @TearDown(Level.Trial)
+        public void tearDownSearch() {
+            search.close();
+        }
+
+    }
+
+    /**
+     * Searches the whole graph with the sequential BFS.
+     *
+     * @param searchState The search state.
+     * @return The search tree.
+     */
+    @Benchmark
+    public SearchTree sequential(final SearchState searchState) {
+        return SearchTree.breadthFirst(searchState.routeGraph, searchState.root, SearchTree.NO_STOP_NODE);
+    }
+
+    /**
+     * Searches the whole graph with the parallel BFS.
+     *
+     * @param searchState The search state.
+     * @return The search tree.
+     */
+    @Benchmark
+    public SearchTree parallel(final SearchState searchState) {
+        return searchState.search.search(searchState.routeGraph, searchState.root);
+    }
+
+}
@@ -0,0 +1,108 @@
+package org.samvelaivazian.diagramtraversal.benchmarks;
+
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.samvelaivazian.diagramtraversal.solution.generator.BpmnDiagramGenerator;
+import org.samvelaivazian.diagramtraversal.solution.graph.FlowNodeWeigher;
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraph;
+import org.samvelaivazian.diagramtraversal.solution.parsers.BpmnParser;
+import org.samvelaivazian.diagramtraversal.solution.parsers.StreamingBpmnGraphExtractor;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the parse stage: extracting the BPMN 2.0 XML from the JSON response and parsing it, both into a
+ * Camunda model instance and, with the streaming extractor, directly into a route graph.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParseBenchmark {
+
+    /**
+     * The size of the buffer draining the streamed XML.
+     */
+    private static final int BUFFER_SIZE = 8_192;
+
+    /**
+     * The parser under benchmark.
+     */
+    private final BpmnParser bpmnParser = new BpmnParser();
+
+    /**
+     * The streaming extractor under benchmark, reading the same weights as the generated diagrams carry.
+     */
+    private final StreamingBpmnGraphExtractor graphExtractor =
+            new StreamingBpmnGraphExtractor(BpmnDiagramGenerator.DURATION_PROPERTY_NAME,
+                    FlowNodeWeigher.DEFAULT_WEIGHT);
+
+    /**
+     * Extracts the XML from the JSON response into a String with {@code BpmnParser.getBpmn20XmlFromJson}.
+     *
+     * @param diagramState The diagram state.
+     * @return The BPMN 2.0 XML.
+     */
+    @Benchmark
+    public String getBpmn20XmlFromJson(final DiagramState diagramState) {
+        return bpmnParser.getBpmn20XmlFromJson(diagramState.jsonResponse);
+    }
+
+    /**
+     * Streams the XML out of the JSON response with {@code BpmnParser.getBpmn20XmlReaderFromJson} and drains it.
+     *
+     * @param diagramState The diagram state.
+     * @return The number of characters read.
+     * @throws IOException if the JSON is malformed.
+     */
+    @Benchmark
+    public long getBpmn20XmlReaderFromJson(final DiagramState diagramState) throws IOException {
+        final char[] buffer = new char[BUFFER_SIZE];
+        long characterCount = 0;
+
+        try (Reader reader = bpmnParser.getBpmn20XmlReaderFromJson(new StringReader(diagramState.jsonResponse))) {
+            int read;
+            while ((read = reader.read(buffer)) >= 0) {
+                characterCount += read;
+            }
+        }
+
+        return characterCount;
+    }
+
+    /**
+     * Parses the XML into a Camunda model instance with {@code BpmnParser.getBpmnModelFromXml}.
+     *
+     * @param diagramState The diagram state.
+     * @return The model instance.
+     */
+    @Benchmark
+    public BpmnModelInstance getBpmnModelFromXml(final DiagramState diagramState) {
+        return bpmnParser.getBpmnModelFromXml(diagramState.bpmnXml);
+    }
+
+    /**
+     * Extracts the route graph from the XML in one StAX pass, without a model instance.
+     *
+     * @param diagramState The diagram state.
+     * @return The route graph.
+     */
+    @Benchmark
+    public RouteGraph extractRouteGraph(final DiagramState diagramState) {
+        return graphExtractor.extractRouteGraph(diagramState.bpmnXml);
+    }
+
+}
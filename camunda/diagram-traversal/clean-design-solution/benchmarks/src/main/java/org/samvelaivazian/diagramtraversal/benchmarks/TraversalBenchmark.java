@@ -0,0 +1,86 @@
+package org.samvelaivazian.diagramtraversal.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.samvelaivazian.diagramtraversal.solution.Solution;
+import org.samvelaivazian.diagramtraversal.solution.generator.BpmnDiagramGenerator;
+import org.samvelaivazian.diagramtraversal.solution.graph.FlowNodeWeigher;
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraph;
+import org.samvelaivazian.diagramtraversal.solution.parsers.BpmnParser;
+import org.samvelaivazian.diagramtraversal.solution.parsers.StreamingBpmnGraphExtractor;
+import org.samvelaivazian.diagramtraversal.solution.traversal.TraversalStrategy;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the traversal stage: one route query from the start to the end of the diagram over the compiled
+ * {@link RouteGraph}, for every {@link TraversalStrategy}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TraversalBenchmark {
+
+    /**
+     * Benchmark state holding the compiled route graph of the diagram.
+     */
+    @State(Scope.Benchmark)
+    public static class GraphState {
+
+        /**
+         * The strategy finding the route.
+         */
+        @Param({"DEPTH_FIRST", "BREADTH_FIRST", "BIDIRECTIONAL_BREADTH_FIRST", "DIJKSTRA", "A_STAR"})
+        public TraversalStrategy strategy;
+
+        /**
+         * The Solution answering the route queries.
+         */
+        public final Solution solution = new Solution(new BpmnParser());
+
+        /**
+         * The compiled route graph.
+         */
+        public RouteGraph routeGraph;
+
+        /**
+         * Compiles the diagram once per trial and warms up per-graph state such as the A* landmarks.
+         *
+         * @param diagramState The diagram to compile.
+         */
+        @Setup(Level.Trial)
+        public void compileGraph(final DiagramState diagramState) {
+            routeGraph = new StreamingBpmnGraphExtractor(BpmnDiagramGenerator.DURATION_PROPERTY_NAME,
+                    FlowNodeWeigher.DEFAULT_WEIGHT).extractRouteGraph(diagramState.bpmnXml);
+            solution.findRoute(routeGraph, diagramState.startNodeId, diagramState.endNodeId, strategy);
+        }
+
+    }
+
+    /**
+     * Finds the route from the start to the end of the diagram.
+     *
+     * @param diagramState The diagram state.
+     * @param graphState   The graph state.
+     * @return The route.
+     */
+    @Benchmark
+    public List<String> findRoute(final DiagramState diagramState, final GraphState graphState) {
+        return graphState.solution.findRoute(graphState.routeGraph, diagramState.startNodeId,
+                diagramState.endNodeId, graphState.strategy);
+    }
+
+}
@@ -2,24 +2,214 @@ package org.samvelaivazian.diagramtraversal;
 
 import org.samvelaivazian.diagramtraversal.solution.Solution;
 import org.samvelaivazian.diagramtraversal.solution.exceptions.IncorrectNumberOfNodesException;
+import org.samvelaivazian.diagramtraversal.solution.generator.BpmnDiagramGenerator;
+import org.samvelaivazian.diagramtraversal.solution.generator.DiagramSpec;
+import org.samvelaivazian.diagramtraversal.solution.load.LoadDriver;
+import org.samvelaivazian.diagramtraversal.solution.load.LoadReport;
+import org.samvelaivazian.diagramtraversal.solution.metrics.JfrMetricsRecorder;
+import org.samvelaivazian.diagramtraversal.solution.metrics.MetricsRecorder;
+import org.samvelaivazian.diagramtraversal.solution.metrics.SolutionMetrics;
 import org.samvelaivazian.diagramtraversal.solution.parsers.BpmnParser;
+import org.samvelaivazian.diagramtraversal.solution.parsers.ParseMode;
+import org.samvelaivazian.diagramtraversal.solution.server.RouteServer;
+import org.samvelaivazian.diagramtraversal.solution.sources.DirectoryModelSource;
+import org.samvelaivazian.diagramtraversal.solution.sources.ModelWatcher;
+import org.samvelaivazian.diagramtraversal.solution.traversal.TraversalStrategy;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Main class to run the solution.
  */
 public final class Main {
 
+    /**
+     * The argument switching to the long-running server mode.
+     */
+    private static final String SERVER_MODE_ARGUMENT = "--server";
+
+    /**
+     * The argument switching to the batch mode.
+     */
+    private static final String BATCH_MODE_ARGUMENT = "--batch";
+
+    /**
+     * The argument switching to the synthetic diagram generation mode.
+     */
+    private static final String GENERATE_MODE_ARGUMENT = "--generate";
+
+    /**
+     * The argument switching to the load test mode.
+     */
+    private static final String LOAD_MODE_ARGUMENT = "--load";
+
+    /**
+     * The option reading the models from a directory of BPMN files instead of engine-rest.
+     */
+    private static final String MODELS_OPTION = "--models";
+
+    /**
+     * The port the server listens on if none is given.
+     */
+    private static final int DEFAULT_SERVER_PORT = 8080;
+
+    /**
+     * The seed of generated diagrams and load test queries if none is given.
+     */
+    private static final long DEFAULT_SEED = 1L;
+
+    /**
+     * The number of load test queries if none is given.
+     */
+    private static final int DEFAULT_LOAD_QUERY_COUNT = 100_000;
+
     /**
      * Main method to run the solution.
+     * <p>
+     * Invoked as {@code <startNodeId> <endNodeId>} it answers one query and exits; invoked as
+     * {@code --server [port] [graphDirectory]} it keeps the compiled model warm, persisted to the optional directory,
+     * and answers queries over HTTP on localhost;
+     * invoked as {@code --batch <queriesFile>} it answers every query of the file and prints JSON Lines;
+     * invoked as {@code --generate <diagramFile> <diagramSpec> [seed]} it writes a synthetic diagram, see
+     * {@link DiagramSpec#parse(String, long)}; invoked as {@code --load <diagramFile> [threads] [queries] [strategy]}
+     * it runs random route queries against the diagram and prints the throughput.
+     * <p>
+     * Any mode may be preceded by {@code --models <directory>} to read the definitions from the BPMN files of a
+     * directory, e.g. {@code invoice.bpmn}, instead of fetching them from engine-rest. The server then reloads the
+     * invoice diagram whenever its file changes.
+     * <p>
+     * Every mode emits JFR events while a flight recording enables them and reports to the metrics recorders
+     * registered as service providers; the server also exposes its metrics through JMX as
+     * {@value SolutionMetrics#OBJECT_NAME}.
      *
-     * @param args The command line arguments.
+     * @param commandLine The command line arguments.
      * @throws IncorrectNumberOfNodesException if the number of arguments is incorrect.
+     * @throws UncheckedIOException            if the batch queries or a diagram file cannot be read or written.
      */
-    public static void main(final String[] args) {
+    public static void main(final String[] commandLine) {
+        final boolean offline = commandLine.length > 1 && MODELS_OPTION.equals(commandLine[0]);
+        final DirectoryModelSource modelSource = offline ? new DirectoryModelSource(Path.of(commandLine[1])) : null;
+        final String[] args = offline ? Arrays.copyOfRange(commandLine, 2, commandLine.length) : commandLine;
         final BpmnParser bpmnParser = new BpmnParser();
-        final Solution solution = new Solution(bpmnParser);
+        final boolean serverMode = args.length > 0 && SERVER_MODE_ARGUMENT.equals(args[0]);
+        // Server and batch modes only query the route graph, so they skip building the model instance
+        final boolean graphOnly = serverMode || args.length > 0 && BATCH_MODE_ARGUMENT.equals(args[0]);
+        // A server may persist its compiled graphs, so that restarts map them instead of parsing them again
+        final Path graphDirectory = serverMode && args.length > 2 ? Path.of(args[2]) : null;
+        final ParseMode parseMode = graphOnly ? ParseMode.STREAMING_GRAPH : ParseMode.MODEL_INSTANCE;
+        final Solution.Builder solutionBuilder = Solution.builder(bpmnParser)
+                .parseMode(parseMode)
+                .metricsRecorder(createMetricsRecorder(serverMode));
+        // The files of a model directory are read directly, so they replace the persisted graphs
+        final Solution solution = offline
+                ? solutionBuilder.modelSource(modelSource).build()
+                : solutionBuilder.graphDirectory(graphDirectory).build();
+
+        if (serverMode) {
+            final int port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SERVER_PORT;
+            final InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+            final RouteServer routeServer = new RouteServer(solution, solution::loadInvoiceModel, address);
+
+            Runtime.getRuntime().addShutdownHook(new Thread(routeServer::close));
+            routeServer.start();
+            if (modelSource != null) {
+                watchModels(modelSource, routeServer);
+            }
+            System.out.println("Route server listening on http://" + address.getHostString() + ":"
+                    + routeServer.getPort());
+            return;
+        }
+
+        if (args.length == 2 && BATCH_MODE_ARGUMENT.equals(args[0])) {
+            try (Reader queries = Files.newBufferedReader(Path.of(args[1]))) {
+                final Writer output = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+
+                solution.runBatch(queries, output);
+            } catch (final IOException e) {
+                throw new UncheckedIOException("Failed to read batch queries from " + args[1], e);
+            }
+            return;
+        }
+
+        if (args.length >= 3 && GENERATE_MODE_ARGUMENT.equals(args[0])) {
+            final long seed = args.length > 3 ? Long.parseLong(args[3]) : DEFAULT_SEED;
+
+            try {
+                new BpmnDiagramGenerator().write(DiagramSpec.parse(args[2], seed), Path.of(args[1]));
+            } catch (final IOException e) {
+                throw new UncheckedIOException("Failed to write diagram to " + args[1], e);
+            }
+            return;
+        }
+
+        if (args.length >= 2 && LOAD_MODE_ARGUMENT.equals(args[0])) {
+            final int threadCount = args.length > 2 ? Integer.parseInt(args[2])
+                    : Runtime.getRuntime().availableProcessors();
+            final int queryCount = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_LOAD_QUERY_COUNT;
+            final TraversalStrategy strategy = args.length > 4 ? TraversalStrategy.valueOf(args[4])
+                    : TraversalStrategy.DEPTH_FIRST;
+
+            try {
+                final LoadReport report = new LoadDriver(solution, threadCount)
+                        .run(Path.of(args[1]), queryCount, strategy, DEFAULT_SEED);
+
+                System.out.println(report + String.format(" queriesPerSecond=%.1f", report.queriesPerSecond()));
+            } catch (final IOException e) {
+                throw new UncheckedIOException("Failed to read diagram from " + args[1], e);
+            }
+            return;
+        }
 
         solution.run(args);
     }
 
+    /**
+     * Reloads the server's model whenever a diagram file of the model directory changes, be it the invoice diagram
+     * or a definition called by it.
+     *
+     * @param modelSource The directory model source.
+     * @param routeServer The running route server.
+     * @throws UncheckedIOException if the directory cannot be watched.
+     */
+    private static void watchModels(final DirectoryModelSource modelSource, final RouteServer routeServer) {
+        final ModelWatcher modelWatcher = new ModelWatcher(modelSource, routeServer::reload);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(modelWatcher::close));
+        modelWatcher.start();
+    }
+
+    /**
+     * Creates the metrics recorder of a run: JFR events, the registered service providers and, for a server, JMX.
+     *
+     * @param serverMode True if the application runs as a server.
+     * @return The metrics recorder.
+     * @throws IllegalStateException if the JMX registration fails.
+     */
+    private static MetricsRecorder createMetricsRecorder(final boolean serverMode) {
+        final List<MetricsRecorder> recorders = new ArrayList<>();
+        recorders.add(new JfrMetricsRecorder());
+        recorders.add(MetricsRecorder.load());
+
+        if (serverMode) {
+            final SolutionMetrics solutionMetrics = new SolutionMetrics();
+            solutionMetrics.registerPlatformMBean();
+            recorders.add(solutionMetrics);
+        }
+
+        return MetricsRecorder.of(recorders);
+    }
+
 }
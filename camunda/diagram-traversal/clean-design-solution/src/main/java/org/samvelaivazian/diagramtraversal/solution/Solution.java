@@ -1,39 +1,215 @@
 package org.samvelaivazian.diagramtraversal.solution;
 
-import org.camunda.bpm.model.bpmn.BpmnModelInstance;
-import org.camunda.bpm.model.bpmn.instance.FlowNode;
-import org.camunda.bpm.model.bpmn.instance.SequenceFlow;
+import org.samvelaivazian.diagramtraversal.solution.batch.BatchRouteFinder;
+import org.samvelaivazian.diagramtraversal.solution.batch.JsonLinesRouteWriter;
+import org.samvelaivazian.diagramtraversal.solution.batch.RouteQuery;
+import org.samvelaivazian.diagramtraversal.solution.cache.CacheStats;
+import org.samvelaivazian.diagramtraversal.solution.cache.CompiledModelKey;
+import org.samvelaivazian.diagramtraversal.solution.cache.ContentHashingReader;
+import org.samvelaivazian.diagramtraversal.solution.cache.LruCache;
+import org.samvelaivazian.diagramtraversal.solution.deployment.DeploymentIndex;
 import org.samvelaivazian.diagramtraversal.solution.exceptions.BuildRouteException;
+import org.samvelaivazian.diagramtraversal.solution.exceptions.FetchResponseDataException;
 import org.samvelaivazian.diagramtraversal.solution.exceptions.IncorrectNumberOfNodesException;
+import org.samvelaivazian.diagramtraversal.solution.exceptions.ParseBpmnModelException;
+import org.samvelaivazian.diagramtraversal.solution.graph.CompiledModel;
+import org.samvelaivazian.diagramtraversal.solution.graph.FlowNodeWeigher;
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraph;
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraphFile;
+import org.samvelaivazian.diagramtraversal.solution.metrics.CountingInputStream;
+import org.samvelaivazian.diagramtraversal.solution.metrics.MetricsRecorder;
+import org.samvelaivazian.diagramtraversal.solution.metrics.Stage;
 import org.samvelaivazian.diagramtraversal.solution.parsers.BpmnParser;
+import org.samvelaivazian.diagramtraversal.solution.parsers.ParseMode;
+import org.samvelaivazian.diagramtraversal.solution.parsers.StreamingBpmnGraphExtractor;
+import org.samvelaivazian.diagramtraversal.solution.sources.ModelSource;
+import org.samvelaivazian.diagramtraversal.solution.traversal.HierarchicalRouter;
+import org.samvelaivazian.diagramtraversal.solution.traversal.LandmarkHeuristic;
+import org.samvelaivazian.diagramtraversal.solution.traversal.ParallelBreadthFirstSearch;
+import org.samvelaivazian.diagramtraversal.solution.traversal.RouteEnumerator;
+import org.samvelaivazian.diagramtraversal.solution.traversal.RouteBuffer;
+import org.samvelaivazian.diagramtraversal.solution.traversal.RouteHeuristic;
+import org.samvelaivazian.diagramtraversal.solution.traversal.SearchTree;
+import org.samvelaivazian.diagramtraversal.solution.traversal.SearchWorkspacePool;
+import org.samvelaivazian.diagramtraversal.solution.traversal.TraversalContext;
+import org.samvelaivazian.diagramtraversal.solution.traversal.TraversalStrategy;
+import org.samvelaivazian.diagramtraversal.solution.utils.ConditionalResponse;
 import org.samvelaivazian.diagramtraversal.solution.utils.HttpUtils;
+import org.samvelaivazian.diagramtraversal.solution.utils.HttpValidators;
 
-import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.Deque;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Solution class for finding a path in a BPMN diagram from a start node to an end node.
  */
 public final class Solution {
 
+    /**
+     * The process definition key of the invoice approval diagram.
+     */
+    private static final String INVOICE_DEFINITION_KEY = "invoice";
+
+    /**
+     * The base URL of the engine-rest API serving the process definitions.
+     */
+    public static final String ENGINE_REST_URL =
+            "https://n35ro2ic4d.execute-api.eu-central-1.amazonaws.com/prod/engine-rest";
+
+    /**
+     * The engine-rest URL of the XML of a process definition, formatted with its definition key.
+     */
+    private static final String PROCESS_DEFINITION_XML_URL = ENGINE_REST_URL + "/process-definition/key/%s/xml";
+
+    /**
+     * The engine-rest URL of the invoice approval diagram.
+     */
+    private static final String INVOICE_XML_URL = PROCESS_DEFINITION_XML_URL.formatted(INVOICE_DEFINITION_KEY);
+
+    /**
+     * The default maximum weight of the compiled model cache, in graph elements (nodes plus edges).
+     */
+    private static final long DEFAULT_MODEL_CACHE_MAX_WEIGHT = 1_000_000;
+
+    /**
+     * The Camunda extension property holding the weight of a flow node, e.g. its expected duration.
+     */
+    private static final String WEIGHT_PROPERTY_NAME = "expectedDuration";
+
+    /**
+     * The weigher used when compiling models; nodes without the weight property count as one hop.
+     */
+    private static final FlowNodeWeigher FLOW_NODE_WEIGHER =
+            FlowNodeWeigher.extensionProperty(WEIGHT_PROPERTY_NAME, FlowNodeWeigher.DEFAULT_WEIGHT);
+
+    /**
+     * The file name suffix of persisted route graphs.
+     */
+    private static final String GRAPH_FILE_SUFFIX = ".graph";
+
+    /**
+     * The maximum number of idle search workspaces kept for reuse, enough for the searches running in parallel on a
+     * large machine.
+     */
+    private static final int MAX_IDLE_SEARCH_WORKSPACES = Math.max(16, 4 * Runtime.getRuntime().availableProcessors());
+
     /**
      * The BpmnParser instance used for parsing BPMN models.
      */
     private final BpmnParser bpmnParser;
 
     /**
-     * Constructor to initialize the Solution with a BpmnParser.
+     * The cache of compiled models, keyed by process definition key and content hash.
+     */
+    private final LruCache<CompiledModelKey, CompiledModel> modelCache;
+
+    /**
+     * How fetched BPMN XML is turned into a compiled model.
+     */
+    private final ParseMode parseMode;
+
+    /**
+     * The directory route graphs are persisted to in {@link ParseMode#STREAMING_GRAPH} mode, or null.
+     */
+    private final Path graphDirectory;
+
+    /**
+     * The recorder receiving the stage latencies, traversal statistics, cache lookups and bytes read.
+     */
+    private final MetricsRecorder metricsRecorder;
+
+    /**
+     * The source of all models, or null to fetch them from engine-rest with conditional requests.
+     */
+    private final ModelSource modelSource;
+
+    /**
+     * The streaming extractor used in {@link ParseMode#STREAMING_GRAPH} mode.
+     */
+    private final StreamingBpmnGraphExtractor graphExtractor =
+            new StreamingBpmnGraphExtractor(WEIGHT_PROPERTY_NAME, FlowNodeWeigher.DEFAULT_WEIGHT);
+
+    /**
+     * The validators and compiled model of the last loaded invoice diagram, or null before the first load.
+     */
+    private volatile ModelRevision invoiceModelRevision;
+
+    /**
+     * The validators and compiled model of every called process definition fetched from engine-rest, so that a
+     * called definition is fetched again with a conditional request once its summary was dropped.
+     */
+    private final Map<String, ModelRevision> calledModelRevisions = new ConcurrentHashMap<>();
+
+    /**
+     * The landmark heuristic of every route graph queried with A*, dropped together with the graph.
+     */
+    private final Map<RouteGraph, LandmarkHeuristic> landmarkHeuristics =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * The hierarchical router, resolving the definitions called by call activities through engine-rest; definitions
+     * that cannot be loaded are treated as unknown.
+     */
+    private final HierarchicalRouter hierarchicalRouter = new HierarchicalRouter(this::loadCalledProcessModel);
+
+    /**
+     * The working memory of the searches, borrowed around every search so that it is reused across threads, including
+     * the virtual thread per exchange of the route server.
+     */
+    private final SearchWorkspacePool searchWorkspaces = new SearchWorkspacePool(MAX_IDLE_SEARCH_WORKSPACES);
+
+    /**
+     * Constructor to initialize the Solution with a BpmnParser, a default compiled model cache and the default
+     * options, see {@link Builder}.
      *
      * @param bpmnParser The BpmnParser instance to use.
      */
     public Solution(BpmnParser bpmnParser) {
-        this.bpmnParser = bpmnParser;
+        this(builder(bpmnParser));
+    }
+
+    /**
+     * Constructor to initialize the Solution with the options collected by a builder.
+     *
+     * @param builder The builder, already validated.
+     */
+    private Solution(final Builder builder) {
+        this.bpmnParser = builder.bpmnParser;
+        this.modelCache = builder.modelCache != null ? builder.modelCache
+                : new LruCache<>(DEFAULT_MODEL_CACHE_MAX_WEIGHT, CompiledModel::weight);
+        this.parseMode = builder.parseMode;
+        this.graphDirectory = builder.graphDirectory;
+        this.metricsRecorder = builder.metricsRecorder != null ? builder.metricsRecorder : MetricsRecorder.load();
+        this.modelSource = builder.modelSource;
+    }
+
+    /**
+     * Returns a builder of a Solution using the given BpmnParser.
+     *
+     * @param bpmnParser The BpmnParser instance to use.
+     * @return The builder, with the default options.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public static Builder builder(final BpmnParser bpmnParser) {
+        return new Builder(bpmnParser);
     }
 
     /**
@@ -43,20 +219,46 @@ public final class Solution {
      * @throws BuildRouteException if no path is found from startNodeId to endNodeId.
      * @throws IncorrectNumberOfNodesException if the number of arguments is incorrect.
      * @complexity Time: O(V + E), where V is the number of vertices (nodes) and E is the number of edges.
-     *             Space: O(V), due to the stack, visited set, and path map which can store up to V nodes.
+     *             Space: O(V + E), due to the compiled graph and the search arrays.
      */
     public void run(final String[] nodeIds) {
         validateNumberOfProvidedNodes(nodeIds);
 
         final String startNodeId = nodeIds[0];
         final String endNodeId = nodeIds[1];
-        final String invoiceApprovalXML = fetchInvoiceApprovalXML();
-        final BpmnModelInstance bpmnModelInstance = bpmnParser.getBpmnModelFromXml(invoiceApprovalXML);
-        final List<String> route = buildRouteFromModelByStartAndEndNode(bpmnModelInstance, startNodeId, endNodeId);
+        final CompiledModel compiledModel = loadInvoiceModel();
+        final List<String> route = buildRouteFromModelByStartAndEndNode(compiledModel, startNodeId, endNodeId);
 
         printRoute(startNodeId, endNodeId, route);
     }
 
+    /**
+     * Batch execution method answering many route queries against one model.
+     * Every distinct start node is searched only once, and the results are streamed out as JSON Lines. A start node
+     * followed by {@value RouteQuery#ALL_END_EVENTS} is answered with a shortest route to every end event it reaches,
+     * found by a parallel BFS on one worker per available processor.
+     *
+     * @param queries The reader providing one start node followed by one or more end nodes per line.
+     * @param output  The writer receiving one JSON object per query.
+     * @throws IncorrectNumberOfNodesException if a query line does not contain at least two node IDs.
+     * @throws UncheckedIOException            if reading the queries or writing the results fails.
+     * @complexity Time: O(S * (V + E) + R * L), where S is the number of distinct start nodes, R the number of
+     *             results and L the average route length; searches for all end events are spread over the workers.
+     *             Space: O(V + E + Q), due to the compiled graph, one search tree and the queries.
+     */
+    public void runBatch(final Reader queries, final Writer output) {
+        try (ParallelBreadthFirstSearch search = new ParallelBreadthFirstSearch()) {
+            final List<RouteQuery> routeQueries = BatchRouteFinder.readQueries(queries);
+            final CompiledModel compiledModel = loadInvoiceModel();
+
+            new BatchRouteFinder().findRoutes(compiledModel.routeGraph(), routeQueries, search,
+                    new JsonLinesRouteWriter(output));
+            output.flush();
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Failed to run batch route queries", e);
+        }
+    }
+
     /**
      * Validates the number of provided node IDs.
      *
@@ -72,54 +274,542 @@ public final class Solution {
     }
 
     /**
-     * Fetches the BPMN XML from the remote server.
+     * Reads a fetched JSON response completely and returns the compiled model of the BPMN XML it contains.
+     *
+     * @param definitionKey The process definition key of the model.
+     * @param url           The engine-rest URL the response was fetched from.
+     * @param responseBody  The response body, which is closed.
+     * @return The compiled model.
+     * @throws ParseBpmnModelException if the response or the BPMN XML is malformed.
+     * @complexity Time: O(n) for reading and hashing the response of length n, plus O(n + V + E) on a cache miss.
+     *             Space: O(n), plus O(n + V + E) on a cache miss to store the parsed and compiled model.
+     */
+    private CompiledModel readCompiledModel(final String definitionKey, final String url,
+                                            final InputStream responseBody) {
+        try (InputStream body = responseBody) {
+            final long extractionStartNanos = System.nanoTime();
+            final String responseData = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+            final String bpmnXml = bpmnParser.getBpmn20XmlFromJson(responseData);
+            metricsRecorder.recordStage(Stage.JSON_EXTRACTION, System.nanoTime() - extractionStartNanos);
+
+            return getCompiledModel(definitionKey, bpmnXml);
+        } catch (final IOException e) {
+            throw new FetchResponseDataException("Failed to read response from " + url, e);
+        }
+    }
+
+    /**
+     * Streams a fetched JSON response straight into the graph extractor.
+     * <p>
+     * The response body is unescaped and hashed while the extractor reads it, so neither the JSON response nor
+     * the XML is ever held as a whole. An unchanged model is still extracted in full before it is answered with the
+     * cached instance, see {@link #extractCompiledModel(String, String, Reader)}.
      *
-     * @return BPMN XML as a String.
-     * @complexity Time: O(1) for creating and sending the HTTP request. The actual time depends on network latency.
-     *             Space: O(1), assuming constant space for the HTTP request and response.
+     * @param definitionKey The process definition key of the model.
+     * @param url           The engine-rest URL the response was fetched from.
+     * @param responseBody  The response body, which is closed.
+     * @return The compiled model.
+     * @throws ParseBpmnModelException if the response or the BPMN XML is malformed.
+     * @complexity Time: O(n + V + E), where n is the length of the response.
+     *             Space: O(V + E), to store the extracted graph, plus constant-size read buffers.
      */
-    private String fetchInvoiceApprovalXML() {
-        final String url = "https://n35ro2ic4d.execute-api.eu-central-1.amazonaws.com/prod/engine-rest/process-definition/key/invoice/xml";
-        final String responseData = HttpUtils.fetchResponse(url);
+    private CompiledModel streamCompiledModel(final String definitionKey, final String url,
+                                              final InputStream responseBody) {
+        final Reader jsonResponse = new InputStreamReader(responseBody, StandardCharsets.UTF_8);
 
-        return bpmnParser.getBpmn20XmlFromJson(responseData);
+        return extractCompiledModel(definitionKey, url, bpmnParser.getBpmn20XmlReaderFromJson(jsonResponse));
+    }
+
+    /**
+     * Streams BPMN XML into the graph extractor while hashing it, and returns the cached model of the same content
+     * if there is one.
+     * <p>
+     * The content hash is only known once the whole XML has been read, so the graph is extracted before the cache
+     * is consulted and a hit costs as much time as a miss. A hit only drops the freshly extracted graph in favour of
+     * the cached instance, so that no duplicate graph is retained and caches keyed by the graph keep their entries.
+     * Skipping unchanged content before parsing is left to the conditional fetch, see
+     * {@link #loadModelRevision(String, String, ModelRevision)}.
+     *
+     * @param definitionKey The process definition key of the model.
+     * @param origin        Where the XML is read from, for error messages.
+     * @param bpmnXmlReader The reader providing the BPMN XML, which is closed.
+     * @return The compiled model.
+     * @throws ParseBpmnModelException if reading fails or the BPMN XML is malformed.
+     * @complexity Time: O(n + V + E), where n is the length of the XML, on a hit as well as on a miss.
+     *             Space: O(V + E), to store the extracted graph, plus constant-size read buffers.
+     */
+    private CompiledModel extractCompiledModel(final String definitionKey, final String origin,
+                                               final Reader bpmnXmlReader) {
+        try (ContentHashingReader bpmnXml = new ContentHashingReader(bpmnXmlReader)) {
+            final long parseStartNanos = System.nanoTime();
+            final RouteGraph routeGraph = graphExtractor.extractRouteGraph(bpmnXml);
+            final CompiledModelKey modelKey = new CompiledModelKey(definitionKey, bpmnXml.finishContentVersion());
+            metricsRecorder.recordStage(Stage.XML_PARSE, System.nanoTime() - parseStartNanos);
+
+            return getCachedModel(modelKey, key -> CompiledModel.ofRouteGraph(routeGraph, key.contentVersion()));
+        } catch (final IOException e) {
+            throw new ParseBpmnModelException("Failed to stream BPMN XML from " + origin, e);
+        }
+    }
+
+    /**
+     * Loads a process definition from a model source and returns its compiled model.
+     * <p>
+     * Unchanged content is answered from the compiled model cache. For a model instance the XML is hashed before it
+     * is parsed, so reloading a source after a change only parses the definitions whose content actually changed.
+     * When streaming, the graph is extracted while the XML is hashed, so every load extracts it and a hit only saves
+     * retaining a duplicate graph.
+     *
+     * @param source        The model source.
+     * @param definitionKey The process definition key.
+     * @return The compiled model.
+     * @throws FetchResponseDataException if the source has no such definition or reading it fails.
+     * @throws ParseBpmnModelException    if the BPMN XML is malformed.
+     * @complexity Time: O(n + V + E) when streaming, for the XML of length n; for a model instance, O(n) for
+     *             reading and hashing the XML, plus O(n + V + E) on a cache miss.
+     *             Space: O(V + E) when streaming; O(n), plus O(n + V + E) on a cache miss, for a model instance.
+     */
+    public CompiledModel loadModel(final ModelSource source, final String definitionKey) {
+        final long fetchStartNanos = System.nanoTime();
+        final Reader bpmnXml;
+        try {
+            bpmnXml = source.openBpmnXml(definitionKey);
+        } catch (final IOException e) {
+            throw new FetchResponseDataException("Failed to load process definition '" + definitionKey + "' from "
+                    + source, e);
+        }
+        metricsRecorder.recordStage(Stage.FETCH, System.nanoTime() - fetchStartNanos);
+
+        if (parseMode == ParseMode.STREAMING_GRAPH) {
+            return extractCompiledModel(definitionKey, source.toString(), bpmnXml);
+        }
+
+        try (Reader reader = bpmnXml) {
+            final StringWriter xml = new StringWriter();
+            reader.transferTo(xml);
+
+            return getCompiledModel(definitionKey, xml.toString());
+        } catch (final IOException e) {
+            throw new FetchResponseDataException("Failed to load process definition '" + definitionKey + "' from "
+                    + source, e);
+        }
+    }
+
+    /**
+     * Fetches the invoice approval diagram and returns its compiled model.
+     * <p>
+     * The request is conditional on the ETag and Last-Modified date of the previous load, so an unchanged
+     * diagram is answered by the server with 304 and neither transferred nor parsed again. A changed body
+     * is parsed and compiled only if its content hash is not cached yet; when streaming, its graph is extracted while
+     * it is hashed, so only retaining a duplicate graph is saved. Before the first load, the previous
+     * load is the route graph persisted to the graph directory, if any. With a model source, the diagram is read from
+     * the source instead, see {@link #loadModel(ModelSource, String)}.
+     *
+     * @return The compiled invoice approval model.
+     * @throws ParseBpmnModelException if there is an error parsing the BPMN XML.
+     * @complexity Time: O(1) if unchanged; otherwise O(n + V + E) when streaming the fetched XML of length n, or
+     *             O(n) for hashing it, plus O(n + V + E) on a cache miss, for a model instance. The actual time also
+     *             depends on network latency.
+     *             Space: O(1) if unchanged; otherwise O(n), plus O(n + V + E) on a cache miss.
+     */
+    public CompiledModel loadInvoiceModel() {
+        if (modelSource != null) {
+            return loadModel(modelSource, INVOICE_DEFINITION_KEY);
+        }
+
+        final ModelRevision modelRevision =
+                loadModelRevision(INVOICE_DEFINITION_KEY, INVOICE_XML_URL, invoiceModelRevision);
+        invoiceModelRevision = modelRevision;
+
+        return modelRevision.compiledModel();
+    }
+
+    /**
+     * Fetches a process definition called by a call activity, or reads it from the model source, and returns its
+     * compiled model. The request is conditional on the revision fetched before, so unchanged definitions are
+     * answered with 304, from the persisted route graph or from the compiled model cache. A definition that cannot be
+     * fetched or parsed is reported as unknown, so that a hierarchical query treats the call activity as one that can
+     * complete instead of failing.
+     *
+     * @param processDefinitionKey The called process definition key.
+     * @return The compiled model of the called definition, or null if fetching or parsing it fails.
+     * @complexity Time: O(1) if unchanged; otherwise O(n + V + E) when streaming the fetched XML of length n, or
+     *             O(n) for hashing it, plus O(n + V + E) on a cache miss, for a model instance.
+     *             Space: O(1) if unchanged; otherwise O(n), plus O(n + V + E) on a cache miss.
+     */
+    private CompiledModel loadCalledProcessModel(final String processDefinitionKey) {
+        try {
+            if (modelSource != null) {
+                return loadModel(modelSource, processDefinitionKey);
+            }
+
+            final String url = PROCESS_DEFINITION_XML_URL.formatted(
+                    URLEncoder.encode(processDefinitionKey, StandardCharsets.UTF_8));
+            final ModelRevision modelRevision =
+                    loadModelRevision(processDefinitionKey, url, calledModelRevisions.get(processDefinitionKey));
+            calledModelRevisions.put(processDefinitionKey, modelRevision);
+
+            return modelRevision.compiledModel();
+        } catch (final FetchResponseDataException | ParseBpmnModelException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Drops the summaries of all called process definitions, so that the next hierarchical query passing a call
+     * activity resolves its definition again and picks up new versions. Unchanged definitions are answered with 304
+     * or from the compiled model cache, so resolving them again is cheap.
+     *
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public void clearCalledProcessSummaries() {
+        hierarchicalRouter.clearCalledProcessSummaries();
+    }
+
+    /**
+     * Refreshes changed process definitions: drops their cached compiled models and fetched revisions, and the
+     * summaries of called definitions, except those of the current content. With a model source, every changed
+     * definition is loaded again right away, so a definition whose content did not actually change keeps its
+     * summary and its compiled model; one that cannot be loaded loses both and is loaded again by the next query.
+     *
+     * @param definitionKeys The keys of the changed definitions.
+     * @complexity Time: O(k * (n + c)) for k definitions of XML length n and c cached models, plus O(n + V + E) for
+     *             every changed definition, or for every definition when streaming.
+     *             Space: O(V + E) for every changed definition.
+     */
+    public void refreshDefinitions(final Set<String> definitionKeys) {
+        for (final String definitionKey : definitionKeys) {
+            final String contentVersion = currentContentVersion(definitionKey);
+
+            modelCache.invalidateIf((modelKey, compiledModel) -> modelKey.definitionKey().equals(definitionKey)
+                    && !modelKey.contentVersion().equals(contentVersion));
+            calledModelRevisions.remove(definitionKey);
+            hierarchicalRouter.invalidateCalledProcess(definitionKey, contentVersion);
+        }
+    }
+
+    /**
+     * Loads a definition from the model source to learn its current content version.
+     *
+     * @param definitionKey The process definition key.
+     * @return The content version, or null without a model source or if the definition cannot be loaded.
+     * @complexity Time: the cost of {@link #loadModel(ModelSource, String)}.
+     *             Space: O(V + E) when streaming; O(n), plus O(n + V + E) on a cache miss, for a model instance.
+     */
+    private String currentContentVersion(final String definitionKey) {
+        if (modelSource == null) {
+            return null;
+        }
+
+        try {
+            return loadModel(modelSource, definitionKey).contentVersion();
+        } catch (final FetchResponseDataException | ParseBpmnModelException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Fetches a process definition unless it is unchanged since the given or the persisted revision, and returns
+     * its current revision.
+     *
+     * @param definitionKey    The process definition key.
+     * @param url              The engine-rest URL of the definition.
+     * @param previousRevision The revision loaded before, or null to fall back to the persisted route graph.
+     * @return The current revision.
+     * @throws FetchResponseDataException if fetching the definition fails.
+     * @throws ParseBpmnModelException    if there is an error parsing the BPMN XML.
+     * @complexity Time: O(1) plus mapping the persisted graph if unchanged; otherwise O(n + V + E) when streaming
+     *             the fetched XML of length n, or O(n) for hashing it, plus O(n + V + E) on a cache miss, for a model
+     *             instance.
+     *             Space: O(V + E) if unchanged; otherwise O(n), plus O(n + V + E) on a cache miss.
+     */
+    private ModelRevision loadModelRevision(final String definitionKey, final String url,
+                                            final ModelRevision previousRevision) {
+        final ModelRevision knownRevision = previousRevision != null ? previousRevision
+                : loadPersistedRevision(definitionKey);
+        final long fetchStartNanos = System.nanoTime();
+        final ConditionalResponse<InputStream> response = HttpUtils.fetchResponseStreamIfChanged(url,
+                knownRevision == null ? HttpValidators.NONE : knownRevision.validators());
+        metricsRecorder.recordStage(Stage.FETCH, System.nanoTime() - fetchStartNanos);
+
+        if (response.notModified() && knownRevision != null) {
+            return knownRevision;
+        }
+
+        final InputStream body = new CountingInputStream(response.body(), metricsRecorder);
+        final CompiledModel compiledModel = switch (parseMode) {
+            case MODEL_INSTANCE -> readCompiledModel(definitionKey, url, body);
+            case STREAMING_GRAPH -> streamCompiledModel(definitionKey, url, body);
+        };
+        final ModelRevision modelRevision = new ModelRevision(response.validators(), compiledModel);
+        persistRevision(definitionKey, modelRevision);
+
+        return modelRevision;
+    }
+
+    /**
+     * Loads the route graph persisted for a definition together with the ETag it was fetched with.
+     * Missing, outdated or corrupt files are ignored, so the definition is fetched again.
+     *
+     * @param definitionKey The process definition key.
+     * @return The persisted revision, or null if there is none or the parse mode needs a model instance.
+     * @complexity Time: O(V + E), bulk copies of the mapped file.
+     *             Space: O(V + E), to store the graph.
+     */
+    private ModelRevision loadPersistedRevision(final String definitionKey) {
+        if (graphDirectory == null || parseMode != ParseMode.STREAMING_GRAPH) {
+            return null;
+        }
+
+        final Path graphFile = graphFile(definitionKey);
+        if (!Files.isRegularFile(graphFile)) {
+            return null;
+        }
+
+        try {
+            final String eTag = RouteGraphFile.readSourceVersion(graphFile);
+            if (eTag == null) {
+                return null;
+            }
+
+            final CompiledModel compiledModel = CompiledModel.ofRouteGraph(RouteGraphFile.read(graphFile), eTag);
+            metricsRecorder.recordBytesRead(Files.size(graphFile));
+            return new ModelRevision(new HttpValidators(eTag, null), compiledModel);
+        } catch (final IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Persists the route graph of a revision fetched with an ETag, replacing the previous file of the definition.
+     * The file only saves a fetch after a restart, so a failed write is ignored rather than failing the query; the
+     * previous file, if any, is left in place and the definition is fetched in full after the next restart.
+     *
+     * @param definitionKey The process definition key.
+     * @param modelRevision The fetched revision.
+     * @complexity Time: O(V + E).
+     *             Space: O(1) besides the write buffer.
+     */
+    private void persistRevision(final String definitionKey, final ModelRevision modelRevision) {
+        if (graphDirectory == null || parseMode != ParseMode.STREAMING_GRAPH
+                || modelRevision.validators().eTag() == null) {
+            return;
+        }
+
+        try {
+            RouteGraphFile.write(modelRevision.compiledModel().routeGraph(), modelRevision.validators().eTag(),
+                    graphFile(definitionKey));
+        } catch (final IOException e) {
+            // The revision is served from memory anyway; only the shortcut after a restart is lost
+        }
+    }
+
+    /**
+     * Returns the file a definition's route graph is persisted to.
+     *
+     * @param definitionKey The process definition key.
+     * @return The file in the graph directory, named after the URL-encoded key.
+     * @complexity Time: O(k), where k is the length of the key.
+     *             Space: O(k).
+     */
+    private Path graphFile(final String definitionKey) {
+        return graphDirectory.resolve(URLEncoder.encode(definitionKey, StandardCharsets.UTF_8) + GRAPH_FILE_SUFFIX);
+    }
+
+    /**
+     * Returns the compiled model of the given BPMN XML, parsing and compiling it only on a cache miss.
+     * In {@link ParseMode#STREAMING_GRAPH} mode only the route graph is extracted and no model instance is built.
+     *
+     * @param definitionKey The process definition key of the model.
+     * @param bpmnXml       The BPMN 2.0 XML.
+     * @return The compiled model.
+     * @throws ParseBpmnModelException if there is an error parsing the BPMN XML.
+     * @complexity Time: O(n) on a hit, for hashing the XML of length n; O(n + V + E) on a miss.
+     *             Space: O(n) on a hit; O(n + V + E) on a miss, to store the parsed and compiled model.
+     */
+    private CompiledModel getCompiledModel(final String definitionKey, final String bpmnXml) {
+        final CompiledModelKey modelKey = CompiledModelKey.ofContent(definitionKey, bpmnXml);
+
+        return getCachedModel(modelKey, key -> {
+            final long parseStartNanos = System.nanoTime();
+            final CompiledModel compiledModel = switch (parseMode) {
+                case MODEL_INSTANCE -> CompiledModel.compile(bpmnParser.getBpmnModelFromXml(bpmnXml),
+                        FLOW_NODE_WEIGHER, key.contentVersion());
+                case STREAMING_GRAPH -> CompiledModel.ofRouteGraph(graphExtractor.extractRouteGraph(bpmnXml),
+                        key.contentVersion());
+            };
+            metricsRecorder.recordStage(Stage.XML_PARSE, System.nanoTime() - parseStartNanos);
+
+            return compiledModel;
+        });
+    }
+
+    /**
+     * Returns the cached compiled model for the key, loading it on a miss, and records whether this caller loaded it.
+     *
+     * @param modelKey The cache key.
+     * @param loader   The function loading the compiled model on a miss.
+     * @return The compiled model.
+     * @complexity Time: O(1) on a hit; the loader's cost on a miss.
+     *             Space: O(1), besides the loaded model.
+     */
+    private CompiledModel getCachedModel(final CompiledModelKey modelKey,
+                                         final Function<CompiledModelKey, CompiledModel> loader) {
+        final boolean[] loaded = new boolean[1];
+        final CompiledModel compiledModel = modelCache.get(modelKey, key -> {
+            loaded[0] = true;
+
+            return loader.apply(key);
+        });
+        metricsRecorder.recordModelCacheLookup(!loaded[0]);
+
+        return compiledModel;
+    }
+
+    /**
+     * Returns a snapshot of the statistics of the compiled model cache.
+     *
+     * @return The cache statistics.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public CacheStats getModelCacheStats() {
+        return modelCache.stats();
+    }
+
+    /**
+     * Returns the pool of the working memory of the searches, e.g. to check how often searches had to allocate it.
+     *
+     * @return The search workspace pool.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public SearchWorkspacePool getSearchWorkspaces() {
+        return searchWorkspaces;
     }
 
     /**
      * Builds the route from the start node to the end node in the BPMN model.
+     * <p>
+     * Both IDs are resolved through the node ID index of the compiled route graph instead of the model instance's
+     * DOM, which holds exactly the flow nodes; an unknown ID is rejected before any traversal.
      *
-     * @param bpmnModelInstance The BPMN model instance.
-     * @param startNodeId       ID of the start node.
-     * @param endNodeId         ID of the end node.
+     * @param compiledModel The parsed BPMN model and its compiled route graph.
+     * @param startNodeId   ID of the start node.
+     * @param endNodeId     ID of the end node.
      * @return List of node IDs representing the path from the start node to the end node.
-     * @throws BuildRouteException if no path is found from startNodeId to endNodeId.
+     * @throws BuildRouteException if either node does not exist or no path is found from startNodeId to endNodeId.
      * @complexity Time: O(V + E), where V is the number of vertices (nodes) and E is the number of edges.
-     *             Space: O(V), due to the stack, visited set, and path map which can store up to V nodes.
+     *             Space: O(V), due to the stack, visited and parent arrays.
      */
-    private List<String> buildRouteFromModelByStartAndEndNode(final BpmnModelInstance bpmnModelInstance,
+    private List<String> buildRouteFromModelByStartAndEndNode(final CompiledModel compiledModel,
                                                               final String startNodeId,
                                                               final String endNodeId) {
-        final FlowNode startNode = bpmnModelInstance.getModelElementById(startNodeId);
-        final FlowNode endNode = bpmnModelInstance.getModelElementById(endNodeId);
-        validateIfModelNodesExist(startNodeId, endNodeId, startNode, endNode);
+        return findRoute(compiledModel.routeGraph(), startNodeId, endNodeId);
+    }
+
+    /**
+     * Finds a route from the start node to the end node in an already compiled route graph.
+     * <p>
+     * Compiling a model once and querying the resulting graph many times avoids going through the
+     * Camunda model API on every query.
+     *
+     * @param routeGraph  The compiled route graph.
+     * @param startNodeId ID of the start node.
+     * @param endNodeId   ID of the end node.
+     * @return List of node IDs representing the path from the start node to the end node.
+     * @throws BuildRouteException if either node does not exist or no path is found.
+     * @complexity Time: O(V + E), where V is the number of vertices (nodes) and E is the number of edges.
+     *             Space: O(V), due to the stack, visited and parent arrays.
+     */
+    public List<String> findRoute(final RouteGraph routeGraph, final String startNodeId, final String endNodeId) {
+        return findRoute(routeGraph, startNodeId, endNodeId, TraversalStrategy.DEPTH_FIRST);
+    }
+
+    /**
+     * Finds a route from the start node to the end node in an already compiled route graph
+     * using the given traversal strategy.
+     *
+     * @param routeGraph  The compiled route graph.
+     * @param startNodeId ID of the start node.
+     * @param endNodeId   ID of the end node.
+     * @param strategy    The traversal strategy deciding which of several routes is returned.
+     * @return List of node IDs representing the path from the start node to the end node.
+     * @throws BuildRouteException if either node does not exist or no path is found.
+     * @complexity Time: O(V + E) for DFS and BFS, O((V + E) log V) for Dijkstra and A*.
+     *             Space: O(V), due to the search arrays.
+     */
+    public List<String> findRoute(final RouteGraph routeGraph, final String startNodeId, final String endNodeId,
+                                  final TraversalStrategy strategy) {
+        final int startNode = routeGraph.indexOf(startNodeId);
+        final int endNode = routeGraph.indexOf(endNodeId);
+        validateIfGraphNodesExist(startNodeId, endNodeId, startNode, endNode);
+
+        return buildRoute(routeGraph, startNode, endNode, strategy);
+    }
 
-        return buildRoute(startNode, endNode);
+    /**
+     * Finds a route from the start node to the end node in a version of a process definition of a deployment.
+     *
+     * @param deploymentIndex The index of the deployment.
+     * @param definitionKey   The process definition key.
+     * @param version         The version of the definition.
+     * @param startNodeId     ID of the start node.
+     * @param endNodeId       ID of the end node.
+     * @param strategy        The traversal strategy deciding which of several routes is returned.
+     * @return List of node IDs representing the path from the start node to the end node.
+     * @throws BuildRouteException if the definition, its version or either node does not exist, or no path is found.
+     * @complexity Time: O(log n) to look up the version among n, plus the cost of the strategy.
+     *             Space: O(V), due to the search arrays.
+     */
+    public List<String> findRoute(final DeploymentIndex deploymentIndex, final String definitionKey, final int version,
+                                  final String startNodeId, final String endNodeId,
+                                  final TraversalStrategy strategy) {
+        return findRoute(deploymentIndex.routeGraph(definitionKey, version), startNodeId, endNodeId, strategy);
     }
 
     /**
-     * Validates if the provided start and end nodes exist in the BPMN model.
+     * Enumerates lazily all routes from the start node to the end node in an already compiled route graph, following
+     * exclusive branches as alternatives and parallel branches as parts of the same route.
+     * <p>
+     * Routes are produced on demand, so {@code limit} yields the first K routes without materializing the others.
      *
+     * @param routeGraph  The compiled route graph.
      * @param startNodeId ID of the start node.
      * @param endNodeId   ID of the end node.
-     * @param startNode   The start node object.
-     * @param endNode     The end node object.
+     * @param maxLength   The maximum number of nodes of a route.
+     * @param maxVisits   The maximum number of times a node may be entered per route; 1 yields the simple routes.
+     * @return The stream of routes, each a list of node IDs.
+     * @throws BuildRouteException      if either node does not exist.
+     * @throws IllegalArgumentException if either bound is not positive.
+     * @complexity Time: O(V + E) until the first route is requested, then exponential in the number of exclusive
+     *             choices in the worst case, bounded by the maximum length.
+     *             Space: O(V), independent of the number of routes.
+     */
+    public Stream<List<String>> enumerateRoutes(final RouteGraph routeGraph, final String startNodeId,
+                                                final String endNodeId, final int maxLength, final int maxVisits) {
+        final int startNode = routeGraph.indexOf(startNodeId);
+        final int endNode = routeGraph.indexOf(endNodeId);
+        validateIfGraphNodesExist(startNodeId, endNodeId, startNode, endNode);
+
+        return RouteEnumerator.stream(routeGraph, startNode, endNode, maxLength, maxVisits);
+    }
+
+    /**
+     * Validates if the provided start and end nodes exist in the compiled route graph.
+     *
+     * @param startNodeId ID of the start node.
+     * @param endNodeId   ID of the end node.
+     * @param startNode   The node index of the start node, or -1.
+     * @param endNode     The node index of the end node, or -1.
      * @throws BuildRouteException if either the start node or the end node does not exist.
-     * @complexity Time: O(1), constant time to check if nodes are null.
+     * @complexity Time: O(1), constant time to check the indexes.
      *             Space: O(1), no additional space required.
      */
-    private void validateIfModelNodesExist(final String startNodeId, final String endNodeId,
-                                           final FlowNode startNode, final FlowNode endNode) {
-        if (startNode == null || endNode == null) {
+    private void validateIfGraphNodesExist(final String startNodeId, final String endNodeId,
+                                           final int startNode, final int endNode) {
+        if (startNode < 0 || endNode < 0) {
             throw new BuildRouteException("Failed to obtain FlowNode from startNodeId '" +
                     startNodeId + "' or/and " + "endNodeId '" + endNodeId + "'"
             );
@@ -127,71 +817,93 @@ public final class Solution {
     }
 
     /**
-     * Builds the route from the start node to the end node using an iterative DFS approach.
+     * Builds the route from the start node to the end node over the compiled route graph
+     * using the given traversal strategy.
+     * <p>
+     * The search runs in a workspace borrowed from the pool. DFS and BFS run in its {@link TraversalContext}, so they
+     * allocate nothing but the returned list once the workspace has searched a graph of the same size; the other
+     * strategies build a {@link SearchTree}.
      *
-     * @param startNode The start node.
-     * @param endNode   The end node.
+     * @param routeGraph The compiled route graph.
+     * @param startNode  The node index of the start node.
+     * @param endNode    The node index of the end node.
+     * @param strategy   The traversal strategy.
      * @return List of node IDs representing the path from the start node to the end node.
      * @throws BuildRouteException if no path is found from startNodeId to endNodeId.
-     * @complexity Time: O(V + E), where V is the number of vertices (nodes) and E is the number of edges.
-     *             Space: O(V), due to the stack, visited set, and path map which can store up to V nodes.
-     */
-    private List<String> buildRoute(final FlowNode startNode, final FlowNode endNode) {
-        // Initialize stack for DFS and map to track the path
-        final Deque<FlowNode> stack = new ArrayDeque<>();
-        final Map<FlowNode, FlowNode> pathMap = new HashMap<>();
-        final Set<String> visited = new HashSet<>();
-
-        // Push the start node onto the stack and mark it as visited
-        stack.push(startNode);
-        visited.add(startNode.getId());
-        pathMap.put(startNode, null);
-
-        // Perform iterative DFS
-        while (!stack.isEmpty()) {
-            final FlowNode currentNode = stack.pop();
-
-            // If the end node is found, reconstruct the path and return
-            if (currentNode.equals(endNode)) {
-                return reconstructPath(endNode, pathMap);
-            }
-
-            // Traverse all outgoing edges
-            for (SequenceFlow outgoing : currentNode.getOutgoing()) {
-                final FlowNode targetNode = outgoing.getTarget();
+     * @complexity Time: O(V + E) for DFS and BFS, O((V + E) log V) for Dijkstra and A*.
+     *             Space: O(L) for DFS and BFS once the context is large enough, where L is the length of the route;
+     *             O(V) otherwise, due to the search arrays which can store up to V nodes.
+     */
+    private List<String> buildRoute(final RouteGraph routeGraph, final int startNode, final int endNode,
+                                    final TraversalStrategy strategy) {
+        final long searchStartNanos = System.nanoTime();
+        final SearchWorkspacePool.Workspace workspace = searchWorkspaces.borrow();
+        try {
+            final RouteBuffer route = workspace.route();
+            final boolean found = switch (strategy) {
+                case DEPTH_FIRST, BREADTH_FIRST ->
+                        searchInContext(routeGraph, startNode, endNode, strategy, workspace.context(), route);
+                case BIDIRECTIONAL_BREADTH_FIRST ->
+                        writeTreeRoute(SearchTree.bidirectional(routeGraph, startNode, endNode), endNode, route);
+                case HIERARCHICAL -> writeTreeRoute(hierarchicalRouter.search(routeGraph, startNode, endNode),
+                        endNode, route);
+                case DIJKSTRA -> writeTreeRoute(SearchTree.cheapestFirst(routeGraph, startNode, endNode,
+                        RouteHeuristic.zero(), workspace.heap()), endNode, route);
+                case A_STAR -> writeTreeRoute(SearchTree.cheapestFirst(routeGraph, startNode, endNode,
+                        landmarkHeuristics.computeIfAbsent(routeGraph, LandmarkHeuristic::build), workspace.heap()),
+                        endNode, route);
+            };
+            metricsRecorder.recordStage(Stage.SEARCH, System.nanoTime() - searchStartNanos);
 
-                if (!visited.contains(targetNode.getId())) {
-                    stack.push(targetNode);
-                    visited.add(targetNode.getId());
-                    pathMap.put(targetNode, currentNode);
-                }
+            // If no path is found, throw an exception
+            if (!found) {
+                throw new BuildRouteException("Failed to build route from model");
             }
-        }
 
-        // If no path is found, throw an exception
-        throw new BuildRouteException("Failed to build route from model");
+            return route.toNodeIds(routeGraph);
+        } finally {
+            searchWorkspaces.release(workspace);
+        }
     }
 
     /**
-     * Reconstructs the path from the end node to the start node using the path map.
+     * Searches for a route with DFS or BFS in a borrowed traversal context.
      *
-     * @param endNode The end node.
-     * @param pathMap Map storing the path from each node to its predecessor.
-     * @return List of node IDs representing the path from the start node to the end node.
-     * @complexity Time: O(V), where V is the number of vertices (nodes), because we potentially visit each node once.
-     *             Space: O(V), due to the route list which stores up to V nodes.
+     * @param routeGraph The compiled route graph.
+     * @param startNode  The node index of the start node.
+     * @param endNode    The node index of the end node.
+     * @param strategy   {@link TraversalStrategy#DEPTH_FIRST} or {@link TraversalStrategy#BREADTH_FIRST}.
+     * @param context    The traversal context.
+     * @param route      The buffer receiving the route.
+     * @return True if the end node is reachable.
+     * @complexity Time: O(V + E).
+     *             Space: O(1) once the context and the buffer are large enough.
      */
-    private List<String> reconstructPath(final FlowNode endNode, final Map<FlowNode, FlowNode> pathMap) {
-        final List<String> route = new ArrayList<>();
-        FlowNode currentNode = endNode;
+    private boolean searchInContext(final RouteGraph routeGraph, final int startNode, final int endNode,
+                                    final TraversalStrategy strategy, final TraversalContext context,
+                                    final RouteBuffer route) {
+        final boolean found = strategy == TraversalStrategy.DEPTH_FIRST
+                ? context.depthFirst(routeGraph, startNode, endNode, route)
+                : context.breadthFirst(routeGraph, startNode, endNode, route);
+        metricsRecorder.recordTraversal(context.expandedNodeCount(), context.examinedEdgeCount());
 
-        // Backtrack from end node to start node using the path map
-        while (currentNode != null) {
-            route.addFirst(currentNode.getId());
-            currentNode = pathMap.get(currentNode);
-        }
+        return found;
+    }
+
+    /**
+     * Writes the route to the end node of a finished search into the buffer.
+     *
+     * @param searchTree The search tree.
+     * @param endNode    The node index of the end node.
+     * @param route      The buffer receiving the route.
+     * @return True if the end node is reachable.
+     * @complexity Time: O(L), where L is the length of the route.
+     *             Space: O(1) once the buffer is large enough.
+     */
+    private boolean writeTreeRoute(final SearchTree searchTree, final int endNode, final RouteBuffer route) {
+        metricsRecorder.recordTraversal(searchTree.expandedNodeCount(), searchTree.examinedEdgeCount());
 
-        return route;
+        return searchTree.writeRouteTo(endNode, route);
     }
 
     /**
@@ -207,4 +919,163 @@ public final class Solution {
         System.out.println("The path from " + startNodeId + " to " + endNodeId + " is: " + route);
     }
 
+    /**
+     * A loaded model together with the HTTP validators of the response it was loaded from.
+     *
+     * @param validators    The validators to revalidate the model with.
+     * @param compiledModel The compiled model.
+     */
+    private record ModelRevision(HttpValidators validators, CompiledModel compiledModel) {
+    }
+
+    /**
+     * Builder of a {@link Solution}, rejecting combinations of options that contradict each other.
+     * <p>
+     * By default, models are fetched from engine-rest with conditional requests, parsed into a model instance, kept
+     * in a compiled model cache of its own and measured by the recorders registered as service providers, see
+     * {@link MetricsRecorder#load()}.
+     */
+    public static final class Builder {
+
+        /**
+         * The BpmnParser instance to use.
+         */
+        private final BpmnParser bpmnParser;
+
+        /**
+         * The cache of compiled models, or null for a cache of the default weight.
+         */
+        private LruCache<CompiledModelKey, CompiledModel> modelCache;
+
+        /**
+         * How loaded BPMN XML is turned into a compiled model.
+         */
+        private ParseMode parseMode = ParseMode.MODEL_INSTANCE;
+
+        /**
+         * The directory to persist route graphs to, or null.
+         */
+        private Path graphDirectory;
+
+        /**
+         * The recorder receiving the measurements, or null for the registered recorders.
+         */
+        private MetricsRecorder metricsRecorder;
+
+        /**
+         * The source of all models, or null to fetch them from engine-rest.
+         */
+        private ModelSource modelSource;
+
+        /**
+         * Constructor to initialize the Builder.
+         *
+         * @param bpmnParser The BpmnParser instance to use.
+         */
+        private Builder(final BpmnParser bpmnParser) {
+            this.bpmnParser = bpmnParser;
+        }
+
+        /**
+         * Sets the compiled model cache, e.g. to share it between solutions or to bound it differently.
+         *
+         * @param modelCache The cache of compiled models to use.
+         * @return This builder.
+         * @complexity Time: O(1).
+         *             Space: O(1).
+         */
+        public Builder modelCache(final LruCache<CompiledModelKey, CompiledModel> modelCache) {
+            this.modelCache = modelCache;
+            return this;
+        }
+
+        /**
+         * Sets how loaded BPMN XML is turned into a compiled model.
+         *
+         * @param parseMode The parse mode; {@link ParseMode#MODEL_INSTANCE} by default.
+         * @return This builder.
+         * @complexity Time: O(1).
+         *             Space: O(1).
+         */
+        public Builder parseMode(final ParseMode parseMode) {
+            this.parseMode = parseMode;
+            return this;
+        }
+
+        /**
+         * Sets the directory persisting the compiled route graphs across restarts.
+         * <p>
+         * Every fetched definition with an ETag is written to the directory as a {@link RouteGraphFile}. After a
+         * restart the stored graph is revalidated with its ETag and, if the definition is unchanged, memory-mapped
+         * instead of fetched and parsed again. Only route graphs are persisted, so this requires
+         * {@link ParseMode#STREAMING_GRAPH} and models fetched from engine-rest.
+         *
+         * @param graphDirectory The existing directory to persist route graphs to, or null to keep them in memory
+         *                       only.
+         * @return This builder.
+         * @complexity Time: O(1).
+         *             Space: O(1).
+         */
+        public Builder graphDirectory(final Path graphDirectory) {
+            this.graphDirectory = graphDirectory;
+            return this;
+        }
+
+        /**
+         * Sets the recorder receiving the latency of every fetch, JSON extraction, XML parse and search, the nodes
+         * and edges every search visited, every compiled model cache lookup and the bytes read.
+         *
+         * @param metricsRecorder The recorder; the recorders registered as service providers by default.
+         * @return This builder.
+         * @complexity Time: O(1).
+         *             Space: O(1).
+         */
+        public Builder metricsRecorder(final MetricsRecorder metricsRecorder) {
+            this.metricsRecorder = metricsRecorder;
+            return this;
+        }
+
+        /**
+         * Sets the source of the invoice approval diagram and of every called definition, such as a directory of
+         * BPMN files for deployments that cannot reach engine-rest.
+         *
+         * @param modelSource The source of all models, or null to fetch them from engine-rest.
+         * @return This builder.
+         * @complexity Time: O(1).
+         *             Space: O(1).
+         */
+        public Builder modelSource(final ModelSource modelSource) {
+            this.modelSource = modelSource;
+            return this;
+        }
+
+        /**
+         * Builds the Solution.
+         *
+         * @return The Solution.
+         * @throws IllegalArgumentException if the parser or the parse mode is missing.
+         * @throws IllegalStateException    if a graph directory is combined with a model source, whose definitions
+         *                                  are read directly, or with {@link ParseMode#MODEL_INSTANCE}, which
+         *                                  needs the model instance a route graph file does not hold.
+         * @complexity Time: O(1).
+         *             Space: O(1).
+         */
+        public Solution build() {
+            if (bpmnParser == null || parseMode == null) {
+                throw new IllegalArgumentException("A BpmnParser and a parse mode are required");
+            }
+            if (graphDirectory != null && modelSource != null) {
+                throw new IllegalStateException("A graph directory cannot be combined with a model source: "
+                        + graphDirectory);
+            }
+            if (graphDirectory != null && parseMode != ParseMode.STREAMING_GRAPH) {
+                throw new IllegalStateException("A graph directory requires " + ParseMode.STREAMING_GRAPH
+                        + " mode: " + graphDirectory);
+            }
+
+            return new Solution(this);
+        }
+
+    }
+
 }
@@ -0,0 +1,246 @@
+package org.samvelaivazian.diagramtraversal.solution.batch;
+
+import org.samvelaivazian.diagramtraversal.solution.exceptions.BuildRouteException;
+import org.samvelaivazian.diagramtraversal.solution.exceptions.IncorrectNumberOfNodesException;
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraph;
+import org.samvelaivazian.diagramtraversal.solution.traversal.ParallelBreadthFirstSearch;
+import org.samvelaivazian.diagramtraversal.solution.traversal.SearchTree;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Answers many route queries against one compiled route graph, sharing the traversal work.
+ * <p>
+ * Queries are grouped by start node and every distinct start node is searched only once, to completion;
+ * all targets of the group are then read off the resulting {@link SearchTree}. Because the tree is built with
+ * the same DFS as single queries, every route equals the one {@code Solution.findRoute} returns. Queries for all
+ * end events of a start node are answered with one parallel BFS instead, see
+ * {@link #findRoutesToEndEvents(RouteGraph, String, ParallelBreadthFirstSearch, Consumer)}.
+ */
+public final class BatchRouteFinder {
+
+    /**
+     * The error reported for unknown start or end nodes, matching {@code Solution}.
+     */
+    private static final String UNKNOWN_NODE_ERROR = "Failed to obtain FlowNode from startNodeId '%s' or/and endNodeId '%s'";
+
+    /**
+     * The error reported for unreachable end nodes, matching {@code Solution}.
+     */
+    private static final String NO_ROUTE_ERROR = "Failed to build route from model";
+
+    /**
+     * Answers all queries and streams the results to the consumer as soon as each start node is searched.
+     * Results are grouped by start node, in order of the first query of each start node.
+     *
+     * @param routeGraph The compiled route graph.
+     * @param queries    The route queries.
+     * @param results    The consumer receiving one result per query.
+     * @complexity Time: O(S * (V + E) + Q * L), where S is the number of distinct start nodes, Q the number of
+     *             queries and L the average route length.
+     *             Space: O(V + Q), due to one search tree at a time and the grouped queries.
+     */
+    public void findRoutes(final RouteGraph routeGraph, final Iterable<RouteQuery> queries,
+                           final Consumer<RouteResult> results) {
+        final Map<Integer, List<RouteQuery>> queriesByStartNode = new LinkedHashMap<>();
+
+        // Group the queries by start node, rejecting unknown start nodes right away
+        for (final RouteQuery query : queries) {
+            final int startNode = routeGraph.indexOf(query.startNodeId());
+
+            if (startNode < 0) {
+                results.accept(unknownNodeResult(query));
+            } else {
+                queriesByStartNode.computeIfAbsent(startNode, ignored -> new ArrayList<>()).add(query);
+            }
+        }
+
+        // Search once per distinct start node and answer every query of the group from the tree
+        for (final Map.Entry<Integer, List<RouteQuery>> group : queriesByStartNode.entrySet()) {
+            final SearchTree searchTree = SearchTree.depthFirst(routeGraph, group.getKey(), SearchTree.NO_STOP_NODE);
+
+            for (final RouteQuery query : group.getValue()) {
+                results.accept(resolve(routeGraph, searchTree, query));
+            }
+        }
+    }
+
+    /**
+     * Answers all queries like {@link #findRoutes(RouteGraph, Iterable, Consumer)}, except that queries for
+     * {@link RouteQuery#ALL_END_EVENTS} are answered with the parallel search after all other queries, once per
+     * distinct start node and in order of their first query.
+     *
+     * @param routeGraph The compiled route graph.
+     * @param queries    The route queries.
+     * @param search     The parallel search, whose pool may be shared by many calls.
+     * @param results    The consumer receiving one result per query, or per reachable end event of an end event
+     *                   query.
+     * @complexity Time: O(S * (V + E) + A * ((V + E) / P + V) + R * L) on P workers, where S is the number of
+     *             distinct start nodes of the other queries, A that of the end event queries, R the number of
+     *             results and L the average route length.
+     *             Space: O(V + Q), due to one search tree at a time and the grouped queries.
+     */
+    public void findRoutes(final RouteGraph routeGraph, final Iterable<RouteQuery> queries,
+                           final ParallelBreadthFirstSearch search, final Consumer<RouteResult> results) {
+        final List<RouteQuery> nodeQueries = new ArrayList<>();
+        final Set<String> endEventStartNodeIds = new LinkedHashSet<>();
+
+        for (final RouteQuery query : queries) {
+            if (query.isAllEndEvents()) {
+                endEventStartNodeIds.add(query.startNodeId());
+            } else {
+                nodeQueries.add(query);
+            }
+        }
+
+        findRoutes(routeGraph, nodeQueries, results);
+
+        for (final String startNodeId : endEventStartNodeIds) {
+            if (routeGraph.indexOf(startNodeId) < 0) {
+                results.accept(unknownNodeResult(new RouteQuery(startNodeId, RouteQuery.ALL_END_EVENTS)));
+            } else {
+                findRoutesToEndEvents(routeGraph, startNodeId, search, results);
+            }
+        }
+    }
+
+    /**
+     * Answers the routes from a single start node to many end nodes with one search.
+     *
+     * @param routeGraph  The compiled route graph.
+     * @param startNodeId ID of the start node.
+     * @param endNodeIds  IDs of the end nodes.
+     * @param results     The consumer receiving one result per end node, in the given order.
+     * @complexity Time: O(V + E + T * L), where T is the number of end nodes and L the average route length.
+     *             Space: O(V), due to the search tree.
+     */
+    public void findRoutesFromSource(final RouteGraph routeGraph, final String startNodeId,
+                                     final Collection<String> endNodeIds, final Consumer<RouteResult> results) {
+        final List<RouteQuery> queries = new ArrayList<>(endNodeIds.size());
+        for (final String endNodeId : endNodeIds) {
+            queries.add(new RouteQuery(startNodeId, endNodeId));
+        }
+
+        findRoutes(routeGraph, queries, results);
+    }
+
+    /**
+     * Answers the routes from a single start node to every reachable end event, i.e. every node without outgoing
+     * edges, with one parallel search. Meant for impact analysis over large graphs, where the one-to-all search
+     * dominates and the sequential DFS leaves most cores idle.
+     * <p>
+     * Unlike the other queries, every route has the fewest hops rather than being the route a DFS finds first.
+     *
+     * @param routeGraph  The compiled route graph.
+     * @param startNodeId ID of the start node.
+     * @param search      The parallel search, whose pool may be shared by many calls.
+     * @param results     The consumer receiving one result per reachable end event, in node index order.
+     * @throws BuildRouteException if the start node does not exist.
+     * @complexity Time: O((V + E) / P + V + T * L) on P workers, where T is the number of reachable end events
+     *             and L the average route length.
+     *             Space: O(V), due to the search tree.
+     */
+    public void findRoutesToEndEvents(final RouteGraph routeGraph, final String startNodeId,
+                                      final ParallelBreadthFirstSearch search, final Consumer<RouteResult> results) {
+        final int startNode = routeGraph.indexOf(startNodeId);
+        if (startNode < 0) {
+            throw new BuildRouteException("Failed to obtain FlowNode from startNodeId '" + startNodeId + "'");
+        }
+
+        final SearchTree searchTree = search.search(routeGraph, startNode);
+
+        // End events are the reachable nodes without outgoing edges
+        for (int node = 0; node < routeGraph.nodeCount(); node++) {
+            if (routeGraph.edgesStart(node) == routeGraph.edgesEnd(node) && searchTree.reaches(node)) {
+                results.accept(RouteResult.found(new RouteQuery(startNodeId, routeGraph.nodeId(node)),
+                        searchTree.routeTo(node)));
+            }
+        }
+    }
+
+    /**
+     * Reads route queries, one start node followed by one or more end nodes per line.
+     * Tokens are separated by whitespace or commas; blank lines and lines starting with '#' are skipped.
+     * The end node {@value RouteQuery#ALL_END_EVENTS} asks for the routes to every reachable end event.
+     *
+     * @param reader The reader providing the query lines.
+     * @return The route queries, one per start and end node pair.
+     * @throws IncorrectNumberOfNodesException if a line does not contain at least two node IDs.
+     * @throws IOException                     if reading fails.
+     * @complexity Time: O(c), where c is the number of characters read.
+     *             Space: O(Q), for the parsed queries.
+     */
+    public static List<RouteQuery> readQueries(final Reader reader) throws IOException {
+        final List<RouteQuery> queries = new ArrayList<>();
+        final BufferedReader bufferedReader = new BufferedReader(reader);
+        String line;
+        int lineNumber = 0;
+
+        while ((line = bufferedReader.readLine()) != null) {
+            lineNumber++;
+            final String trimmedLine = line.strip();
+
+            if (trimmedLine.isEmpty() || trimmedLine.startsWith("#")) {
+                continue;
+            }
+
+            final String[] nodeIds = trimmedLine.split("[\\s,]+");
+            if (nodeIds.length < 2) {
+                throw new IncorrectNumberOfNodesException("Must meet the requirement -> '<startNodeId> <endNodeId>...' " +
+                        "on line " + lineNumber + ": " + line);
+            }
+
+            for (int i = 1; i < nodeIds.length; i++) {
+                queries.add(new RouteQuery(nodeIds[0], nodeIds[i]));
+            }
+        }
+
+        return queries;
+    }
+
+    /**
+     * Resolves a single query from the search tree of its start node.
+     *
+     * @param routeGraph The compiled route graph.
+     * @param searchTree The search tree of the query's start node.
+     * @param query      The route query.
+     * @return The route result.
+     * @complexity Time: O(L), where L is the length of the route.
+     *             Space: O(L), due to the route list.
+     */
+    private RouteResult resolve(final RouteGraph routeGraph, final SearchTree searchTree, final RouteQuery query) {
+        final int endNode = routeGraph.indexOf(query.endNodeId());
+
+        if (endNode < 0) {
+            return unknownNodeResult(query);
+        }
+        if (!searchTree.reaches(endNode)) {
+            return RouteResult.failed(query, NO_ROUTE_ERROR);
+        }
+
+        return RouteResult.found(query, searchTree.routeTo(endNode));
+    }
+
+    /**
+     * Creates the result of a query with an unknown start or end node.
+     *
+     * @param query The route query.
+     * @return The route result.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    private RouteResult unknownNodeResult(final RouteQuery query) {
+        return RouteResult.failed(query, UNKNOWN_NODE_ERROR.formatted(query.startNodeId(), query.endNodeId()));
+    }
+
+}
@@ -0,0 +1,60 @@
+package org.samvelaivazian.diagramtraversal.solution.batch;
+
+import org.camunda.bpm.engine.impl.util.json.JSONObject;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.function.Consumer;
+
+/**
+ * Writes route results as JSON Lines, one JSON object per result.
+ * <p>
+ * Found routes are written as {@code {"start":...,"end":...,"route":[...]}} and missing routes as
+ * {@code {"start":...,"end":...,"error":"..."}}.
+ */
+public final class JsonLinesRouteWriter implements Consumer<RouteResult> {
+
+    /**
+     * The writer receiving the lines.
+     */
+    private final Writer writer;
+
+    /**
+     * Constructor to initialize the JsonLinesRouteWriter with its target writer.
+     *
+     * @param writer The writer receiving the lines; callers should buffer it.
+     */
+    public JsonLinesRouteWriter(final Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Writes one result as a single line.
+     *
+     * @param routeResult The route result.
+     * @throws UncheckedIOException if writing fails.
+     * @complexity Time: O(L), where L is the length of the route.
+     *             Space: O(L), for the encoded line.
+     */
+    @Override
+    public void accept(final RouteResult routeResult) {
+        final JSONObject line = new JSONObject()
+                .put("start", routeResult.startNodeId())
+                .put("end", routeResult.endNodeId());
+
+        if (routeResult.route() != null) {
+            line.put("route", routeResult.route());
+        } else {
+            line.put("error", routeResult.error());
+        }
+
+        try {
+            writer.write(line.toString());
+            writer.write('\n');
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Failed to write route result", e);
+        }
+    }
+
+}
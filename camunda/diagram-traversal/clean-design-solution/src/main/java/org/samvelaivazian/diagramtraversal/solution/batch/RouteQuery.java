@@ -0,0 +1,27 @@
+package org.samvelaivazian.diagramtraversal.solution.batch;
+
+/**
+ * A single route query between two flow nodes.
+ *
+ * @param startNodeId ID of the start node.
+ * @param endNodeId   ID of the end node, or {@link #ALL_END_EVENTS} for the routes to every reachable end event.
+ */
+public record RouteQuery(String startNodeId, String endNodeId) {
+
+    /**
+     * The end node ID querying the routes from the start node to every reachable end event.
+     */
+    public static final String ALL_END_EVENTS = "*";
+
+    /**
+     * Returns whether this query asks for the routes to every reachable end event.
+     *
+     * @return True if the end node ID is {@link #ALL_END_EVENTS}.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public boolean isAllEndEvents() {
+        return ALL_END_EVENTS.equals(endNodeId);
+    }
+
+}
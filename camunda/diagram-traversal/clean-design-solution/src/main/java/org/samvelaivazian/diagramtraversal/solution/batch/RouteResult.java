@@ -0,0 +1,41 @@
+package org.samvelaivazian.diagramtraversal.solution.batch;
+
+import java.util.List;
+
+/**
+ * The answer to a single route query: either a route or the reason why there is none.
+ *
+ * @param startNodeId ID of the start node.
+ * @param endNodeId   ID of the end node.
+ * @param route       List of node IDs representing the path, or {@code null} if there is none.
+ * @param error       The reason why there is no route, or {@code null} if there is one.
+ */
+public record RouteResult(String startNodeId, String endNodeId, List<String> route, String error) {
+
+    /**
+     * Creates the result of a query that has a route.
+     *
+     * @param query The route query.
+     * @param route List of node IDs representing the path.
+     * @return The route result.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public static RouteResult found(final RouteQuery query, final List<String> route) {
+        return new RouteResult(query.startNodeId(), query.endNodeId(), route, null);
+    }
+
+    /**
+     * Creates the result of a query that has no route.
+     *
+     * @param query The route query.
+     * @param error The reason why there is no route.
+     * @return The route result.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public static RouteResult failed(final RouteQuery query, final String error) {
+        return new RouteResult(query.startNodeId(), query.endNodeId(), null, error);
+    }
+
+}
@@ -0,0 +1,28 @@
+package org.samvelaivazian.diagramtraversal.solution.cache;
+
+/**
+ * Snapshot of the statistics of a cache.
+ *
+ * @param hitCount      The number of lookups served from the cache.
+ * @param missCount     The number of lookups not served from the cache.
+ * @param loadCount     The number of loader invocations.
+ * @param evictionCount The number of values evicted to stay within the bound.
+ * @param size          The number of cached values.
+ * @param weight        The total weight of all cached values.
+ */
+public record CacheStats(long hitCount, long missCount, long loadCount, long evictionCount, long size, long weight) {
+
+    /**
+     * Returns the ratio of lookups served from the cache.
+     *
+     * @return The hit ratio between 0 and 1, or 0 if there were no lookups.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public double hitRatio() {
+        final long requestCount = hitCount + missCount;
+
+        return requestCount == 0 ? 0 : (double) hitCount / requestCount;
+    }
+
+}
@@ -0,0 +1,62 @@
+package org.samvelaivazian.diagramtraversal.solution.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Cache key of a compiled model: the process definition key plus a version of its content.
+ *
+ * @param definitionKey  The process definition key, e.g. {@code invoice}.
+ * @param contentVersion A content hash or ETag identifying the exact BPMN content.
+ */
+public record CompiledModelKey(String definitionKey, String contentVersion) {
+
+    /**
+     * The digest algorithm used for content hashes.
+     */
+    private static final String CONTENT_HASH_ALGORITHM = "SHA-256";
+
+    /**
+     * Creates a key whose version is the content hash of the given BPMN XML.
+     *
+     * @param definitionKey The process definition key.
+     * @param bpmnXml       The BPMN 2.0 XML.
+     * @return The cache key.
+     * @complexity Time: O(n), where n is the length of the XML.
+     *             Space: O(n), for the encoded bytes of the XML.
+     */
+    public static CompiledModelKey ofContent(final String definitionKey, final String bpmnXml) {
+        return new CompiledModelKey(definitionKey, contentHash(bpmnXml));
+    }
+
+    /**
+     * Computes the hex-encoded SHA-256 hash of the given content.
+     *
+     * @param content The content.
+     * @return The content hash.
+     * @complexity Time: O(n), where n is the length of the content.
+     *             Space: O(n), for the encoded bytes of the content.
+     */
+    private static String contentHash(final String content) {
+        return HexFormat.of().formatHex(newContentDigest().digest(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Creates the digest computing content hashes over the UTF-8 encoding of the content,
+     * shared with {@link ContentHashingReader} so that both produce the same versions.
+     *
+     * @return A new SHA-256 message digest.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    static MessageDigest newContentDigest() {
+        try {
+            return MessageDigest.getInstance(CONTENT_HASH_ALGORITHM);
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(CONTENT_HASH_ALGORITHM + " is not supported by this JVM", e);
+        }
+    }
+
+}
@@ -0,0 +1,202 @@
+package org.samvelaivazian.diagramtraversal.solution.cache;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+/**
+ * Reader that computes the content hash of everything read through it, so a streamed model can be keyed
+ * exactly like {@link CompiledModelKey#ofContent(String, String)} without materializing the content.
+ * <p>
+ * Characters are encoded to UTF-8 on the fly through a small fixed buffer; unpaired surrogates hash as
+ * {@code '?'}, matching {@link String#getBytes(java.nio.charset.Charset)}. Instances are not thread-safe.
+ */
+public final class ContentHashingReader extends FilterReader {
+
+    /**
+     * The size of the buffer holding encoded bytes before they are digested.
+     */
+    private static final int BYTE_BUFFER_SIZE = 4096;
+
+    /**
+     * The replacement byte for unpaired surrogates.
+     */
+    private static final byte REPLACEMENT_BYTE = '?';
+
+    /**
+     * Marker for the absence of a pending high surrogate.
+     */
+    private static final char NO_HIGH_SURROGATE = 0;
+
+    /**
+     * The digest receiving the encoded content.
+     */
+    private final MessageDigest digest = CompiledModelKey.newContentDigest();
+
+    /**
+     * The encoded bytes not yet digested.
+     */
+    private final byte[] bytes = new byte[BYTE_BUFFER_SIZE];
+
+    /**
+     * The number of bytes in {@link #bytes}.
+     */
+    private int byteCount;
+
+    /**
+     * A high surrogate waiting for its low surrogate, which may arrive with the next read.
+     */
+    private char pendingHighSurrogate = NO_HIGH_SURROGATE;
+
+    /**
+     * Constructor to initialize the ContentHashingReader over the given reader.
+     *
+     * @param content The reader providing the content.
+     */
+    public ContentHashingReader(final Reader content) {
+        super(content);
+    }
+
+    /**
+     * Reads a single character and adds it to the hash.
+     *
+     * @return The character, or -1 at the end of the content.
+     * @throws IOException if the underlying reader fails.
+     * @complexity Time: O(1) amortized.
+     *             Space: O(1).
+     */
+    @Override
+    public int read() throws IOException {
+        final int character = in.read();
+
+        if (character >= 0) {
+            encode((char) character);
+        }
+
+        return character;
+    }
+
+    /**
+     * Reads characters into a portion of an array and adds them to the hash.
+     *
+     * @param buffer The destination buffer.
+     * @param offset The offset at which to start storing characters.
+     * @param length The maximum number of characters to read.
+     * @return The number of characters read, or -1 at the end of the content.
+     * @throws IOException if the underlying reader fails.
+     * @complexity Time: O(length).
+     *             Space: O(1).
+     */
+    @Override
+    public int read(final char[] buffer, final int offset, final int length) throws IOException {
+        final int count = in.read(buffer, offset, length);
+
+        for (int i = 0; i < count; i++) {
+            encode(buffer[offset + i]);
+        }
+
+        return count;
+    }
+
+    /**
+     * Skipping would leave characters out of the hash, so it reads through them instead.
+     *
+     * @param count The number of characters to skip.
+     * @return The number of characters skipped.
+     * @throws IOException if the underlying reader fails.
+     * @complexity Time: O(count).
+     *             Space: O(1).
+     */
+    @Override
+    public long skip(final long count) throws IOException {
+        long skipped = 0;
+        while (skipped < count && read() >= 0) {
+            skipped++;
+        }
+
+        return skipped;
+    }
+
+    /**
+     * Reads the rest of the content and returns the content version of everything read.
+     *
+     * @return The hex-encoded SHA-256 hash, as used by {@link CompiledModelKey}.
+     * @throws IOException if the underlying reader fails.
+     * @complexity Time: O(r), where r is the number of characters not read yet.
+     *             Space: O(1).
+     */
+    public String finishContentVersion() throws IOException {
+        final char[] buffer = new char[BYTE_BUFFER_SIZE];
+        while (read(buffer, 0, buffer.length) >= 0) {
+            // Drain the remaining content into the hash
+        }
+
+        if (pendingHighSurrogate != NO_HIGH_SURROGATE) {
+            putByte(REPLACEMENT_BYTE);
+            pendingHighSurrogate = NO_HIGH_SURROGATE;
+        }
+        digest.update(bytes, 0, byteCount);
+        byteCount = 0;
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Encodes a character to UTF-8, combining surrogate pairs across reads.
+     *
+     * @param character The character.
+     * @complexity Time: O(1) amortized.
+     *             Space: O(1).
+     */
+    private void encode(final char character) {
+        if (pendingHighSurrogate != NO_HIGH_SURROGATE) {
+            final char highSurrogate = pendingHighSurrogate;
+            pendingHighSurrogate = NO_HIGH_SURROGATE;
+
+            if (Character.isLowSurrogate(character)) {
+                final int codePoint = Character.toCodePoint(highSurrogate, character);
+                putByte(0xF0 | (codePoint >>> 18));
+                putByte(0x80 | ((codePoint >>> 12) & 0x3F));
+                putByte(0x80 | ((codePoint >>> 6) & 0x3F));
+                putByte(0x80 | (codePoint & 0x3F));
+                return;
+            }
+
+            putByte(REPLACEMENT_BYTE);
+        }
+
+        if (character < 0x80) {
+            putByte(character);
+        } else if (character < 0x800) {
+            putByte(0xC0 | (character >>> 6));
+            putByte(0x80 | (character & 0x3F));
+        } else if (Character.isHighSurrogate(character)) {
+            pendingHighSurrogate = character;
+        } else if (Character.isLowSurrogate(character)) {
+            putByte(REPLACEMENT_BYTE);
+        } else {
+            putByte(0xE0 | (character >>> 12));
+            putByte(0x80 | ((character >>> 6) & 0x3F));
+            putByte(0x80 | (character & 0x3F));
+        }
+    }
+
+    /**
+     * Appends an encoded byte, digesting the buffer when it is full.
+     *
+     * @param value The byte value.
+     * @complexity Time: O(1) amortized.
+     *             Space: O(1).
+     */
+    private void putByte(final int value) {
+        if (byteCount == bytes.length) {
+            digest.update(bytes, 0, byteCount);
+            byteCount = 0;
+        }
+
+        bytes[byteCount++] = (byte) value;
+    }
+
+}
@@ -0,0 +1,405 @@
+package org.samvelaivazian.diagramtraversal.solution.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread-safe, weight-bounded LRU cache with single-flight loading.
+ * <p>
+ * When several threads miss on the same key at the same time, only one of them invokes the loader;
+ * the others wait for and share its result. Failed loads are not cached.
+ * <p>
+ * The cache may be split into segments by key hash, each with its own lock, access order and an equal share of the
+ * weight bound, so that lookups of different keys on many cores do not contend for one lock. Eviction is then least
+ * recently used per segment rather than across the whole cache.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the cached values.
+ */
+public final class LruCache<K, V> {
+
+    /**
+     * The segments holding the cached values, selected by key hash.
+     */
+    private final Segment<K, V>[] segments;
+
+    /**
+     * The loads currently in progress, by key.
+     */
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlightLoads = new ConcurrentHashMap<>();
+
+    /**
+     * The number of lookups served from the cache.
+     */
+    private final LongAdder hitCount = new LongAdder();
+
+    /**
+     * The number of lookups not served from the cache.
+     */
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * The number of loader invocations.
+     */
+    private final LongAdder loadCount = new LongAdder();
+
+    /**
+     * The number of values evicted to stay within the weight bound.
+     */
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * Constructor to initialize the LruCache with a weight bound and a single segment, i.e. exact LRU eviction.
+     *
+     * @param maxWeight The maximum total weight of all cached values.
+     * @param weigher   The function computing the weight of a cached value.
+     * @throws IllegalArgumentException if the maximum weight is not positive.
+     */
+    public LruCache(final long maxWeight, final ToLongFunction<? super V> weigher) {
+        this(maxWeight, weigher, 1);
+    }
+
+    /**
+     * Constructor to initialize the LruCache with a weight bound split evenly between lock-striped segments.
+     *
+     * @param maxWeight    The maximum total weight of all cached values, rounded up to a multiple of the segment
+     *                     count.
+     * @param weigher      The function computing the weight of a cached value.
+     * @param segmentCount The number of segments.
+     * @throws IllegalArgumentException if the maximum weight or the segment count is not positive.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public LruCache(final long maxWeight, final ToLongFunction<? super V> weigher, final int segmentCount) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("Maximum weight must be positive: " + maxWeight);
+        }
+        if (segmentCount <= 0) {
+            throw new IllegalArgumentException("Segment count must be positive: " + segmentCount);
+        }
+
+        final long segmentMaxWeight = (maxWeight + segmentCount - 1) / segmentCount;
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(segmentMaxWeight, weigher);
+        }
+    }
+
+    /**
+     * Returns the cached value for the key, loading it on a miss.
+     *
+     * @param key    The key.
+     * @param loader The function loading the value on a miss.
+     * @return The cached or freshly loaded value.
+     * @throws RuntimeException whatever the loader throws, rethrown to every waiting caller.
+     * @complexity Time: O(1) on a hit; the loader's cost plus O(1) amortized eviction on a miss.
+     *             Space: O(1), besides the loaded value.
+     */
+    public V get(final K key, final Function<? super K, ? extends V> loader) {
+        final V cachedValue = getIfPresent(key);
+        if (cachedValue != null) {
+            return cachedValue;
+        }
+
+        final CompletableFuture<V> ownLoad = new CompletableFuture<>();
+        final CompletableFuture<V> runningLoad = inFlightLoads.putIfAbsent(key, ownLoad);
+        if (runningLoad != null) {
+            return await(runningLoad);
+        }
+
+        try {
+            final V value = loadAndPut(key, loader);
+            ownLoad.complete(value);
+
+            return value;
+        } catch (final RuntimeException e) {
+            ownLoad.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(key, ownLoad);
+        }
+    }
+
+    /**
+     * Returns the cached value for the key without loading it.
+     *
+     * @param key The key.
+     * @return The cached value, or {@code null} if the key is not cached.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public V getIfPresent(final K key) {
+        final V value = segmentFor(key).get(key);
+
+        if (value == null) {
+            missCount.increment();
+        } else {
+            hitCount.increment();
+        }
+
+        return value;
+    }
+
+    /**
+     * Stores a value, evicting the least recently used values of its segment if the segment's weight bound is
+     * exceeded.
+     *
+     * @param key   The key.
+     * @param value The value.
+     * @complexity Time: O(1) amortized.
+     *             Space: O(1).
+     */
+    public void put(final K key, final V value) {
+        evictionCount.add(segmentFor(key).put(key, value));
+    }
+
+    /**
+     * Removes the value for the key, if cached.
+     *
+     * @param key The key.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public void invalidate(final K key) {
+        segmentFor(key).remove(key);
+    }
+
+    /**
+     * Removes every cached value matching a predicate, keeping all others and their access order.
+     * Segments are swept one after another, so concurrent lookups only wait for the segment being swept.
+     *
+     * @param predicate The predicate selecting the entries to remove.
+     * @return The number of removed values.
+     * @complexity Time: O(n + s), where n is the number of cached values and s the number of segments.
+     *             Space: O(1).
+     */
+    public int invalidateIf(final BiPredicate<? super K, ? super V> predicate) {
+        int removedCount = 0;
+        for (final Segment<K, V> segment : segments) {
+            removedCount += segment.removeIf(predicate);
+        }
+
+        return removedCount;
+    }
+
+    /**
+     * Returns a snapshot of the cache statistics.
+     * With several segments, the size and weight are summed segment by segment and not taken atomically.
+     *
+     * @return The cache statistics.
+     * @complexity Time: O(s), where s is the number of segments.
+     *             Space: O(1).
+     */
+    public CacheStats stats() {
+        long size = 0;
+        long weight = 0;
+        for (final Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.entries.size();
+                weight += segment.totalWeight;
+            }
+        }
+
+        return new CacheStats(hitCount.sum(), missCount.sum(), loadCount.sum(), evictionCount.sum(), size, weight);
+    }
+
+    /**
+     * Loads the value unless another load stored it after this caller missed, and stores it.
+     *
+     * @param key    The key.
+     * @param loader The function loading the value.
+     * @return The loaded value.
+     * @complexity Time: The loader's cost plus O(1) amortized eviction.
+     *             Space: O(1), besides the loaded value.
+     */
+    private V loadAndPut(final K key, final Function<? super K, ? extends V> loader) {
+        final V cachedValue = segmentFor(key).get(key);
+        if (cachedValue != null) {
+            return cachedValue;
+        }
+
+        loadCount.increment();
+        final V value = loader.apply(key);
+        put(key, value);
+
+        return value;
+    }
+
+    /**
+     * Waits for a load started by another caller.
+     *
+     * @param load The running load.
+     * @return The loaded value.
+     * @throws RuntimeException the exception the load failed with.
+     * @complexity Time: The remaining time of the running load.
+     *             Space: O(1).
+     */
+    private V await(final CompletableFuture<V> load) {
+        try {
+            return load.join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the segment holding a key.
+     *
+     * @param key The key.
+     * @return The segment.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    private Segment<K, V> segmentFor(final K key) {
+        final int hash = key.hashCode();
+
+        // Spread the high bits, so that keys differing only there do not all land in one segment
+        return segments[Math.floorMod(hash ^ (hash >>> 16), segments.length)];
+    }
+
+    /**
+     * A part of the cache with its own lock, access order and weight bound.
+     *
+     * @param <K> The type of the keys.
+     * @param <V> The type of the cached values.
+     */
+    private static final class Segment<K, V> {
+
+        /**
+         * The maximum total weight of the values of this segment.
+         */
+        private final long maxWeight;
+
+        /**
+         * The function computing the weight of a cached value.
+         */
+        private final ToLongFunction<? super V> weigher;
+
+        /**
+         * The cached values in access order, guarded by this segment.
+         */
+        private final LinkedHashMap<K, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        /**
+         * The total weight of the values of this segment, guarded by this segment.
+         */
+        private long totalWeight;
+
+        /**
+         * Constructor to initialize the Segment with a weight bound.
+         *
+         * @param maxWeight The maximum total weight of the values of this segment.
+         * @param weigher   The function computing the weight of a cached value.
+         */
+        private Segment(final long maxWeight, final ToLongFunction<? super V> weigher) {
+            this.maxWeight = maxWeight;
+            this.weigher = weigher;
+        }
+
+        /**
+         * Returns the value for the key and marks it as most recently used.
+         *
+         * @param key The key.
+         * @return The value, or {@code null} if the key is not cached.
+         * @complexity Time: O(1).
+         *             Space: O(1).
+         */
+        private synchronized V get(final K key) {
+            return entries.get(key);
+        }
+
+        /**
+         * Stores a value and evicts the least recently used values beyond the weight bound.
+         *
+         * @param key   The key.
+         * @param value The value.
+         * @return The number of evicted values.
+         * @complexity Time: O(1) amortized.
+         *             Space: O(1).
+         */
+        private synchronized int put(final K key, final V value) {
+            final V previousValue = entries.put(key, value);
+            if (previousValue != null) {
+                totalWeight -= weigher.applyAsLong(previousValue);
+            }
+
+            totalWeight += weigher.applyAsLong(value);
+
+            return evictToMaxWeight();
+        }
+
+        /**
+         * Removes the value for the key, if cached.
+         *
+         * @param key The key.
+         * @complexity Time: O(1).
+         *             Space: O(1).
+         */
+        private synchronized void remove(final K key) {
+            final V value = entries.remove(key);
+            if (value != null) {
+                totalWeight -= weigher.applyAsLong(value);
+            }
+        }
+
+        /**
+         * Removes every value matching a predicate.
+         *
+         * @param predicate The predicate selecting the entries to remove.
+         * @return The number of removed values.
+         * @complexity Time: O(n), where n is the number of values of this segment.
+         *             Space: O(1).
+         */
+        private synchronized int removeIf(final BiPredicate<? super K, ? super V> predicate) {
+            final Iterator<Map.Entry<K, V>> iterator = entries.entrySet().iterator();
+            int removedCount = 0;
+
+            while (iterator.hasNext()) {
+                final Map.Entry<K, V> entry = iterator.next();
+                if (predicate.test(entry.getKey(), entry.getValue())) {
+                    iterator.remove();
+                    totalWeight -= weigher.applyAsLong(entry.getValue());
+                    removedCount++;
+                }
+            }
+
+            return removedCount;
+        }
+
+        /**
+         * Evicts the least recently used values until the total weight is within the bound.
+         * The most recently stored value is kept even if it alone exceeds the bound.
+         *
+         * @return The number of evicted values.
+         * @complexity Time: O(k), where k is the number of evicted values.
+         *             Space: O(1).
+         */
+        private int evictToMaxWeight() {
+            final Iterator<Map.Entry<K, V>> iterator = entries.entrySet().iterator();
+            int evictedCount = 0;
+
+            while (totalWeight > maxWeight && entries.size() > 1 && iterator.hasNext()) {
+                final V evictedValue = iterator.next().getValue();
+                iterator.remove();
+                totalWeight -= weigher.applyAsLong(evictedValue);
+                evictedCount++;
+            }
+
+            return evictedCount;
+        }
+
+    }
+
+}
@@ -0,0 +1,378 @@
+package org.samvelaivazian.diagramtraversal.solution.cache;
+
+import org.samvelaivazian.diagramtraversal.solution.exceptions.BuildRouteException;
+import org.samvelaivazian.diagramtraversal.solution.graph.DominatorIndex;
+import org.samvelaivazian.diagramtraversal.solution.graph.GraphDiff;
+import org.samvelaivazian.diagramtraversal.solution.graph.ReachabilityIndex;
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraph;
+import org.samvelaivazian.diagramtraversal.solution.traversal.RoutingTable;
+import org.samvelaivazian.diagramtraversal.solution.traversal.TraversalStrategy;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Cache of the routes found in the current version of a process definition, kept valid across versions.
+ * <p>
+ * When a new version is installed with {@link #advance(RouteGraph)}, the versions are diffed by flow node ID and the
+ * reachability index is rebuilt reusing the rows below the changes. A cached route that does not pass through a
+ * removed or changed node keeps all its nodes and their outgoing edges, so it is still a route of the new version,
+ * which is all a DFS answer promises. The other strategies promise the fewest hops or the lowest total weight, which
+ * an added edge or a lighter node anywhere may undercut, so their routes are also invalidated by such changes.
+ * Hierarchical routes also depend on the called definitions, which may change without the graph, so they are
+ * invalidated by every new version. Pairs the reachability index proves unreachable are rejected without a
+ * search, for the strategies following sequence flows only; hierarchical queries always reach the route finder, since
+ * their routes may enter sub-processes and follow boundary events the flat index does not connect.
+ * <p>
+ * A search that finds no route, e.g. a hierarchical search between nodes that are only connected across scopes, is
+ * cached as well, so a repeated query fails without searching again. Such failures are invalidated by any change,
+ * since an added node or edge anywhere may create the missing route. Concurrent identical queries share one search,
+ * and the routes are spread over lock-striped segments so that lookups scale across cores.
+ * <p>
+ * Given a memory budget, every version also gets a {@link RoutingTable} for DFS and then for BFS, as long as both fit
+ * into the budget together. Queries of a routed strategy are read off its table without a search and bypass the
+ * cache, which is left to the strategies without a table.
+ * <p>
+ * Every version also gets a {@link DominatorIndex}, so that must-pass queries are answered from trees built once per
+ * version.
+ */
+public final class RouteCache {
+
+    /**
+     * The number of lock-striped segments of the route cache.
+     */
+    private static final int SEGMENT_COUNT = 16;
+
+    /**
+     * The strategies that get a routing table if it fits, in order of preference.
+     */
+    private static final List<TraversalStrategy> ROUTED_STRATEGIES =
+            List.of(TraversalStrategy.DEPTH_FIRST, TraversalStrategy.BREADTH_FIRST);
+
+    /**
+     * The cached outcomes by query, weighted by their number of nodes.
+     */
+    private final LruCache<RouteKey, CachedRoute> routes;
+
+    /**
+     * The memory budget of the routing tables of a version, in bytes; 0 disables them.
+     */
+    private final long routingTableMaxBytes;
+
+    /**
+     * The lock that lets queries run concurrently while a new version is installed exclusively, so that no route
+     * found in the old version is stored after the invalidation.
+     */
+    private final ReadWriteLock versionLock = new ReentrantReadWriteLock();
+
+    /**
+     * The current version, guarded by {@link #versionLock}; null until the first version is installed.
+     */
+    private Version version;
+
+    /**
+     * Constructor to initialize the RouteCache with a bound on the cached route nodes.
+     *
+     * @param maxRouteNodes The maximum total number of nodes of all cached routes.
+     * @throws IllegalArgumentException if the bound is not positive.
+     */
+    public RouteCache(final long maxRouteNodes) {
+        this(maxRouteNodes, 0);
+    }
+
+    /**
+     * Constructor to initialize the RouteCache with a bound on the cached route nodes and a memory budget for the
+     * routing tables of every version.
+     *
+     * @param maxRouteNodes        The maximum total number of nodes of all cached routes.
+     * @param routingTableMaxBytes The memory budget of the routing tables of a version in bytes; 0 disables them.
+     * @throws IllegalArgumentException if the route bound is not positive or the budget is negative.
+     */
+    public RouteCache(final long maxRouteNodes, final long routingTableMaxBytes) {
+        if (routingTableMaxBytes < 0) {
+            throw new IllegalArgumentException("Routing table budget must be non-negative: " + routingTableMaxBytes);
+        }
+
+        this.routes = new LruCache<>(maxRouteNodes, CachedRoute::weight, SEGMENT_COUNT);
+        this.routingTableMaxBytes = routingTableMaxBytes;
+    }
+
+    /**
+     * Installs a new version of the route graph.
+     * <p>
+     * The routing tables and the dominator index are built before the version is locked, so queries against the old
+     * version continue meanwhile.
+     *
+     * @param routeGraph The route graph of the new version.
+     * @return The update, with a null difference for the first version.
+     * @complexity Time: O(V + E + n) plus the recomputed reachability rows, where n is the number of cached routes;
+     *             plus O(V * (V + E) / P) on P workers for every routing table and O(k * (V + E)) for the dominator
+     *             trees of the k start and end events.
+     *             Space: O(V + E), for the difference and the reachability index; plus O(V^2) for every routing table
+     *             and O(k * V) for the dominator trees.
+     */
+    public Update advance(final RouteGraph routeGraph) {
+        final Map<TraversalStrategy, RoutingTable> routingTables = buildRoutingTables(routeGraph);
+        final DominatorIndex dominatorIndex = DominatorIndex.build(routeGraph);
+
+        versionLock.writeLock().lock();
+        try {
+            if (version == null) {
+                version = new Version(routeGraph, ReachabilityIndex.build(routeGraph), routingTables, dominatorIndex);
+
+                return new Update(null, routes.invalidateIf((key, route) -> true), 0, routeGraph,
+                        Set.copyOf(routingTables.keySet()));
+            }
+
+            final GraphDiff diff = GraphDiff.between(version.routeGraph(), routeGraph);
+            final ReachabilityIndex reachabilityIndex =
+                    ReachabilityIndex.rebuild(version.reachabilityIndex(), routeGraph, diff);
+            final int invalidatedRouteCount =
+                    routes.invalidateIf((key, cachedRoute) -> isStale(key, cachedRoute, diff));
+            version = new Version(routeGraph, reachabilityIndex, routingTables, dominatorIndex);
+
+            return new Update(diff, invalidatedRouteCount, reachabilityIndex.getReusedRowCount(), routeGraph,
+                    Set.copyOf(routingTables.keySet()));
+        } finally {
+            versionLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the cached route for a query on the current version, finding it on a miss.
+     * If the route finder found no route for the query before, the failure is rethrown without searching again.
+     * If the version has a routing table for the strategy, the route is read off the table instead.
+     *
+     * @param startNodeId ID of the start node.
+     * @param endNodeId   ID of the end node.
+     * @param strategy    The traversal strategy deciding which of several routes is returned.
+     * @param routeFinder The function finding the route in the current route graph on a miss.
+     * @return The route as a list of node IDs.
+     * @throws BuildRouteException   if either node does not exist, the end node is not reachable or the route finder
+     *                               finds no route.
+     * @throws IllegalStateException if no version was installed yet.
+     * @complexity Time: O(1) on a hit or for an unreachable pair; O(L) with a routing table; the cost of the route
+     *             finder on a miss.
+     *             Space: O(L), where L is the length of a found route.
+     */
+    public List<String> get(final String startNodeId, final String endNodeId, final TraversalStrategy strategy,
+                            final Function<RouteGraph, List<String>> routeFinder) {
+        versionLock.readLock().lock();
+        try {
+            if (version == null) {
+                throw new IllegalStateException("No route graph installed");
+            }
+
+            // Resolve both IDs once, so unknown IDs are rejected before the reachability check or any search
+            final Version currentVersion = version;
+            final int startNode = currentVersion.routeGraph().indexOf(startNodeId);
+            final int endNode = currentVersion.routeGraph().indexOf(endNodeId);
+            if (startNode < 0 || endNode < 0) {
+                throw new BuildRouteException("Failed to obtain FlowNode from startNodeId '" +
+                        startNodeId + "' or/and " + "endNodeId '" + endNodeId + "'"
+                );
+            }
+            if (strategy.followsSequenceFlowsOnly()
+                    && !currentVersion.reachabilityIndex().isReachable(startNode, endNode)) {
+                throw new BuildRouteException("Failed to build route from model");
+            }
+
+            final RoutingTable routingTable = currentVersion.routingTables().get(strategy);
+            if (routingTable != null) {
+                return routingTable.routeTo(startNode, endNode);
+            }
+
+            final CachedRoute cachedRoute = routes.get(new RouteKey(startNodeId, endNodeId, strategy),
+                    key -> CachedRoute.find(routeFinder, currentVersion.routeGraph()));
+            if (cachedRoute.route() == null) {
+                throw new BuildRouteException(cachedRoute.failureMessage());
+            }
+
+            return cachedRoute.route();
+        } finally {
+            versionLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the route graph of the current version.
+     *
+     * @return The route graph.
+     * @throws IllegalStateException if no version was installed yet.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public RouteGraph getRouteGraph() {
+        versionLock.readLock().lock();
+        try {
+            if (version == null) {
+                throw new IllegalStateException("No route graph installed");
+            }
+
+            return version.routeGraph();
+        } finally {
+            versionLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the dominator index of the current version.
+     *
+     * @return The dominator index.
+     * @throws IllegalStateException if no version was installed yet.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public DominatorIndex getDominatorIndex() {
+        versionLock.readLock().lock();
+        try {
+            if (version == null) {
+                throw new IllegalStateException("No route graph installed");
+            }
+
+            return version.dominatorIndex();
+        } finally {
+            versionLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the route cache statistics.
+     *
+     * @return The cache statistics.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public CacheStats stats() {
+        return routes.stats();
+    }
+
+    /**
+     * Checks if a cached outcome may differ from the answer of a search in the new version.
+     *
+     * @param key         The query of the outcome.
+     * @param cachedRoute The cached outcome.
+     * @param diff        The difference from the previous version.
+     * @return True if the outcome must be invalidated.
+     * @complexity Time: O(L) on average, where L is the length of the cached route.
+     *             Space: O(1).
+     */
+    private static boolean isStale(final RouteKey key, final CachedRoute cachedRoute, final GraphDiff diff) {
+        if (cachedRoute.route() == null) {
+            // An added node or edge anywhere may create the missing route
+            return key.strategy() == TraversalStrategy.HIERARCHICAL || !diff.isEmpty();
+        }
+
+        return switch (key.strategy()) {
+            case DEPTH_FIRST -> diff.touches(cachedRoute.route());
+            case BREADTH_FIRST, BIDIRECTIONAL_BREADTH_FIRST ->
+                    diff.mayShortenRoutes() || diff.touches(cachedRoute.route());
+            case DIJKSTRA, A_STAR -> diff.mayCheapenRoutes() || diff.touches(cachedRoute.route());
+            // Hierarchical routes also depend on the called definitions, which may change without the graph
+            case HIERARCHICAL -> true;
+        };
+    }
+
+    /**
+     * Builds the routing tables of a version that fit into the budget together.
+     *
+     * @param routeGraph The route graph of the version.
+     * @return The routing tables by strategy, empty if none fits.
+     * @complexity Time: O(V * (V + E) / P) on P workers for every table.
+     *             Space: O(V^2) for every table.
+     */
+    private Map<TraversalStrategy, RoutingTable> buildRoutingTables(final RouteGraph routeGraph) {
+        final Map<TraversalStrategy, RoutingTable> routingTables = new EnumMap<>(TraversalStrategy.class);
+        long remainingBytes = routingTableMaxBytes;
+
+        for (final TraversalStrategy strategy : ROUTED_STRATEGIES) {
+            if (RoutingTable.fits(routeGraph.nodeCount(), remainingBytes)) {
+                final RoutingTable routingTable = RoutingTable.build(routeGraph, strategy);
+                routingTables.put(strategy, routingTable);
+                remainingBytes -= routingTable.getMemoryFootprintBytes();
+            }
+        }
+
+        return routingTables;
+    }
+
+    /**
+     * The outcome of installing a new version.
+     *
+     * @param diff                  The difference from the previous version, or null for the first version.
+     * @param invalidatedRouteCount The number of cached routes invalidated.
+     * @param reusedRowCount        The number of reachability rows reused from the previous version.
+     * @param routeGraph            The route graph of the installed version.
+     * @param routedStrategies      The strategies answered from a routing table of the installed version.
+     */
+    public record Update(GraphDiff diff, int invalidatedRouteCount, int reusedRowCount, RouteGraph routeGraph,
+                         Set<TraversalStrategy> routedStrategies) {
+    }
+
+    /**
+     * Cache key of a route query.
+     *
+     * @param startNodeId ID of the start node.
+     * @param endNodeId   ID of the end node.
+     * @param strategy    The traversal strategy.
+     */
+    private record RouteKey(String startNodeId, String endNodeId, TraversalStrategy strategy) {
+    }
+
+    /**
+     * The cached outcome of a query: either the route found or the reason no route was found.
+     *
+     * @param route          The node IDs of the route, or null if no route was found.
+     * @param failureMessage The message of the failed search, or null if a route was found.
+     */
+    private record CachedRoute(List<String> route, String failureMessage) {
+
+        /**
+         * Runs the route finder and captures a failure to find a route as a cacheable outcome.
+         *
+         * @param routeFinder The function finding the route.
+         * @param routeGraph  The route graph to search.
+         * @return The outcome.
+         * @complexity Time: The cost of the route finder.
+         *             Space: O(L), where L is the length of a found route.
+         */
+        private static CachedRoute find(final Function<RouteGraph, List<String>> routeFinder,
+                                        final RouteGraph routeGraph) {
+            try {
+                return new CachedRoute(routeFinder.apply(routeGraph), null);
+            } catch (final BuildRouteException e) {
+                return new CachedRoute(null, e.getMessage());
+            }
+        }
+
+        /**
+         * Returns the weight of the outcome in the cache.
+         *
+         * @return The number of route nodes, or 1 for a failure.
+         * @complexity Time: O(1).
+         *             Space: O(1).
+         */
+        private long weight() {
+            return route == null ? 1 : route.size();
+        }
+
+    }
+
+    /**
+     * A version of the route graph with its reachability index, routing tables and dominator index.
+     *
+     * @param routeGraph        The route graph.
+     * @param reachabilityIndex The reachability index of the route graph.
+     * @param routingTables     The routing tables of the route graph by strategy.
+     * @param dominatorIndex    The dominator index of the route graph.
+     */
+    private record Version(RouteGraph routeGraph, ReachabilityIndex reachabilityIndex,
+                           Map<TraversalStrategy, RoutingTable> routingTables, DominatorIndex dominatorIndex) {
+    }
+
+}
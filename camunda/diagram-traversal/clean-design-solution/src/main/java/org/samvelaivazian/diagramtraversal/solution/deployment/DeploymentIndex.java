@@ -0,0 +1,118 @@
+package org.samvelaivazian.diagramtraversal.solution.deployment;
+
+import org.samvelaivazian.diagramtraversal.solution.exceptions.BuildRouteException;
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraph;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The route graphs of every process definition of an engine-rest deployment, by definition key and version.
+ * Instances are immutable and safe to share between threads.
+ */
+public final class DeploymentIndex {
+
+    /**
+     * The route graphs by definition key, then by version.
+     */
+    private final Map<String, NavigableMap<Integer, RouteGraph>> routeGraphs;
+
+    /**
+     * The number of indexed definitions, counting every version.
+     */
+    private final int definitionCount;
+
+    /**
+     * Constructor to initialize the DeploymentIndex with the route graphs of the definitions.
+     *
+     * @param definitionGraphs The route graph of every definition.
+     */
+    DeploymentIndex(final Map<ProcessDefinition, RouteGraph> definitionGraphs) {
+        final Map<String, NavigableMap<Integer, RouteGraph>> graphsByKey = new HashMap<>();
+        definitionGraphs.forEach((definition, routeGraph) -> graphsByKey
+                .computeIfAbsent(definition.key(), key -> new TreeMap<>())
+                .put(definition.version(), routeGraph));
+        graphsByKey.replaceAll((key, graphsByVersion) -> Collections.unmodifiableNavigableMap(graphsByVersion));
+
+        this.routeGraphs = Map.copyOf(graphsByKey);
+        this.definitionCount = definitionGraphs.size();
+    }
+
+    /**
+     * Returns the route graph of a version of a process definition.
+     *
+     * @param definitionKey The process definition key.
+     * @param version       The version of the definition.
+     * @return The route graph.
+     * @throws BuildRouteException if the deployment has no such definition or version.
+     * @complexity Time: O(log n), where n is the number of versions of the definition.
+     *             Space: O(1).
+     */
+    public RouteGraph routeGraph(final String definitionKey, final int version) {
+        final RouteGraph routeGraph = versions(definitionKey).get(version);
+        if (routeGraph == null) {
+            throw new BuildRouteException("Failed to find version " + version + " of process definition '"
+                    + definitionKey + "'");
+        }
+
+        return routeGraph;
+    }
+
+    /**
+     * Returns the latest version of a process definition.
+     *
+     * @param definitionKey The process definition key.
+     * @return The highest deployed version.
+     * @throws BuildRouteException if the deployment has no such definition.
+     * @complexity Time: O(log n), where n is the number of versions of the definition.
+     *             Space: O(1).
+     */
+    public int latestVersion(final String definitionKey) {
+        return versions(definitionKey).lastKey();
+    }
+
+    /**
+     * Returns the keys of all indexed process definitions.
+     *
+     * @return The immutable set of definition keys.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public Set<String> definitionKeys() {
+        return routeGraphs.keySet();
+    }
+
+    /**
+     * Returns the number of indexed definitions, counting every version.
+     *
+     * @return The definition count.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public int definitionCount() {
+        return definitionCount;
+    }
+
+    /**
+     * Returns the route graphs of all versions of a process definition.
+     *
+     * @param definitionKey The process definition key.
+     * @return The route graphs by version, never empty.
+     * @throws BuildRouteException if the deployment has no such definition.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    private NavigableMap<Integer, RouteGraph> versions(final String definitionKey) {
+        final NavigableMap<Integer, RouteGraph> graphsByVersion = routeGraphs.get(definitionKey);
+        if (graphsByVersion == null) {
+            throw new BuildRouteException("Failed to find process definition '" + definitionKey + "'");
+        }
+
+        return graphsByVersion;
+    }
+
+}
@@ -0,0 +1,247 @@
+package org.samvelaivazian.diagramtraversal.solution.deployment;
+
+import org.camunda.bpm.engine.impl.util.json.JSONArray;
+import org.camunda.bpm.engine.impl.util.json.JSONException;
+import org.camunda.bpm.engine.impl.util.json.JSONObject;
+import org.samvelaivazian.diagramtraversal.solution.exceptions.FetchResponseDataException;
+import org.samvelaivazian.diagramtraversal.solution.exceptions.ParseBpmnModelException;
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraph;
+import org.samvelaivazian.diagramtraversal.solution.parsers.BpmnParser;
+import org.samvelaivazian.diagramtraversal.solution.parsers.StreamingBpmnGraphExtractor;
+import org.samvelaivazian.diagramtraversal.solution.utils.HttpFetcher;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Loads every process definition of an engine-rest deployment into a {@link DeploymentIndex}.
+ * <p>
+ * The definitions are discovered through the process definition list, then the XML of each one is fetched
+ * asynchronously and streamed into the graph extractor on a pool of parse threads. At most a fixed number of
+ * definitions are being fetched or parsed at any time: the listing is only walked further once an earlier definition
+ * is indexed, so fetched responses never pile up faster than they are parsed. The first failure stops the indexing.
+ */
+public final class DeploymentIndexer {
+
+    /**
+     * The default maximum number of definitions being fetched or parsed at the same time.
+     */
+    public static final int DEFAULT_MAX_IN_FLIGHT_DEFINITIONS = 16;
+
+    /**
+     * The engine-rest path listing all process definitions.
+     */
+    private static final String PROCESS_DEFINITION_LIST_PATH = "/process-definition";
+
+    /**
+     * The engine-rest path of the XML of a process definition, formatted with its ID.
+     */
+    private static final String PROCESS_DEFINITION_XML_PATH = "/process-definition/%s/xml";
+
+    /**
+     * The fetcher sharing one HTTP client between all requests.
+     */
+    private final HttpFetcher httpFetcher;
+
+    /**
+     * The engine-rest base URL, without a trailing slash.
+     */
+    private final String engineRestUrl;
+
+    /**
+     * The extractor turning BPMN XML into route graphs.
+     */
+    private final StreamingBpmnGraphExtractor graphExtractor;
+
+    /**
+     * The parser unwrapping the BPMN XML from the JSON responses.
+     */
+    private final BpmnParser bpmnParser = new BpmnParser();
+
+    /**
+     * The maximum number of definitions being fetched or parsed at the same time.
+     */
+    private final int maxInFlightDefinitions;
+
+    /**
+     * The number of threads parsing fetched definitions.
+     */
+    private final int parseThreadCount;
+
+    /**
+     * Constructor to initialize the DeploymentIndexer with the default bound on in-flight definitions and one parse
+     * thread per processor.
+     *
+     * @param httpFetcher    The fetcher to send all requests with.
+     * @param engineRestUrl  The engine-rest base URL, e.g. {@code http://localhost:8080/engine-rest}.
+     * @param graphExtractor The extractor turning BPMN XML into route graphs.
+     */
+    public DeploymentIndexer(final HttpFetcher httpFetcher, final String engineRestUrl,
+                             final StreamingBpmnGraphExtractor graphExtractor) {
+        this(httpFetcher, engineRestUrl, graphExtractor, DEFAULT_MAX_IN_FLIGHT_DEFINITIONS,
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor to initialize the DeploymentIndexer.
+     *
+     * @param httpFetcher            The fetcher to send all requests with.
+     * @param engineRestUrl          The engine-rest base URL, e.g. {@code http://localhost:8080/engine-rest}.
+     * @param graphExtractor         The extractor turning BPMN XML into route graphs.
+     * @param maxInFlightDefinitions The maximum number of definitions being fetched or parsed at the same time.
+     * @param parseThreadCount       The number of threads parsing fetched definitions.
+     * @throws IllegalArgumentException if either count is not positive.
+     */
+    public DeploymentIndexer(final HttpFetcher httpFetcher, final String engineRestUrl,
+                             final StreamingBpmnGraphExtractor graphExtractor, final int maxInFlightDefinitions,
+                             final int parseThreadCount) {
+        if (maxInFlightDefinitions <= 0 || parseThreadCount <= 0) {
+            throw new IllegalArgumentException("In-flight definitions and parse threads must be positive");
+        }
+
+        this.httpFetcher = httpFetcher;
+        this.engineRestUrl = engineRestUrl.endsWith("/")
+                ? engineRestUrl.substring(0, engineRestUrl.length() - 1) : engineRestUrl;
+        this.graphExtractor = graphExtractor;
+        this.maxInFlightDefinitions = maxInFlightDefinitions;
+        this.parseThreadCount = parseThreadCount;
+    }
+
+    /**
+     * Lists all process definitions of the deployment, every version included.
+     *
+     * @return The process definitions in listing order.
+     * @throws FetchResponseDataException if fetching the list fails or the response is not a definition list.
+     * @complexity Time: O(n), where n is the length of the response. The actual time depends on network latency.
+     *             Space: O(n), for the response and the definitions.
+     */
+    public List<ProcessDefinition> listDefinitions() {
+        final String url = engineRestUrl + PROCESS_DEFINITION_LIST_PATH;
+        final String responseData = httpFetcher.fetch(url);
+
+        try {
+            final JSONArray definitionsJson = new JSONArray(responseData);
+            final List<ProcessDefinition> definitions = new ArrayList<>(definitionsJson.length());
+            for (int i = 0; i < definitionsJson.length(); i++) {
+                final JSONObject definitionJson = definitionsJson.getJSONObject(i);
+                definitions.add(new ProcessDefinition(definitionJson.getString("id"),
+                        definitionJson.getString("key"), definitionJson.getInt("version")));
+            }
+
+            return definitions;
+        } catch (final JSONException e) {
+            throw new FetchResponseDataException("Failed to read process definitions from " + url, e);
+        }
+    }
+
+    /**
+     * Fetches and compiles every process definition of the deployment.
+     *
+     * @return The index of all definitions.
+     * @throws FetchResponseDataException if listing or fetching a definition fails, or the thread is interrupted.
+     * @throws ParseBpmnModelException    if the XML of a definition is malformed.
+     * @complexity Time: O(D + N / P), where D is the number of definitions, N their total XML length and P the
+     *             number of parse threads, as long as the network keeps up.
+     *             Space: O(V + E) for the route graphs of all definitions, plus one read buffer per in-flight
+     *             definition.
+     */
+    public DeploymentIndex index() {
+        final List<ProcessDefinition> definitions = listDefinitions();
+        final Map<ProcessDefinition, RouteGraph> definitionGraphs = new ConcurrentHashMap<>();
+        final List<CompletableFuture<Void>> loads = new ArrayList<>(definitions.size());
+        final Semaphore inFlightDefinitions = new Semaphore(maxInFlightDefinitions);
+        final AtomicBoolean failed = new AtomicBoolean();
+
+        try (ExecutorService parsePool = Executors.newFixedThreadPool(parseThreadCount)) {
+            for (final ProcessDefinition definition : definitions) {
+                // Wait until an earlier definition is indexed, so that responses are parsed as fast as they arrive
+                acquire(inFlightDefinitions);
+                if (failed.get()) {
+                    inFlightDefinitions.release();
+                    break;
+                }
+
+                loads.add(httpFetcher.fetchStreamAsync(xmlUrl(definition))
+                        .thenApplyAsync(body -> extractRouteGraph(definition, body), parsePool)
+                        .thenAccept(routeGraph -> definitionGraphs.put(definition, routeGraph))
+                        .whenComplete((ignored, failure) -> {
+                            if (failure != null) {
+                                failed.set(true);
+                            }
+                            inFlightDefinitions.release();
+                        }));
+            }
+
+            CompletableFuture.allOf(loads.toArray(CompletableFuture[]::new)).join();
+        } catch (final CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+
+        return new DeploymentIndex(definitionGraphs);
+    }
+
+    /**
+     * Returns the engine-rest URL of the XML of a definition.
+     *
+     * @param definition The process definition.
+     * @return The URL, with the definition ID encoded.
+     * @complexity Time: O(k), where k is the length of the ID.
+     *             Space: O(k).
+     */
+    private String xmlUrl(final ProcessDefinition definition) {
+        return engineRestUrl + PROCESS_DEFINITION_XML_PATH.formatted(
+                URLEncoder.encode(definition.id(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Streams the BPMN XML out of a fetched JSON response into the graph extractor.
+     *
+     * @param definition   The process definition.
+     * @param responseBody The response body, which is closed.
+     * @return The route graph of the definition.
+     * @throws ParseBpmnModelException if the response or the BPMN XML is malformed.
+     * @complexity Time: O(n + V + E), where n is the length of the response.
+     *             Space: O(V + E), to store the extracted graph, plus constant-size read buffers.
+     */
+    private RouteGraph extractRouteGraph(final ProcessDefinition definition, final InputStream responseBody) {
+        final Reader jsonResponse = new InputStreamReader(responseBody, StandardCharsets.UTF_8);
+
+        try (Reader bpmnXml = bpmnParser.getBpmn20XmlReaderFromJson(jsonResponse)) {
+            return graphExtractor.extractRouteGraph(bpmnXml);
+        } catch (final IOException e) {
+            throw new ParseBpmnModelException("Failed to stream BPMN XML of " + definition.id(), e);
+        }
+    }
+
+    /**
+     * Acquires a permit, translating an interruption like the fetcher does.
+     *
+     * @param semaphore The semaphore.
+     * @throws FetchResponseDataException if the thread is interrupted while waiting.
+     * @complexity Time: O(1), plus the time waiting for a permit.
+     *             Space: O(1).
+     */
+    private void acquire(final Semaphore semaphore) {
+        try {
+            semaphore.acquire();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FetchResponseDataException("Interrupted while indexing " + engineRestUrl, e);
+        }
+    }
+
+}
@@ -0,0 +1,11 @@
+package org.samvelaivazian.diagramtraversal.solution.deployment;
+
+/**
+ * A deployed process definition as listed by engine-rest.
+ *
+ * @param id      The process definition ID, unique across keys and versions, e.g. {@code invoice:2:8c1f...}.
+ * @param key     The process definition key, e.g. {@code invoice}.
+ * @param version The version of the definition within its key, starting at 1.
+ */
+public record ProcessDefinition(String id, String key, int version) {
+}
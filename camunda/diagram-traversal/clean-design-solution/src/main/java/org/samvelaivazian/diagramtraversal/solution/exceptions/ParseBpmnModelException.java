@@ -5,6 +5,15 @@ package org.samvelaivazian.diagramtraversal.solution.exceptions;
  */
 public final class ParseBpmnModelException extends RuntimeException {
 
+    /**
+     * Constructs a new ParseBpmnModelException with the specified detail message.
+     *
+     * @param message The detail message.
+     */
+    public ParseBpmnModelException(final String message) {
+        super(message);
+    }
+
     /**
      * Constructs a new ParseBpmnModelException with the specified detail message and cause.
      *
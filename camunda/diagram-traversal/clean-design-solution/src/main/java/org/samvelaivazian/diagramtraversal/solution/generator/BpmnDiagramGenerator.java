@@ -0,0 +1,354 @@
+package org.samvelaivazian.diagramtraversal.solution.generator;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Generates synthetic BPMN 2.0 diagrams for benchmarks, scale and load tests.
+ * <p>
+ * Every diagram is one process whose flow nodes form a chain from {@link #START_EVENT_ID} to {@link #END_EVENT_ID},
+ * so every node is reachable and the end event is reachable from every node. On top of the chain, every
+ * {@code chainLength}-th node may become an exclusive gateway with forward branches or a loop back-edge, an embedded
+ * sub-process holding a chain of its own, or carry a timer boundary event with an exceptional flow further down the
+ * chain, as configured by the {@link DiagramSpec}. The IDs inside a sub-process are prefixed with the sub-process ID.
+ * Tasks carry a random {@code expectedDuration} property so that cost-based searches have weights to work with.
+ * <p>
+ * The document is written with StAX while the edges are drawn, node by node, so memory stays proportional to the
+ * nesting depth no matter how many nodes are generated; million-node diagrams are best written straight to a file
+ * with {@link #write(DiagramSpec, Path)}. Instances are immutable and safe to share between threads.
+ */
+public final class BpmnDiagramGenerator {
+
+    /**
+     * The ID of the generated process.
+     */
+    public static final String PROCESS_ID = "synthetic";
+
+    /**
+     * The ID of the start event of every generated diagram.
+     */
+    public static final String START_EVENT_ID = "start";
+
+    /**
+     * The ID of the end event of every generated diagram.
+     */
+    public static final String END_EVENT_ID = "end";
+
+    /**
+     * The name of the Camunda extension property holding the expected duration of a task.
+     */
+    public static final String DURATION_PROPERTY_NAME = "expectedDuration";
+
+    /**
+     * The namespace of BPMN 2.0 model elements.
+     */
+    private static final String BPMN_MODEL_NAMESPACE = "http://www.omg.org/spec/BPMN/20100524/MODEL";
+
+    /**
+     * The namespace of Camunda extension elements.
+     */
+    private static final String CAMUNDA_NAMESPACE = "http://camunda.org/schema/1.0/bpmn";
+
+    /**
+     * The farthest a forward branch, a loop back-edge or a boundary flow may jump, in nodes along the chain.
+     */
+    private static final int MAX_JUMP = 32;
+
+    /**
+     * The largest expected duration of a task.
+     */
+    private static final int MAX_DURATION = 60;
+
+    /**
+     * The factory creating the StAX writers.
+     */
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newFactory();
+
+    /**
+     * Generates a diagram into a String.
+     *
+     * @param spec The shape of the diagram.
+     * @return The BPMN 2.0 XML.
+     * @complexity Time: O(V), where V is the number of generated nodes.
+     *             Space: O(V), for the returned XML.
+     */
+    public String generate(final DiagramSpec spec) {
+        final StringWriter writer = new StringWriter();
+
+        try {
+            write(spec, writer);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return writer.toString();
+    }
+
+    /**
+     * Generates a diagram into a UTF-8 file, replacing it if it exists.
+     *
+     * @param spec The shape of the diagram.
+     * @param file The file to write.
+     * @throws IOException if writing the file fails.
+     * @complexity Time: O(V), where V is the number of generated nodes.
+     *             Space: O(d), where d is the nesting depth, apart from the write buffer.
+     */
+    public void write(final DiagramSpec spec, final Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            write(spec, writer);
+        }
+    }
+
+    /**
+     * Generates a diagram into a writer. The writer is flushed but not closed.
+     *
+     * @param spec   The shape of the diagram.
+     * @param writer The writer to write the BPMN 2.0 XML to.
+     * @throws IOException if writing fails.
+     * @complexity Time: O(V), where V is the number of generated nodes.
+     *             Space: O(d), where d is the nesting depth.
+     */
+    public void write(final DiagramSpec spec, final Writer writer) throws IOException {
+        final SplittableRandom random = new SplittableRandom(spec.seed());
+
+        try {
+            final XMLStreamWriter xml = XML_OUTPUT_FACTORY.createXMLStreamWriter(writer);
+
+            xml.writeStartDocument("UTF-8", "1.0");
+            xml.setPrefix("bpmn", BPMN_MODEL_NAMESPACE);
+            xml.setPrefix("camunda", CAMUNDA_NAMESPACE);
+            xml.writeStartElement(BPMN_MODEL_NAMESPACE, "definitions");
+            xml.writeNamespace("bpmn", BPMN_MODEL_NAMESPACE);
+            xml.writeNamespace("camunda", CAMUNDA_NAMESPACE);
+            xml.writeAttribute("id", "Definitions_" + PROCESS_ID);
+            xml.writeAttribute("targetNamespace", "http://bpmn.io/schema/bpmn");
+            xml.writeStartElement(BPMN_MODEL_NAMESPACE, "process");
+            xml.writeAttribute("id", PROCESS_ID);
+            xml.writeAttribute("isExecutable", "true");
+
+            writeChain(xml, spec, "", spec.nodeCount(), 0, random);
+
+            xml.writeEndElement();
+            xml.writeEndElement();
+            xml.writeEndDocument();
+            xml.flush();
+            xml.close();
+        } catch (final XMLStreamException e) {
+            throw new IOException("Failed to write synthetic BPMN diagram", e);
+        }
+    }
+
+    /**
+     * Writes a chain of flow nodes with their sequence flows and boundary events into the current process or
+     * sub-process element.
+     *
+     * @param xml       The StAX writer.
+     * @param spec      The shape of the diagram.
+     * @param idPrefix  The prefix of all IDs of the chain; empty for the top-level chain.
+     * @param nodeCount The number of nodes on the chain.
+     * @param depth     The sub-process nesting depth of the chain; 0 for the top-level chain.
+     * @param random    The random generator.
+     * @throws XMLStreamException if writing fails.
+     * @complexity Time: O(V), where V is the number of nodes of the chain and its sub-processes.
+     *             Space: O(d), where d is the remaining nesting depth.
+     */
+    private static void writeChain(final XMLStreamWriter xml, final DiagramSpec spec, final String idPrefix,
+                                   final int nodeCount, final int depth,
+                                   final SplittableRandom random) throws XMLStreamException {
+        final int lastNode = nodeCount - 1;
+        final int[] targets = new int[spec.gatewayFanOut() + 2];
+
+        for (int node = 0; node <= lastNode; node++) {
+            final String nodeId = nodeId(idPrefix, nodeCount, node);
+            final boolean eligible = node > 0 && node < lastNode && node % spec.chainLength() == 0;
+            final int targetCount = drawTargets(spec, node, lastNode, eligible, random, targets);
+
+            final String elementName;
+            if (node == 0) {
+                elementName = "startEvent";
+            } else if (node == lastNode) {
+                elementName = "endEvent";
+            } else if (targetCount > 1) {
+                elementName = "exclusiveGateway";
+            } else if (eligible && depth < spec.nestingDepth() && random.nextDouble() < spec.subProcessDensity()) {
+                elementName = "subProcess";
+            } else {
+                elementName = "serviceTask";
+            }
+
+            xml.writeStartElement(BPMN_MODEL_NAMESPACE, elementName);
+            xml.writeAttribute("id", nodeId);
+
+            if ("serviceTask".equals(elementName)) {
+                writeDuration(xml, random.nextInt(1, MAX_DURATION + 1));
+            }
+            for (int i = 0; i < targetCount; i++) {
+                writeOutgoing(xml, flowId(idPrefix, node, i));
+            }
+            if ("subProcess".equals(elementName)) {
+                writeChain(xml, spec, nodeId + "_", spec.subProcessSize(), depth + 1, random);
+            }
+
+            xml.writeEndElement();
+
+            for (int i = 0; i < targetCount; i++) {
+                writeSequenceFlow(xml, flowId(idPrefix, node, i), nodeId, nodeId(idPrefix, nodeCount, targets[i]));
+            }
+
+            // Boundary events interrupt activities only, and their flow must land on a node after the activity
+            if (eligible && targetCount == 1 && random.nextDouble() < spec.boundaryEventDensity()) {
+                final String boundaryEventId = nodeId + "_boundary";
+                final String boundaryFlowId = boundaryEventId + "_flow";
+                final int boundaryTarget = random.nextInt(node + 1, Math.min(lastNode, node + MAX_JUMP) + 1);
+
+                xml.writeStartElement(BPMN_MODEL_NAMESPACE, "boundaryEvent");
+                xml.writeAttribute("id", boundaryEventId);
+                xml.writeAttribute("attachedToRef", nodeId);
+                writeOutgoing(xml, boundaryFlowId);
+                xml.writeStartElement(BPMN_MODEL_NAMESPACE, "timerEventDefinition");
+                xml.writeStartElement(BPMN_MODEL_NAMESPACE, "timeDuration");
+                xml.writeCharacters("PT1H");
+                xml.writeEndElement();
+                xml.writeEndElement();
+                xml.writeEndElement();
+
+                writeSequenceFlow(xml, boundaryFlowId, boundaryEventId, nodeId(idPrefix, nodeCount, boundaryTarget));
+            }
+        }
+    }
+
+    /**
+     * Draws the targets of the outgoing sequence flows of a node: the next node on the chain, then optionally
+     * the forward branches of a gateway and a loop back-edge.
+     *
+     * @param spec     The shape of the diagram.
+     * @param node     The node index along the chain.
+     * @param lastNode The index of the end event of the chain.
+     * @param eligible Whether the node may branch or loop.
+     * @param random   The random generator.
+     * @param targets  The array receiving the target node indexes.
+     * @return The number of targets drawn.
+     * @complexity Time: O(f), where f is the gateway fan-out.
+     *             Space: O(1).
+     */
+    private static int drawTargets(final DiagramSpec spec, final int node, final int lastNode,
+                                   final boolean eligible, final SplittableRandom random, final int[] targets) {
+        if (node == lastNode) {
+            return 0;
+        }
+
+        int targetCount = 0;
+        targets[targetCount++] = node + 1;
+
+        // Only eligible nodes branch or loop, so every route leaves the start event along the chain
+        if (!eligible) {
+            return targetCount;
+        }
+
+        if (node + 2 <= lastNode && random.nextDouble() < spec.branchingDensity()) {
+            for (int branch = 0; branch < spec.gatewayFanOut(); branch++) {
+                targets[targetCount++] = random.nextInt(node + 2, Math.min(lastNode, node + 1 + MAX_JUMP) + 1);
+            }
+        }
+        if (node >= 2 && random.nextDouble() < spec.loopDensity()) {
+            targets[targetCount++] = random.nextInt(Math.max(1, node - MAX_JUMP), node);
+        }
+
+        return targetCount;
+    }
+
+    /**
+     * Writes the extension elements holding the expected duration of a task.
+     *
+     * @param xml      The StAX writer.
+     * @param duration The expected duration.
+     * @throws XMLStreamException if writing fails.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    private static void writeDuration(final XMLStreamWriter xml, final int duration) throws XMLStreamException {
+        xml.writeStartElement(BPMN_MODEL_NAMESPACE, "extensionElements");
+        xml.writeStartElement(CAMUNDA_NAMESPACE, "properties");
+        xml.writeEmptyElement(CAMUNDA_NAMESPACE, "property");
+        xml.writeAttribute("name", DURATION_PROPERTY_NAME);
+        xml.writeAttribute("value", Integer.toString(duration));
+        xml.writeEndElement();
+        xml.writeEndElement();
+    }
+
+    /**
+     * Writes an {@code <outgoing>} reference of the open flow node.
+     *
+     * @param xml    The StAX writer.
+     * @param flowId The ID of the outgoing sequence flow.
+     * @throws XMLStreamException if writing fails.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    private static void writeOutgoing(final XMLStreamWriter xml, final String flowId) throws XMLStreamException {
+        xml.writeStartElement(BPMN_MODEL_NAMESPACE, "outgoing");
+        xml.writeCharacters(flowId);
+        xml.writeEndElement();
+    }
+
+    /**
+     * Writes a sequence flow.
+     *
+     * @param xml          The StAX writer.
+     * @param flowId       The ID of the sequence flow.
+     * @param sourceNodeId The ID of the source flow node.
+     * @param targetNodeId The ID of the target flow node.
+     * @throws XMLStreamException if writing fails.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    private static void writeSequenceFlow(final XMLStreamWriter xml, final String flowId, final String sourceNodeId,
+                                          final String targetNodeId) throws XMLStreamException {
+        xml.writeEmptyElement(BPMN_MODEL_NAMESPACE, "sequenceFlow");
+        xml.writeAttribute("id", flowId);
+        xml.writeAttribute("sourceRef", sourceNodeId);
+        xml.writeAttribute("targetRef", targetNodeId);
+    }
+
+    /**
+     * Returns the ID of a node along a chain.
+     *
+     * @param idPrefix  The prefix of all IDs of the chain.
+     * @param nodeCount The number of nodes on the chain.
+     * @param node      The node index along the chain.
+     * @return The flow node ID.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    private static String nodeId(final String idPrefix, final int nodeCount, final int node) {
+        if (node == 0) {
+            return idPrefix + START_EVENT_ID;
+        }
+
+        return node == nodeCount - 1 ? idPrefix + END_EVENT_ID : idPrefix + "node_" + node;
+    }
+
+    /**
+     * Returns the ID of an outgoing sequence flow of a node along a chain.
+     *
+     * @param idPrefix The prefix of all IDs of the chain.
+     * @param node     The node index along the chain.
+     * @param index    The index of the flow among the outgoing flows of the node.
+     * @return The sequence flow ID.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    private static String flowId(final String idPrefix, final int node, final int index) {
+        return idPrefix + "flow_" + node + "_" + index;
+    }
+
+}
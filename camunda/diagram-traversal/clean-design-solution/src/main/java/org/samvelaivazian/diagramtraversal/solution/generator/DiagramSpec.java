@@ -0,0 +1,153 @@
+package org.samvelaivazian.diagramtraversal.solution.generator;
+
+/**
+ * Shape of a synthetic BPMN diagram produced by {@link BpmnDiagramGenerator}.
+ *
+ * @param nodeCount            The number of flow nodes on the top-level chain, including the start and the end
+ *                             event; at least 2. Sub-process contents and boundary events come in addition.
+ * @param chainLength          The number of chained nodes between two nodes that may branch, loop, nest or carry
+ *                             a boundary event; 1 lets every node do so, larger values yield deep task chains.
+ * @param branchingDensity     The probability that an eligible node is a gateway with forward branches.
+ * @param gatewayFanOut        The number of forward branches a branching gateway adds to the chain; at least 1.
+ * @param loopDensity          The probability that an eligible node is a gateway with a loop back-edge.
+ * @param subProcessDensity    The probability that an eligible task is an embedded sub-process instead.
+ * @param subProcessSize       The number of flow nodes on the chain inside every sub-process; at least 2.
+ * @param nestingDepth         The maximum depth of nested sub-processes; 0 disables sub-processes.
+ * @param boundaryEventDensity The probability that an eligible task or sub-process carries a boundary event with
+ *                             an exceptional flow to a later node.
+ * @param seed                 The seed of the random generator; equal specs generate identical diagrams.
+ */
+public record DiagramSpec(int nodeCount, int chainLength, double branchingDensity, int gatewayFanOut,
+                          double loopDensity, double subProcessDensity, int subProcessSize, int nestingDepth,
+                          double boundaryEventDensity, long seed) {
+
+    /**
+     * The minimum number of flow nodes on a chain, a start and an end event.
+     */
+    public static final int MIN_NODE_COUNT = 2;
+
+    /**
+     * The separator between the node count and the densities of a textual spec.
+     */
+    private static final String PART_SEPARATOR = "/";
+
+    /**
+     * The separator between the options of a textual spec.
+     */
+    private static final String OPTION_SEPARATOR = ":";
+
+    /**
+     * Compact constructor validating the shape.
+     *
+     * @throws IllegalArgumentException if a count is too small or a density is not a probability.
+     */
+    public DiagramSpec {
+        requireAtLeast("Node count", nodeCount, MIN_NODE_COUNT);
+        requireAtLeast("Chain length", chainLength, 1);
+        requireProbability("Branching density", branchingDensity);
+        requireAtLeast("Gateway fan-out", gatewayFanOut, 1);
+        requireProbability("Loop density", loopDensity);
+        requireProbability("Sub-process density", subProcessDensity);
+        requireAtLeast("Sub-process size", subProcessSize, MIN_NODE_COUNT);
+        requireAtLeast("Nesting depth", nestingDepth, 0);
+        requireProbability("Boundary event density", boundaryEventDensity);
+    }
+
+    /**
+     * Constructor for flat diagrams in which every node may branch or loop, with one branch per branching gateway.
+     *
+     * @param nodeCount        The number of flow nodes, including the start and the end event; at least 2.
+     * @param branchingDensity The probability that an intermediate node is a gateway with a forward branch.
+     * @param loopDensity      The probability that an intermediate node is a gateway with a loop back-edge.
+     * @param seed             The seed of the random generator.
+     */
+    public DiagramSpec(final int nodeCount, final double branchingDensity, final double loopDensity,
+                       final long seed) {
+        this(nodeCount, 1, branchingDensity, 1, loopDensity, 0, MIN_NODE_COUNT, 0, 0, seed);
+    }
+
+    /**
+     * Parses a spec of the form {@code <nodeCount>/<branchingDensity>/<loopDensity>[:<option>=<value>]*}, e.g.
+     * {@code 1000/0.2/0.05} or {@code 100000/0.1/0.02:gatewayFanOut=3:subProcessDensity=0.01:nestingDepth=2}.
+     * The options are named like the record components; omitted options keep the flat defaults.
+     *
+     * @param spec The textual spec.
+     * @param seed The seed of the random generator.
+     * @return The parsed spec.
+     * @throws IllegalArgumentException if the spec is malformed or invalid.
+     * @complexity Time: O(k), where k is the length of the spec.
+     *             Space: O(k), for the split parts.
+     */
+    public static DiagramSpec parse(final String spec, final long seed) {
+        final String[] options = spec.split(OPTION_SEPARATOR);
+        final String[] parts = options[0].split(PART_SEPARATOR);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Expected <nodeCount>/<branchingDensity>/<loopDensity>: " + spec);
+        }
+
+        try {
+            int chainLength = 1;
+            int gatewayFanOut = 1;
+            double subProcessDensity = 0;
+            int subProcessSize = MIN_NODE_COUNT;
+            int nestingDepth = 0;
+            double boundaryEventDensity = 0;
+
+            for (int i = 1; i < options.length; i++) {
+                final int separator = options[i].indexOf('=');
+                if (separator <= 0) {
+                    throw new IllegalArgumentException("Expected <option>=<value>: " + options[i]);
+                }
+
+                final String value = options[i].substring(separator + 1).trim();
+                switch (options[i].substring(0, separator).trim()) {
+                    case "chainLength" -> chainLength = Integer.parseInt(value);
+                    case "gatewayFanOut" -> gatewayFanOut = Integer.parseInt(value);
+                    case "subProcessDensity" -> subProcessDensity = Double.parseDouble(value);
+                    case "subProcessSize" -> subProcessSize = Integer.parseInt(value);
+                    case "nestingDepth" -> nestingDepth = Integer.parseInt(value);
+                    case "boundaryEventDensity" -> boundaryEventDensity = Double.parseDouble(value);
+                    default -> throw new IllegalArgumentException("Unknown diagram spec option: " + options[i]);
+                }
+            }
+
+            return new DiagramSpec(Integer.parseInt(parts[0].trim()), chainLength, Double.parseDouble(parts[1].trim()),
+                    gatewayFanOut, Double.parseDouble(parts[2].trim()), subProcessDensity, subProcessSize,
+                    nestingDepth, boundaryEventDensity, seed);
+        } catch (final NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed diagram spec: " + spec, e);
+        }
+    }
+
+    /**
+     * Validates that a count is not below its minimum.
+     *
+     * @param name    The name of the count, for the error message.
+     * @param value   The count.
+     * @param minimum The minimum.
+     * @throws IllegalArgumentException if the count is below the minimum.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    private static void requireAtLeast(final String name, final int value, final int minimum) {
+        if (value < minimum) {
+            throw new IllegalArgumentException(name + " must be at least " + minimum + ": " + value);
+        }
+    }
+
+    /**
+     * Validates that a density is a probability.
+     *
+     * @param name  The name of the density, for the error message.
+     * @param value The density.
+     * @throws IllegalArgumentException if the density is not within [0, 1].
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    private static void requireProbability(final String name, final double value) {
+        if (!(value >= 0 && value <= 1)) {
+            throw new IllegalArgumentException(name + " must be within [0, 1]: " + value);
+        }
+    }
+
+}
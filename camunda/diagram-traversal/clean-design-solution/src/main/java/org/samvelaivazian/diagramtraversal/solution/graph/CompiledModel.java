@@ -0,0 +1,66 @@
+package org.samvelaivazian.diagramtraversal.solution.graph;
+
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+
+/**
+ * The compiled route graph of a version of a BPMN model. The parsed model instance is not kept, so a cached compiled
+ * model holds exactly the graph elements counted by its {@link #weight()}.
+ *
+ * @param routeGraph     The route graph compiled from the model.
+ * @param contentVersion The version of the content the model was compiled from, i.e. the content hash, or the ETag
+ *                       of a route graph restored from a file; null if unknown.
+ */
+public record CompiledModel(RouteGraph routeGraph, String contentVersion) {
+
+    /**
+     * Compiles the route graph of an already parsed model of unknown version, which can be dropped afterwards.
+     *
+     * @param bpmnModelInstance The parsed BPMN model instance.
+     * @return The compiled model.
+     * @complexity Time: O(V + E), where V is the number of vertices (nodes) and E is the number of edges.
+     *             Space: O(V + E), to store the compiled graph.
+     */
+    public static CompiledModel compile(final BpmnModelInstance bpmnModelInstance) {
+        return new CompiledModel(RouteGraph.compile(bpmnModelInstance), null);
+    }
+
+    /**
+     * Compiles the route graph of an already parsed model, weighing every node with the given weigher.
+     *
+     * @param bpmnModelInstance The parsed BPMN model instance.
+     * @param weigher           The weigher computing the weight of every flow node.
+     * @param contentVersion    The version of the content the model was parsed from.
+     * @return The compiled model.
+     * @complexity Time: O(V + E) plus the cost of the weigher for every node.
+     *             Space: O(V + E), to store the compiled graph.
+     */
+    public static CompiledModel compile(final BpmnModelInstance bpmnModelInstance, final FlowNodeWeigher weigher,
+                                        final String contentVersion) {
+        return new CompiledModel(RouteGraph.compile(bpmnModelInstance, weigher), contentVersion);
+    }
+
+    /**
+     * Wraps a route graph extracted without building a model instance.
+     *
+     * @param routeGraph     The extracted route graph.
+     * @param contentVersion The version of the content the graph was extracted from.
+     * @return The compiled model.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public static CompiledModel ofRouteGraph(final RouteGraph routeGraph, final String contentVersion) {
+        return new CompiledModel(routeGraph, contentVersion);
+    }
+
+    /**
+     * Returns the weight of this model for bounded caches, measured in graph elements.
+     *
+     * @return The number of nodes plus the number of edges of the compiled graph.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public long weight() {
+        return (long) routeGraph.nodeCount() + routeGraph.edgeCount();
+    }
+
+}
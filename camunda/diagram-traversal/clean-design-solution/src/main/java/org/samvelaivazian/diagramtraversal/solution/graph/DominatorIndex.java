@@ -0,0 +1,248 @@
+package org.samvelaivazian.diagramtraversal.solution.graph;
+
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.samvelaivazian.diagramtraversal.solution.exceptions.BuildRouteException;
+
+import java.util.List;
+
+/**
+ * Precomputed dominator trees of the start events and post-dominator trees of the end events of a {@link RouteGraph},
+ * answering which nodes every route must pass through without excluding nodes and searching again.
+ * <p>
+ * Start events are the nodes without incoming edges and end events the nodes without outgoing edges. A must-pass
+ * query between a start event and any node is answered by the dominator tree of the start event, a query between any
+ * node and an end event by the post-dominator tree of the end event, both in time proportional to the depth of the
+ * node. Queries between two other nodes build the dominator tree of their start node on demand, in linear time.
+ * The trees are built once per graph, so callers keep the index for as long as the model version does not change.
+ * Instances are immutable and safe to share between threads.
+ */
+public final class DominatorIndex {
+
+    /**
+     * The indexed route graph.
+     */
+    private final RouteGraph routeGraph;
+
+    /**
+     * The dominator tree of every start event by node index, null for other nodes.
+     */
+    private final DominatorTree[] dominatorTrees;
+
+    /**
+     * The post-dominator tree of every end event by node index, null for other nodes.
+     */
+    private final DominatorTree[] postDominatorTrees;
+
+    /**
+     * The number of precomputed trees.
+     */
+    private final int treeCount;
+
+    /**
+     * Constructor to initialize the DominatorIndex with its precomputed trees.
+     *
+     * @param routeGraph         The indexed route graph.
+     * @param dominatorTrees     The dominator tree of every start event.
+     * @param postDominatorTrees The post-dominator tree of every end event.
+     * @param treeCount          The number of precomputed trees.
+     */
+    private DominatorIndex(final RouteGraph routeGraph, final DominatorTree[] dominatorTrees,
+                           final DominatorTree[] postDominatorTrees, final int treeCount) {
+        this.routeGraph = routeGraph;
+        this.dominatorTrees = dominatorTrees;
+        this.postDominatorTrees = postDominatorTrees;
+        this.treeCount = treeCount;
+    }
+
+    /**
+     * Builds the dominator index of a BPMN model.
+     *
+     * @param bpmnModelInstance The BPMN model instance.
+     * @return The dominator index.
+     * @complexity Time: O(k * (V + E)), where k is the number of start and end events.
+     *             Space: O(k * V), for one tree per event.
+     */
+    public static DominatorIndex build(final BpmnModelInstance bpmnModelInstance) {
+        return build(RouteGraph.compile(bpmnModelInstance));
+    }
+
+    /**
+     * Builds the dominator index of a compiled route graph.
+     *
+     * @param routeGraph The compiled route graph.
+     * @return The dominator index.
+     * @complexity Time: O(k * (V + E)), where k is the number of start and end events.
+     *             Space: O(k * V), for one tree per event.
+     */
+    public static DominatorIndex build(final RouteGraph routeGraph) {
+        final int nodeCount = routeGraph.nodeCount();
+        final DominatorTree[] dominatorTrees = new DominatorTree[nodeCount];
+        final DominatorTree[] postDominatorTrees = new DominatorTree[nodeCount];
+        int treeCount = 0;
+
+        for (int node = 0; node < nodeCount; node++) {
+            if (routeGraph.incomingStart(node) == routeGraph.incomingEnd(node)) {
+                dominatorTrees[node] = DominatorTree.dominators(routeGraph, node);
+                treeCount++;
+            }
+            if (routeGraph.edgesStart(node) == routeGraph.edgesEnd(node)) {
+                postDominatorTrees[node] = DominatorTree.postDominators(routeGraph, node);
+                treeCount++;
+            }
+        }
+
+        return new DominatorIndex(routeGraph, dominatorTrees, postDominatorTrees, treeCount);
+    }
+
+    /**
+     * Returns the nodes every route from a start node to an end node must pass through, including both.
+     *
+     * @param startNodeId ID of the start node.
+     * @param endNodeId   ID of the end node.
+     * @return Immutable list of the node IDs of the must-pass nodes, in route order.
+     * @throws BuildRouteException if either node does not exist or the end node is not reachable.
+     * @complexity Time: O(D) if either node is an event, where D is the depth of the other node in its tree;
+     *             O(V + E) otherwise.
+     *             Space: O(D), for the returned list; O(V) to build a tree on demand.
+     */
+    public List<String> checkpoints(final String startNodeId, final String endNodeId) {
+        final int startNode = routeGraph.indexOf(startNodeId);
+        final int endNode = routeGraph.indexOf(endNodeId);
+        if (startNode < 0 || endNode < 0) {
+            throw new BuildRouteException("Failed to obtain FlowNode from startNodeId '" +
+                    startNodeId + "' or/and " + "endNodeId '" + endNodeId + "'"
+            );
+        }
+
+        final DominatorTree tree = dominatorTrees[startNode] == null && postDominatorTrees[endNode] != null
+                ? postDominatorTrees[endNode]
+                : getDominatorTree(startNode);
+        final int node = tree.isPost() ? startNode : endNode;
+        if (!tree.covers(node)) {
+            throw new BuildRouteException("Failed to build route from model");
+        }
+
+        return tree.checkpointsOf(node);
+    }
+
+    /**
+     * Returns the last node every route from a start node to either of two nodes passes through, e.g. the gateway
+     * where their branches split.
+     *
+     * @param startNodeId  ID of the start node.
+     * @param firstNodeId  ID of the first node.
+     * @param secondNodeId ID of the second node.
+     * @return The ID of the nearest common dominator, or null if either node is not reachable from the start node.
+     * @throws BuildRouteException if any of the nodes does not exist.
+     * @complexity Time: O(D) for a start event, where D is the depth of the deeper node; O(V + E) otherwise.
+     *             Space: O(1); O(V) to build a tree on demand.
+     */
+    public String nearestCommonDominator(final String startNodeId, final String firstNodeId,
+                                         final String secondNodeId) {
+        return nearestCommonDominator(getDominatorTree(indexOf(startNodeId)), firstNodeId, secondNodeId);
+    }
+
+    /**
+     * Returns the first node every route from either of two nodes to an end node passes through, e.g. the gateway
+     * where their branches join.
+     *
+     * @param endNodeId    ID of the end node.
+     * @param firstNodeId  ID of the first node.
+     * @param secondNodeId ID of the second node.
+     * @return The ID of the nearest common post-dominator, or null if either node does not reach the end node.
+     * @throws BuildRouteException if any of the nodes does not exist.
+     * @complexity Time: O(D) for an end event, where D is the depth of the deeper node; O(V + E) otherwise.
+     *             Space: O(1); O(V) to build a tree on demand.
+     */
+    public String nearestCommonPostDominator(final String endNodeId, final String firstNodeId,
+                                             final String secondNodeId) {
+        return nearestCommonDominator(getPostDominatorTree(indexOf(endNodeId)), firstNodeId, secondNodeId);
+    }
+
+    /**
+     * Returns the dominator tree of a start node, precomputed for start events and built on demand otherwise.
+     *
+     * @param startNode The node index of the start node.
+     * @return The dominator tree.
+     * @complexity Time: O(1) for a start event; O(V + E) otherwise.
+     *             Space: O(1) for a start event; O(V) otherwise.
+     */
+    public DominatorTree getDominatorTree(final int startNode) {
+        final DominatorTree tree = dominatorTrees[startNode];
+
+        return tree != null ? tree : DominatorTree.dominators(routeGraph, startNode);
+    }
+
+    /**
+     * Returns the post-dominator tree of an end node, precomputed for end events and built on demand otherwise.
+     *
+     * @param endNode The node index of the end node.
+     * @return The post-dominator tree.
+     * @complexity Time: O(1) for an end event; O(V + E) otherwise.
+     *             Space: O(1) for an end event; O(V) otherwise.
+     */
+    public DominatorTree getPostDominatorTree(final int endNode) {
+        final DominatorTree tree = postDominatorTrees[endNode];
+
+        return tree != null ? tree : DominatorTree.postDominators(routeGraph, endNode);
+    }
+
+    /**
+     * Returns the indexed route graph.
+     *
+     * @return The route graph.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public RouteGraph getRouteGraph() {
+        return routeGraph;
+    }
+
+    /**
+     * Returns the number of precomputed trees, one per start event and one per end event.
+     *
+     * @return The number of trees.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public int getTreeCount() {
+        return treeCount;
+    }
+
+    /**
+     * Resolves two node IDs and returns their nearest common dominator in a tree.
+     *
+     * @param tree         The dominator or post-dominator tree.
+     * @param firstNodeId  ID of the first node.
+     * @param secondNodeId ID of the second node.
+     * @return The ID of the nearest common dominator, or null if either node is not covered by the tree.
+     * @throws BuildRouteException if either node does not exist.
+     * @complexity Time: O(D), where D is the depth of the deeper node.
+     *             Space: O(1).
+     */
+    private String nearestCommonDominator(final DominatorTree tree, final String firstNodeId,
+                                          final String secondNodeId) {
+        final int dominator = tree.nearestCommonDominator(indexOf(firstNodeId), indexOf(secondNodeId));
+
+        return dominator == DominatorTree.NO_DOMINATOR ? null : routeGraph.nodeId(dominator);
+    }
+
+    /**
+     * Resolves a node ID to its node index.
+     *
+     * @param nodeId The flow node ID.
+     * @return The node index.
+     * @throws BuildRouteException if the node does not exist.
+     * @complexity Time: O(k) on average, where k is the length of the ID.
+     *             Space: O(1).
+     */
+    private int indexOf(final String nodeId) {
+        final int node = routeGraph.indexOf(nodeId);
+        if (node < 0) {
+            throw new BuildRouteException("Failed to obtain FlowNode from nodeId '" + nodeId + "'");
+        }
+
+        return node;
+    }
+
+}
@@ -0,0 +1,387 @@
+package org.samvelaivazian.diagramtraversal.solution.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Dominator or post-dominator tree of a {@link RouteGraph}, rooted at a single node.
+ * <p>
+ * In the dominator tree of a start node, a node dominates another if every route from the start node to the other
+ * node passes through it; in the post-dominator tree of an end node, a node post-dominates another if every route
+ * from the other node to the end node passes through it. The nodes every route between the root and a node must
+ * pass through are therefore the ancestors of the node, read off the tree in time proportional to its depth.
+ * <p>
+ * The tree is computed with the iterative algorithm of Cooper, Harvey and Kennedy over the reverse postorder of the
+ * nodes covered by the root, using the outgoing edges for dominators and the incoming edges for post-dominators.
+ * On the sparse, mostly acyclic graphs of BPMN models it converges in two passes and is simpler and faster in
+ * practice than Lengauer-Tarjan. Instances are immutable and safe to share between threads.
+ */
+public final class DominatorTree {
+
+    /**
+     * Marker for the root, which has no immediate dominator, and for nodes not covered by the tree.
+     */
+    public static final int NO_DOMINATOR = -1;
+
+    /**
+     * Marker for nodes not covered by the tree in the reverse postorder numbering.
+     */
+    private static final int UNNUMBERED = -1;
+
+    /**
+     * The graph of the tree.
+     */
+    private final RouteGraph routeGraph;
+
+    /**
+     * The root of the tree: the start node for dominators, the end node for post-dominators.
+     */
+    private final int root;
+
+    /**
+     * Whether this is a post-dominator tree.
+     */
+    private final boolean post;
+
+    /**
+     * The immediate dominator of every node, {@link #NO_DOMINATOR} for the root and for uncovered nodes.
+     */
+    private final int[] immediateDominators;
+
+    /**
+     * The depth of every covered node in the tree, 0 for the root.
+     */
+    private final int[] depths;
+
+    /**
+     * Constructor to initialize the DominatorTree with its computed arrays.
+     *
+     * @param routeGraph          The graph of the tree.
+     * @param root                The root of the tree.
+     * @param post                Whether this is a post-dominator tree.
+     * @param immediateDominators The immediate dominator of every node.
+     * @param depths              The depth of every covered node.
+     */
+    private DominatorTree(final RouteGraph routeGraph, final int root, final boolean post,
+                          final int[] immediateDominators, final int[] depths) {
+        this.routeGraph = routeGraph;
+        this.root = root;
+        this.post = post;
+        this.immediateDominators = immediateDominators;
+        this.depths = depths;
+    }
+
+    /**
+     * Builds the dominator tree of a start node, covering every node reachable from it.
+     *
+     * @param routeGraph The route graph.
+     * @param startNode  The node index of the start node.
+     * @return The dominator tree.
+     * @complexity Time: O((V + E) * d), where d is the loop nesting depth of the graph, usually 1 or 2 passes.
+     *             Space: O(V), for the tree and the reverse postorder.
+     */
+    public static DominatorTree dominators(final RouteGraph routeGraph, final int startNode) {
+        return build(routeGraph, startNode, false);
+    }
+
+    /**
+     * Builds the post-dominator tree of an end node, covering every node the end node is reachable from.
+     *
+     * @param routeGraph The route graph.
+     * @param endNode    The node index of the end node.
+     * @return The post-dominator tree.
+     * @complexity Time: O((V + E) * d), where d is the loop nesting depth of the graph, usually 1 or 2 passes.
+     *             Space: O(V), for the tree and the reverse postorder.
+     */
+    public static DominatorTree postDominators(final RouteGraph routeGraph, final int endNode) {
+        return build(routeGraph, endNode, true);
+    }
+
+    /**
+     * Returns the root of the tree.
+     *
+     * @return The node index of the start node of a dominator tree or the end node of a post-dominator tree.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public int getRoot() {
+        return root;
+    }
+
+    /**
+     * Checks if this is a post-dominator tree.
+     *
+     * @return True for a post-dominator tree, false for a dominator tree.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public boolean isPost() {
+        return post;
+    }
+
+    /**
+     * Checks if a node is covered by the tree, i.e. connected to the root by a route.
+     *
+     * @param node The node index.
+     * @return True if the node is reachable from the start node, or reaches the end node respectively.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public boolean covers(final int node) {
+        return node == root || immediateDominators[node] != NO_DOMINATOR;
+    }
+
+    /**
+     * Returns the immediate dominator of a node, the closest node every route between the root and the node passes
+     * through.
+     *
+     * @param node The node index.
+     * @return The node index of the immediate dominator, or {@link #NO_DOMINATOR} for the root and uncovered nodes.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public int immediateDominator(final int node) {
+        return immediateDominators[node];
+    }
+
+    /**
+     * Returns the depth of a covered node in the tree.
+     *
+     * @param node The node index of a covered node.
+     * @return The number of strict dominators of the node, 0 for the root.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public int depth(final int node) {
+        return depths[node];
+    }
+
+    /**
+     * Checks if every route between the root and a node passes through another node; every node dominates itself.
+     *
+     * @param dominator The node index of the candidate dominator.
+     * @param node      The node index of the dominated node.
+     * @return True if both nodes are covered and the first is an ancestor of the second in the tree.
+     * @complexity Time: O(D), where D is the depth of the dominated node.
+     *             Space: O(1).
+     */
+    public boolean dominates(final int dominator, final int node) {
+        if (!covers(dominator) || !covers(node)) {
+            return false;
+        }
+
+        int ancestor = node;
+        while (depths[ancestor] > depths[dominator]) {
+            ancestor = immediateDominators[ancestor];
+        }
+
+        return ancestor == dominator;
+    }
+
+    /**
+     * Returns the deepest node dominating both given nodes: in a dominator tree the last node every route from the
+     * start to either node passes through, in a post-dominator tree the first node every route from either node to
+     * the end passes through, e.g. the gateway where their branches join.
+     *
+     * @param firstNode  The node index of the first node.
+     * @param secondNode The node index of the second node.
+     * @return The node index of the nearest common dominator, or {@link #NO_DOMINATOR} if either node is not covered.
+     * @complexity Time: O(D), where D is the depth of the deeper node.
+     *             Space: O(1).
+     */
+    public int nearestCommonDominator(final int firstNode, final int secondNode) {
+        if (!covers(firstNode) || !covers(secondNode)) {
+            return NO_DOMINATOR;
+        }
+
+        int first = firstNode;
+        int second = secondNode;
+        while (depths[first] > depths[second]) {
+            first = immediateDominators[first];
+        }
+        while (depths[second] > depths[first]) {
+            second = immediateDominators[second];
+        }
+        while (first != second) {
+            first = immediateDominators[first];
+            second = immediateDominators[second];
+        }
+
+        return first;
+    }
+
+    /**
+     * Returns the nodes every route between the root and a node must pass through, including both, in route order:
+     * from the start node to the node in a dominator tree, from the node to the end node in a post-dominator tree.
+     *
+     * @param node The node index of a covered node.
+     * @return Immutable list of the node IDs of the must-pass nodes.
+     * @throws IllegalArgumentException if the node is not covered by the tree.
+     * @complexity Time: O(D), where D is the depth of the node.
+     *             Space: O(D), for the returned list.
+     */
+    public List<String> checkpointsOf(final int node) {
+        if (!covers(node)) {
+            throw new IllegalArgumentException("Node '" + routeGraph.nodeId(node) + "' is not covered by the tree");
+        }
+
+        final List<String> checkpoints = new ArrayList<>(depths[node] + 1);
+        for (int dominator = node; dominator != NO_DOMINATOR; dominator = immediateDominators[dominator]) {
+            checkpoints.add(routeGraph.nodeId(dominator));
+        }
+        if (!post) {
+            Collections.reverse(checkpoints);
+        }
+
+        return List.copyOf(checkpoints);
+    }
+
+    /**
+     * Computes the dominator or post-dominator tree of a root with the Cooper-Harvey-Kennedy algorithm.
+     * <p>
+     * Processing the nodes in reverse postorder, the immediate dominator of a node is the intersection of the
+     * dominators of its already processed predecessors, found by walking both up the tree by postorder number until
+     * they meet. The passes repeat until no immediate dominator changes, which only takes more than one pass with
+     * back edges.
+     *
+     * @param routeGraph The route graph.
+     * @param root       The node index of the root.
+     * @param post       True to follow the edges backwards for post-dominators.
+     * @return The tree.
+     * @complexity Time: O((V + E) * d), where d is the loop nesting depth of the graph.
+     *             Space: O(V).
+     */
+    private static DominatorTree build(final RouteGraph routeGraph, final int root, final boolean post) {
+        final int nodeCount = routeGraph.nodeCount();
+        final int[] reversePostorder = reversePostorder(routeGraph, root, post);
+        final int[] orderNumbers = new int[nodeCount];
+        Arrays.fill(orderNumbers, UNNUMBERED);
+        for (int position = 0; position < reversePostorder.length; position++) {
+            orderNumbers[reversePostorder[position]] = position;
+        }
+
+        // The root dominates itself until the end, which lets the intersection stop at it
+        final int[] immediateDominators = new int[nodeCount];
+        Arrays.fill(immediateDominators, NO_DOMINATOR);
+        immediateDominators[root] = root;
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+
+            for (int position = 1; position < reversePostorder.length; position++) {
+                final int node = reversePostorder[position];
+                int newDominator = NO_DOMINATOR;
+
+                final int predecessorsEnd = post ? routeGraph.edgesEnd(node) : routeGraph.incomingEnd(node);
+                for (int edge = post ? routeGraph.edgesStart(node) : routeGraph.incomingStart(node);
+                     edge < predecessorsEnd; edge++) {
+                    final int predecessor = post ? routeGraph.edgeTarget(edge) : routeGraph.incomingSource(edge);
+
+                    if (immediateDominators[predecessor] != NO_DOMINATOR) {
+                        newDominator = newDominator == NO_DOMINATOR
+                                ? predecessor
+                                : intersect(immediateDominators, orderNumbers, predecessor, newDominator);
+                    }
+                }
+
+                if (immediateDominators[node] != newDominator) {
+                    immediateDominators[node] = newDominator;
+                    changed = true;
+                }
+            }
+        }
+        immediateDominators[root] = NO_DOMINATOR;
+
+        // A dominator precedes the nodes it dominates in reverse postorder, so its depth is already known
+        final int[] depths = new int[nodeCount];
+        for (int position = 1; position < reversePostorder.length; position++) {
+            final int node = reversePostorder[position];
+            depths[node] = depths[immediateDominators[node]] + 1;
+        }
+
+        return new DominatorTree(routeGraph, root, post, immediateDominators, depths);
+    }
+
+    /**
+     * Walks two nodes up the partially built tree until they meet at their nearest common dominator.
+     *
+     * @param immediateDominators The immediate dominators computed so far.
+     * @param orderNumbers        The reverse postorder number of every node.
+     * @param firstNode           The first node index.
+     * @param secondNode          The second node index.
+     * @return The node index where both walks meet.
+     * @complexity Time: O(V) in the worst case, O(D) for nodes of depth D once the tree is stable.
+     *             Space: O(1).
+     */
+    private static int intersect(final int[] immediateDominators, final int[] orderNumbers, final int firstNode,
+                                 final int secondNode) {
+        int first = firstNode;
+        int second = secondNode;
+
+        while (first != second) {
+            while (orderNumbers[first] > orderNumbers[second]) {
+                first = immediateDominators[first];
+            }
+            while (orderNumbers[second] > orderNumbers[first]) {
+                second = immediateDominators[second];
+            }
+        }
+
+        return first;
+    }
+
+    /**
+     * Numbers the nodes covered by a root in reverse postorder with an iterative depth-first search.
+     *
+     * @param routeGraph The route graph.
+     * @param root       The node index of the root.
+     * @param post       True to follow the edges backwards.
+     * @return The covered nodes in reverse postorder, starting with the root.
+     * @complexity Time: O(V + E).
+     *             Space: O(V), for the stack and the edge cursors.
+     */
+    private static int[] reversePostorder(final RouteGraph routeGraph, final int root, final boolean post) {
+        final int nodeCount = routeGraph.nodeCount();
+        final int[] edgeCursors = new int[nodeCount];
+        final boolean[] visited = new boolean[nodeCount];
+        final int[] stack = new int[nodeCount];
+        final int[] postorder = new int[nodeCount];
+        int stackSize = 0;
+        int postorderSize = 0;
+
+        stack[stackSize++] = root;
+        visited[root] = true;
+        edgeCursors[root] = post ? routeGraph.incomingStart(root) : routeGraph.edgesStart(root);
+
+        while (stackSize > 0) {
+            final int node = stack[stackSize - 1];
+            final int successorsEnd = post ? routeGraph.incomingEnd(node) : routeGraph.edgesEnd(node);
+
+            if (edgeCursors[node] < successorsEnd) {
+                final int edge = edgeCursors[node]++;
+                final int successor = post ? routeGraph.incomingSource(edge) : routeGraph.edgeTarget(edge);
+
+                if (!visited[successor]) {
+                    visited[successor] = true;
+                    edgeCursors[successor] = post
+                            ? routeGraph.incomingStart(successor) : routeGraph.edgesStart(successor);
+                    stack[stackSize++] = successor;
+                }
+            } else {
+                postorder[postorderSize++] = node;
+                stackSize--;
+            }
+        }
+
+        final int[] reversePostorder = new int[postorderSize];
+        for (int position = 0; position < postorderSize; position++) {
+            reversePostorder[position] = postorder[postorderSize - 1 - position];
+        }
+
+        return reversePostorder;
+    }
+
+}
@@ -0,0 +1,95 @@
+package org.samvelaivazian.diagramtraversal.solution.graph;
+
+import org.camunda.bpm.model.bpmn.instance.ExtensionElements;
+import org.camunda.bpm.model.bpmn.instance.FlowNode;
+import org.camunda.bpm.model.bpmn.instance.camunda.CamundaProperties;
+import org.camunda.bpm.model.bpmn.instance.camunda.CamundaProperty;
+
+/**
+ * Computes the weight of a flow node, e.g. its expected duration or cost, when compiling a {@link RouteGraph}.
+ * Weights must be non-negative; the weight of a route is the sum of the weights of all its nodes after the start.
+ */
+@FunctionalInterface
+public interface FlowNodeWeigher {
+
+    /**
+     * The weight of a node without any weight information.
+     */
+    double DEFAULT_WEIGHT = 1.0;
+
+    /**
+     * Computes the weight of a flow node.
+     *
+     * @param flowNode The flow node.
+     * @return The non-negative weight.
+     */
+    double weigh(FlowNode flowNode);
+
+    /**
+     * Returns the weigher giving every node the default weight, so the weight of a route is its number of hops.
+     *
+     * @return The unit weigher.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    static FlowNodeWeigher unit() {
+        return flowNode -> DEFAULT_WEIGHT;
+    }
+
+    /**
+     * Returns a weigher reading a numeric Camunda extension property, e.g.
+     * {@code <camunda:property name="expectedDuration" value="30"/>}.
+     * Nodes without the property, or with a value that is no valid weight, get the default weight.
+     *
+     * @param propertyName  The name of the extension property.
+     * @param defaultWeight The weight of nodes without a usable property.
+     * @return The weigher.
+     * @complexity Time: O(p) per node, where p is the number of extension elements of the node.
+     *             Space: O(1).
+     */
+    static FlowNodeWeigher extensionProperty(final String propertyName, final double defaultWeight) {
+        return flowNode -> {
+            final ExtensionElements extensionElements = flowNode.getExtensionElements();
+            if (extensionElements == null) {
+                return defaultWeight;
+            }
+
+            for (final CamundaProperties properties : extensionElements.getElementsQuery()
+                    .filterByType(CamundaProperties.class).list()) {
+                for (final CamundaProperty property : properties.getCamundaProperties()) {
+                    if (propertyName.equals(property.getCamundaName()) && property.getCamundaValue() != null) {
+                        return parseWeight(property.getCamundaValue(), defaultWeight);
+                    }
+                }
+            }
+
+            return defaultWeight;
+        };
+    }
+
+    /**
+     * Parses a weight property value. Values that are not numbers, or are negative, infinite or NaN, would break
+     * the cost-based searches, so they are treated as missing.
+     *
+     * @param value         The property value, may be null.
+     * @param defaultWeight The weight of nodes without a usable property.
+     * @return The parsed weight if it is finite and non-negative, otherwise the default weight.
+     * @complexity Time: O(k), where k is the length of the value.
+     *             Space: O(1).
+     */
+    static double parseWeight(final String value, final double defaultWeight) {
+        if (value == null) {
+            return defaultWeight;
+        }
+
+        final double weight;
+        try {
+            weight = Double.parseDouble(value);
+        } catch (final NumberFormatException e) {
+            return defaultWeight;
+        }
+
+        return Double.isFinite(weight) && weight >= 0 ? weight : defaultWeight;
+    }
+
+}
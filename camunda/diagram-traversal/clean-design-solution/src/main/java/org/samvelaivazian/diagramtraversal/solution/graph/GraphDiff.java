@@ -0,0 +1,219 @@
+package org.samvelaivazian.diagramtraversal.solution.graph;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Structural difference between two versions of a {@link RouteGraph}, matching nodes by flow node ID.
+ * <p>
+ * A node of both versions is changed if its outgoing target IDs or their order, its weight, whether it is a parallel
+ * gateway, or its place in the {@link ProcessHierarchy} differ: the enclosing sub-process, the attached boundary
+ * events, the called element or whether it can complete. Anything derived from a version, such as cached routes or
+ * reachability rows, stays valid for the other version as long as it does not depend on a removed or changed node.
+ * Whether it is still optimal is a different question: an added edge or a lighter node anywhere may open a shorter
+ * or cheaper route elsewhere, which is why both are reported.
+ *
+ * @param addedNodeIds   The IDs of the nodes only in the new version.
+ * @param removedNodeIds The IDs of the nodes only in the old version.
+ * @param changedNodeIds The IDs of the nodes in both versions that differ.
+ * @param addedEdges     The edges only in the new version.
+ * @param removedEdges   The edges only in the old version.
+ * @param lighterNodeIds The IDs of the changed nodes whose weight decreased.
+ */
+public record GraphDiff(Set<String> addedNodeIds, Set<String> removedNodeIds, Set<String> changedNodeIds,
+                        Set<Edge> addedEdges, Set<Edge> removedEdges, Set<String> lighterNodeIds) {
+
+    /**
+     * Compares two versions of a route graph.
+     *
+     * @param oldGraph The old version.
+     * @param newGraph The new version.
+     * @return The difference.
+     * @complexity Time: O(V + E) on average, hash lookups by node ID.
+     *             Space: O(V + E) in the worst case, for the changed elements.
+     */
+    public static GraphDiff between(final RouteGraph oldGraph, final RouteGraph newGraph) {
+        final Set<String> addedNodeIds = new HashSet<>();
+        final Set<String> removedNodeIds = new HashSet<>();
+        final Set<String> changedNodeIds = new HashSet<>();
+        final Set<Edge> addedEdges = new HashSet<>();
+        final Set<Edge> removedEdges = new HashSet<>();
+        final Set<String> lighterNodeIds = new HashSet<>();
+
+        for (int newNode = 0; newNode < newGraph.nodeCount(); newNode++) {
+            final String nodeId = newGraph.nodeId(newNode);
+            final int oldNode = oldGraph.indexOf(nodeId);
+
+            if (oldNode < 0) {
+                addedNodeIds.add(nodeId);
+                addedEdges.addAll(outgoingEdges(newGraph, newNode));
+                continue;
+            }
+
+            final List<Edge> oldEdges = outgoingEdges(oldGraph, oldNode);
+            final List<Edge> newEdges = outgoingEdges(newGraph, newNode);
+            if (!oldEdges.equals(newEdges)) {
+                changedNodeIds.add(nodeId);
+                newEdges.stream().filter(edge -> !oldEdges.contains(edge)).forEach(addedEdges::add);
+                oldEdges.stream().filter(edge -> !newEdges.contains(edge)).forEach(removedEdges::add);
+            } else if (!hasSameAttributes(oldGraph, oldNode, newGraph, newNode)) {
+                changedNodeIds.add(nodeId);
+            }
+            if (newGraph.nodeWeight(newNode) < oldGraph.nodeWeight(oldNode)) {
+                lighterNodeIds.add(nodeId);
+            }
+        }
+
+        for (int oldNode = 0; oldNode < oldGraph.nodeCount(); oldNode++) {
+            if (newGraph.indexOf(oldGraph.nodeId(oldNode)) < 0) {
+                removedNodeIds.add(oldGraph.nodeId(oldNode));
+                removedEdges.addAll(outgoingEdges(oldGraph, oldNode));
+            }
+        }
+
+        return new GraphDiff(Set.copyOf(addedNodeIds), Set.copyOf(removedNodeIds), Set.copyOf(changedNodeIds),
+                Set.copyOf(addedEdges), Set.copyOf(removedEdges), Set.copyOf(lighterNodeIds));
+    }
+
+    /**
+     * Checks if both versions are structurally identical.
+     *
+     * @return True if no node or edge was added, removed or changed.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public boolean isEmpty() {
+        return addedNodeIds.isEmpty() && removedNodeIds.isEmpty() && changedNodeIds.isEmpty();
+    }
+
+    /**
+     * Checks if a route of the old version passes through a removed or changed node, so that it may no longer be a
+     * route of the new version. A route that does not touch the difference is still a valid route, but not
+     * necessarily the shortest or cheapest one; see {@link #mayShortenRoutes()} and {@link #mayCheapenRoutes()}.
+     *
+     * @param route The node IDs of the route.
+     * @return True if the route touches the difference.
+     * @complexity Time: O(L) on average, where L is the length of the route.
+     *             Space: O(1).
+     */
+    public boolean touches(final List<String> route) {
+        for (final String nodeId : route) {
+            if (removedNodeIds.contains(nodeId) || changedNodeIds.contains(nodeId)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks if the new version may have routes with fewer hops than the old one between the same nodes.
+     *
+     * @return True if an edge was added.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public boolean mayShortenRoutes() {
+        return !addedEdges.isEmpty();
+    }
+
+    /**
+     * Checks if the new version may have routes of a lower total node weight than the old one between the same nodes.
+     *
+     * @return True if an edge was added or the weight of a node decreased.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public boolean mayCheapenRoutes() {
+        return !addedEdges.isEmpty() || !lighterNodeIds.isEmpty();
+    }
+
+    /**
+     * Collects the outgoing edges of a node in edge order.
+     *
+     * @param graph The route graph.
+     * @param node  The node index.
+     * @return The outgoing edges.
+     * @complexity Time: O(d), where d is the out-degree of the node.
+     *             Space: O(d).
+     */
+    private static List<Edge> outgoingEdges(final RouteGraph graph, final int node) {
+        final List<Edge> edges = new ArrayList<>(graph.edgesEnd(node) - graph.edgesStart(node));
+        for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+            edges.add(new Edge(graph.nodeId(node), graph.nodeId(graph.edgeTarget(edge))));
+        }
+
+        return edges;
+    }
+
+    /**
+     * Checks if a node has the same weight, gateway kind and hierarchy in both versions.
+     *
+     * @param oldGraph The old version.
+     * @param oldNode  The node index in the old version.
+     * @param newGraph The new version.
+     * @param newNode  The node index in the new version.
+     * @return True if all attributes are equal.
+     * @complexity Time: O(b + D), where b is the number of boundary events and D the nesting depth.
+     *             Space: O(b).
+     */
+    private static boolean hasSameAttributes(final RouteGraph oldGraph, final int oldNode, final RouteGraph newGraph,
+                                             final int newNode) {
+        final ProcessHierarchy oldHierarchy = oldGraph.hierarchy();
+        final ProcessHierarchy newHierarchy = newGraph.hierarchy();
+
+        return Double.compare(oldGraph.nodeWeight(oldNode), newGraph.nodeWeight(newNode)) == 0
+                && oldGraph.isParallelGateway(oldNode) == newGraph.isParallelGateway(newNode)
+                && oldHierarchy.completes(oldNode) == newHierarchy.completes(newNode)
+                && Objects.equals(oldHierarchy.calledElement(oldNode), newHierarchy.calledElement(newNode))
+                && Objects.equals(scopeId(oldGraph, oldNode), scopeId(newGraph, newNode))
+                && boundaryEventIds(oldGraph, oldNode).equals(boundaryEventIds(newGraph, newNode));
+    }
+
+    /**
+     * Returns the ID of the sub-process a node is declared in.
+     *
+     * @param graph The route graph.
+     * @param node  The node index.
+     * @return The sub-process ID, or null for top-level nodes.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    private static String scopeId(final RouteGraph graph, final int node) {
+        final int scope = graph.hierarchy().scopeOf(node);
+
+        return scope == ProcessHierarchy.NO_SCOPE ? null : graph.nodeId(scope);
+    }
+
+    /**
+     * Collects the IDs of the boundary events attached to a node.
+     *
+     * @param graph The route graph.
+     * @param node  The node index.
+     * @return The boundary event IDs in attachment order.
+     * @complexity Time: O(b), where b is the number of boundary events.
+     *             Space: O(b).
+     */
+    private static List<String> boundaryEventIds(final RouteGraph graph, final int node) {
+        final ProcessHierarchy hierarchy = graph.hierarchy();
+        final List<String> boundaryEventIds = new ArrayList<>();
+        for (int i = hierarchy.boundaryEventsStart(node); i < hierarchy.boundaryEventsEnd(node); i++) {
+            boundaryEventIds.add(graph.nodeId(hierarchy.boundaryEvent(i)));
+        }
+
+        return boundaryEventIds;
+    }
+
+    /**
+     * A sequence flow between two flow nodes, identified by their IDs.
+     *
+     * @param sourceNodeId ID of the source node.
+     * @param targetNodeId ID of the target node.
+     */
+    public record Edge(String sourceNodeId, String targetNodeId) {
+    }
+
+}
@@ -0,0 +1,215 @@
+package org.samvelaivazian.diagramtraversal.solution.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable index resolving flow node IDs to dense node indexes, built once when a {@link RouteGraph} is created.
+ * <p>
+ * Exact lookups go through an open-addressing hash table with linear probing over two parallel {@code int[]} arrays,
+ * the node index and the hash code of every slot. The table is kept at most half full, so a lookup probes about two
+ * slots and compares strings only on a hash match; no boxed integers or map entries are touched, and a String caches
+ * its hash code, so repeated queries with the same ID objects do not hash again.
+ * <p>
+ * For autocompletion and validation of user-supplied IDs, the index also keeps the node indexes sorted by ID. The IDs
+ * starting with a prefix form one contiguous run of that order, found by binary search like the subtree of a prefix
+ * in a trie, without the memory of trie nodes. Instances are safe to share between threads.
+ */
+public final class NodeIdIndex {
+
+    /**
+     * The marker of an empty slot.
+     */
+    private static final int EMPTY_SLOT = -1;
+
+    /**
+     * The flow node IDs, indexed by node index.
+     */
+    private final String[] nodeIds;
+
+    /**
+     * The node index in every slot, or {@link #EMPTY_SLOT}.
+     */
+    private final int[] slotNodes;
+
+    /**
+     * The hash code of the ID in every slot.
+     */
+    private final int[] slotHashes;
+
+    /**
+     * The node indexes sorted by ID.
+     */
+    private final int[] sortedNodes;
+
+    /**
+     * Constructor to initialize the NodeIdIndex with its computed arrays.
+     *
+     * @param nodeIds     The flow node IDs, indexed by node index.
+     * @param slotNodes   The node index in every slot.
+     * @param slotHashes  The hash code of the ID in every slot.
+     * @param sortedNodes The node indexes sorted by ID.
+     */
+    private NodeIdIndex(final String[] nodeIds, final int[] slotNodes, final int[] slotHashes,
+                        final int[] sortedNodes) {
+        this.nodeIds = nodeIds;
+        this.slotNodes = slotNodes;
+        this.slotHashes = slotHashes;
+        this.sortedNodes = sortedNodes;
+    }
+
+    /**
+     * Builds the index of the given flow node IDs.
+     *
+     * @param nodeIds The flow node IDs, indexed by node index; the array is shared, not copied.
+     * @return The index.
+     * @throws IllegalArgumentException if an ID occurs twice.
+     * @complexity Time: O(V log V * k), where k is the average ID length, for sorting the IDs.
+     *             Space: O(V), for the slots and the sorted order.
+     */
+    public static NodeIdIndex build(final String[] nodeIds) {
+        // A power of two of at least twice the IDs keeps the table at most half full
+        final int capacity = Integer.highestOneBit(Math.max(1, nodeIds.length) * 4 - 1);
+        final int[] slotNodes = new int[capacity];
+        final int[] slotHashes = new int[capacity];
+        Arrays.fill(slotNodes, EMPTY_SLOT);
+
+        for (int node = 0; node < nodeIds.length; node++) {
+            final int hash = nodeIds[node].hashCode();
+            int slot = spread(hash) & (capacity - 1);
+
+            while (slotNodes[slot] != EMPTY_SLOT) {
+                if (slotHashes[slot] == hash && nodeIds[slotNodes[slot]].equals(nodeIds[node])) {
+                    throw new IllegalArgumentException("Duplicate flow node ID '" + nodeIds[node] + "'");
+                }
+                slot = (slot + 1) & (capacity - 1);
+            }
+            slotNodes[slot] = node;
+            slotHashes[slot] = hash;
+        }
+
+        final int[] sortedNodes = Arrays.stream(sortedNodeIndexes(nodeIds)).mapToInt(Integer::intValue).toArray();
+
+        return new NodeIdIndex(nodeIds, slotNodes, slotHashes, sortedNodes);
+    }
+
+    /**
+     * Resolves a flow node ID to its node index.
+     *
+     * @param nodeId The flow node ID.
+     * @return The node index, or {@code -1} if there is no such node.
+     * @complexity Time: O(k) on average, where k is the length of the ID, for hashing and one comparison.
+     *             Space: O(1).
+     */
+    public int indexOf(final String nodeId) {
+        final int hash = nodeId.hashCode();
+        final int mask = slotNodes.length - 1;
+
+        for (int slot = spread(hash) & mask; slotNodes[slot] != EMPTY_SLOT; slot = (slot + 1) & mask) {
+            if (slotHashes[slot] == hash && nodeIds[slotNodes[slot]].equals(nodeId)) {
+                return slotNodes[slot];
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the IDs starting with the given prefix, in lexicographic order.
+     *
+     * @param prefix The prefix; empty for all IDs.
+     * @param limit  The maximum number of IDs to return.
+     * @return Immutable list of at most {@code limit} matching IDs.
+     * @throws IllegalArgumentException if the limit is negative.
+     * @complexity Time: O(k * (log V + m)), where k is the length of the prefix and m the number of returned IDs.
+     *             Space: O(m), for the returned list.
+     */
+    public List<String> withPrefix(final String prefix, final int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must be non-negative: " + limit);
+        }
+
+        final List<String> matches = new ArrayList<>(Math.min(limit, sortedNodes.length));
+        for (int position = firstAtLeast(prefix); position < sortedNodes.length && matches.size() < limit;
+             position++) {
+            final String nodeId = nodeIds[sortedNodes[position]];
+            if (!nodeId.startsWith(prefix)) {
+                break;
+            }
+            matches.add(nodeId);
+        }
+
+        return List.copyOf(matches);
+    }
+
+    /**
+     * Checks if any ID starts with the given prefix, so that input that can no longer match is rejected early.
+     *
+     * @param prefix The prefix.
+     * @return True if at least one ID starts with the prefix.
+     * @complexity Time: O(k * log V), where k is the length of the prefix.
+     *             Space: O(1).
+     */
+    public boolean hasPrefix(final String prefix) {
+        final int position = firstAtLeast(prefix);
+
+        return position < sortedNodes.length && nodeIds[sortedNodes[position]].startsWith(prefix);
+    }
+
+    /**
+     * Finds the first position in the sorted order whose ID is not less than the given string.
+     *
+     * @param value The string to search for.
+     * @return The position, or the number of IDs if every ID is less.
+     * @complexity Time: O(k * log V), where k is the length of the string.
+     *             Space: O(1).
+     */
+    private int firstAtLeast(final String value) {
+        int low = 0;
+        int high = sortedNodes.length;
+
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (nodeIds[sortedNodes[middle]].compareTo(value) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Sorts the node indexes by their IDs.
+     *
+     * @param nodeIds The flow node IDs.
+     * @return The node indexes in ID order.
+     * @complexity Time: O(V log V * k), where k is the average ID length.
+     *             Space: O(V).
+     */
+    private static Integer[] sortedNodeIndexes(final String[] nodeIds) {
+        final Integer[] nodes = new Integer[nodeIds.length];
+        for (int node = 0; node < nodeIds.length; node++) {
+            nodes[node] = node;
+        }
+        Arrays.sort(nodes, Comparator.comparing(node -> nodeIds[node]));
+
+        return nodes;
+    }
+
+    /**
+     * Mixes the high bits of a hash code into the low bits used to pick a slot.
+     *
+     * @param hash The hash code.
+     * @return The spread hash.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    private static int spread(final int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+}
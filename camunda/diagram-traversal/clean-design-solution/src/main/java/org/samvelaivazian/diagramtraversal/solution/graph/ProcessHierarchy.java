@@ -0,0 +1,457 @@
+package org.samvelaivazian.diagramtraversal.solution.graph;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+
+/**
+ * Immutable, compiled nesting structure of a BPMN model on top of its {@link RouteGraph}.
+ * <p>
+ * Every node knows the embedded sub-process it is declared in, every activity the boundary events attached to it and
+ * every call activity the process definition key it calls. The entries of a sub-process are its nodes without
+ * incoming sequence flows other than boundary events, i.e. its start events; its exits are its nodes without outgoing
+ * sequence flows, i.e. its end events.
+ * <p>
+ * Whether a sub-process can complete, i.e. whether any of its exits is reachable from any of its entries, is
+ * summarized once per sub-process when the hierarchy is built, so searches pass a sub-process in a single step instead
+ * of traversing its contents again for every query. Summaries treat call activities as completing, since the called
+ * definitions are not known at compile time. Instances are safe to share between threads.
+ */
+public final class ProcessHierarchy {
+
+    /**
+     * Marker for nodes declared directly in the process rather than in a sub-process, and for nodes that are not
+     * attached to an activity.
+     */
+    public static final int NO_SCOPE = -1;
+
+    /**
+     * Summary state of a sub-process that was not summarized yet.
+     */
+    private static final byte UNKNOWN = 0;
+
+    /**
+     * Summary state of a sub-process that can complete.
+     */
+    private static final byte COMPLETES = 1;
+
+    /**
+     * Summary state of a sub-process none of whose exits is reachable from its entries.
+     */
+    private static final byte NEVER_COMPLETES = 2;
+
+    /**
+     * The sub-process every node is declared in, {@link #NO_SCOPE} for top-level nodes.
+     */
+    private final int[] scopes;
+
+    /**
+     * The offsets into {@link #entries} of the entries of every node, an empty range for nodes that are no
+     * sub-process.
+     */
+    private final int[] entryOffsets;
+
+    /**
+     * The entry nodes, grouped by sub-process.
+     */
+    private final int[] entries;
+
+    /**
+     * The offsets into {@link #boundaryEvents} of the boundary events attached to every node.
+     */
+    private final int[] boundaryOffsets;
+
+    /**
+     * The boundary event nodes, grouped by the activity they are attached to.
+     */
+    private final int[] boundaryEvents;
+
+    /**
+     * The summary state of every node; every node but a sub-process that cannot complete is {@link #COMPLETES}.
+     */
+    private final byte[] summaries;
+
+    /**
+     * The called process definition key of every call activity node.
+     */
+    private final Map<Integer, String> calledElements;
+
+    /**
+     * Whether the process itself can complete, i.e. reach a top-level exit from a top-level entry.
+     */
+    private final boolean processCompletes;
+
+    /**
+     * Constructor to initialize the ProcessHierarchy with already compiled arrays.
+     *
+     * @param scopes           The sub-process every node is declared in.
+     * @param entryOffsets     The CSR offsets of the sub-process entries.
+     * @param entries          The entry nodes.
+     * @param boundaryOffsets  The CSR offsets of the boundary events.
+     * @param boundaryEvents   The boundary event nodes.
+     * @param summaries        The summary state of every node.
+     * @param calledElements   The called process definition key of every call activity node.
+     * @param processCompletes Whether the process itself can complete.
+     */
+    private ProcessHierarchy(final int[] scopes, final int[] entryOffsets, final int[] entries,
+                             final int[] boundaryOffsets, final int[] boundaryEvents, final byte[] summaries,
+                             final Map<Integer, String> calledElements, final boolean processCompletes) {
+        this.scopes = scopes;
+        this.entryOffsets = entryOffsets;
+        this.entries = entries;
+        this.boundaryOffsets = boundaryOffsets;
+        this.boundaryEvents = boundaryEvents;
+        this.summaries = summaries;
+        this.calledElements = calledElements;
+        this.processCompletes = processCompletes;
+    }
+
+    /**
+     * Compiles the hierarchy of a graph and summarizes every sub-process.
+     *
+     * @param nodeCount       The number of nodes.
+     * @param offsets         The CSR offsets of the outgoing edges.
+     * @param edges           The CSR edge targets.
+     * @param incomingOffsets The CSR offsets of the incoming edges.
+     * @param scopes          The sub-process every node is declared in, {@link #NO_SCOPE} for top-level nodes.
+     * @param attachedTo      The activity every boundary event is attached to, {@link #NO_SCOPE} for other nodes.
+     * @param calledElements  The called process definition key of every call activity node.
+     * @return The compiled hierarchy.
+     * @complexity Time: O(V + E), every node and edge is visited by the summary of exactly one scope.
+     *             Space: O(V), to store the hierarchy.
+     */
+    static ProcessHierarchy build(final int nodeCount, final int[] offsets, final int[] edges,
+                                  final int[] incomingOffsets, final int[] scopes, final int[] attachedTo,
+                                  final Map<Integer, String> calledElements) {
+        // Entries are the nodes of a sub-process that nothing flows into, except for boundary events
+        final int[] entryOffsets = new int[nodeCount + 1];
+        final int[] boundaryOffsets = new int[nodeCount + 1];
+        for (int node = 0; node < nodeCount; node++) {
+            if (isEntry(node, incomingOffsets, attachedTo) && scopes[node] != NO_SCOPE) {
+                entryOffsets[scopes[node] + 1]++;
+            }
+            if (attachedTo[node] != NO_SCOPE) {
+                boundaryOffsets[attachedTo[node] + 1]++;
+            }
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            entryOffsets[node + 1] += entryOffsets[node];
+            boundaryOffsets[node + 1] += boundaryOffsets[node];
+        }
+
+        final int[] entries = new int[entryOffsets[nodeCount]];
+        final int[] boundaryEvents = new int[boundaryOffsets[nodeCount]];
+        final int[] entryCursors = Arrays.copyOf(entryOffsets, nodeCount);
+        final int[] boundaryCursors = Arrays.copyOf(boundaryOffsets, nodeCount);
+        for (int node = 0; node < nodeCount; node++) {
+            if (isEntry(node, incomingOffsets, attachedTo) && scopes[node] != NO_SCOPE) {
+                entries[entryCursors[scopes[node]]++] = node;
+            }
+            if (attachedTo[node] != NO_SCOPE) {
+                boundaryEvents[boundaryCursors[attachedTo[node]]++] = node;
+            }
+        }
+
+        // Every node that declares another one is a sub-process whose summary is still unknown
+        final byte[] summaries = new byte[nodeCount];
+        Arrays.fill(summaries, COMPLETES);
+        for (int node = 0; node < nodeCount; node++) {
+            if (scopes[node] != NO_SCOPE) {
+                summaries[scopes[node]] = UNKNOWN;
+            }
+        }
+
+        final ProcessHierarchy hierarchy = new ProcessHierarchy(scopes, entryOffsets, entries, boundaryOffsets,
+                boundaryEvents, summaries, Map.copyOf(calledElements), false);
+        final boolean[] visited = new boolean[nodeCount];
+
+        // Summarize every sub-process once; nested sub-processes are summarized on demand by their parent
+        for (int node = 0; node < nodeCount; node++) {
+            if (summaries[node] == UNKNOWN) {
+                hierarchy.summarize(node, offsets, edges, visited);
+            }
+        }
+
+        // The process is summarized like a sub-process whose entries are the top-level entries
+        final int[] processEntries = new int[nodeCount];
+        int processEntryCount = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            if (scopes[node] == NO_SCOPE && isEntry(node, incomingOffsets, attachedTo)) {
+                processEntries[processEntryCount++] = node;
+            }
+        }
+        final boolean processCompletes =
+                hierarchy.reachesExit(NO_SCOPE, processEntries, 0, processEntryCount, offsets, edges, visited);
+
+        // Publish the finished summaries through a new instance, so that they are safely visible to other threads
+        return new ProcessHierarchy(scopes, entryOffsets, entries, boundaryOffsets, boundaryEvents, summaries,
+                hierarchy.calledElements, processCompletes);
+    }
+
+    /**
+     * Restores a hierarchy that was compiled and summarized before, e.g. by {@link RouteGraphFile}.
+     *
+     * @param scopes           The sub-process every node is declared in.
+     * @param entryOffsets     The CSR offsets of the sub-process entries.
+     * @param entries          The entry nodes.
+     * @param boundaryOffsets  The CSR offsets of the boundary events.
+     * @param boundaryEvents   The boundary event nodes.
+     * @param neverCompleting  The nodes that cannot complete.
+     * @param calledElements   The called process definition key of every call activity node.
+     * @param processCompletes Whether the process itself can complete.
+     * @return The restored hierarchy.
+     * @complexity Time: O(V).
+     *             Space: O(V), for the summaries.
+     */
+    static ProcessHierarchy restore(final int[] scopes, final int[] entryOffsets, final int[] entries,
+                                    final int[] boundaryOffsets, final int[] boundaryEvents,
+                                    final BitSet neverCompleting, final Map<Integer, String> calledElements,
+                                    final boolean processCompletes) {
+        final byte[] summaries = new byte[scopes.length];
+        for (int node = 0; node < summaries.length; node++) {
+            summaries[node] = neverCompleting.get(node) ? NEVER_COMPLETES : COMPLETES;
+        }
+
+        return new ProcessHierarchy(scopes, entryOffsets, entries, boundaryOffsets, boundaryEvents, summaries,
+                Map.copyOf(calledElements), processCompletes);
+    }
+
+    /**
+     * Returns the sub-process the node is declared in.
+     *
+     * @param node The node index.
+     * @return The node index of the sub-process, or {@link #NO_SCOPE} for top-level nodes.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public int scopeOf(final int node) {
+        return scopes[node];
+    }
+
+    /**
+     * Checks if the node is an embedded sub-process with at least one entry. Sub-processes without entries cannot
+     * be entered and are passed like tasks.
+     *
+     * @param node The node index.
+     * @return True if the node is a sub-process with entries.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public boolean isSubProcess(final int node) {
+        return entryOffsets[node] != entryOffsets[node + 1];
+    }
+
+    /**
+     * Returns the memoized summary of the node: whether a token entering it can leave it through its outgoing
+     * sequence flows. Only sub-processes can fail to complete.
+     *
+     * @param node The node index.
+     * @return True if the node can complete.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public boolean completes(final int node) {
+        return summaries[node] == COMPLETES;
+    }
+
+    /**
+     * Checks if the process itself can complete, i.e. reach one of its top-level end events from one of its
+     * top-level start events.
+     *
+     * @return True if the process can complete.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public boolean processCompletes() {
+        return processCompletes;
+    }
+
+    /**
+     * Returns the process definition key called by the node.
+     *
+     * @param node The node index.
+     * @return The called process definition key, or null if the node is no call activity.
+     * @complexity Time: O(1) on average, a single hash lookup.
+     *             Space: O(1).
+     */
+    public String calledElement(final int node) {
+        return calledElements.isEmpty() ? null : calledElements.get(node);
+    }
+
+    /**
+     * Returns the position of the first entry of the given sub-process.
+     *
+     * @param node The node index.
+     * @return The inclusive start position, equal to the end position for nodes that are no sub-process.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public int entriesStart(final int node) {
+        return entryOffsets[node];
+    }
+
+    /**
+     * Returns the position after the last entry of the given sub-process.
+     *
+     * @param node The node index.
+     * @return The exclusive end position.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public int entriesEnd(final int node) {
+        return entryOffsets[node + 1];
+    }
+
+    /**
+     * Returns the entry node at the given position.
+     *
+     * @param position The position between {@link #entriesStart(int)} and {@link #entriesEnd(int)}.
+     * @return The entry node index.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public int entry(final int position) {
+        return entries[position];
+    }
+
+    /**
+     * Returns the position of the first boundary event attached to the given node.
+     *
+     * @param node The node index.
+     * @return The inclusive start position, equal to the end position for nodes without boundary events.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public int boundaryEventsStart(final int node) {
+        return boundaryOffsets[node];
+    }
+
+    /**
+     * Returns the position after the last boundary event attached to the given node.
+     *
+     * @param node The node index.
+     * @return The exclusive end position.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public int boundaryEventsEnd(final int node) {
+        return boundaryOffsets[node + 1];
+    }
+
+    /**
+     * Returns the boundary event node at the given position.
+     *
+     * @param position The position between {@link #boundaryEventsStart(int)} and {@link #boundaryEventsEnd(int)}.
+     * @return The boundary event node index.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public int boundaryEvent(final int position) {
+        return boundaryEvents[position];
+    }
+
+    /**
+     * Checks if a node is an entry of its scope: neither a target of a sequence flow nor a boundary event.
+     *
+     * @param node            The node index.
+     * @param incomingOffsets The CSR offsets of the incoming edges.
+     * @param attachedTo      The activity every boundary event is attached to.
+     * @return True if the node is an entry.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    private static boolean isEntry(final int node, final int[] incomingOffsets, final int[] attachedTo) {
+        return incomingOffsets[node] == incomingOffsets[node + 1] && attachedTo[node] == NO_SCOPE;
+    }
+
+    /**
+     * Summarizes a sub-process, summarizing the sub-processes nested in it first.
+     *
+     * @param subProcess The node index of the sub-process.
+     * @param offsets    The CSR offsets of the outgoing edges.
+     * @param edges      The CSR edge targets.
+     * @param visited    The nodes visited by any summary so far.
+     * @complexity Time: O(V_S + E_S), where V_S and E_S are the nodes and edges declared in the sub-process.
+     *             Space: O(V_S), due to the stack.
+     */
+    private void summarize(final int subProcess, final int[] offsets, final int[] edges, final boolean[] visited) {
+        final boolean completes = reachesExit(subProcess, entries, entryOffsets[subProcess],
+                entryOffsets[subProcess + 1], offsets, edges, visited);
+
+        summaries[subProcess] = completes ? COMPLETES : NEVER_COMPLETES;
+    }
+
+    /**
+     * Searches a scope from its entries for an exit, passing nested sub-processes only if they can complete.
+     *
+     * @param scope      The node index of the sub-process, or {@link #NO_SCOPE} for the process itself.
+     * @param roots      The array holding the entries.
+     * @param rootsStart The position of the first entry, inclusive.
+     * @param rootsEnd   The position of the last entry, exclusive.
+     * @param offsets    The CSR offsets of the outgoing edges.
+     * @param edges      The CSR edge targets.
+     * @param visited    The nodes visited by any summary so far.
+     * @return True if an exit is reachable.
+     * @complexity Time: O(V_S + E_S), where V_S and E_S are the nodes and edges declared in the scope.
+     *             Space: O(V_S), due to the stack.
+     */
+    private boolean reachesExit(final int scope, final int[] roots, final int rootsStart, final int rootsEnd,
+                                final int[] offsets, final int[] edges, final boolean[] visited) {
+        // An empty scope completes right away, which keeps the behaviour of passing it like a task
+        if (rootsStart == rootsEnd) {
+            return true;
+        }
+
+        int[] stack = new int[rootsEnd - rootsStart];
+        int stackSize = 0;
+        for (int i = rootsStart; i < rootsEnd; i++) {
+            visited[roots[i]] = true;
+            stack[stackSize++] = roots[i];
+        }
+
+        while (stackSize > 0) {
+            final int currentNode = stack[--stackSize];
+
+            // A nested sub-process is summarized before it is passed, exactly once
+            if (summaries[currentNode] == UNKNOWN) {
+                summarize(currentNode, offsets, edges, visited);
+            }
+
+            // Boundary events can be triggered even where the activity itself never completes
+            for (int i = boundaryOffsets[currentNode]; i < boundaryOffsets[currentNode + 1]; i++) {
+                final int boundaryEvent = boundaryEvents[i];
+
+                if (!visited[boundaryEvent] && scopes[boundaryEvent] == scope) {
+                    visited[boundaryEvent] = true;
+                    if (stackSize == stack.length) {
+                        stack = Arrays.copyOf(stack, stackSize * 2);
+                    }
+                    stack[stackSize++] = boundaryEvent;
+                }
+            }
+
+            if (summaries[currentNode] != COMPLETES) {
+                continue;
+            }
+            if (offsets[currentNode] == offsets[currentNode + 1]) {
+                return true;
+            }
+
+            for (int edge = offsets[currentNode]; edge < offsets[currentNode + 1]; edge++) {
+                final int targetNode = edges[edge];
+
+                // Sequence flows never cross scopes in valid BPMN; ignore those that do
+                if (!visited[targetNode] && scopes[targetNode] == scope) {
+                    visited[targetNode] = true;
+                    if (stackSize == stack.length) {
+                        stack = Arrays.copyOf(stack, stackSize * 2);
+                    }
+                    stack[stackSize++] = targetNode;
+                }
+            }
+        }
+
+        return false;
+    }
+
+}
@@ -0,0 +1,456 @@
+package org.samvelaivazian.diagramtraversal.solution.graph;
+
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.samvelaivazian.diagramtraversal.solution.exceptions.BuildRouteException;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Precomputed all-pairs reachability of a {@link RouteGraph}.
+ * <p>
+ * The graph is condensed into its strongly connected components (SCCs) with Tarjan's algorithm. Because Tarjan emits
+ * every component after all components reachable from it, the transitive closure is computed in emission order:
+ * the closure row of a component is the set of its own nodes OR-ed with the rows of its successor components.
+ * Rows are {@code long[]} bitsets over stable per-ID bit slots, which lets {@link #rebuild(ReachabilityIndex, RouteGraph)}
+ * reuse the row of every component whose reachable subgraph did not change. The slots of removed nodes stay reserved
+ * so that reused rows remain valid, until they outnumber half the live nodes; the index is then rebuilt from scratch
+ * with dense slots, so rows do not grow without bound across many versions.
+ */
+public final class ReachabilityIndex {
+
+    /**
+     * The number of bits in a bitset word.
+     */
+    private static final int WORD_BITS = Long.SIZE;
+
+    /**
+     * The maximum number of slots of removed nodes per live node before the slots are compacted.
+     */
+    private static final double MAX_DEAD_SLOTS_PER_NODE = 0.5;
+
+    /**
+     * The estimated JVM header size of an array object, in bytes.
+     */
+    private static final long ARRAY_HEADER_BYTES = 16;
+
+    /**
+     * The indexed route graph.
+     */
+    private final RouteGraph routeGraph;
+
+    /**
+     * The component of every node, numbered in Tarjan emission order.
+     */
+    private final int[] nodeComponents;
+
+    /**
+     * The bit slot of every node in the closure rows.
+     */
+    private final int[] nodeSlots;
+
+    /**
+     * The stable bit slot of every node ID ever indexed by this index or its predecessors.
+     */
+    private final Map<String, Integer> slotsByNodeId;
+
+    /**
+     * The closure row of every component: the slots of all nodes reachable from it, including its own.
+     */
+    private final long[][] componentRows;
+
+    /**
+     * The number of closure rows reused from the previous index when rebuilding.
+     */
+    private final int reusedRowCount;
+
+    /**
+     * Constructor to initialize the ReachabilityIndex with its computed arrays.
+     *
+     * @param routeGraph     The indexed route graph.
+     * @param nodeComponents The component of every node.
+     * @param nodeSlots      The bit slot of every node.
+     * @param slotsByNodeId  The stable bit slot of every node ID.
+     * @param componentRows  The closure row of every component.
+     * @param reusedRowCount The number of rows reused from a previous index.
+     */
+    private ReachabilityIndex(final RouteGraph routeGraph, final int[] nodeComponents, final int[] nodeSlots,
+                              final Map<String, Integer> slotsByNodeId, final long[][] componentRows,
+                              final int reusedRowCount) {
+        this.routeGraph = routeGraph;
+        this.nodeComponents = nodeComponents;
+        this.nodeSlots = nodeSlots;
+        this.slotsByNodeId = slotsByNodeId;
+        this.componentRows = componentRows;
+        this.reusedRowCount = reusedRowCount;
+    }
+
+    /**
+     * Builds the reachability index of a BPMN model.
+     *
+     * @param bpmnModelInstance The BPMN model instance.
+     * @return The reachability index.
+     * @complexity Time: O(V + E + C * E_c / 64), where C is the number of components and E_c the number of
+     *             edges between components.
+     *             Space: O(C * V / 64), due to one closure row per component.
+     */
+    public static ReachabilityIndex build(final BpmnModelInstance bpmnModelInstance) {
+        return build(RouteGraph.compile(bpmnModelInstance));
+    }
+
+    /**
+     * Builds the reachability index of a compiled route graph.
+     *
+     * @param routeGraph The compiled route graph.
+     * @return The reachability index.
+     * @complexity Time: O(V + E + C * E_c / 64), where C is the number of components and E_c the number of
+     *             edges between components.
+     *             Space: O(C * V / 64), due to one closure row per component.
+     */
+    public static ReachabilityIndex build(final RouteGraph routeGraph) {
+        return rebuild(null, routeGraph);
+    }
+
+    /**
+     * Builds the reachability index of a changed route graph, reusing what is still valid from a previous index.
+     * <p>
+     * The difference to the previous graph is computed with {@link GraphDiff#between(RouteGraph, RouteGraph)}.
+     * The reachable set of a component only depends on the edges below it, so the closure row of every component
+     * whose nodes and successor components are all unchanged is reused as is; only rows above a change are
+     * recomputed.
+     *
+     * @param previousIndex The index of the previous graph version, or null to build from scratch.
+     * @param routeGraph    The compiled route graph of the new version.
+     * @return The reachability index of the new version.
+     * @complexity Time: O(V + E) plus O(E_c / 64 * C_d) for the C_d recomputed rows.
+     *             Space: O(C_d * V / 64), for the recomputed rows; reused rows are shared.
+     */
+    public static ReachabilityIndex rebuild(final ReachabilityIndex previousIndex, final RouteGraph routeGraph) {
+        return previousIndex == null
+                ? rebuild(null, routeGraph, null)
+                : rebuild(previousIndex, routeGraph, GraphDiff.between(previousIndex.routeGraph, routeGraph));
+    }
+
+    /**
+     * Builds the reachability index of a changed route graph from a previous index and an already computed
+     * difference, so that callers that diff the versions anyway do not diff them twice.
+     * <p>
+     * A node is unchanged if it is not added and none of its outgoing edges is added or removed; changes of weights or
+     * of the hierarchy do not affect reachability. The reachable set of a component only depends on the edges below
+     * it, so the closure row of every component whose nodes and successor components are all unchanged is reused as
+     * is; only rows above a change are recomputed. If the slots of removed nodes outnumber half the live nodes, the
+     * index is built from scratch instead, reusing no rows.
+     *
+     * @param previousIndex The index of the previous graph version, or null to build from scratch.
+     * @param routeGraph    The compiled route graph of the new version.
+     * @param diff          The difference from the previous graph to the new one, ignored without a previous index.
+     * @return The reachability index of the new version.
+     * @complexity Time: O(V + E) plus O(E_c / 64 * C_d) for the C_d recomputed rows, all of them when compacting.
+     *             Space: O(C_d * V / 64), for the recomputed rows; reused rows are shared.
+     */
+    public static ReachabilityIndex rebuild(final ReachabilityIndex previousIndex, final RouteGraph routeGraph,
+                                            final GraphDiff diff) {
+        final int nodeCount = routeGraph.nodeCount();
+        final int[] nodeComponents = new int[nodeCount];
+        final int componentCount = findComponents(routeGraph, nodeComponents);
+
+        // Mark the nodes whose outgoing edges differ from the previous version
+        final boolean[] changedNodes = new boolean[nodeCount];
+        if (previousIndex == null) {
+            Arrays.fill(changedNodes, true);
+        } else {
+            diff.addedNodeIds().forEach(nodeId -> changedNodes[routeGraph.indexOf(nodeId)] = true);
+            diff.addedEdges().forEach(edge -> changedNodes[routeGraph.indexOf(edge.sourceNodeId())] = true);
+            diff.removedEdges().stream()
+                    .mapToInt(edge -> routeGraph.indexOf(edge.sourceNodeId()))
+                    .filter(node -> node >= 0)
+                    .forEach(node -> changedNodes[node] = true);
+        }
+
+        // Assign stable bit slots, keeping the slots of IDs known to the previous index
+        final Map<String, Integer> slotsByNodeId = previousIndex == null
+                ? new HashMap<>()
+                : new HashMap<>(previousIndex.slotsByNodeId);
+        final int[] nodeSlots = new int[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            nodeSlots[node] = slotsByNodeId.computeIfAbsent(routeGraph.nodeId(node), ignored -> slotsByNodeId.size());
+        }
+        if (previousIndex != null && slotsByNodeId.size() - nodeCount > nodeCount * MAX_DEAD_SLOTS_PER_NODE) {
+            // Rows over fewer slots cannot reuse the previous rows, so compacting means starting over
+            return rebuild(null, routeGraph, null);
+        }
+        final int wordCount = (slotsByNodeId.size() + WORD_BITS - 1) / WORD_BITS;
+
+        // Group the nodes by component so every component can be processed at once
+        final int[] componentOffsets = new int[componentCount + 1];
+        final int[] componentNodes = new int[nodeCount];
+        groupNodesByComponent(nodeComponents, componentOffsets, componentNodes);
+
+        // Compute the closure rows in emission order, so all successor rows are ready
+        final long[][] componentRows = new long[componentCount][];
+        final boolean[] changedComponents = new boolean[componentCount];
+        int reusedRowCount = 0;
+
+        for (int component = 0; component < componentCount; component++) {
+            final int firstNode = componentNodes[componentOffsets[component]];
+            boolean changed = false;
+
+            for (int i = componentOffsets[component]; i < componentOffsets[component + 1]; i++) {
+                final int node = componentNodes[i];
+                changed |= changedNodes[node];
+
+                for (int edge = routeGraph.edgesStart(node); edge < routeGraph.edgesEnd(node); edge++) {
+                    final int successorComponent = nodeComponents[routeGraph.edgeTarget(edge)];
+                    changed |= successorComponent != component && changedComponents[successorComponent];
+                }
+            }
+
+            changedComponents[component] = changed;
+            if (!changed) {
+                componentRows[component] = previousIndex.rowOf(routeGraph.nodeId(firstNode));
+                reusedRowCount++;
+                continue;
+            }
+
+            final long[] row = new long[wordCount];
+            for (int i = componentOffsets[component]; i < componentOffsets[component + 1]; i++) {
+                final int node = componentNodes[i];
+                row[nodeSlots[node] / WORD_BITS] |= 1L << nodeSlots[node];
+
+                for (int edge = routeGraph.edgesStart(node); edge < routeGraph.edgesEnd(node); edge++) {
+                    final int successorComponent = nodeComponents[routeGraph.edgeTarget(edge)];
+
+                    if (successorComponent != component) {
+                        final long[] successorRow = componentRows[successorComponent];
+                        for (int word = 0; word < successorRow.length; word++) {
+                            row[word] |= successorRow[word];
+                        }
+                    }
+                }
+            }
+            componentRows[component] = row;
+        }
+
+        return new ReachabilityIndex(routeGraph, nodeComponents, nodeSlots, slotsByNodeId, componentRows,
+                reusedRowCount);
+    }
+
+    /**
+     * Checks if there is a route from one flow node to another; every node reaches itself.
+     *
+     * @param startNodeId ID of the start node.
+     * @param endNodeId   ID of the end node.
+     * @return True if the end node is reachable from the start node.
+     * @throws BuildRouteException if either node does not exist.
+     * @complexity Time: O(1), two ID lookups and a single bit test.
+     *             Space: O(1), no additional space required.
+     */
+    public boolean isReachable(final String startNodeId, final String endNodeId) {
+        final int startNode = routeGraph.indexOf(startNodeId);
+        final int endNode = routeGraph.indexOf(endNodeId);
+
+        if (startNode < 0 || endNode < 0) {
+            throw new BuildRouteException("Failed to obtain FlowNode from startNodeId '" +
+                    startNodeId + "' or/and " + "endNodeId '" + endNodeId + "'"
+            );
+        }
+
+        return isReachable(startNode, endNode);
+    }
+
+    /**
+     * Checks if there is a route from one node index to another; every node reaches itself.
+     *
+     * @param startNode The node index of the start node.
+     * @param endNode   The node index of the end node.
+     * @return True if the end node is reachable from the start node.
+     * @complexity Time: O(1), a single bit test.
+     *             Space: O(1), no additional space required.
+     */
+    public boolean isReachable(final int startNode, final int endNode) {
+        final long[] row = componentRows[nodeComponents[startNode]];
+        final int slot = nodeSlots[endNode];
+        final int word = slot / WORD_BITS;
+
+        return word < row.length && (row[word] & (1L << slot)) != 0;
+    }
+
+    /**
+     * Returns the indexed route graph.
+     *
+     * @return The route graph.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public RouteGraph getRouteGraph() {
+        return routeGraph;
+    }
+
+    /**
+     * Returns the number of strongly connected components of the indexed graph.
+     *
+     * @return The number of components.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public int getComponentCount() {
+        return componentRows.length;
+    }
+
+    /**
+     * Returns the number of closure rows reused from the previous index when this index was rebuilt.
+     *
+     * @return The number of reused rows, 0 for an index built from scratch.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public int getReusedRowCount() {
+        return reusedRowCount;
+    }
+
+    /**
+     * Returns the number of bit slots of the closure rows, i.e. the live nodes plus the removed nodes whose slots
+     * are still reserved.
+     *
+     * @return The number of slots.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public int getSlotCount() {
+        return slotsByNodeId.size();
+    }
+
+    /**
+     * Estimates the heap memory retained by this index, excluding the route graph and the ID-to-slot map.
+     *
+     * @return The estimated footprint in bytes.
+     * @complexity Time: O(C), where C is the number of components.
+     *             Space: O(1).
+     */
+    public long getMemoryFootprintBytes() {
+        long bytes = 3 * ARRAY_HEADER_BYTES + 4L * nodeComponents.length + 4L * nodeSlots.length
+                + 8L * componentRows.length;
+
+        for (final long[] row : componentRows) {
+            bytes += ARRAY_HEADER_BYTES + 8L * row.length;
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Returns the closure row of the component containing the given node ID.
+     *
+     * @param nodeId The flow node ID, which must exist in this index's graph.
+     * @return The closure row.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    private long[] rowOf(final String nodeId) {
+        return componentRows[nodeComponents[routeGraph.indexOf(nodeId)]];
+    }
+
+    /**
+     * Finds the strongly connected components with an iterative version of Tarjan's algorithm.
+     *
+     * @param routeGraph     The route graph.
+     * @param nodeComponents Output: the component of every node, numbered in emission order.
+     * @return The number of components.
+     * @complexity Time: O(V + E).
+     *             Space: O(V), due to the index, low-link, stack and call-frame arrays.
+     */
+    private static int findComponents(final RouteGraph routeGraph, final int[] nodeComponents) {
+        final int nodeCount = routeGraph.nodeCount();
+        final int[] indexes = new int[nodeCount];
+        final int[] lowLinks = new int[nodeCount];
+        final boolean[] onStack = new boolean[nodeCount];
+        final int[] stack = new int[nodeCount];
+        final int[] frameNodes = new int[nodeCount];
+        final int[] frameEdges = new int[nodeCount];
+        Arrays.fill(indexes, -1);
+        int stackSize = 0;
+        int nextIndex = 0;
+        int componentCount = 0;
+
+        for (int root = 0; root < nodeCount; root++) {
+            if (indexes[root] >= 0) {
+                continue;
+            }
+
+            // Enter the root
+            int frameCount = 0;
+            frameNodes[frameCount] = root;
+            frameEdges[frameCount++] = routeGraph.edgesStart(root);
+            indexes[root] = lowLinks[root] = nextIndex++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+
+            while (frameCount > 0) {
+                final int node = frameNodes[frameCount - 1];
+
+                if (frameEdges[frameCount - 1] < routeGraph.edgesEnd(node)) {
+                    final int target = routeGraph.edgeTarget(frameEdges[frameCount - 1]++);
+
+                    if (indexes[target] < 0) {
+                        // Descend into an unvisited target
+                        frameNodes[frameCount] = target;
+                        frameEdges[frameCount++] = routeGraph.edgesStart(target);
+                        indexes[target] = lowLinks[target] = nextIndex++;
+                        stack[stackSize++] = target;
+                        onStack[target] = true;
+                    } else if (onStack[target]) {
+                        lowLinks[node] = Math.min(lowLinks[node], indexes[target]);
+                    }
+                    continue;
+                }
+
+                // All edges are done: emit the component if the node is its root, then return to the caller
+                if (lowLinks[node] == indexes[node]) {
+                    int member;
+                    do {
+                        member = stack[--stackSize];
+                        onStack[member] = false;
+                        nodeComponents[member] = componentCount;
+                    } while (member != node);
+                    componentCount++;
+                }
+
+                frameCount--;
+                if (frameCount > 0) {
+                    final int caller = frameNodes[frameCount - 1];
+                    lowLinks[caller] = Math.min(lowLinks[caller], lowLinks[node]);
+                }
+            }
+        }
+
+        return componentCount;
+    }
+
+    /**
+     * Groups the nodes by component with a counting sort.
+     *
+     * @param nodeComponents   The component of every node.
+     * @param componentOffsets Output: the offsets into {@code componentNodes} of every component.
+     * @param componentNodes   Output: the nodes grouped by component.
+     * @complexity Time: O(V + C).
+     *             Space: O(C), for the cursors.
+     */
+    private static void groupNodesByComponent(final int[] nodeComponents, final int[] componentOffsets,
+                                              final int[] componentNodes) {
+        final int componentCount = componentOffsets.length - 1;
+
+        for (final int component : nodeComponents) {
+            componentOffsets[component + 1]++;
+        }
+        for (int component = 0; component < componentCount; component++) {
+            componentOffsets[component + 1] += componentOffsets[component];
+        }
+
+        final int[] cursors = Arrays.copyOf(componentOffsets, componentCount);
+        for (int node = 0; node < nodeComponents.length; node++) {
+            componentNodes[cursors[nodeComponents[node]]++] = node;
+        }
+    }
+
+}
@@ -0,0 +1,335 @@
+package org.samvelaivazian.diagramtraversal.solution.graph;
+
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.camunda.bpm.model.bpmn.instance.BoundaryEvent;
+import org.camunda.bpm.model.bpmn.instance.CallActivity;
+import org.camunda.bpm.model.bpmn.instance.FlowNode;
+import org.camunda.bpm.model.bpmn.instance.ParallelGateway;
+import org.camunda.bpm.model.bpmn.instance.SequenceFlow;
+import org.camunda.bpm.model.bpmn.instance.SubProcess;
+import org.samvelaivazian.diagramtraversal.solution.exceptions.ParseBpmnModelException;
+
+import java.util.BitSet;
+
+/**
+ * Immutable, compiled representation of the flow graph of a BPMN model.
+ * <p>
+ * Flow node IDs are interned to dense int indices, resolved through a {@link NodeIdIndex}, and the outgoing sequence
+ * flows are stored in compressed sparse row (CSR) form: the targets of node {@code i} are {@code edges[offsets[i]]} up
+ * to {@code edges[offsets[i + 1] - 1]}, in the same order as {@link FlowNode#getOutgoing()} returns them, or in the
+ * document order of the sequence flows with the node as {@code sourceRef} if it declares no {@code <outgoing>}.
+ * The incoming sequence flows, i.e. the reverse adjacency that {@link FlowNode#getIncoming()} exposes on the model,
+ * are stored the same way so that searches can also run backwards from a target node. The nesting of sub-processes,
+ * boundary events and call activities is kept apart in a {@link ProcessHierarchy}, so plain searches are unaffected.
+ * Instances are safe to share between threads.
+ */
+public final class RouteGraph {
+
+    /**
+     * The flow node IDs, indexed by node index.
+     */
+    private final String[] nodeIds;
+
+    /**
+     * The index resolving flow node IDs to node indexes.
+     */
+    private final NodeIdIndex nodeIdIndex;
+
+    /**
+     * The offsets into {@link #edges} of the outgoing edges of every node, with one extra trailing entry.
+     */
+    private final int[] offsets;
+
+    /**
+     * The target node indexes of all edges, grouped by source node.
+     */
+    private final int[] edges;
+
+    /**
+     * The offsets into {@link #incomingEdges} of the incoming edges of every node, with one extra trailing entry.
+     */
+    private final int[] incomingOffsets;
+
+    /**
+     * The source node indexes of all edges, grouped by target node.
+     */
+    private final int[] incomingEdges;
+
+    /**
+     * The weight of every node, e.g. its expected duration or cost.
+     */
+    private final double[] nodeWeights;
+
+    /**
+     * The nesting of sub-processes, boundary events and call activities.
+     */
+    private final ProcessHierarchy hierarchy;
+
+    /**
+     * The parallel gateway nodes.
+     */
+    private final BitSet parallelGateways;
+
+    /**
+     * Constructor to initialize the RouteGraph with already compiled arrays.
+     *
+     * @param nodeIds          The flow node IDs, indexed by node index.
+     * @param offsets          The CSR offsets, of length {@code nodeIds.length + 1}.
+     * @param edges            The CSR edge targets.
+     * @param incomingOffsets  The reverse CSR offsets, of length {@code nodeIds.length + 1}.
+     * @param incomingEdges    The reverse CSR edge sources.
+     * @param nodeWeights      The weight of every node.
+     * @param hierarchy        The nesting of sub-processes, boundary events and call activities.
+     * @param parallelGateways The parallel gateway nodes.
+     * @throws IllegalArgumentException if a flow node ID occurs twice.
+     */
+    RouteGraph(final String[] nodeIds, final int[] offsets, final int[] edges, final int[] incomingOffsets,
+               final int[] incomingEdges, final double[] nodeWeights, final ProcessHierarchy hierarchy,
+               final BitSet parallelGateways) {
+        this.nodeIds = nodeIds;
+        this.nodeIdIndex = NodeIdIndex.build(nodeIds);
+        this.offsets = offsets;
+        this.edges = edges;
+        this.incomingOffsets = incomingOffsets;
+        this.incomingEdges = incomingEdges;
+        this.nodeWeights = nodeWeights;
+        this.hierarchy = hierarchy;
+        this.parallelGateways = parallelGateways;
+    }
+
+    /**
+     * Compiles the flow graph of the given BPMN model, giving every node the default weight.
+     *
+     * @param bpmnModelInstance The BPMN model instance.
+     * @return The compiled route graph.
+     * @complexity Time: O(V + E), where V is the number of vertices (nodes) and E is the number of edges.
+     *             Space: O(V + E), to store the compiled graph.
+     */
+    public static RouteGraph compile(final BpmnModelInstance bpmnModelInstance) {
+        return compile(bpmnModelInstance, FlowNodeWeigher.unit());
+    }
+
+    /**
+     * Compiles the flow graph of the given BPMN model, weighing every node with the given weigher.
+     *
+     * @param bpmnModelInstance The BPMN model instance.
+     * @param weigher           The weigher computing the weight of every flow node.
+     * @return The compiled route graph.
+     * @throws IllegalArgumentException if the weigher returns a negative weight.
+     * @throws ParseBpmnModelException  if a flow node has no ID.
+     * @complexity Time: O(V + E) plus the cost of the weigher for every node.
+     *             Space: O(V + E), to store the compiled graph.
+     */
+    public static RouteGraph compile(final BpmnModelInstance bpmnModelInstance, final FlowNodeWeigher weigher) {
+        final RouteGraphBuilder builder = new RouteGraphBuilder();
+
+        for (final FlowNode flowNode : bpmnModelInstance.getModelElementsByType(FlowNode.class)) {
+            if (flowNode.getId() == null) {
+                throw new ParseBpmnModelException("Flow node <" + flowNode.getElementType().getTypeName()
+                        + "> without an id");
+            }
+            final int node = builder.addNode(flowNode.getId());
+            builder.setNodeWeight(node, weigher.weigh(flowNode));
+
+            // Record the nesting, so hierarchical searches can enter and leave sub-processes
+            if (flowNode.getParentElement() instanceof SubProcess subProcess) {
+                builder.setScope(node, builder.addNode(subProcess.getId()));
+            }
+            if (flowNode instanceof BoundaryEvent boundaryEvent && boundaryEvent.getAttachedTo() != null) {
+                builder.attachBoundaryEvent(node, builder.addNode(boundaryEvent.getAttachedTo().getId()));
+            }
+            if (flowNode instanceof CallActivity callActivity && callActivity.getCalledElement() != null) {
+                builder.setCalledElement(node, callActivity.getCalledElement());
+            }
+            if (flowNode instanceof ParallelGateway) {
+                builder.markParallelGateway(node);
+            }
+
+            for (final SequenceFlow outgoing : flowNode.getOutgoing()) {
+                final FlowNode targetNode = outgoing.getTarget();
+
+                if (targetNode != null) {
+                    builder.addEdge(flowNode.getId(), targetNode.getId());
+                }
+            }
+        }
+
+        // The <outgoing> references are optional, so nodes without any leave along the sequence flows naming them
+        for (final SequenceFlow sequenceFlow : bpmnModelInstance.getModelElementsByType(SequenceFlow.class)) {
+            final FlowNode sourceNode = sequenceFlow.getSource();
+            final FlowNode targetNode = sequenceFlow.getTarget();
+
+            if (sourceNode != null && targetNode != null && sourceNode.getOutgoing().isEmpty()) {
+                builder.addEdge(sourceNode.getId(), targetNode.getId());
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Returns the number of nodes in the graph.
+     *
+     * @return The number of nodes.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public int nodeCount() {
+        return nodeIds.length;
+    }
+
+    /**
+     * Returns the number of edges in the graph.
+     *
+     * @return The number of edges.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public int edgeCount() {
+        return edges.length;
+    }
+
+    /**
+     * Resolves a flow node ID to its node index.
+     *
+     * @param nodeId The flow node ID.
+     * @return The node index, or {@code -1} if the graph has no such node.
+     * @complexity Time: O(1) on average, a single probe of the open-addressing ID index.
+     *             Space: O(1), no additional space required.
+     */
+    public int indexOf(final String nodeId) {
+        return nodeIdIndex.indexOf(nodeId);
+    }
+
+    /**
+     * Returns the index of the flow node IDs, e.g. for autocompleting user-supplied IDs.
+     *
+     * @return The node ID index.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public NodeIdIndex nodeIdIndex() {
+        return nodeIdIndex;
+    }
+
+    /**
+     * Returns the flow node ID of the given node index.
+     *
+     * @param node The node index.
+     * @return The flow node ID.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public String nodeId(final int node) {
+        return nodeIds[node];
+    }
+
+    /**
+     * Returns the weight of the given node.
+     *
+     * @param node The node index.
+     * @return The non-negative weight, {@link FlowNodeWeigher#DEFAULT_WEIGHT} unless set otherwise.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public double nodeWeight(final int node) {
+        return nodeWeights[node];
+    }
+
+    /**
+     * Returns the nesting of sub-processes, boundary events and call activities.
+     *
+     * @return The process hierarchy.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public ProcessHierarchy hierarchy() {
+        return hierarchy;
+    }
+
+    /**
+     * Checks if the node is a parallel gateway, which forks into all of its outgoing flows and joins all of its
+     * incoming flows. Other nodes with several outgoing flows are treated as exclusive choices.
+     *
+     * @param node The node index.
+     * @return True if the node is a parallel gateway.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public boolean isParallelGateway(final int node) {
+        return parallelGateways.get(node);
+    }
+
+    /**
+     * Returns the position of the first outgoing edge of the given node.
+     *
+     * @param node The node index.
+     * @return The inclusive start position in the edge array.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public int edgesStart(final int node) {
+        return offsets[node];
+    }
+
+    /**
+     * Returns the position after the last outgoing edge of the given node.
+     *
+     * @param node The node index.
+     * @return The exclusive end position in the edge array.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public int edgesEnd(final int node) {
+        return offsets[node + 1];
+    }
+
+    /**
+     * Returns the target node of the edge at the given position.
+     *
+     * @param edge The position in the edge array.
+     * @return The target node index.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public int edgeTarget(final int edge) {
+        return edges[edge];
+    }
+
+    /**
+     * Returns the position of the first incoming edge of the given node.
+     *
+     * @param node The node index.
+     * @return The inclusive start position in the incoming edge array.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public int incomingStart(final int node) {
+        return incomingOffsets[node];
+    }
+
+    /**
+     * Returns the position after the last incoming edge of the given node.
+     *
+     * @param node The node index.
+     * @return The exclusive end position in the incoming edge array.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public int incomingEnd(final int node) {
+        return incomingOffsets[node + 1];
+    }
+
+    /**
+     * Returns the source node of the incoming edge at the given position.
+     *
+     * @param edge The position in the incoming edge array.
+     * @return The source node index.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public int incomingSource(final int edge) {
+        return incomingEdges[edge];
+    }
+
+}
@@ -0,0 +1,269 @@
+package org.samvelaivazian.diagramtraversal.solution.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builder that interns flow node IDs and collects edges before compiling them into a {@link RouteGraph}.
+ * <p>
+ * Edges keep their insertion order per source node. Instances are not thread-safe.
+ */
+public final class RouteGraphBuilder {
+
+    /**
+     * The initial capacity of the edge and weight arrays.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The interned flow node IDs, in order of first appearance.
+     */
+    private final List<String> nodeIds = new ArrayList<>();
+
+    /**
+     * The node index of every interned flow node ID.
+     */
+    private final Map<String, Integer> nodeIndexes = new HashMap<>();
+
+    /**
+     * The source node index of every edge, in insertion order.
+     */
+    private int[] edgeSources = new int[INITIAL_CAPACITY];
+
+    /**
+     * The target node index of every edge, in insertion order.
+     */
+    private int[] edgeTargets = new int[INITIAL_CAPACITY];
+
+    /**
+     * The weight of every interned node.
+     */
+    private double[] nodeWeights = new double[INITIAL_CAPACITY];
+
+    /**
+     * The sub-process every interned node is declared in, {@link ProcessHierarchy#NO_SCOPE} for top-level nodes.
+     */
+    private int[] scopes = new int[INITIAL_CAPACITY];
+
+    /**
+     * The activity every interned boundary event is attached to, {@link ProcessHierarchy#NO_SCOPE} for other nodes.
+     */
+    private int[] attachedTo = new int[INITIAL_CAPACITY];
+
+    /**
+     * The called process definition key of every call activity node.
+     */
+    private final Map<Integer, String> calledElements = new HashMap<>();
+
+    /**
+     * The parallel gateway nodes.
+     */
+    private final BitSet parallelGateways = new BitSet();
+
+    /**
+     * The number of edges added so far.
+     */
+    private int edgeCount;
+
+    /**
+     * Interns the given flow node ID.
+     *
+     * @param nodeId The flow node ID.
+     * @return The node index assigned to the ID.
+     * @complexity Time: O(1) on average, a single hash lookup.
+     *             Space: O(1) amortized per new node.
+     */
+    public int addNode(final String nodeId) {
+        final Integer existingIndex = nodeIndexes.get(nodeId);
+        if (existingIndex != null) {
+            return existingIndex;
+        }
+
+        final int index = nodeIds.size();
+        nodeIds.add(nodeId);
+        nodeIndexes.put(nodeId, index);
+
+        if (index == nodeWeights.length) {
+            nodeWeights = Arrays.copyOf(nodeWeights, index * 2);
+            scopes = Arrays.copyOf(scopes, index * 2);
+            attachedTo = Arrays.copyOf(attachedTo, index * 2);
+        }
+        nodeWeights[index] = FlowNodeWeigher.DEFAULT_WEIGHT;
+        scopes[index] = ProcessHierarchy.NO_SCOPE;
+        attachedTo[index] = ProcessHierarchy.NO_SCOPE;
+
+        return index;
+    }
+
+    /**
+     * Resolves an already interned flow node ID to its node index.
+     *
+     * @param nodeId The flow node ID.
+     * @return The node index, or {@code -1} if the ID was not interned.
+     * @complexity Time: O(1) on average, a single hash lookup.
+     *             Space: O(1).
+     */
+    public int indexOf(final String nodeId) {
+        final Integer index = nodeIndexes.get(nodeId);
+
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Returns the flow node ID of an interned node.
+     *
+     * @param node The node index returned by {@link #addNode(String)}.
+     * @return The flow node ID.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public String nodeId(final int node) {
+        return nodeIds.get(node);
+    }
+
+    /**
+     * Sets the weight of an interned node.
+     *
+     * @param node   The node index returned by {@link #addNode(String)}.
+     * @param weight The non-negative weight.
+     * @throws IllegalArgumentException if the weight is negative or not a number.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public void setNodeWeight(final int node, final double weight) {
+        if (!(weight >= 0)) {
+            throw new IllegalArgumentException("Weight of node '" + nodeIds.get(node) + "' must be non-negative: " + weight);
+        }
+
+        nodeWeights[node] = weight;
+    }
+
+    /**
+     * Declares an interned node to be nested in an embedded sub-process.
+     *
+     * @param node       The node index returned by {@link #addNode(String)}.
+     * @param subProcess The node index of the sub-process.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public void setScope(final int node, final int subProcess) {
+        scopes[node] = subProcess;
+    }
+
+    /**
+     * Attaches an interned boundary event to an activity.
+     *
+     * @param boundaryEvent The node index of the boundary event.
+     * @param activity      The node index of the activity.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public void attachBoundaryEvent(final int boundaryEvent, final int activity) {
+        attachedTo[boundaryEvent] = activity;
+    }
+
+    /**
+     * Sets the process definition key an interned call activity calls.
+     *
+     * @param node                 The node index of the call activity.
+     * @param processDefinitionKey The called process definition key.
+     * @complexity Time: O(1) on average, a single hash insertion.
+     *             Space: O(1).
+     */
+    public void setCalledElement(final int node, final String processDefinitionKey) {
+        calledElements.put(node, processDefinitionKey);
+    }
+
+    /**
+     * Marks an interned node as a parallel gateway, which forks into all of its outgoing flows and joins all of its
+     * incoming flows.
+     *
+     * @param node The node index of the parallel gateway.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public void markParallelGateway(final int node) {
+        parallelGateways.set(node);
+    }
+
+    /**
+     * Adds a directed edge between two flow nodes, interning both IDs if needed.
+     *
+     * @param sourceNodeId The flow node ID of the source.
+     * @param targetNodeId The flow node ID of the target.
+     * @complexity Time: O(1) amortized.
+     *             Space: O(1) amortized per edge.
+     */
+    public void addEdge(final String sourceNodeId, final String targetNodeId) {
+        final int source = addNode(sourceNodeId);
+        final int target = addNode(targetNodeId);
+
+        if (edgeCount == edgeSources.length) {
+            edgeSources = Arrays.copyOf(edgeSources, edgeCount * 2);
+            edgeTargets = Arrays.copyOf(edgeTargets, edgeCount * 2);
+        }
+
+        edgeSources[edgeCount] = source;
+        edgeTargets[edgeCount] = target;
+        edgeCount++;
+    }
+
+    /**
+     * Compiles the collected nodes and edges into an immutable route graph, with both the outgoing and the
+     * incoming edges of every node and the summarized {@link ProcessHierarchy}.
+     *
+     * @return The compiled route graph.
+     * @complexity Time: O(V + E), two counting sorts of the edges, by source and by target node, and one
+     *             summary pass over every scope.
+     *             Space: O(V + E), to store the compiled graph.
+     */
+    public RouteGraph build() {
+        final int nodeCount = nodeIds.size();
+        final int[] offsets = new int[nodeCount + 1];
+        final int[] edges = new int[edgeCount];
+        final int[] incomingOffsets = new int[nodeCount + 1];
+        final int[] incomingEdges = new int[edgeCount];
+
+        groupEdges(edgeSources, edgeTargets, nodeCount, offsets, edges);
+        groupEdges(edgeTargets, edgeSources, nodeCount, incomingOffsets, incomingEdges);
+
+        final ProcessHierarchy hierarchy = ProcessHierarchy.build(nodeCount, offsets, edges, incomingOffsets,
+                Arrays.copyOf(scopes, nodeCount), Arrays.copyOf(attachedTo, nodeCount), calledElements);
+
+        return new RouteGraph(nodeIds.toArray(new String[0]), offsets, edges, incomingOffsets, incomingEdges,
+                Arrays.copyOf(nodeWeights, nodeCount), hierarchy, (BitSet) parallelGateways.clone());
+    }
+
+    /**
+     * Groups the edges by one of their end nodes into CSR form with a counting sort, keeping insertion order.
+     *
+     * @param keys      The node every edge is grouped by.
+     * @param values    The node stored for every edge.
+     * @param nodeCount The number of nodes.
+     * @param offsets   The array receiving the offsets, of length {@code nodeCount + 1}.
+     * @param grouped   The array receiving the stored nodes, of length {@code edgeCount}.
+     * @complexity Time: O(V + E).
+     *             Space: O(V), for the placement cursors.
+     */
+    private void groupEdges(final int[] keys, final int[] values, final int nodeCount,
+                            final int[] offsets, final int[] grouped) {
+        // Count the edges of every node and turn the counts into offsets
+        for (int i = 0; i < edgeCount; i++) {
+            offsets[keys[i] + 1]++;
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            offsets[node + 1] += offsets[node];
+        }
+
+        // Place every edge into its node's slot range, keeping insertion order
+        final int[] cursors = Arrays.copyOf(offsets, nodeCount);
+        for (int i = 0; i < edgeCount; i++) {
+            grouped[cursors[keys[i]]++] = values[i];
+        }
+    }
+
+}
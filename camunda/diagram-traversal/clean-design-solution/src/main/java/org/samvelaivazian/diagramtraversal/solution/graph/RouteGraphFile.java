@@ -0,0 +1,420 @@
+package org.samvelaivazian.diagramtraversal.solution.graph;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Compact binary file format of a compiled {@link RouteGraph}, so that a restarted process can load its graphs
+ * without fetching or parsing BPMN XML again.
+ * <p>
+ * A file starts with a fixed header of a magic number, the format version and a CRC32C checksum of the rest of the
+ * file, followed by the source version the graph was compiled from, e.g. the ETag of the fetched definition. The body
+ * holds the node ID string table as byte offsets into one UTF-8 blob, the CSR offsets and edges of both directions,
+ * the node weights, the parallel gateways and the {@link ProcessHierarchy}, each as one contiguous big-endian array.
+ * <p>
+ * Files are loaded through {@link FileChannel#map}, so every array is bulk-copied straight out of the page cache and
+ * only the node IDs are decoded. Files are written to a uniquely named temporary sibling first, forced to the disk and
+ * moved into place atomically, so readers never see a partially written graph, not even after a crash, and
+ * concurrent writers of the same file never write into each other's temporary file.
+ */
+public final class RouteGraphFile {
+
+    /**
+     * The magic number every file starts with, {@code RGRF} in ASCII.
+     */
+    private static final int MAGIC = 0x52475246;
+
+    /**
+     * The version of the format, incremented on every incompatible change.
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * The size of the fixed header: magic number, format version and checksum.
+     */
+    private static final int FIXED_HEADER_SIZE = Integer.BYTES + Integer.BYTES + Long.BYTES;
+
+    /**
+     * The length written in place of a missing string.
+     */
+    private static final int NULL_LENGTH = -1;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private RouteGraphFile() {
+    }
+
+    /**
+     * Writes the route graph to a file, replacing it atomically. If writing fails, the temporary file is deleted and
+     * the previous file is left untouched. Of concurrent writes of the same file, the last move wins.
+     *
+     * @param routeGraph    The route graph.
+     * @param sourceVersion The version of the source the graph was compiled from, or null.
+     * @param file          The file to write.
+     * @throws IOException if writing the file fails.
+     * @complexity Time: O(V + E + n), where n is the total length of the node IDs.
+     *             Space: O(1) besides the write buffer.
+     */
+    public static void write(final RouteGraph routeGraph, final String sourceVersion, final Path file)
+            throws IOException {
+        final Path temporaryFile = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName() + ".",
+                ".tmp");
+        final CRC32C checksum = new CRC32C();
+
+        try {
+            try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE)) {
+                // Reserve the fixed header; the checksum is known only once the body is written
+                final OutputStream fileOutput = Channels.newOutputStream(channel);
+                final DataOutputStream header = new DataOutputStream(fileOutput);
+                header.writeInt(MAGIC);
+                header.writeInt(FORMAT_VERSION);
+                header.writeLong(0L);
+                header.flush();
+
+                final DataOutputStream body = new DataOutputStream(
+                        new BufferedOutputStream(new CheckedOutputStream(fileOutput, checksum)));
+                writeString(body, sourceVersion);
+                writeBody(body, routeGraph);
+                body.flush();
+
+                channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, checksum.getValue()), Integer.BYTES * 2);
+
+                // The move may reach the disk before the data, which would leave an empty file after a crash
+                channel.force(true);
+            }
+
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException | RuntimeException e) {
+            // Do not leave a partial file behind, e.g. on a full disk
+            try {
+                Files.deleteIfExists(temporaryFile);
+            } catch (final IOException deleteFailure) {
+                e.addSuppressed(deleteFailure);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Reads only the source version of a file, without verifying or loading the graph.
+     *
+     * @param file The file to read.
+     * @return The source version, or null if none was written.
+     * @throws IOException if reading the file fails, it is no route graph file of this format version or its header
+     *                     is malformed.
+     * @complexity Time: O(1).
+     *             Space: O(1), only the pages of the header are touched.
+     */
+    public static String readSourceVersion(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            checkHeader(buffer, file);
+
+            return readString(buffer.position(FIXED_HEADER_SIZE));
+        } catch (final RuntimeException e) {
+            // A truncated header or a string length out of range; the checksum is not verified here
+            throw new IOException("Malformed route graph file " + file, e);
+        }
+    }
+
+    /**
+     * Loads a route graph by mapping the file into memory and verifying its checksum.
+     *
+     * @param file The file to load.
+     * @return The route graph.
+     * @throws IOException if reading the file fails, it is no route graph file of this format version or its
+     *                     checksum does not match.
+     * @complexity Time: O(V + E + n), bulk copies of the mapped arrays plus decoding the node IDs.
+     *             Space: O(V + E + n), to store the graph.
+     */
+    public static RouteGraph read(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            checkHeader(buffer, file);
+
+            final CRC32C checksum = new CRC32C();
+            checksum.update(buffer.slice(FIXED_HEADER_SIZE, buffer.limit() - FIXED_HEADER_SIZE));
+            if (checksum.getValue() != buffer.getLong(Integer.BYTES * 2)) {
+                throw new IOException("Checksum mismatch in route graph file " + file);
+            }
+
+            buffer.position(FIXED_HEADER_SIZE);
+            readString(buffer);
+
+            return readBody(buffer);
+        } catch (final RuntimeException e) {
+            // Truncated arrays or lengths out of range, which the checksum should have caught already
+            throw new IOException("Malformed route graph file " + file, e);
+        }
+    }
+
+    /**
+     * Writes the graph body.
+     *
+     * @param output     The checked output.
+     * @param routeGraph The route graph.
+     * @throws IOException if writing fails.
+     * @complexity Time: O(V + E + n), where n is the total length of the node IDs.
+     *             Space: O(n), for the encoded node IDs.
+     */
+    private static void writeBody(final DataOutputStream output, final RouteGraph routeGraph) throws IOException {
+        final int nodeCount = routeGraph.nodeCount();
+        final ProcessHierarchy hierarchy = routeGraph.hierarchy();
+        final int entryCount = nodeCount == 0 ? 0 : hierarchy.entriesEnd(nodeCount - 1);
+        final int boundaryEventCount = nodeCount == 0 ? 0 : hierarchy.boundaryEventsEnd(nodeCount - 1);
+
+        output.writeInt(nodeCount);
+        output.writeInt(routeGraph.edgeCount());
+        output.writeInt(entryCount);
+        output.writeInt(boundaryEventCount);
+        output.writeBoolean(hierarchy.processCompletes());
+
+        // Node ID string table: byte offsets into one UTF-8 blob
+        final byte[][] encodedIds = new byte[nodeCount][];
+        int idOffset = 0;
+        output.writeInt(idOffset);
+        for (int node = 0; node < nodeCount; node++) {
+            encodedIds[node] = routeGraph.nodeId(node).getBytes(StandardCharsets.UTF_8);
+            idOffset += encodedIds[node].length;
+            output.writeInt(idOffset);
+        }
+        for (final byte[] encodedId : encodedIds) {
+            output.write(encodedId);
+        }
+
+        // Outgoing and incoming CSR arrays
+        for (int node = 0; node <= nodeCount; node++) {
+            output.writeInt(node < nodeCount ? routeGraph.edgesStart(node) : routeGraph.edgeCount());
+        }
+        for (int edge = 0; edge < routeGraph.edgeCount(); edge++) {
+            output.writeInt(routeGraph.edgeTarget(edge));
+        }
+        for (int node = 0; node <= nodeCount; node++) {
+            output.writeInt(node < nodeCount ? routeGraph.incomingStart(node) : routeGraph.edgeCount());
+        }
+        for (int edge = 0; edge < routeGraph.edgeCount(); edge++) {
+            output.writeInt(routeGraph.incomingSource(edge));
+        }
+
+        for (int node = 0; node < nodeCount; node++) {
+            output.writeDouble(routeGraph.nodeWeight(node));
+        }
+
+        // Hierarchy arrays; the last offset of every CSR array equals its element count
+        final BitSet parallelGateways = new BitSet(nodeCount);
+        final BitSet neverCompleting = new BitSet(nodeCount);
+        for (int node = 0; node < nodeCount; node++) {
+            output.writeInt(hierarchy.scopeOf(node));
+            parallelGateways.set(node, routeGraph.isParallelGateway(node));
+            neverCompleting.set(node, !hierarchy.completes(node));
+        }
+        for (int node = 0; node <= nodeCount; node++) {
+            output.writeInt(node < nodeCount ? hierarchy.entriesStart(node) : entryCount);
+        }
+        for (int position = 0; position < entryCount; position++) {
+            output.writeInt(hierarchy.entry(position));
+        }
+        for (int node = 0; node <= nodeCount; node++) {
+            output.writeInt(node < nodeCount ? hierarchy.boundaryEventsStart(node) : boundaryEventCount);
+        }
+        for (int position = 0; position < boundaryEventCount; position++) {
+            output.writeInt(hierarchy.boundaryEvent(position));
+        }
+        writeBitSet(output, parallelGateways);
+        writeBitSet(output, neverCompleting);
+
+        int calledElementCount = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            calledElementCount += hierarchy.calledElement(node) != null ? 1 : 0;
+        }
+        output.writeInt(calledElementCount);
+        for (int node = 0; node < nodeCount; node++) {
+            if (hierarchy.calledElement(node) != null) {
+                output.writeInt(node);
+                writeString(output, hierarchy.calledElement(node));
+            }
+        }
+    }
+
+    /**
+     * Reads the graph body from the mapped file.
+     *
+     * @param buffer The mapped file, positioned at the body.
+     * @return The route graph.
+     * @complexity Time: O(V + E + n), where n is the total length of the node IDs.
+     *             Space: O(V + E + n), to store the graph.
+     */
+    private static RouteGraph readBody(final ByteBuffer buffer) {
+        final int nodeCount = buffer.getInt();
+        final int edgeCount = buffer.getInt();
+        final int entryCount = buffer.getInt();
+        final int boundaryEventCount = buffer.getInt();
+        final boolean processCompletes = buffer.get() != 0;
+
+        final int[] idOffsets = readInts(buffer, nodeCount + 1);
+        final String[] nodeIds = new String[nodeCount];
+        final int idBlobStart = buffer.position();
+        for (int node = 0; node < nodeCount; node++) {
+            final byte[] encodedId = new byte[idOffsets[node + 1] - idOffsets[node]];
+            buffer.get(idBlobStart + idOffsets[node], encodedId);
+            nodeIds[node] = new String(encodedId, StandardCharsets.UTF_8);
+        }
+        buffer.position(idBlobStart + idOffsets[nodeCount]);
+
+        final int[] offsets = readInts(buffer, nodeCount + 1);
+        final int[] edges = readInts(buffer, edgeCount);
+        final int[] incomingOffsets = readInts(buffer, nodeCount + 1);
+        final int[] incomingEdges = readInts(buffer, edgeCount);
+        final double[] nodeWeights = new double[nodeCount];
+        buffer.asDoubleBuffer().get(nodeWeights);
+        buffer.position(buffer.position() + nodeCount * Double.BYTES);
+
+        final int[] scopes = readInts(buffer, nodeCount);
+        final int[] entryOffsets = readInts(buffer, nodeCount + 1);
+        final int[] entries = readInts(buffer, entryCount);
+        final int[] boundaryOffsets = readInts(buffer, nodeCount + 1);
+        final int[] boundaryEvents = readInts(buffer, boundaryEventCount);
+        final BitSet parallelGateways = readBitSet(buffer);
+        final BitSet neverCompleting = readBitSet(buffer);
+
+        final int calledElementCount = buffer.getInt();
+        final Map<Integer, String> calledElements = HashMap.newHashMap(calledElementCount);
+        for (int i = 0; i < calledElementCount; i++) {
+            final int node = buffer.getInt();
+            calledElements.put(node, readString(buffer));
+        }
+
+        final ProcessHierarchy hierarchy = ProcessHierarchy.restore(scopes, entryOffsets, entries, boundaryOffsets,
+                boundaryEvents, neverCompleting, calledElements, processCompletes);
+
+        return new RouteGraph(nodeIds, offsets, edges, incomingOffsets, incomingEdges, nodeWeights, hierarchy,
+                parallelGateways);
+    }
+
+    /**
+     * Checks the magic number and format version of a mapped file.
+     *
+     * @param buffer The mapped file.
+     * @param file   The file, for error messages.
+     * @throws IOException if the file is no route graph file of this format version.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    private static void checkHeader(final ByteBuffer buffer, final Path file) throws IOException {
+        if (buffer.limit() < FIXED_HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a route graph file: " + file);
+        }
+        if (buffer.getInt(Integer.BYTES) != FORMAT_VERSION) {
+            throw new IOException("Unsupported route graph file version " + buffer.getInt(Integer.BYTES) + ": "
+                    + file);
+        }
+    }
+
+    /**
+     * Bulk-copies an int array out of the buffer and advances past it.
+     *
+     * @param buffer The buffer.
+     * @param length The number of ints.
+     * @return The ints.
+     * @complexity Time: O(length).
+     *             Space: O(length).
+     */
+    private static int[] readInts(final ByteBuffer buffer, final int length) {
+        final int[] values = new int[length];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + length * Integer.BYTES);
+
+        return values;
+    }
+
+    /**
+     * Writes a bit set as its word count followed by its words.
+     *
+     * @param output The output.
+     * @param bits   The bit set.
+     * @throws IOException if writing fails.
+     * @complexity Time: O(V / 64).
+     *             Space: O(V / 64).
+     */
+    private static void writeBitSet(final DataOutputStream output, final BitSet bits) throws IOException {
+        final long[] words = bits.toLongArray();
+        output.writeInt(words.length);
+        for (final long word : words) {
+            output.writeLong(word);
+        }
+    }
+
+    /**
+     * Reads a bit set written by {@link #writeBitSet(DataOutputStream, BitSet)}.
+     *
+     * @param buffer The buffer.
+     * @return The bit set.
+     * @complexity Time: O(V / 64).
+     *             Space: O(V / 64).
+     */
+    private static BitSet readBitSet(final ByteBuffer buffer) {
+        final long[] words = new long[buffer.getInt()];
+        buffer.asLongBuffer().get(words);
+        buffer.position(buffer.position() + words.length * Long.BYTES);
+
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * Writes a nullable string as its UTF-8 length followed by its UTF-8 bytes.
+     *
+     * @param output The output.
+     * @param value  The string, or null.
+     * @throws IOException if writing fails.
+     * @complexity Time: O(n), where n is the length of the string.
+     *             Space: O(n), for the encoded bytes.
+     */
+    private static void writeString(final DataOutputStream output, final String value) throws IOException {
+        if (value == null) {
+            output.writeInt(NULL_LENGTH);
+            return;
+        }
+
+        final byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(encoded.length);
+        output.write(encoded);
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutputStream, String)}.
+     *
+     * @param buffer The buffer.
+     * @return The string, or null.
+     * @complexity Time: O(n), where n is the length of the string.
+     *             Space: O(n).
+     */
+    private static String readString(final ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+
+        final byte[] encoded = new byte[length];
+        buffer.get(encoded);
+
+        return new String(encoded, StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,185 @@
+package org.samvelaivazian.diagramtraversal.solution.load;
+
+import org.samvelaivazian.diagramtraversal.solution.Solution;
+import org.samvelaivazian.diagramtraversal.solution.exceptions.BuildRouteException;
+import org.samvelaivazian.diagramtraversal.solution.generator.BpmnDiagramGenerator;
+import org.samvelaivazian.diagramtraversal.solution.graph.FlowNodeWeigher;
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraph;
+import org.samvelaivazian.diagramtraversal.solution.metrics.LatencyHistogram;
+import org.samvelaivazian.diagramtraversal.solution.parsers.StreamingBpmnGraphExtractor;
+import org.samvelaivazian.diagramtraversal.solution.traversal.TraversalStrategy;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load driver running route queries through {@link Solution#findRoute(RouteGraph, String, String, TraversalStrategy)}
+ * from several threads at once and recording throughput and latency percentiles.
+ * <p>
+ * Queries go between uniformly drawn pairs of nodes, so some of them have no route; those count as answered but
+ * not routed. All queries are drawn before the clock starts, and all threads start together.
+ */
+public final class LoadDriver {
+
+    /**
+     * The Solution answering the route queries.
+     */
+    private final Solution solution;
+
+    /**
+     * The number of threads issuing queries.
+     */
+    private final int threadCount;
+
+    /**
+     * The extractor reading diagram files, with the same weights as generated diagrams carry.
+     */
+    private final StreamingBpmnGraphExtractor graphExtractor = new StreamingBpmnGraphExtractor(
+            BpmnDiagramGenerator.DURATION_PROPERTY_NAME, FlowNodeWeigher.DEFAULT_WEIGHT);
+
+    /**
+     * Constructor to initialize the LoadDriver.
+     *
+     * @param solution    The Solution answering the route queries.
+     * @param threadCount The number of threads issuing queries.
+     * @throws IllegalArgumentException if the thread count is not positive.
+     */
+    public LoadDriver(final Solution solution, final int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threadCount);
+        }
+
+        this.solution = solution;
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * Reads a diagram file into a route graph and runs the queries against it.
+     *
+     * @param diagramFile The BPMN 2.0 XML file, e.g. written by {@link BpmnDiagramGenerator}.
+     * @param queryCount  The total number of queries over all threads.
+     * @param strategy    The traversal strategy of every query.
+     * @param seed        The seed drawing the queries.
+     * @return The report of the run, including the time spent reading the diagram.
+     * @throws IOException if reading the file fails.
+     * @complexity Time: O(n + Q * C), where n is the size of the file, Q the number of queries and C the cost of
+     *             one query of the strategy.
+     *             Space: O(V + E + Q), for the route graph and the drawn queries.
+     */
+    public LoadReport run(final Path diagramFile, final int queryCount, final TraversalStrategy strategy,
+                          final long seed) throws IOException {
+        final long compileStartNanos = System.nanoTime();
+        final RouteGraph routeGraph;
+
+        try (Reader reader = Files.newBufferedReader(diagramFile, StandardCharsets.UTF_8)) {
+            routeGraph = graphExtractor.extractRouteGraph(reader);
+        }
+
+        final long compileNanos = System.nanoTime() - compileStartNanos;
+        final LoadReport report = run(routeGraph, queryCount, strategy, seed);
+
+        return new LoadReport(report.nodeCount(), report.edgeCount(), compileNanos, report.threadCount(),
+                report.queryCount(), report.routedCount(), report.elapsedNanos(), report.p50Nanos(),
+                report.p99Nanos());
+    }
+
+    /**
+     * Runs the queries against an already compiled route graph.
+     *
+     * @param routeGraph The compiled route graph.
+     * @param queryCount The total number of queries over all threads.
+     * @param strategy   The traversal strategy of every query.
+     * @param seed       The seed drawing the queries.
+     * @return The report of the run.
+     * @throws IllegalStateException if the run is interrupted or a query fails unexpectedly.
+     * @complexity Time: O(Q * C), where Q is the number of queries and C the cost of one query of the strategy.
+     *             Space: O(Q), for the drawn queries.
+     */
+    public LoadReport run(final RouteGraph routeGraph, final int queryCount, final TraversalStrategy strategy,
+                          final long seed) {
+        final SplittableRandom random = new SplittableRandom(seed);
+        final LatencyHistogram latencies = new LatencyHistogram();
+        final LongAdder routedCount = new LongAdder();
+        final CountDownLatch startSignal = new CountDownLatch(1);
+        final List<Future<?>> workers = new ArrayList<>(threadCount);
+        final long elapsedNanos;
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(threadCount)) {
+            for (int thread = 0; thread < threadCount; thread++) {
+                // Spread the remainder over the first threads
+                final int threadQueryCount = queryCount / threadCount + (thread < queryCount % threadCount ? 1 : 0);
+                final String[][] queries = drawQueries(routeGraph, threadQueryCount, random.split());
+
+                workers.add(executor.submit(() -> {
+                    startSignal.await();
+
+                    for (final String[] query : queries) {
+                        final long queryStartNanos = System.nanoTime();
+
+                        try {
+                            solution.findRoute(routeGraph, query[0], query[1], strategy);
+                            routedCount.increment();
+                        } catch (final BuildRouteException e) {
+                            // An unreachable pair is a regular outcome of a uniformly drawn query
+                        }
+
+                        latencies.record(System.nanoTime() - queryStartNanos);
+                    }
+                    return null;
+                }));
+            }
+
+            final long startNanos = System.nanoTime();
+            startSignal.countDown();
+            for (final Future<?> worker : workers) {
+                worker.get();
+            }
+            elapsedNanos = System.nanoTime() - startNanos;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Load run was interrupted", e);
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException("Load run failed", e.getCause());
+        }
+
+        return new LoadReport(routeGraph.nodeCount(), routeGraph.edgeCount(), 0, threadCount, latencies.count(),
+                routedCount.sum(), elapsedNanos, latencies.percentileNanos(50), latencies.percentileNanos(99));
+    }
+
+    /**
+     * Draws route queries between uniformly chosen nodes.
+     *
+     * @param routeGraph The compiled route graph.
+     * @param queryCount The number of queries.
+     * @param random     The random generator.
+     * @return The queries as pairs of start and end node IDs.
+     * @complexity Time: O(Q), where Q is the number of queries.
+     *             Space: O(Q).
+     */
+    private static String[][] drawQueries(final RouteGraph routeGraph, final int queryCount,
+                                          final SplittableRandom random) {
+        final String[][] queries = new String[queryCount][];
+
+        for (int i = 0; i < queryCount; i++) {
+            queries[i] = new String[]{
+                    routeGraph.nodeId(random.nextInt(routeGraph.nodeCount())),
+                    routeGraph.nodeId(random.nextInt(routeGraph.nodeCount()))
+            };
+        }
+
+        return queries;
+    }
+
+}
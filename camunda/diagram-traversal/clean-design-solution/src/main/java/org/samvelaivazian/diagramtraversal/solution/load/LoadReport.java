@@ -0,0 +1,35 @@
+package org.samvelaivazian.diagramtraversal.solution.load;
+
+/**
+ * Outcome of one {@link LoadDriver} run.
+ *
+ * @param nodeCount    The number of nodes of the route graph.
+ * @param edgeCount    The number of edges of the route graph.
+ * @param compileNanos The time spent reading the diagram into a route graph, 0 if it was compiled already.
+ * @param threadCount  The number of threads issuing queries.
+ * @param queryCount   The number of route queries answered.
+ * @param routedCount  The number of queries for which a route was found.
+ * @param elapsedNanos The wall-clock time from the first to the last query.
+ * @param p50Nanos     The median query latency.
+ * @param p99Nanos     The 99th percentile query latency.
+ */
+public record LoadReport(int nodeCount, int edgeCount, long compileNanos, int threadCount, long queryCount,
+                         long routedCount, long elapsedNanos, long p50Nanos, long p99Nanos) {
+
+    /**
+     * The number of nanoseconds in a second.
+     */
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    /**
+     * Returns the number of queries answered per second over all threads.
+     *
+     * @return The throughput in queries per second, or 0 if no time elapsed.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public double queriesPerSecond() {
+        return elapsedNanos == 0 ? 0 : queryCount * NANOS_PER_SECOND / elapsedNanos;
+    }
+
+}
@@ -0,0 +1,113 @@
+package org.samvelaivazian.diagramtraversal.solution.metrics;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Input stream counting the bytes read through it and reporting them to a {@link MetricsRecorder} when closed.
+ */
+public final class CountingInputStream extends FilterInputStream {
+
+    /**
+     * The recorder the byte count is reported to.
+     */
+    private final MetricsRecorder metricsRecorder;
+
+    /**
+     * The number of bytes read so far.
+     */
+    private long byteCount;
+
+    /**
+     * Whether the byte count was already reported.
+     */
+    private boolean reported;
+
+    /**
+     * Constructor to initialize the CountingInputStream.
+     *
+     * @param in              The underlying stream.
+     * @param metricsRecorder The recorder the byte count is reported to.
+     */
+    public CountingInputStream(final InputStream in, final MetricsRecorder metricsRecorder) {
+        super(in);
+        this.metricsRecorder = metricsRecorder;
+    }
+
+    /**
+     * Reads a single byte and counts it.
+     *
+     * @return The byte, or -1 at the end of the stream.
+     * @throws IOException if the underlying stream fails.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    @Override
+    public int read() throws IOException {
+        final int value = super.read();
+        if (value >= 0) {
+            byteCount++;
+        }
+
+        return value;
+    }
+
+    /**
+     * Reads bytes into a portion of an array and counts them.
+     *
+     * @param buffer The destination buffer.
+     * @param offset The offset at which to start storing bytes.
+     * @param length The maximum number of bytes to read.
+     * @return The number of bytes read, or -1 at the end of the stream.
+     * @throws IOException if the underlying stream fails.
+     * @complexity Time: O(length).
+     *             Space: O(1).
+     */
+    @Override
+    public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+        final int readCount = super.read(buffer, offset, length);
+        if (readCount > 0) {
+            byteCount += readCount;
+        }
+
+        return readCount;
+    }
+
+    /**
+     * Skips bytes and counts them as read, since they were transferred all the same.
+     *
+     * @param n The number of bytes to skip.
+     * @return The number of bytes skipped.
+     * @throws IOException if the underlying stream fails.
+     * @complexity Time: O(n).
+     *             Space: O(1).
+     */
+    @Override
+    public long skip(final long n) throws IOException {
+        final long skipped = super.skip(n);
+        byteCount += skipped;
+
+        return skipped;
+    }
+
+    /**
+     * Closes the underlying stream and reports the number of bytes read, once.
+     *
+     * @throws IOException if closing the underlying stream fails.
+     * @complexity Time: O(1), besides closing the underlying stream.
+     *             Space: O(1).
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            if (!reported) {
+                reported = true;
+                metricsRecorder.recordBytesRead(byteCount);
+            }
+        }
+    }
+
+}
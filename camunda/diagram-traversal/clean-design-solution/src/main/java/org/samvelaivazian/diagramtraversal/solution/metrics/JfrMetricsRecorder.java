@@ -0,0 +1,141 @@
+package org.samvelaivazian.diagramtraversal.solution.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Metrics recorder emitting JDK Flight Recorder events, for low-overhead profiling in production.
+ * <p>
+ * Events are only created while a recording enables them, e.g. with
+ * {@code -XX:StartFlightRecording:filename=routes.jfr}, so the recorder costs a flag check otherwise.
+ */
+public final class JfrMetricsRecorder implements MetricsRecorder {
+
+    /**
+     * The JFR category of all events.
+     */
+    private static final String CATEGORY = "Diagram Traversal";
+
+    /**
+     * Emits a stage event if enabled.
+     *
+     * @param stage The stage.
+     * @param nanos The latency in nanoseconds.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    @Override
+    public void recordStage(final Stage stage, final long nanos) {
+        final StageEvent event = new StageEvent();
+        if (event.isEnabled()) {
+            event.stage = stage.name();
+            event.latency = nanos;
+            event.commit();
+        }
+    }
+
+    /**
+     * Emits a traversal event if enabled.
+     *
+     * @param expandedNodeCount The number of nodes whose edges the search examined.
+     * @param examinedEdgeCount The number of edges the search examined.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    @Override
+    public void recordTraversal(final int expandedNodeCount, final long examinedEdgeCount) {
+        final TraversalEvent event = new TraversalEvent();
+        if (event.isEnabled()) {
+            event.expandedNodeCount = expandedNodeCount;
+            event.examinedEdgeCount = examinedEdgeCount;
+            event.commit();
+        }
+    }
+
+    /**
+     * Emits a bytes read event if enabled.
+     *
+     * @param byteCount The number of bytes.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    @Override
+    public void recordBytesRead(final long byteCount) {
+        final BytesReadEvent event = new BytesReadEvent();
+        if (event.isEnabled()) {
+            event.byteCount = byteCount;
+            event.commit();
+        }
+    }
+
+    /**
+     * Event of a completed stage.
+     */
+    @Name("org.samvelaivazian.diagramtraversal.Stage")
+    @Label("Route Query Stage")
+    @Category(CATEGORY)
+    @Description("A completed stage of answering a route query")
+    static final class StageEvent extends Event {
+
+        /**
+         * The stage name.
+         */
+        @Label("Stage")
+        String stage;
+
+        /**
+         * The latency of the stage in nanoseconds.
+         */
+        @Label("Latency")
+        @Timespan(Timespan.NANOSECONDS)
+        long latency;
+
+    }
+
+    /**
+     * Event of a completed route search.
+     */
+    @Name("org.samvelaivazian.diagramtraversal.Traversal")
+    @Label("Route Search")
+    @Category(CATEGORY)
+    @Description("The work of a completed route search")
+    static final class TraversalEvent extends Event {
+
+        /**
+         * The number of nodes whose edges the search examined.
+         */
+        @Label("Expanded Nodes")
+        int expandedNodeCount;
+
+        /**
+         * The number of edges the search examined.
+         */
+        @Label("Examined Edges")
+        long examinedEdgeCount;
+
+    }
+
+    /**
+     * Event of bytes read from the network or from a persisted route graph.
+     */
+    @Name("org.samvelaivazian.diagramtraversal.BytesRead")
+    @Label("Bytes Read")
+    @Category(CATEGORY)
+    @Description("Bytes of a process definition read from the network or from a persisted route graph")
+    static final class BytesReadEvent extends Event {
+
+        /**
+         * The number of bytes.
+         */
+        @Label("Bytes")
+        @DataAmount
+        long byteCount;
+
+    }
+
+}
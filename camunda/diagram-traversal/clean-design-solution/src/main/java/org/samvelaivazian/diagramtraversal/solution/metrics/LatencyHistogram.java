@@ -0,0 +1,150 @@
+package org.samvelaivazian.diagramtraversal.solution.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free, fixed-size histogram of latencies in nanoseconds.
+ * <p>
+ * Values are grouped into power-of-two ranges that are each split into {@value #SUB_BUCKET_COUNT} linear
+ * sub-buckets, so every reported percentile is within 1/{@value #SUB_BUCKET_COUNT} of the recorded value
+ * while the histogram stays a few kilobytes regardless of the number of samples.
+ */
+public final class LatencyHistogram {
+
+    /**
+     * The number of linear sub-buckets per power-of-two range.
+     */
+    private static final int SUB_BUCKET_COUNT = 16;
+
+    /**
+     * The number of bits needed to address a sub-bucket.
+     */
+    private static final int SUB_BUCKET_BITS = 4;
+
+    /**
+     * The total number of buckets, enough for every non-negative long value.
+     */
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    /**
+     * The number of recorded values per bucket.
+     */
+    private final AtomicLongArray bucketCounts = new AtomicLongArray(BUCKET_COUNT);
+
+    /**
+     * The total number of recorded values.
+     */
+    private final LongAdder totalCount = new LongAdder();
+
+    /**
+     * The sum of all recorded values.
+     */
+    private final LongAdder totalNanos = new LongAdder();
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos The latency in nanoseconds; negative values are recorded as 0.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public void record(final long nanos) {
+        final long value = Math.max(0, nanos);
+
+        bucketCounts.incrementAndGet(bucketIndex(value));
+        totalCount.increment();
+        totalNanos.add(value);
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return The number of recorded values.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public long count() {
+        return totalCount.sum();
+    }
+
+    /**
+     * Returns the mean of the recorded values.
+     *
+     * @return The mean latency in nanoseconds, or 0 if nothing was recorded.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public double meanNanos() {
+        final long count = totalCount.sum();
+
+        return count == 0 ? 0 : (double) totalNanos.sum() / count;
+    }
+
+    /**
+     * Returns the given percentile of the recorded values.
+     *
+     * @param percentile The percentile between 0 and 100, e.g. 99 for p99.
+     * @return The upper bound of the bucket holding the percentile in nanoseconds, or 0 if nothing was recorded.
+     * @complexity Time: O(B), where B is the fixed number of buckets.
+     *             Space: O(1).
+     */
+    public long percentileNanos(final double percentile) {
+        final long count = totalCount.sum();
+        if (count == 0) {
+            return 0;
+        }
+
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long cumulativeCount = 0;
+
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            cumulativeCount += bucketCounts.get(bucket);
+
+            if (cumulativeCount >= rank) {
+                return bucketUpperBound(bucket);
+            }
+        }
+
+        return bucketUpperBound(BUCKET_COUNT - 1);
+    }
+
+    /**
+     * Computes the bucket of a non-negative value.
+     *
+     * @param value The value.
+     * @return The bucket index.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    private static int bucketIndex(final long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+
+        final int magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+
+        return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * Computes the largest value that falls into a bucket.
+     *
+     * @param bucket The bucket index.
+     * @return The inclusive upper bound of the bucket.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    private static long bucketUpperBound(final int bucket) {
+        if (bucket < SUB_BUCKET_COUNT) {
+            return bucket;
+        }
+
+        final int shift = bucket / SUB_BUCKET_COUNT - 1;
+        final long lowerBound = (long) (SUB_BUCKET_COUNT + bucket % SUB_BUCKET_COUNT) << shift;
+
+        return lowerBound + (1L << shift) - 1;
+    }
+
+}
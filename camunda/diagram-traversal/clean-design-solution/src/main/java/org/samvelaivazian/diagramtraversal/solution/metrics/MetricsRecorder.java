@@ -0,0 +1,121 @@
+package org.samvelaivazian.diagramtraversal.solution.metrics;
+
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Service provider interface receiving the measurements taken while answering route queries.
+ * <p>
+ * Every method defaults to doing nothing, so implementations only override what they report. Implementations are
+ * called on the query threads and must be thread-safe and cheap; they are discovered with {@link #load()} through
+ * {@code META-INF/services/org.samvelaivazian.diagramtraversal.solution.metrics.MetricsRecorder}.
+ */
+public interface MetricsRecorder {
+
+    /**
+     * Records the latency of a stage.
+     *
+     * @param stage The stage.
+     * @param nanos The latency in nanoseconds.
+     */
+    default void recordStage(final Stage stage, final long nanos) {
+    }
+
+    /**
+     * Records the work of one route search.
+     *
+     * @param expandedNodeCount The number of nodes whose edges the search examined.
+     * @param examinedEdgeCount The number of edges the search examined.
+     */
+    default void recordTraversal(final int expandedNodeCount, final long examinedEdgeCount) {
+    }
+
+    /**
+     * Records a lookup of the compiled model cache.
+     *
+     * @param hit True if the model was served without parsing and compiling it.
+     */
+    default void recordModelCacheLookup(final boolean hit) {
+    }
+
+    /**
+     * Records bytes read from the network or from persisted route graphs.
+     *
+     * @param byteCount The number of bytes.
+     */
+    default void recordBytesRead(final long byteCount) {
+    }
+
+    /**
+     * Returns the recorder that records nothing.
+     *
+     * @return The no-op recorder.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    static MetricsRecorder noop() {
+        return new MetricsRecorder() {
+        };
+    }
+
+    /**
+     * Returns a recorder forwarding every measurement to all given recorders, in order.
+     *
+     * @param recorders The recorders.
+     * @return The composite recorder, or the only recorder if there is exactly one.
+     * @complexity Time: O(r), where r is the number of recorders.
+     *             Space: O(r).
+     */
+    static MetricsRecorder of(final List<? extends MetricsRecorder> recorders) {
+        if (recorders.isEmpty()) {
+            return noop();
+        }
+        if (recorders.size() == 1) {
+            return recorders.getFirst();
+        }
+
+        final MetricsRecorder[] targets = recorders.toArray(MetricsRecorder[]::new);
+
+        return new MetricsRecorder() {
+            @Override
+            public void recordStage(final Stage stage, final long nanos) {
+                for (final MetricsRecorder target : targets) {
+                    target.recordStage(stage, nanos);
+                }
+            }
+
+            @Override
+            public void recordTraversal(final int expandedNodeCount, final long examinedEdgeCount) {
+                for (final MetricsRecorder target : targets) {
+                    target.recordTraversal(expandedNodeCount, examinedEdgeCount);
+                }
+            }
+
+            @Override
+            public void recordModelCacheLookup(final boolean hit) {
+                for (final MetricsRecorder target : targets) {
+                    target.recordModelCacheLookup(hit);
+                }
+            }
+
+            @Override
+            public void recordBytesRead(final long byteCount) {
+                for (final MetricsRecorder target : targets) {
+                    target.recordBytesRead(byteCount);
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns a recorder forwarding to every recorder registered as a service provider.
+     *
+     * @return The composite of all registered recorders, the no-op recorder if there is none.
+     * @complexity Time: O(r) plus the service lookup, where r is the number of registered recorders.
+     *             Space: O(r).
+     */
+    static MetricsRecorder load() {
+        return of(ServiceLoader.load(MetricsRecorder.class).stream().map(ServiceLoader.Provider::get).toList());
+    }
+
+}
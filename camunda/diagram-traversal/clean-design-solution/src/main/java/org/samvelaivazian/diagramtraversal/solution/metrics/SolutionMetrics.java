@@ -0,0 +1,284 @@
+package org.samvelaivazian.diagramtraversal.solution.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * In-memory metrics recorder keeping a {@link LatencyHistogram} per stage and counters of the traversal work,
+ * the compiled model cache and the bytes read, readable directly or through JMX.
+ */
+public final class SolutionMetrics implements MetricsRecorder, SolutionMetricsMXBean {
+
+    /**
+     * The JMX object name the metrics are registered under.
+     */
+    public static final String OBJECT_NAME = "org.samvelaivazian.diagramtraversal:type=SolutionMetrics";
+
+    /**
+     * The number of nanoseconds in a microsecond.
+     */
+    private static final double NANOS_PER_MICRO = 1_000.0;
+
+    /**
+     * The latencies of every stage.
+     */
+    private final Map<Stage, LatencyHistogram> stageLatencies = new EnumMap<>(Stage.class);
+
+    /**
+     * The number of recorded route searches.
+     */
+    private final LongAdder searchCount = new LongAdder();
+
+    /**
+     * The total number of nodes expanded by all searches.
+     */
+    private final LongAdder expandedNodeCount = new LongAdder();
+
+    /**
+     * The total number of edges examined by all searches.
+     */
+    private final LongAdder examinedEdgeCount = new LongAdder();
+
+    /**
+     * The number of compiled model lookups served without parsing.
+     */
+    private final LongAdder modelCacheHitCount = new LongAdder();
+
+    /**
+     * The number of compiled model lookups that parsed and compiled the model.
+     */
+    private final LongAdder modelCacheMissCount = new LongAdder();
+
+    /**
+     * The total number of bytes read.
+     */
+    private final LongAdder bytesRead = new LongAdder();
+
+    /**
+     * Constructor to initialize the SolutionMetrics with an empty histogram per stage.
+     */
+    public SolutionMetrics() {
+        for (final Stage stage : Stage.values()) {
+            stageLatencies.put(stage, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server under {@link #OBJECT_NAME}.
+     *
+     * @throws IllegalStateException if the registration fails, e.g. because the name is already taken.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public void registerPlatformMBean() {
+        final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+        try {
+            mBeanServer.registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (final JMException e) {
+            throw new IllegalStateException("Failed to register metrics as " + OBJECT_NAME, e);
+        }
+    }
+
+    /**
+     * Returns the latencies of a stage.
+     *
+     * @param stage The stage.
+     * @return The latency histogram of the stage.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public LatencyHistogram stageLatencies(final Stage stage) {
+        return stageLatencies.get(stage);
+    }
+
+    /**
+     * Records the latency of a stage in its histogram.
+     *
+     * @param stage The stage.
+     * @param nanos The latency in nanoseconds.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    @Override
+    public void recordStage(final Stage stage, final long nanos) {
+        stageLatencies.get(stage).record(nanos);
+    }
+
+    /**
+     * Adds the work of one route search to the totals.
+     *
+     * @param expandedNodeCount The number of nodes whose edges the search examined.
+     * @param examinedEdgeCount The number of edges the search examined.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    @Override
+    public void recordTraversal(final int expandedNodeCount, final long examinedEdgeCount) {
+        this.searchCount.increment();
+        this.expandedNodeCount.add(expandedNodeCount);
+        this.examinedEdgeCount.add(examinedEdgeCount);
+    }
+
+    /**
+     * Counts a lookup of the compiled model cache.
+     *
+     * @param hit True if the model was served without parsing and compiling it.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    @Override
+    public void recordModelCacheLookup(final boolean hit) {
+        (hit ? modelCacheHitCount : modelCacheMissCount).increment();
+    }
+
+    /**
+     * Adds bytes to the total number of bytes read.
+     *
+     * @param byteCount The number of bytes.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    @Override
+    public void recordBytesRead(final long byteCount) {
+        bytesRead.add(byteCount);
+    }
+
+    /**
+     * Returns the number of recorded latencies per stage.
+     *
+     * @return The counts by stage name.
+     * @complexity Time: O(S), where S is the number of stages.
+     *             Space: O(S).
+     */
+    @Override
+    public Map<String, Long> getStageCounts() {
+        final Map<String, Long> counts = new LinkedHashMap<>();
+        stageLatencies.forEach((stage, histogram) -> counts.put(stage.name(), histogram.count()));
+
+        return counts;
+    }
+
+    /**
+     * Returns the mean latency per stage.
+     *
+     * @return The mean latencies in microseconds by stage name.
+     * @complexity Time: O(S), where S is the number of stages.
+     *             Space: O(S).
+     */
+    @Override
+    public Map<String, Double> getStageMeanMicros() {
+        return stageMicros(LatencyHistogram::meanNanos);
+    }
+
+    /**
+     * Returns the median latency per stage.
+     *
+     * @return The p50 latencies in microseconds by stage name.
+     * @complexity Time: O(S * B), where S is the number of stages and B the fixed number of histogram buckets.
+     *             Space: O(S).
+     */
+    @Override
+    public Map<String, Double> getStageP50Micros() {
+        return stageMicros(histogram -> histogram.percentileNanos(50));
+    }
+
+    /**
+     * Returns the 99th percentile latency per stage.
+     *
+     * @return The p99 latencies in microseconds by stage name.
+     * @complexity Time: O(S * B), where S is the number of stages and B the fixed number of histogram buckets.
+     *             Space: O(S).
+     */
+    @Override
+    public Map<String, Double> getStageP99Micros() {
+        return stageMicros(histogram -> histogram.percentileNanos(99));
+    }
+
+    /**
+     * Returns the number of recorded route searches.
+     *
+     * @return The number of searches.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    @Override
+    public long getSearchCount() {
+        return searchCount.sum();
+    }
+
+    /**
+     * Returns the total number of nodes expanded by all searches.
+     *
+     * @return The number of expanded nodes.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    @Override
+    public long getExpandedNodeCount() {
+        return expandedNodeCount.sum();
+    }
+
+    /**
+     * Returns the total number of edges examined by all searches.
+     *
+     * @return The number of examined edges.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    @Override
+    public long getExaminedEdgeCount() {
+        return examinedEdgeCount.sum();
+    }
+
+    /**
+     * Returns the ratio of compiled model lookups served without parsing.
+     *
+     * @return The hit ratio between 0 and 1, or 0 if there were no lookups.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    @Override
+    public double getModelCacheHitRatio() {
+        final long hitCount = modelCacheHitCount.sum();
+        final long lookupCount = hitCount + modelCacheMissCount.sum();
+
+        return lookupCount == 0 ? 0 : (double) hitCount / lookupCount;
+    }
+
+    /**
+     * Returns the total number of bytes read.
+     *
+     * @return The number of bytes.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    @Override
+    public long getBytesRead() {
+        return bytesRead.sum();
+    }
+
+    /**
+     * Converts a statistic of every stage histogram to microseconds.
+     *
+     * @param statisticNanos The statistic in nanoseconds.
+     * @return The statistic in microseconds by stage name.
+     * @complexity Time: O(S * B), where S is the number of stages and B the fixed number of histogram buckets.
+     *             Space: O(S).
+     */
+    private Map<String, Double> stageMicros(final ToDoubleFunction<LatencyHistogram> statisticNanos) {
+        final Map<String, Double> micros = new LinkedHashMap<>();
+        stageLatencies.forEach((stage, histogram) ->
+                micros.put(stage.name(), statisticNanos.applyAsDouble(histogram) / NANOS_PER_MICRO));
+
+        return micros;
+    }
+
+}
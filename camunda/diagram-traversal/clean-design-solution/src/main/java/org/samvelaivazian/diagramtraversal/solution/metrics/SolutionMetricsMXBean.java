@@ -0,0 +1,74 @@
+package org.samvelaivazian.diagramtraversal.solution.metrics;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link SolutionMetrics}, exposed through JMX.
+ * Stage statistics are keyed by {@link Stage} name.
+ */
+public interface SolutionMetricsMXBean {
+
+    /**
+     * Returns the number of recorded latencies per stage.
+     *
+     * @return The counts by stage name.
+     */
+    Map<String, Long> getStageCounts();
+
+    /**
+     * Returns the mean latency per stage.
+     *
+     * @return The mean latencies in microseconds by stage name.
+     */
+    Map<String, Double> getStageMeanMicros();
+
+    /**
+     * Returns the median latency per stage.
+     *
+     * @return The p50 latencies in microseconds by stage name.
+     */
+    Map<String, Double> getStageP50Micros();
+
+    /**
+     * Returns the 99th percentile latency per stage.
+     *
+     * @return The p99 latencies in microseconds by stage name.
+     */
+    Map<String, Double> getStageP99Micros();
+
+    /**
+     * Returns the number of recorded route searches.
+     *
+     * @return The number of searches.
+     */
+    long getSearchCount();
+
+    /**
+     * Returns the total number of nodes expanded by all searches.
+     *
+     * @return The number of expanded nodes.
+     */
+    long getExpandedNodeCount();
+
+    /**
+     * Returns the total number of edges examined by all searches.
+     *
+     * @return The number of examined edges.
+     */
+    long getExaminedEdgeCount();
+
+    /**
+     * Returns the ratio of compiled model lookups served without parsing.
+     *
+     * @return The hit ratio between 0 and 1, or 0 if there were no lookups.
+     */
+    double getModelCacheHitRatio();
+
+    /**
+     * Returns the total number of bytes read.
+     *
+     * @return The number of bytes.
+     */
+    long getBytesRead();
+
+}
@@ -0,0 +1,29 @@
+package org.samvelaivazian.diagramtraversal.solution.metrics;
+
+/**
+ * The stages of answering a route query whose latency is recorded.
+ */
+public enum Stage {
+
+    /**
+     * Sending the request for a process definition until the response headers are received.
+     */
+    FETCH,
+
+    /**
+     * Reading the JSON response as a whole and extracting and unescaping the BPMN XML from it.
+     */
+    JSON_EXTRACTION,
+
+    /**
+     * Parsing the BPMN XML and compiling the route graph; when streaming, this includes reading the JSON response and
+     * extracting the XML from it while the body is received.
+     */
+    XML_PARSE,
+
+    /**
+     * Searching the route graph for a route.
+     */
+    SEARCH
+
+}
@@ -9,6 +9,7 @@ import org.samvelaivazian.diagramtraversal.solution.exceptions.ParseBpmnModelExc
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.io.Reader;
 
 /**
  * Parser class for BPMN models.
@@ -39,6 +40,19 @@ public final class BpmnParser {
         }
     }
 
+    /**
+     * Streams the BPMN 2.0 XML out of a JSON response, unescaping it on the fly instead of building
+     * a JSON object and an intermediate String.
+     *
+     * @param jsonResponse The reader providing the JSON response containing the BPMN 2.0 XML.
+     * @return The reader providing the BPMN 2.0 XML; reading fails with an IOException if the JSON is malformed.
+     * @complexity Time: O(1), the response is consumed while the returned reader is read.
+     *             Space: O(1), apart from one read buffer.
+     */
+    public Reader getBpmn20XmlReaderFromJson(final Reader jsonResponse) {
+        return new JsonStringValueReader(jsonResponse, BPMN_20_XML_KEY);
+    }
+
     /**
      * Parses the BPMN model from the BPMN 2.0 XML.
      *
@@ -0,0 +1,326 @@
+package org.samvelaivazian.diagramtraversal.solution.parsers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reader that streams the unescaped value of one top-level string property of a JSON object,
+ * e.g. {@code bpmn20Xml} of an engine-rest response, without buffering the document or the value.
+ * <p>
+ * Other top-level properties are skipped, including nested objects and arrays. Only the characters of the
+ * wanted value are ever returned, and they are decoded on the fly from JSON escapes; the reader ends at the
+ * closing quote of the value. Malformed input or a missing property fail with an {@link IOException}.
+ * Instances are not thread-safe.
+ */
+public final class JsonStringValueReader extends Reader {
+
+    /**
+     * Marker for the end of the input.
+     */
+    private static final int END_OF_INPUT = -1;
+
+    /**
+     * The reader providing the JSON document, buffered so that single characters are cheap and literals
+     * can be read up to their end.
+     */
+    private final Reader json;
+
+    /**
+     * The name of the top-level property whose value is streamed.
+     */
+    private final String propertyName;
+
+    /**
+     * Whether the reader is positioned inside the wanted value.
+     */
+    private boolean inValue;
+
+    /**
+     * Whether the closing quote of the wanted value was read.
+     */
+    private boolean valueEnded;
+
+    /**
+     * Constructor to initialize the JsonStringValueReader over a JSON document.
+     *
+     * @param json         The reader providing the JSON document.
+     * @param propertyName The name of the top-level string property to stream.
+     */
+    public JsonStringValueReader(final Reader json, final String propertyName) {
+        this.json = json.markSupported() ? json : new BufferedReader(json);
+        this.propertyName = propertyName;
+    }
+
+    /**
+     * Reads unescaped characters of the value into a portion of an array.
+     *
+     * @param buffer The destination buffer.
+     * @param offset The offset at which to start storing characters.
+     * @param length The maximum number of characters to read.
+     * @return The number of characters read, or -1 at the end of the value.
+     * @throws IOException if the JSON is malformed, lacks the property or the underlying reader fails.
+     * @complexity Time: O(length) amortized, plus O(p) once to skip the p characters before the value.
+     *             Space: O(k) once, for the property names of length k compared while seeking.
+     */
+    @Override
+    public int read(final char[] buffer, final int offset, final int length) throws IOException {
+        if (!inValue) {
+            seekValue();
+        }
+        if (valueEnded) {
+            return END_OF_INPUT;
+        }
+
+        int count = 0;
+        while (count < length) {
+            final int character = nextRequired();
+
+            if (character == '"') {
+                valueEnded = true;
+                break;
+            }
+
+            buffer[offset + count++] = character == '\\' ? unescape() : (char) character;
+        }
+
+        return count == 0 && valueEnded ? END_OF_INPUT : count;
+    }
+
+    /**
+     * Closes the underlying JSON reader.
+     *
+     * @throws IOException if closing fails.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    @Override
+    public void close() throws IOException {
+        json.close();
+    }
+
+    /**
+     * Advances to the first character of the wanted value, skipping every other top-level property.
+     *
+     * @throws IOException if the JSON is malformed or lacks the property.
+     * @complexity Time: O(p), where p is the number of characters before the value.
+     *             Space: O(k), for the property names.
+     */
+    private void seekValue() throws IOException {
+        expect('{');
+
+        while (true) {
+            int character = nextNonWhitespace();
+            if (character == '}') {
+                throw new IOException("JSON object has no string property '" + propertyName + "'");
+            }
+            if (character != '"') {
+                throw unexpected(character);
+            }
+
+            final String name = readString();
+            expect(':');
+
+            if (propertyName.equals(name)) {
+                final int valueStart = nextNonWhitespace();
+                if (valueStart != '"') {
+                    throw new IOException("JSON property '" + propertyName + "' is not a string");
+                }
+
+                inValue = true;
+                return;
+            }
+
+            skipValue(nextNonWhitespace());
+
+            character = nextNonWhitespace();
+            if (character == '}') {
+                throw new IOException("JSON object has no string property '" + propertyName + "'");
+            }
+            if (character != ',') {
+                throw unexpected(character);
+            }
+        }
+    }
+
+    /**
+     * Reads a complete, unescaped string whose opening quote was already consumed. Used for property names only.
+     *
+     * @return The string.
+     * @throws IOException if the input ends inside the string.
+     * @complexity Time: O(k), where k is the length of the string.
+     *             Space: O(k).
+     */
+    private String readString() throws IOException {
+        final StringBuilder builder = new StringBuilder();
+
+        for (int character = nextRequired(); character != '"'; character = nextRequired()) {
+            builder.append(character == '\\' ? unescape() : (char) character);
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Skips a value whose first character was already consumed.
+     *
+     * @param firstCharacter The first character of the value.
+     * @throws IOException if the value is malformed or the input ends inside it.
+     * @complexity Time: O(v), where v is the length of the value.
+     *             Space: O(1).
+     */
+    private void skipValue(final int firstCharacter) throws IOException {
+        if (firstCharacter == '"') {
+            skipString();
+            return;
+        }
+
+        if (firstCharacter != '{' && firstCharacter != '[') {
+            // Literals and numbers end right before the next separator
+            json.mark(1);
+            for (int character = json.read(); isLiteralCharacter(character); character = json.read()) {
+                json.mark(1);
+            }
+            json.reset();
+            return;
+        }
+
+        int depth = 1;
+        while (depth > 0) {
+            final int character = nextRequired();
+
+            if (character == '"') {
+                skipString();
+            } else if (character == '{' || character == '[') {
+                depth++;
+            } else if (character == '}' || character == ']') {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Skips the rest of a string whose opening quote was already consumed.
+     *
+     * @throws IOException if the input ends inside the string.
+     * @complexity Time: O(k), where k is the length of the string.
+     *             Space: O(1).
+     */
+    private void skipString() throws IOException {
+        for (int character = nextRequired(); character != '"'; character = nextRequired()) {
+            if (character == '\\') {
+                nextRequired();
+            }
+        }
+    }
+
+    /**
+     * Decodes the escape sequence following a consumed backslash.
+     *
+     * @return The decoded character; a surrogate pair is decoded as two consecutive escapes.
+     * @throws IOException if the escape sequence is invalid.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    private char unescape() throws IOException {
+        final int escaped = nextRequired();
+
+        return switch (escaped) {
+            case '"', '\\', '/' -> (char) escaped;
+            case 'b' -> '\b';
+            case 'f' -> '\f';
+            case 'n' -> '\n';
+            case 'r' -> '\r';
+            case 't' -> '\t';
+            case 'u' -> {
+                int codeUnit = 0;
+                for (int i = 0; i < 4; i++) {
+                    final int digit = Character.digit(nextRequired(), 16);
+                    if (digit < 0) {
+                        throw new IOException("Invalid unicode escape in JSON string");
+                    }
+                    codeUnit = (codeUnit << 4) | digit;
+                }
+                yield (char) codeUnit;
+            }
+            default -> throw new IOException("Invalid escape '\\" + (char) escaped + "' in JSON string");
+        };
+    }
+
+    /**
+     * Consumes the next non-whitespace character and checks it.
+     *
+     * @param expected The expected character.
+     * @throws IOException if a different character or the end of the input is found.
+     * @complexity Time: O(w), where w is the amount of leading whitespace.
+     *             Space: O(1).
+     */
+    private void expect(final char expected) throws IOException {
+        final int character = nextNonWhitespace();
+
+        if (character != expected) {
+            throw unexpected(character);
+        }
+    }
+
+    /**
+     * Reads the next character that is not JSON whitespace.
+     *
+     * @return The character.
+     * @throws IOException if the input ends.
+     * @complexity Time: O(w), where w is the amount of leading whitespace.
+     *             Space: O(1).
+     */
+    private int nextNonWhitespace() throws IOException {
+        int character = nextRequired();
+        while (character == ' ' || character == '\t' || character == '\n' || character == '\r') {
+            character = nextRequired();
+        }
+
+        return character;
+    }
+
+    /**
+     * Reads the next character, failing at the end of the input.
+     *
+     * @return The character.
+     * @throws IOException if the input ends.
+     * @complexity Time: O(1) amortized.
+     *             Space: O(1).
+     */
+    private int nextRequired() throws IOException {
+        final int character = json.read();
+
+        if (character == END_OF_INPUT) {
+            throw new IOException("Unexpected end of JSON input");
+        }
+
+        return character;
+    }
+
+    /**
+     * Checks if a character can be part of a JSON literal or number.
+     *
+     * @param character The character, or -1.
+     * @return True for letters, digits, signs, dots and exponents.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    private static boolean isLiteralCharacter(final int character) {
+        return Character.isLetterOrDigit(character) || character == '-' || character == '+' || character == '.';
+    }
+
+    /**
+     * Creates the exception for an unexpected character.
+     *
+     * @param character The unexpected character, or -1.
+     * @return The exception.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    private static IOException unexpected(final int character) {
+        return new IOException("Unexpected " + (character == END_OF_INPUT ? "end" : "'" + (char) character + "'")
+                + " in JSON input");
+    }
+
+}
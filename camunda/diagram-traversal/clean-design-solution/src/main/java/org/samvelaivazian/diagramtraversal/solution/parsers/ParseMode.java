@@ -0,0 +1,20 @@
+package org.samvelaivazian.diagramtraversal.solution.parsers;
+
+/**
+ * How fetched BPMN XML is turned into a compiled model.
+ */
+public enum ParseMode {
+
+    /**
+     * Parses the full Camunda model instance and compiles the route graph from it.
+     * Required by callers that need the model API, e.g. for element lookups beyond flow nodes.
+     */
+    MODEL_INSTANCE,
+
+    /**
+     * Extracts only the route graph in a single streaming pass with {@link StreamingBpmnGraphExtractor},
+     * without building a DOM or a model instance.
+     */
+    STREAMING_GRAPH
+
+}
@@ -0,0 +1,283 @@
+package org.samvelaivazian.diagramtraversal.solution.parsers;
+
+import org.samvelaivazian.diagramtraversal.solution.exceptions.ParseBpmnModelException;
+import org.samvelaivazian.diagramtraversal.solution.graph.FlowNodeWeigher;
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraph;
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraphBuilder;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.FilterReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Extracts the route graph from BPMN 2.0 XML in a single streaming StAX pass, without building a DOM or a
+ * Camunda model instance.
+ * <p>
+ * Only flow node IDs, their {@code <outgoing>} references, the {@code targetRef} of every sequence flow, the nesting
+ * of sub-processes, the {@code attachedToRef} of boundary events, the {@code calledElement} of call activities, the
+ * parallel gateways and optionally one numeric {@code camunda:property} per node are retained, so memory is
+ * proportional to the compiled graph rather than to the document. Edges follow the {@code <outgoing>} references in
+ * document order, exactly like {@code FlowNode.getOutgoing()}, so the extracted graph equals the one compiled from the
+ * model. The {@code <outgoing>} references are optional, so the edges of a node without any follow the
+ * {@code sourceRef} of the sequence flows instead, in document order, just like {@link RouteGraph#compile}.
+ * The document is not validated against the BPMN schema, but a flow node without an ID is rejected. Instances are immutable and safe to share between threads.
+ */
+public final class StreamingBpmnGraphExtractor {
+
+    /**
+     * The namespace of BPMN 2.0 model elements.
+     */
+    private static final String BPMN_MODEL_NAMESPACE = "http://www.omg.org/spec/BPMN/20100524/MODEL";
+
+    /**
+     * The namespace of Camunda extension elements.
+     */
+    private static final String CAMUNDA_NAMESPACE = "http://camunda.org/schema/1.0/bpmn";
+
+    /**
+     * The local names of all BPMN 2.0 flow node elements.
+     */
+    private static final Set<String> FLOW_NODE_ELEMENTS = Set.of(
+            "task", "userTask", "serviceTask", "sendTask", "receiveTask", "manualTask", "businessRuleTask",
+            "scriptTask", "callActivity", "subProcess", "transaction", "adHocSubProcess",
+            "exclusiveGateway", "parallelGateway", "inclusiveGateway", "eventBasedGateway", "complexGateway",
+            "startEvent", "endEvent", "intermediateCatchEvent", "intermediateThrowEvent", "boundaryEvent"
+    );
+
+    /**
+     * The factory creating the StAX readers, configured against external entity expansion.
+     */
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+    /**
+     * The name of the Camunda extension property holding the weight of a node, or null to ignore weights.
+     */
+    private final String weightPropertyName;
+
+    /**
+     * The weight of nodes without a usable weight property.
+     */
+    private final double defaultWeight;
+
+    /**
+     * Constructor to initialize the StreamingBpmnGraphExtractor with the weight property to read.
+     *
+     * @param weightPropertyName The name of the Camunda extension property holding the weight, or null.
+     * @param defaultWeight      The weight of nodes without a usable weight property.
+     */
+    public StreamingBpmnGraphExtractor(final String weightPropertyName, final double defaultWeight) {
+        this.weightPropertyName = weightPropertyName;
+        this.defaultWeight = defaultWeight;
+    }
+
+    /**
+     * Extracts the route graph from the BPMN 2.0 XML.
+     *
+     * @param bpmnXml The BPMN 2.0 XML as a String.
+     * @return The compiled route graph.
+     * @throws ParseBpmnModelException if the XML is malformed or a flow node has no ID.
+     * @complexity Time: O(n), where n is the length of the XML.
+     *             Space: O(V + E), where V is the number of vertices (nodes) and E is the number of edges.
+     */
+    public RouteGraph extractRouteGraph(final String bpmnXml) {
+        return extractRouteGraph(new StringReader(bpmnXml));
+    }
+
+    /**
+     * Extracts the route graph from a reader providing BPMN 2.0 XML. The reader is not closed.
+     *
+     * @param bpmnXml The reader providing the BPMN 2.0 XML.
+     * @return The compiled route graph.
+     * @throws ParseBpmnModelException if the XML is malformed or a flow node has no ID.
+     * @complexity Time: O(n), where n is the length of the XML.
+     *             Space: O(V + E), where V is the number of vertices (nodes) and E is the number of edges.
+     */
+    public RouteGraph extractRouteGraph(final Reader bpmnXml) {
+        final RouteGraphBuilder builder = new RouteGraphBuilder();
+        final Map<String, String> sequenceFlowTargets = new HashMap<>();
+        final List<String> sequenceFlowSourceIds = new ArrayList<>();
+        final List<String> sequenceFlowTargetIds = new ArrayList<>();
+        final List<String> outgoingFlowIds = new ArrayList<>();
+        int[] outgoingSources = new int[16];
+        final List<Integer> boundaryEventNodes = new ArrayList<>();
+        final List<String> boundaryActivityIds = new ArrayList<>();
+
+        // Flow nodes nest inside sub-processes, so the innermost open flow node owns <outgoing> and properties
+        int[] openNodes = new int[16];
+        int openNodeCount = 0;
+
+        try {
+            // The StAX reader closes its input, which would cut off callers still reading the rest of the stream
+            final XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(new FilterReader(bpmnXml) {
+                @Override
+                public void close() {
+                    // Leave the caller's reader open
+                }
+            });
+
+            try {
+                while (reader.hasNext()) {
+                    final int event = reader.next();
+
+                    if (event == XMLStreamConstants.END_ELEMENT) {
+                        if (isBpmnElement(reader) && FLOW_NODE_ELEMENTS.contains(reader.getLocalName())) {
+                            openNodeCount--;
+                        }
+                        continue;
+                    }
+
+                    if (event != XMLStreamConstants.START_ELEMENT) {
+                        continue;
+                    }
+
+                    final String localName = reader.getLocalName();
+
+                    if (isBpmnElement(reader) && FLOW_NODE_ELEMENTS.contains(localName)) {
+                        final String nodeId = reader.getAttributeValue(null, "id");
+                        if (nodeId == null) {
+                            throw new ParseBpmnModelException("Flow node <" + localName + "> without an id at line "
+                                    + reader.getLocation().getLineNumber());
+                        }
+                        final int node = builder.addNode(nodeId);
+
+                        // Only sub-processes declare flow nodes, so the open flow node is the enclosing scope
+                        if (openNodeCount > 0) {
+                            builder.setScope(node, openNodes[openNodeCount - 1]);
+                        }
+                        if ("boundaryEvent".equals(localName)) {
+                            boundaryEventNodes.add(node);
+                            boundaryActivityIds.add(reader.getAttributeValue(null, "attachedToRef"));
+                        } else if ("parallelGateway".equals(localName)) {
+                            builder.markParallelGateway(node);
+                        } else if ("callActivity".equals(localName)
+                                && reader.getAttributeValue(null, "calledElement") != null) {
+                            builder.setCalledElement(node, reader.getAttributeValue(null, "calledElement"));
+                        }
+
+                        if (openNodeCount == openNodes.length) {
+                            openNodes = Arrays.copyOf(openNodes, openNodeCount * 2);
+                        }
+                        openNodes[openNodeCount++] = node;
+                    } else if (isBpmnElement(reader) && "sequenceFlow".equals(localName)) {
+                        sequenceFlowTargets.put(reader.getAttributeValue(null, "id"),
+                                reader.getAttributeValue(null, "targetRef"));
+                        sequenceFlowSourceIds.add(reader.getAttributeValue(null, "sourceRef"));
+                        sequenceFlowTargetIds.add(reader.getAttributeValue(null, "targetRef"));
+                    } else if (isBpmnElement(reader) && "outgoing".equals(localName) && openNodeCount > 0) {
+                        if (outgoingFlowIds.size() == outgoingSources.length) {
+                            outgoingSources = Arrays.copyOf(outgoingSources, outgoingSources.length * 2);
+                        }
+                        outgoingSources[outgoingFlowIds.size()] = openNodes[openNodeCount - 1];
+                        outgoingFlowIds.add(localPart(reader.getElementText().trim()));
+                    } else if (CAMUNDA_NAMESPACE.equals(reader.getNamespaceURI()) && "property".equals(localName)
+                            && openNodeCount > 0 && weightPropertyName != null
+                            && weightPropertyName.equals(reader.getAttributeValue(null, "name"))) {
+                        builder.setNodeWeight(openNodes[openNodeCount - 1],
+                                parseWeight(reader.getAttributeValue(null, "value")));
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (final XMLStreamException e) {
+            throw new ParseBpmnModelException("Failed to extract route graph from BPMN XML", e);
+        }
+
+        // Resolve every <outgoing> reference to the flow node targeted by the sequence flow
+        final BitSet nodesWithOutgoing = new BitSet();
+        for (int i = 0; i < outgoingFlowIds.size(); i++) {
+            final String targetNodeId = sequenceFlowTargets.get(outgoingFlowIds.get(i));
+            nodesWithOutgoing.set(outgoingSources[i]);
+
+            if (targetNodeId != null && builder.indexOf(targetNodeId) >= 0) {
+                builder.addEdge(builder.nodeId(outgoingSources[i]), targetNodeId);
+            }
+        }
+
+        // Nodes without <outgoing> references, which are optional, leave along the sequence flows naming them
+        for (int i = 0; i < sequenceFlowSourceIds.size(); i++) {
+            final String sourceNodeId = sequenceFlowSourceIds.get(i);
+            final String targetNodeId = sequenceFlowTargetIds.get(i);
+
+            if (sourceNodeId != null && targetNodeId != null && builder.indexOf(sourceNodeId) >= 0
+                    && !nodesWithOutgoing.get(builder.indexOf(sourceNodeId)) && builder.indexOf(targetNodeId) >= 0) {
+                builder.addEdge(sourceNodeId, targetNodeId);
+            }
+        }
+
+        // Attach boundary events once all activities are known, since they may be declared after their events
+        for (int i = 0; i < boundaryEventNodes.size(); i++) {
+            final String activityReference = boundaryActivityIds.get(i);
+
+            if (activityReference != null && builder.indexOf(localPart(activityReference)) >= 0) {
+                builder.attachBoundaryEvent(boundaryEventNodes.get(i), builder.indexOf(localPart(activityReference)));
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Checks if the current element of the reader belongs to the BPMN 2.0 model namespace.
+     *
+     * @param reader The StAX reader positioned at an element.
+     * @return True if the element is a BPMN 2.0 model element.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    private static boolean isBpmnElement(final XMLStreamReader reader) {
+        return BPMN_MODEL_NAMESPACE.equals(reader.getNamespaceURI());
+    }
+
+    /**
+     * Strips an optional namespace prefix from a QName reference such as {@code bpmn:Flow_1}.
+     *
+     * @param reference The reference.
+     * @return The referenced ID.
+     * @complexity Time: O(k), where k is the length of the reference.
+     *             Space: O(k), for the substring.
+     */
+    private static String localPart(final String reference) {
+        return reference.substring(reference.indexOf(':') + 1);
+    }
+
+    /**
+     * Parses a weight property value exactly like {@link FlowNodeWeigher#extensionProperty(String, double)}.
+     *
+     * @param value The property value, may be null.
+     * @return The parsed weight, or the default weight if the value is missing, not a number, negative or not finite.
+     * @complexity Time: O(k), where k is the length of the value.
+     *             Space: O(1).
+     */
+    private double parseWeight(final String value) {
+        return FlowNodeWeigher.parseWeight(value, defaultWeight);
+    }
+
+    /**
+     * Creates the StAX input factory with DTDs and external entities disabled.
+     *
+     * @return The XML input factory.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    private static XMLInputFactory createXmlInputFactory() {
+        final XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+
+        return factory;
+    }
+
+}
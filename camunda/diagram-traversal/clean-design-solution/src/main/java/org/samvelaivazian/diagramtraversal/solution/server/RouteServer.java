@@ -0,0 +1,506 @@
+package org.samvelaivazian.diagramtraversal.solution.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.camunda.bpm.engine.impl.util.json.JSONArray;
+import org.camunda.bpm.engine.impl.util.json.JSONObject;
+import org.samvelaivazian.diagramtraversal.solution.Solution;
+import org.samvelaivazian.diagramtraversal.solution.cache.RouteCache;
+import org.samvelaivazian.diagramtraversal.solution.exceptions.BuildRouteException;
+import org.samvelaivazian.diagramtraversal.solution.exceptions.FetchResponseDataException;
+import org.samvelaivazian.diagramtraversal.solution.exceptions.ParseBpmnModelException;
+import org.samvelaivazian.diagramtraversal.solution.graph.CompiledModel;
+import org.samvelaivazian.diagramtraversal.solution.graph.GraphDiff;
+import org.samvelaivazian.diagramtraversal.solution.metrics.LatencyHistogram;
+import org.samvelaivazian.diagramtraversal.solution.traversal.TraversalStrategy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Long-running HTTP server answering route queries against a compiled model that is kept warm in memory.
+ * <p>
+ * Endpoints:
+ * <ul>
+ *     <li>{@code GET /route?start=<startNodeId>&end=<endNodeId>[&strategy=<TraversalStrategy>]}: the route as JSON,
+ *     404 if there is none; the strategy defaults to {@code DEPTH_FIRST}.</li>
+ *     <li>{@code GET /nodes?prefix=<prefix>[&limit=<limit>]}: the flow node IDs starting with the prefix, in
+ *     lexicographic order, e.g. to autocomplete the start and end of a route query.</li>
+ *     <li>{@code GET /checkpoints?start=<startNodeId>&end=<endNodeId>}: the nodes every route from the start to the
+ *     end must pass through, in route order, 404 if there is no route.</li>
+ *     <li>{@code GET /stats}: query count and p50/p99 latency of {@code /route}.</li>
+ *     <li>{@code POST /reload}: reloads the model through the model loader and reports what changed.</li>
+ * </ul>
+ * Found routes are cached; a reload only invalidates the cached routes the changes of the new version may affect.
+ * DFS and BFS queries on models of up to a few thousand nodes are read off routing tables built on every load instead.
+ * Besides {@code POST /reload}, a reload can be triggered with {@link #reload()}, or with
+ * {@link #reload(Set)} when watched model files change.
+ * Every exchange is answered, also when handling it fails: malformed parameters yield 400, a called definition or
+ * model that cannot be fetched or parsed yields 502, and any other failure 500. Every exchange is handled on its own
+ * virtual thread.
+ */
+public final class RouteServer implements AutoCloseable {
+
+    /**
+     * The number of seconds to wait for running exchanges when stopping.
+     */
+    private static final int STOP_DELAY_SECONDS = 1;
+
+    /**
+     * The number of nanoseconds in a microsecond.
+     */
+    private static final double NANOS_PER_MICRO = 1_000.0;
+
+    /**
+     * The maximum total number of nodes of all cached routes.
+     */
+    private static final long MAX_CACHED_ROUTE_NODES = 1_000_000;
+
+    /**
+     * The memory budget of the routing tables of the current model, enough for DFS and BFS tables of about 4,000
+     * nodes.
+     */
+    private static final long MAX_ROUTING_TABLE_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * The number of node IDs returned by {@code /nodes} if no limit is given.
+     */
+    private static final int DEFAULT_NODE_LIMIT = 20;
+
+    /**
+     * The Solution instance answering the route queries.
+     */
+    private final Solution solution;
+
+    /**
+     * The loader providing the compiled model at startup and on reload.
+     */
+    private final Supplier<CompiledModel> modelLoader;
+
+    /**
+     * The latencies of all route queries.
+     */
+    private final LatencyHistogram routeLatencies = new LatencyHistogram();
+
+    /**
+     * The route graph of the current model, with its reachability index and cached routes.
+     */
+    private final RouteCache routeCache = new RouteCache(MAX_CACHED_ROUTE_NODES, MAX_ROUTING_TABLE_BYTES);
+
+    /**
+     * The executor running every exchange on a virtual thread.
+     */
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * The underlying HTTP server.
+     */
+    private final HttpServer httpServer;
+
+    /**
+     * Constructor to initialize the RouteServer and bind it to the given address.
+     *
+     * @param solution    The Solution instance answering the route queries.
+     * @param modelLoader The loader providing the compiled model.
+     * @param address     The address to bind to; port 0 picks a free port.
+     * @throws UncheckedIOException if the address cannot be bound.
+     */
+    public RouteServer(final Solution solution, final Supplier<CompiledModel> modelLoader,
+                       final InetSocketAddress address) {
+        this.solution = solution;
+        this.modelLoader = modelLoader;
+
+        try {
+            this.httpServer = HttpServer.create(address, 0);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Failed to bind route server to " + address, e);
+        }
+
+        final Handler routeHandler = timed(this::handleRoute, routeLatencies);
+        httpServer.createContext("/route", exchange -> respond(exchange, routeHandler));
+        httpServer.createContext("/nodes", exchange -> respond(exchange, this::handleNodes));
+        httpServer.createContext("/checkpoints", exchange -> respond(exchange, this::handleCheckpoints));
+        httpServer.createContext("/stats", exchange -> respond(exchange, this::handleStats));
+        httpServer.createContext("/reload", exchange -> respond(exchange, this::handleReload));
+        httpServer.setExecutor(executor);
+    }
+
+    /**
+     * Loads the model and starts accepting queries.
+     *
+     * @complexity Time: The cost of the model loader.
+     *             Space: O(V + E + C * V / 64), to keep the route graph and its reachability index in memory, plus
+     *             O(V^2) for the routing tables that fit.
+     */
+    public void start() {
+        routeCache.advance(modelLoader.get().routeGraph());
+        httpServer.start();
+    }
+
+    /**
+     * Loads the model again and swaps it in, invalidating only the cached routes the changes may affect.
+     * The called process definitions may have changed as well, so their summaries and all cached hierarchical routes
+     * are dropped. Reloads are serialized, so that a slower load never replaces the model of a later one.
+     *
+     * @return The update of the route cache.
+     * @complexity Time: The cost of the model loader plus O(V + E + r), where r is the number of cached routes.
+     *             Space: O(n + V + E), to keep the new compiled model in memory.
+     */
+    public synchronized RouteCache.Update reload() {
+        final CompiledModel compiledModel = modelLoader.get();
+        solution.clearCalledProcessSummaries();
+
+        return routeCache.advance(compiledModel.routeGraph());
+    }
+
+    /**
+     * Refreshes the given changed definitions, then loads the model again and swaps it in. Only the summaries of the
+     * changed called definitions are dropped, but all cached hierarchical routes, since they may pass any of them.
+     *
+     * @param changedDefinitionKeys The keys of the changed definitions, e.g. reported by a model watcher.
+     * @return The update of the route cache.
+     * @complexity Time: The cost of refreshing the definitions and of the model loader, plus O(V + E + r), where r
+     *             is the number of cached routes.
+     *             Space: O(n + V + E), to keep the new compiled model in memory.
+     */
+    public synchronized RouteCache.Update reload(final Set<String> changedDefinitionKeys) {
+        solution.refreshDefinitions(changedDefinitionKeys);
+
+        return routeCache.advance(modelLoader.get().routeGraph());
+    }
+
+    /**
+     * Returns the port the server is bound to.
+     *
+     * @return The port.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public int getPort() {
+        return httpServer.getAddress().getPort();
+    }
+
+    /**
+     * Returns the latencies of all route queries answered so far.
+     *
+     * @return The route query latency histogram.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public LatencyHistogram getRouteLatencies() {
+        return routeLatencies;
+    }
+
+    /**
+     * Stops the server and its executor.
+     *
+     * @complexity Time: O(1), plus up to one second waiting for running exchanges.
+     *             Space: O(1).
+     */
+    @Override
+    public void close() {
+        httpServer.stop(STOP_DELAY_SECONDS);
+        executor.close();
+    }
+
+    /**
+     * Handles a route query.
+     *
+     * @param exchange The HTTP exchange.
+     * @return The response: the route, or 400 if a parameter is missing or invalid.
+     * @throws BuildRouteException if either node does not exist or no route is found.
+     * @complexity Time: O(1) for cached routes; O(V + E) for DFS and BFS, O((V + E) log V) for Dijkstra and A*.
+     *             Space: O(V), due to the search arrays.
+     */
+    private Response handleRoute(final HttpExchange exchange) {
+        final Map<String, String> parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+        final String startNodeId = parameters.get("start");
+        final String endNodeId = parameters.get("end");
+
+        if (startNodeId == null || endNodeId == null) {
+            return Response.error(400, "Both 'start' and 'end' parameters are required");
+        }
+
+        final TraversalStrategy strategy;
+        try {
+            strategy = TraversalStrategy.valueOf(parameters.getOrDefault("strategy", TraversalStrategy.DEPTH_FIRST.name()));
+        } catch (final IllegalArgumentException e) {
+            return Response.error(400, "Unknown strategy '" + parameters.get("strategy") + "'");
+        }
+
+        final List<String> route = routeCache.get(startNodeId, endNodeId, strategy,
+                routeGraph -> solution.findRoute(routeGraph, startNodeId, endNodeId, strategy));
+
+        return new Response(200, new JSONObject()
+                .put("start", startNodeId)
+                .put("end", endNodeId)
+                .put("strategy", strategy.name())
+                .put("route", route));
+    }
+
+    /**
+     * Handles a node ID autocompletion request.
+     *
+     * @param exchange The HTTP exchange.
+     * @return The response: the matching node IDs, or 400 if the limit is invalid.
+     * @complexity Time: O(k * (log V + m)), where k is the length of the prefix and m the number of returned IDs.
+     *             Space: O(m), for the returned IDs.
+     */
+    private Response handleNodes(final HttpExchange exchange) {
+        final Map<String, String> parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+        final String prefix = parameters.getOrDefault("prefix", "");
+
+        final int limit;
+        try {
+            limit = Integer.parseInt(parameters.getOrDefault("limit", String.valueOf(DEFAULT_NODE_LIMIT)));
+        } catch (final NumberFormatException e) {
+            return Response.error(400, "Invalid limit '" + parameters.get("limit") + "'");
+        }
+        if (limit < 0) {
+            return Response.error(400, "Invalid limit '" + limit + "'");
+        }
+
+        return new Response(200, new JSONObject()
+                .put("prefix", prefix)
+                .put("nodes", routeCache.getRouteGraph().nodeIdIndex().withPrefix(prefix, limit)));
+    }
+
+    /**
+     * Handles a must-pass query.
+     *
+     * @param exchange The HTTP exchange.
+     * @return The response: the must-pass nodes, or 400 if a parameter is missing.
+     * @throws BuildRouteException if either node does not exist or the end is not reachable from the start.
+     * @complexity Time: O(D) if the start or end is an event, where D is the number of returned nodes; O(V + E)
+     *             otherwise.
+     *             Space: O(D), for the returned nodes; O(V) otherwise.
+     */
+    private Response handleCheckpoints(final HttpExchange exchange) {
+        final Map<String, String> parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+        final String startNodeId = parameters.get("start");
+        final String endNodeId = parameters.get("end");
+
+        if (startNodeId == null || endNodeId == null) {
+            return Response.error(400, "Both 'start' and 'end' parameters are required");
+        }
+
+        return new Response(200, new JSONObject()
+                .put("start", startNodeId)
+                .put("end", endNodeId)
+                .put("checkpoints", routeCache.getDominatorIndex().checkpoints(startNodeId, endNodeId)));
+    }
+
+    /**
+     * Handles a statistics request.
+     *
+     * @param exchange The HTTP exchange.
+     * @return The response: the statistics.
+     * @complexity Time: O(1), the histogram has a fixed number of buckets.
+     *             Space: O(1).
+     */
+    private Response handleStats(final HttpExchange exchange) {
+        return new Response(200, new JSONObject()
+                .put("count", routeLatencies.count())
+                .put("p50Micros", routeLatencies.percentileNanos(50) / NANOS_PER_MICRO)
+                .put("p99Micros", routeLatencies.percentileNanos(99) / NANOS_PER_MICRO)
+                .put("modelCacheHitRatio", solution.getModelCacheStats().hitRatio())
+                .put("routeCacheHitRatio", routeCache.stats().hitRatio()));
+    }
+
+    /**
+     * Handles a reload request by loading the model again, swapping it in and invalidating the cached routes the
+     * changes may affect.
+     *
+     * @param exchange The HTTP exchange.
+     * @return The response: what changed, or 405 if the method is not POST.
+     * @throws FetchResponseDataException if the model loader fails to fetch the model.
+     * @throws ParseBpmnModelException    if the model loader fails to parse the model.
+     * @complexity Time: The cost of the model loader plus O(V + E + r), where r is the number of cached routes.
+     *             Space: O(n + V + E), to keep the new compiled model in memory.
+     */
+    private Response handleReload(final HttpExchange exchange) {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            return Response.error(405, "Use POST to reload the model");
+        }
+
+        final RouteCache.Update update = reload();
+        final GraphDiff diff = update.diff();
+
+        return new Response(200, new JSONObject()
+                .put("nodes", update.routeGraph().nodeCount())
+                .put("edges", update.routeGraph().edgeCount())
+                .put("addedNodes", diff.addedNodeIds().size())
+                .put("removedNodes", diff.removedNodeIds().size())
+                .put("changedNodes", diff.changedNodeIds().size())
+                .put("invalidatedRoutes", update.invalidatedRouteCount())
+                .put("routedStrategies", new JSONArray(update.routedStrategies().stream()
+                        .map(TraversalStrategy::name)
+                        .sorted()
+                        .toList())));
+    }
+
+    /**
+     * Answers an exchange with the response of a handler, or with an error status if the handler fails, so that no
+     * exchange is left without a response.
+     *
+     * @param exchange The HTTP exchange.
+     * @param handler  The handler.
+     * @throws IOException if writing the response fails.
+     * @complexity Time: The cost of the handler plus O(b), where b is the size of the response body.
+     *             Space: O(b), for the encoded body.
+     */
+    private static void respond(final HttpExchange exchange, final Handler handler) throws IOException {
+        Response response;
+        try {
+            response = handler.handle(exchange);
+        } catch (final RuntimeException e) {
+            response = Response.error(statusCodeOf(e), e.getMessage() != null ? e.getMessage() : e.toString());
+        }
+
+        sendJson(exchange, response.statusCode(), response.body());
+    }
+
+    /**
+     * Returns a handler that records the latency of every exchange, whether it succeeds or fails.
+     *
+     * @param handler   The handler.
+     * @param latencies The histogram receiving the latencies.
+     * @return The timed handler.
+     * @complexity Time: O(1), plus the cost of the handler per exchange.
+     *             Space: O(1).
+     */
+    private static Handler timed(final Handler handler, final LatencyHistogram latencies) {
+        return exchange -> {
+            final long startNanos = System.nanoTime();
+            try {
+                return handler.handle(exchange);
+            } finally {
+                latencies.record(System.nanoTime() - startNanos);
+            }
+        };
+    }
+
+    /**
+     * Maps the failure of a handler to an HTTP status code.
+     *
+     * @param e The failure.
+     * @return 404 if there is no route, 400 for malformed parameters, 502 if a model or called definition cannot be
+     *         fetched or parsed, and 500 otherwise.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    private static int statusCodeOf(final RuntimeException e) {
+        if (e instanceof BuildRouteException) {
+            return 404;
+        }
+        if (e instanceof IllegalArgumentException) {
+            return 400;
+        }
+        if (e instanceof FetchResponseDataException || e instanceof ParseBpmnModelException) {
+            return 502;
+        }
+
+        return 500;
+    }
+
+    /**
+     * Parses a raw URL query string into its decoded parameters.
+     *
+     * @param rawQuery The raw query string, may be null.
+     * @return The decoded parameters; later duplicates win.
+     * @throws IllegalArgumentException if the query string contains a malformed escape sequence.
+     * @complexity Time: O(q), where q is the length of the query string.
+     *             Space: O(q), for the decoded parameters.
+     */
+    private static Map<String, String> parseQuery(final String rawQuery) {
+        final Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return parameters;
+        }
+
+        for (final String pair : rawQuery.split("&")) {
+            final int separator = pair.indexOf('=');
+
+            if (separator > 0) {
+                parameters.put(
+                        URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8)
+                );
+            }
+        }
+
+        return parameters;
+    }
+
+    /**
+     * Sends a JSON response and closes the exchange.
+     *
+     * @param exchange   The HTTP exchange.
+     * @param statusCode The HTTP status code.
+     * @param body       The JSON body.
+     * @throws IOException if writing the response fails.
+     * @complexity Time: O(b), where b is the size of the body.
+     *             Space: O(b), for the encoded body.
+     */
+    private static void sendJson(final HttpExchange exchange, final int statusCode,
+                                 final JSONObject body) throws IOException {
+        final byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(statusCode, bytes.length);
+
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(bytes);
+        }
+    }
+
+    /**
+     * Computes the response to an exchange.
+     */
+    @FunctionalInterface
+    private interface Handler {
+
+        /**
+         * Computes the response to an exchange.
+         *
+         * @param exchange The HTTP exchange.
+         * @return The response.
+         */
+        Response handle(HttpExchange exchange);
+
+    }
+
+    /**
+     * The response to an exchange.
+     *
+     * @param statusCode The HTTP status code.
+     * @param body       The JSON body.
+     */
+    private record Response(int statusCode, JSONObject body) {
+
+        /**
+         * Creates an error response.
+         *
+         * @param statusCode The HTTP status code.
+         * @param message    The error message.
+         * @return The response.
+         * @complexity Time: O(1).
+         *             Space: O(1).
+         */
+        static Response error(final int statusCode, final String message) {
+            return new Response(statusCode, new JSONObject().put("error", message));
+        }
+
+    }
+
+}
@@ -0,0 +1,78 @@
+package org.samvelaivazian.diagramtraversal.solution.sources;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Model source serving the BPMN resources of a classpath directory as the definitions named after the resources,
+ * e.g. {@code models/invoice.bpmn} as {@code invoice}, so that models can be shipped inside the application.
+ */
+public final class ClasspathModelSource implements ModelSource {
+
+    /**
+     * The resource name extensions of BPMN resources, in lookup order.
+     */
+    private static final List<String> BPMN_RESOURCE_EXTENSIONS = List.of(".bpmn", ".xml");
+
+    /**
+     * The class loader to load the resources with.
+     */
+    private final ClassLoader classLoader;
+
+    /**
+     * The resource directory, empty or ending with a slash.
+     */
+    private final String resourceDirectory;
+
+    /**
+     * Constructor to initialize the ClasspathModelSource with a class loader and a resource directory.
+     *
+     * @param classLoader       The class loader to load the resources with.
+     * @param resourceDirectory The resource directory, e.g. {@code models}, or empty for the classpath root.
+     */
+    public ClasspathModelSource(final ClassLoader classLoader, final String resourceDirectory) {
+        this.classLoader = classLoader;
+        this.resourceDirectory = resourceDirectory.isEmpty() || resourceDirectory.endsWith("/")
+                ? resourceDirectory : resourceDirectory + "/";
+    }
+
+    /**
+     * Opens the BPMN resource of a definition.
+     *
+     * @param definitionKey The process definition key.
+     * @return The reader providing the BPMN 2.0 XML.
+     * @throws IOException if the classpath has no resource for the definition.
+     * @complexity Time: O(1), the resource is read on demand by the caller.
+     *             Space: O(1), apart from one decode buffer.
+     */
+    @Override
+    public Reader openBpmnXml(final String definitionKey) throws IOException {
+        for (final String extension : BPMN_RESOURCE_EXTENSIONS) {
+            final InputStream resource = classLoader.getResourceAsStream(resourceDirectory + definitionKey + extension);
+
+            if (resource != null) {
+                return new InputStreamReader(resource, StandardCharsets.UTF_8);
+            }
+        }
+
+        throw new FileNotFoundException("No process definition '" + definitionKey + "' in " + this);
+    }
+
+    /**
+     * Returns the resource directory, for error messages.
+     *
+     * @return The description of the source.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    @Override
+    public String toString() {
+        return "classpath:" + resourceDirectory;
+    }
+
+}
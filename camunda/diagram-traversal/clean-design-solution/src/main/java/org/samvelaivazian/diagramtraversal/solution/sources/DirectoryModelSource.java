@@ -0,0 +1,127 @@
+package org.samvelaivazian.diagramtraversal.solution.sources;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Model source serving every BPMN file of a directory as the definition named after the file, e.g.
+ * {@code invoice.bpmn} or {@code invoice.xml} as {@code invoice}. Files are decoded straight from their channel.
+ */
+public final class DirectoryModelSource implements ModelSource {
+
+    /**
+     * The file name extensions of BPMN files, in lookup order.
+     */
+    private static final List<String> BPMN_FILE_EXTENSIONS = List.of(".bpmn", ".xml");
+
+    /**
+     * The directory.
+     */
+    private final Path directory;
+
+    /**
+     * Constructor to initialize the DirectoryModelSource with a directory.
+     *
+     * @param directory The directory holding the BPMN files.
+     */
+    public DirectoryModelSource(final Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the directory holding the BPMN files.
+     *
+     * @return The directory.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Opens the BPMN file of a definition.
+     *
+     * @param definitionKey The process definition key.
+     * @return The reader providing the BPMN 2.0 XML.
+     * @throws IOException if the directory has no file for the definition or opening it fails.
+     * @complexity Time: O(1), the file is read on demand by the caller.
+     *             Space: O(1), apart from one decode buffer.
+     */
+    @Override
+    public Reader openBpmnXml(final String definitionKey) throws IOException {
+        for (final String extension : BPMN_FILE_EXTENSIONS) {
+            final Path file = directory.resolve(definitionKey + extension);
+
+            // The resolved file must stay inside the directory, whatever the key contains
+            if (file.getParent().equals(directory) && Files.isRegularFile(file)) {
+                return FileModelSource.openReader(file);
+            }
+        }
+
+        throw new NoSuchFileException(directory.toString(), null, "No process definition '" + definitionKey + "'");
+    }
+
+    /**
+     * Returns the definition key a file of the directory is served as.
+     *
+     * @param fileName The file name, relative to the directory.
+     * @return The definition key, or null if the file is not a BPMN file.
+     * @complexity Time: O(k), where k is the length of the file name.
+     *             Space: O(k).
+     */
+    public String definitionKeyOf(final Path fileName) {
+        final String name = fileName.getFileName().toString();
+        for (final String extension : BPMN_FILE_EXTENSIONS) {
+            if (name.endsWith(extension) && name.length() > extension.length()) {
+                return name.substring(0, name.length() - extension.length());
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Lists the keys of all definitions in the directory.
+     *
+     * @return The sorted definition keys.
+     * @throws UncheckedIOException if listing the directory fails.
+     * @complexity Time: O(f log f), where f is the number of files.
+     *             Space: O(f).
+     */
+    public Set<String> definitionKeys() {
+        try (Stream<Path> files = Files.list(directory)) {
+            final Set<String> definitionKeys = new TreeSet<>();
+            files.filter(Files::isRegularFile)
+                    .map(this::definitionKeyOf)
+                    .filter(Objects::nonNull)
+                    .forEach(definitionKeys::add);
+
+            return definitionKeys;
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Failed to list BPMN files in " + directory, e);
+        }
+    }
+
+    /**
+     * Returns the directory, for error messages.
+     *
+     * @return The description of the source.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    @Override
+    public String toString() {
+        return directory.toString();
+    }
+
+}
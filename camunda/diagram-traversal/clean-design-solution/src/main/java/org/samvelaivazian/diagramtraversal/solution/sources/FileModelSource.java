@@ -0,0 +1,82 @@
+package org.samvelaivazian.diagramtraversal.solution.sources;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Model source serving one process definition from a single BPMN file.
+ * The file is decoded straight from a {@link FileChannel}, without copying it into a stream buffer first.
+ */
+public final class FileModelSource implements ModelSource {
+
+    /**
+     * The BPMN file.
+     */
+    private final Path file;
+
+    /**
+     * The process definition key the file is served as.
+     */
+    private final String definitionKey;
+
+    /**
+     * Constructor to initialize the FileModelSource with a file and the definition key it is served as.
+     *
+     * @param file          The BPMN file.
+     * @param definitionKey The process definition key the file is served as.
+     */
+    public FileModelSource(final Path file, final String definitionKey) {
+        this.file = file;
+        this.definitionKey = definitionKey;
+    }
+
+    /**
+     * Opens the file if it is served as the given definition.
+     *
+     * @param definitionKey The process definition key.
+     * @return The reader providing the BPMN 2.0 XML.
+     * @throws IOException if the key is another definition's or opening the file fails.
+     * @complexity Time: O(1), the file is read on demand by the caller.
+     *             Space: O(1), apart from one decode buffer.
+     */
+    @Override
+    public Reader openBpmnXml(final String definitionKey) throws IOException {
+        if (!this.definitionKey.equals(definitionKey)) {
+            throw new NoSuchFileException(file.toString(), null, "No process definition '" + definitionKey + "'");
+        }
+
+        return openReader(file);
+    }
+
+    /**
+     * Returns the file, for error messages.
+     *
+     * @return The description of the source.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    @Override
+    public String toString() {
+        return file.toString();
+    }
+
+    /**
+     * Opens a UTF-8 reader decoding a file straight from its channel.
+     *
+     * @param file The file.
+     * @return The reader, closing the channel when closed.
+     * @throws IOException if opening the file fails.
+     * @complexity Time: O(1).
+     *             Space: O(1), apart from one decode buffer.
+     */
+    static Reader openReader(final Path file) throws IOException {
+        return Channels.newReader(FileChannel.open(file, StandardOpenOption.READ), StandardCharsets.UTF_8);
+    }
+
+}
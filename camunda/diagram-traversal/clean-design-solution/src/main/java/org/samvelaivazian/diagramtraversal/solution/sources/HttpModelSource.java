@@ -0,0 +1,80 @@
+package org.samvelaivazian.diagramtraversal.solution.sources;
+
+import org.samvelaivazian.diagramtraversal.solution.exceptions.FetchResponseDataException;
+import org.samvelaivazian.diagramtraversal.solution.parsers.BpmnParser;
+import org.samvelaivazian.diagramtraversal.solution.utils.HttpFetcher;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Model source fetching the latest version of every definition from an engine-rest API.
+ * The BPMN XML is unescaped from the JSON response while it is read, without buffering the response.
+ */
+public final class HttpModelSource implements ModelSource {
+
+    /**
+     * The engine-rest path of the XML of the latest version of a process definition, formatted with its key.
+     */
+    private static final String PROCESS_DEFINITION_XML_PATH = "/process-definition/key/%s/xml";
+
+    /**
+     * The fetcher sharing one HTTP client between all requests.
+     */
+    private final HttpFetcher httpFetcher;
+
+    /**
+     * The engine-rest base URL, without a trailing slash.
+     */
+    private final String engineRestUrl;
+
+    /**
+     * The parser unwrapping the BPMN XML from the JSON responses.
+     */
+    private final BpmnParser bpmnParser = new BpmnParser();
+
+    /**
+     * Constructor to initialize the HttpModelSource with an engine-rest base URL.
+     *
+     * @param httpFetcher   The fetcher to send all requests with.
+     * @param engineRestUrl The engine-rest base URL, e.g. {@code http://localhost:8080/engine-rest}.
+     */
+    public HttpModelSource(final HttpFetcher httpFetcher, final String engineRestUrl) {
+        this.httpFetcher = httpFetcher;
+        this.engineRestUrl = engineRestUrl.endsWith("/")
+                ? engineRestUrl.substring(0, engineRestUrl.length() - 1) : engineRestUrl;
+    }
+
+    /**
+     * Fetches the BPMN 2.0 XML of the latest version of a process definition.
+     *
+     * @param definitionKey The process definition key.
+     * @return The reader providing the BPMN 2.0 XML; reading fails with an IOException if the JSON is malformed.
+     * @throws FetchResponseDataException if sending the request fails.
+     * @complexity Time: O(1) to send the request; the response is read on demand by the caller.
+     *             Space: O(1), apart from one read buffer.
+     */
+    @Override
+    public Reader openBpmnXml(final String definitionKey) {
+        final String url = engineRestUrl + PROCESS_DEFINITION_XML_PATH.formatted(
+                URLEncoder.encode(definitionKey, StandardCharsets.UTF_8));
+
+        return bpmnParser.getBpmn20XmlReaderFromJson(
+                new InputStreamReader(httpFetcher.fetchStream(url), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the engine-rest base URL, for error messages.
+     *
+     * @return The description of the source.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    @Override
+    public String toString() {
+        return engineRestUrl;
+    }
+
+}
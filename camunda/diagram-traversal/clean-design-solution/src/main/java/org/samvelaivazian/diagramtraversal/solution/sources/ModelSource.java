@@ -0,0 +1,24 @@
+package org.samvelaivazian.diagramtraversal.solution.sources;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Source of the BPMN 2.0 XML of process definitions, by definition key.
+ * <p>
+ * Implementations read from engine-rest ({@link HttpModelSource}), a single file ({@link FileModelSource}), a
+ * directory of BPMN files ({@link DirectoryModelSource}) or the classpath ({@link ClasspathModelSource}), so that
+ * deployments without access to an engine can load their models offline.
+ */
+public interface ModelSource {
+
+    /**
+     * Opens the BPMN 2.0 XML of a process definition. The caller must close the reader.
+     *
+     * @param definitionKey The process definition key.
+     * @return The reader providing the BPMN 2.0 XML.
+     * @throws IOException if the source has no such definition or opening it fails.
+     */
+    Reader openBpmnXml(String definitionKey) throws IOException;
+
+}
@@ -0,0 +1,202 @@
+package org.samvelaivazian.diagramtraversal.solution.sources;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Watches the directory of a {@link DirectoryModelSource} and reports every definition whose BPMN file was created
+ * or modified, so that only the changed definitions are parsed again and swapped in.
+ * <p>
+ * Changes are detected with a {@link WatchService} on a daemon thread instead of polling the files. A modification
+ * event may arrive while a file is still being written, so changes are reported only once the directory was quiet
+ * for a while, all definitions changed meanwhile together. Deleted files are not reported, so the last loaded
+ * version of a definition stays in service. A failing listener does not stop the watcher; its exception is passed
+ * to the thread's uncaught exception handler.
+ */
+public final class ModelWatcher implements AutoCloseable {
+
+    /**
+     * The default time without events after which the changes are reported, long enough for an editor or a copy to
+     * finish writing a file.
+     */
+    public static final Duration DEFAULT_QUIET_PERIOD = Duration.ofMillis(300);
+
+    /**
+     * The watched model source.
+     */
+    private final DirectoryModelSource modelSource;
+
+    /**
+     * The listener receiving the keys of the definitions changed since the last report.
+     */
+    private final Consumer<Set<String>> changeListener;
+
+    /**
+     * The time without events after which the changes are reported.
+     */
+    private final Duration quietPeriod;
+
+    /**
+     * The watch service registered on the directory.
+     */
+    private final WatchService watchService;
+
+    /**
+     * The thread waiting for and dispatching changes.
+     */
+    private final Thread watchThread;
+
+    /**
+     * Constructor to initialize the ModelWatcher with the default quiet period and register it on the directory of
+     * the source.
+     *
+     * @param modelSource    The model source to watch.
+     * @param changeListener The listener receiving the keys of the changed definitions, on the watch thread.
+     * @throws UncheckedIOException if the directory cannot be watched.
+     */
+    public ModelWatcher(final DirectoryModelSource modelSource, final Consumer<Set<String>> changeListener) {
+        this(modelSource, changeListener, DEFAULT_QUIET_PERIOD);
+    }
+
+    /**
+     * Constructor to initialize the ModelWatcher and register it on the directory of the source.
+     *
+     * @param modelSource    The model source to watch.
+     * @param changeListener The listener receiving the keys of the changed definitions, on the watch thread.
+     * @param quietPeriod    The time without events after which the changes are reported.
+     * @throws IllegalArgumentException if the quiet period is negative.
+     * @throws UncheckedIOException     if the directory cannot be watched.
+     */
+    public ModelWatcher(final DirectoryModelSource modelSource, final Consumer<Set<String>> changeListener,
+                        final Duration quietPeriod) {
+        if (quietPeriod.isNegative()) {
+            throw new IllegalArgumentException("The quiet period must not be negative: " + quietPeriod);
+        }
+
+        this.modelSource = modelSource;
+        this.changeListener = changeListener;
+        this.quietPeriod = quietPeriod;
+
+        final Path directory = modelSource.getDirectory();
+        try {
+            this.watchService = directory.getFileSystem().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Failed to watch " + directory, e);
+        }
+
+        this.watchThread = Thread.ofPlatform().daemon().name("model-watcher").unstarted(this::watch);
+    }
+
+    /**
+     * Starts reporting changes.
+     *
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public void start() {
+        watchThread.start();
+    }
+
+    /**
+     * Stops watching the directory.
+     *
+     * @throws UncheckedIOException if closing the watch service fails.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Failed to stop watching " + modelSource, e);
+        }
+    }
+
+    /**
+     * Waits for changes and reports the changed definitions after every quiet period until the watcher is closed.
+     *
+     * @complexity Time: O(e) per burst of e events.
+     *             Space: O(e).
+     */
+    private void watch() {
+        while (true) {
+            final Set<String> changedDefinitionKeys = new LinkedHashSet<>();
+            try {
+                WatchKey watchKey = watchService.take();
+
+                // Keep collecting until no event arrived for the quiet period, so files are reported once written
+                while (watchKey != null) {
+                    collectChanges(watchKey, changedDefinitionKeys);
+                    if (!watchKey.reset()) {
+                        return;
+                    }
+                    watchKey = watchService.poll(quietPeriod.toNanos(), TimeUnit.NANOSECONDS);
+                }
+            } catch (final ClosedWatchServiceException e) {
+                return;
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            if (!changedDefinitionKeys.isEmpty()) {
+                report(Collections.unmodifiableSet(changedDefinitionKeys));
+            }
+        }
+    }
+
+    /**
+     * Adds the definitions changed by the pending events of a watch key.
+     *
+     * @param watchKey              The signalled watch key.
+     * @param changedDefinitionKeys The keys of the changed definitions collected so far.
+     * @complexity Time: O(e) for e events, or O(D) for D definitions if events were lost.
+     *             Space: O(e), or O(D) if events were lost.
+     */
+    private void collectChanges(final WatchKey watchKey, final Set<String> changedDefinitionKeys) {
+        for (final WatchEvent<?> event : watchKey.pollEvents()) {
+            // Events were lost, so any definition may have changed
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                changedDefinitionKeys.addAll(modelSource.definitionKeys());
+                continue;
+            }
+
+            final String definitionKey = modelSource.definitionKeyOf((Path) event.context());
+            if (definitionKey != null) {
+                changedDefinitionKeys.add(definitionKey);
+            }
+        }
+    }
+
+    /**
+     * Reports the changed definitions to the listener, handing a failure to the uncaught exception handler.
+     *
+     * @param changedDefinitionKeys The keys of the changed definitions.
+     * @complexity Time: The listener's cost.
+     *             Space: O(1).
+     */
+    private void report(final Set<String> changedDefinitionKeys) {
+        try {
+            changeListener.accept(changedDefinitionKeys);
+        } catch (final RuntimeException e) {
+            final Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+    }
+
+}
@@ -0,0 +1,404 @@
+package org.samvelaivazian.diagramtraversal.solution.traversal;
+
+import org.samvelaivazian.diagramtraversal.solution.graph.CompiledModel;
+import org.samvelaivazian.diagramtraversal.solution.graph.ProcessHierarchy;
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraph;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * BFS over a {@link RouteGraph} that follows the {@link ProcessHierarchy} of the model instead of sequence flows only.
+ * <p>
+ * On top of the sequence flows, the search
+ * <ul>
+ *     <li>enters an embedded sub-process through its start events, but only if the target is declared in it,</li>
+ *     <li>leaves a sub-process from its end events along the outgoing sequence flows of the sub-process,</li>
+ *     <li>follows the boundary events attached to an activity, and</li>
+ *     <li>passes a sub-process or call activity only if it can complete.</li>
+ * </ul>
+ * Whether an embedded sub-process can complete is summarized once when its graph is compiled. Whether a call activity
+ * can complete is decided by the summary of the called process definition, which is memoized together with the
+ * content version it was computed from until it is invalidated, e.g. when the definition changes. Definitions that
+ * cannot be resolved are not memoized, so they are resolved again by the next query. Since resolving may fetch the
+ * definition, a call activity is resolved only when passing it can still lead to the target, i.e. when it leads to a
+ * node not reached yet from which the target may be reachable. Passing either takes a single step, so sub-processes not holding the
+ * target are never traversed. Instances are safe to share between threads.
+ */
+public final class HierarchicalRouter {
+
+    /**
+     * Resolves a called process definition key to its compiled model, or to null if the definition is unknown.
+     */
+    private final Function<String, CompiledModel> calledProcessResolver;
+
+    /**
+     * The memoized summary of every resolved called process definition, keyed by definition key. Clearing replaces
+     * the map, so that resolutions still running meanwhile store their summaries into the discarded one.
+     */
+    private volatile Map<String, Summary> calledProcessSummaries = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor to initialize the HierarchicalRouter.
+     *
+     * @param calledProcessResolver Resolves a called process definition key to its compiled model, e.g. by fetching
+     *                              the definition; null results are treated as unknown definitions that can
+     *                              complete, so the resolver should map failures to null.
+     */
+    public HierarchicalRouter(final Function<String, CompiledModel> calledProcessResolver) {
+        this.calledProcessResolver = calledProcessResolver;
+    }
+
+    /**
+     * Searches the graph hierarchically from the root until the target is dequeued.
+     *
+     * @param routeGraph The route graph.
+     * @param root       The node index of the root.
+     * @param target     The node index of the target.
+     * @return The search tree, in which the route to the target has the fewest hops if the target is reached.
+     * @complexity Time: O(V + E), plus O(V + E + B) once a call activity whose definition was not summarized yet is
+     *             reached, where B is the number of boundary events, plus one resolution per such call activity
+     *             that leads towards the target.
+     *             Space: O(V), due to the queue and parent arrays and the nodes that may reach the target.
+     */
+    public SearchTree search(final RouteGraph routeGraph, final int root, final int target) {
+        final ProcessHierarchy hierarchy = routeGraph.hierarchy();
+        final int[] queue = new int[routeGraph.nodeCount()];
+        final int[] parents = new int[routeGraph.nodeCount()];
+        Arrays.fill(parents, SearchTree.UNREACHED);
+        int queueHead = 0;
+        int queueTail = 0;
+
+        // Only the sub-processes enclosing the target are worth entering
+        final int[] targetScopes = enclosingScopes(hierarchy, target);
+
+        // Computed only once a call activity has to be resolved
+        boolean[] mayReachTarget = null;
+
+        queue[queueTail++] = root;
+        parents[root] = SearchTree.NO_PARENT;
+        int expandedNodeCount = 0;
+        long examinedEdgeCount = 0;
+
+        while (queueHead < queueTail) {
+            final int currentNode = queue[queueHead++];
+
+            if (currentNode == target) {
+                break;
+            }
+            expandedNodeCount++;
+
+            // An end event inside a sub-process continues along the flows leaving the enclosing sub-process
+            final int leavingNode = leavingNode(routeGraph, hierarchy, currentNode);
+            final String calledElement = hierarchy.calledElement(currentNode);
+            boolean passes = hierarchy.completes(currentNode);
+            if (passes && calledElement != null && !isSummarized(calledElement)) {
+                if (mayReachTarget == null) {
+                    mayReachTarget = nodesMayReach(routeGraph, hierarchy, target);
+                }
+                passes = leadsTowards(routeGraph, leavingNode, parents, mayReachTarget);
+            }
+            passes = passes && (calledElement == null || calledProcessCompletes(calledElement));
+
+            if (passes) {
+                examinedEdgeCount += routeGraph.edgesEnd(leavingNode) - routeGraph.edgesStart(leavingNode);
+
+                for (int edge = routeGraph.edgesStart(leavingNode); edge < routeGraph.edgesEnd(leavingNode); edge++) {
+                    queueTail = visit(routeGraph.edgeTarget(edge), currentNode, parents, queue, queueTail);
+                }
+            }
+
+            if (hierarchy.isSubProcess(currentNode) && contains(targetScopes, currentNode)) {
+                examinedEdgeCount += hierarchy.entriesEnd(currentNode) - hierarchy.entriesStart(currentNode);
+                for (int i = hierarchy.entriesStart(currentNode); i < hierarchy.entriesEnd(currentNode); i++) {
+                    queueTail = visit(hierarchy.entry(i), currentNode, parents, queue, queueTail);
+                }
+            }
+
+            final int boundaryEventsEnd = hierarchy.boundaryEventsEnd(currentNode);
+            examinedEdgeCount += boundaryEventsEnd - hierarchy.boundaryEventsStart(currentNode);
+            for (int i = hierarchy.boundaryEventsStart(currentNode); i < boundaryEventsEnd; i++) {
+                queueTail = visit(hierarchy.boundaryEvent(i), currentNode, parents, queue, queueTail);
+            }
+        }
+
+        return SearchTree.fromParents(routeGraph, parents, expandedNodeCount, examinedEdgeCount);
+    }
+
+    /**
+     * Returns the memoized summary of a called process definition, resolving it if there is none.
+     *
+     * @param processDefinitionKey The called process definition key.
+     * @return True if the called process can complete or is unknown.
+     * @complexity Time: O(1) on average once memoized, otherwise the cost of resolving the definition.
+     *             Space: O(1) per definition key.
+     */
+    public boolean calledProcessCompletes(final String processDefinitionKey) {
+        final Map<String, Summary> summaries = calledProcessSummaries;
+        final Summary summary = summaries.get(processDefinitionKey);
+        if (summary != null) {
+            return summary.completes();
+        }
+
+        // Resolve outside the map, since resolving may fetch the definition over the network
+        final CompiledModel calledModel = calledProcessResolver.apply(processDefinitionKey);
+        if (calledModel == null) {
+            // The failure may be transient, so the next query resolves the definition again
+            return true;
+        }
+
+        final Summary resolvedSummary = new Summary(calledModel.contentVersion(),
+                calledModel.routeGraph().hierarchy().processCompletes());
+        summaries.put(processDefinitionKey, resolvedSummary);
+
+        return resolvedSummary.completes();
+    }
+
+    /**
+     * Drops the memoized summary of a called process definition unless it was computed from the given content
+     * version, so that the next query passing a call activity of the definition resolves it again.
+     *
+     * @param processDefinitionKey The called process definition key.
+     * @param contentVersion       The current content version of the definition, or null if it is unknown.
+     * @complexity Time: O(1) on average.
+     *             Space: O(1).
+     */
+    public void invalidateCalledProcess(final String processDefinitionKey, final String contentVersion) {
+        calledProcessSummaries.computeIfPresent(processDefinitionKey, (key, summary) ->
+                contentVersion != null && contentVersion.equals(summary.contentVersion()) ? summary : null);
+    }
+
+    /**
+     * Drops the memoized summaries of all called process definitions, e.g. when reloading the models.
+     *
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public void clearCalledProcessSummaries() {
+        calledProcessSummaries = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Checks if the summary of a called process definition is memoized.
+     *
+     * @param processDefinitionKey The called process definition key.
+     * @return True if the definition does not need to be resolved.
+     * @complexity Time: O(1) on average.
+     *             Space: O(1).
+     */
+    private boolean isSummarized(final String processDefinitionKey) {
+        return calledProcessSummaries.containsKey(processDefinitionKey);
+    }
+
+    /**
+     * Checks if the flows leaving a node lead to a node that is not reached yet and may reach the target.
+     *
+     * @param routeGraph     The route graph.
+     * @param leavingNode    The node index whose outgoing flows are followed.
+     * @param parents        The parent array.
+     * @param mayReachTarget Whether every node may reach the target.
+     * @return True if following the flows can still lead to the target.
+     * @complexity Time: O(d), where d is the out-degree of the node.
+     *             Space: O(1).
+     */
+    private static boolean leadsTowards(final RouteGraph routeGraph, final int leavingNode, final int[] parents,
+                                        final boolean[] mayReachTarget) {
+        for (int edge = routeGraph.edgesStart(leavingNode); edge < routeGraph.edgesEnd(leavingNode); edge++) {
+            final int node = routeGraph.edgeTarget(edge);
+            if (parents[node] == SearchTree.UNREACHED && mayReachTarget[node]) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Collects the nodes from which the target may be reachable, searching backwards from the target along every
+     * step the search can take: sequence flows, entering the sub-process a node is declared in, the boundary event
+     * of the activity it is attached to, and leaving a sub-process from any node declared in it.
+     * <p>
+     * Completion of sub-processes and call activities is ignored, so the result may include nodes that cannot reach
+     * the target, but never misses one that can.
+     *
+     * @param routeGraph The route graph.
+     * @param hierarchy  The process hierarchy.
+     * @param target     The node index of the target.
+     * @return Whether every node may reach the target.
+     * @complexity Time: O(V + E + B), where B is the number of boundary events.
+     *             Space: O(V).
+     */
+    private static boolean[] nodesMayReach(final RouteGraph routeGraph, final ProcessHierarchy hierarchy,
+                                           final int target) {
+        final int nodeCount = routeGraph.nodeCount();
+
+        // The hierarchy records the scope of every node and the boundary events of every activity; invert both
+        final int[] childrenStart = new int[nodeCount + 1];
+        final int[] attachedTo = new int[nodeCount];
+        Arrays.fill(attachedTo, ProcessHierarchy.NO_SCOPE);
+        for (int node = 0; node < nodeCount; node++) {
+            if (hierarchy.scopeOf(node) != ProcessHierarchy.NO_SCOPE) {
+                childrenStart[hierarchy.scopeOf(node) + 1]++;
+            }
+            for (int i = hierarchy.boundaryEventsStart(node); i < hierarchy.boundaryEventsEnd(node); i++) {
+                attachedTo[hierarchy.boundaryEvent(i)] = node;
+            }
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            childrenStart[node + 1] += childrenStart[node];
+        }
+        final int[] children = new int[childrenStart[nodeCount]];
+        final int[] childrenTail = Arrays.copyOf(childrenStart, nodeCount);
+        for (int node = 0; node < nodeCount; node++) {
+            if (hierarchy.scopeOf(node) != ProcessHierarchy.NO_SCOPE) {
+                children[childrenTail[hierarchy.scopeOf(node)]++] = node;
+            }
+        }
+
+        final boolean[] mayReach = new boolean[nodeCount];
+        final int[] queue = new int[nodeCount];
+        int queueHead = 0;
+        int queueTail = 0;
+        mayReach[target] = true;
+        queue[queueTail++] = target;
+
+        while (queueHead < queueTail) {
+            final int currentNode = queue[queueHead++];
+
+            for (int edge = routeGraph.incomingStart(currentNode); edge < routeGraph.incomingEnd(currentNode);
+                 edge++) {
+                queueTail = mark(routeGraph.incomingSource(edge), mayReach, queue, queueTail);
+            }
+            queueTail = mark(hierarchy.scopeOf(currentNode), mayReach, queue, queueTail);
+            queueTail = mark(attachedTo[currentNode], mayReach, queue, queueTail);
+            for (int i = childrenStart[currentNode]; i < childrenStart[currentNode + 1]; i++) {
+                queueTail = mark(children[i], mayReach, queue, queueTail);
+            }
+        }
+
+        return mayReach;
+    }
+
+    /**
+     * Marks a node found by the backward search unless it is absent or was marked before.
+     *
+     * @param node      The node index, or {@link ProcessHierarchy#NO_SCOPE} if there is none.
+     * @param marked    Whether every node was marked.
+     * @param queue     The queue.
+     * @param queueTail The current queue tail.
+     * @return The new queue tail.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    private static int mark(final int node, final boolean[] marked, final int[] queue, final int queueTail) {
+        if (node == ProcessHierarchy.NO_SCOPE || marked[node]) {
+            return queueTail;
+        }
+
+        marked[node] = true;
+        queue[queueTail] = node;
+
+        return queueTail + 1;
+    }
+
+    /**
+     * Returns the node whose outgoing sequence flows a token continues along after completing the given node.
+     *
+     * @param routeGraph The route graph.
+     * @param hierarchy  The process hierarchy.
+     * @param node       The node index.
+     * @return The node itself if it has outgoing flows, otherwise the innermost enclosing sub-process that has some,
+     *         or the node itself if there is none.
+     * @complexity Time: O(D), where D is the nesting depth of the node.
+     *             Space: O(1).
+     */
+    private static int leavingNode(final RouteGraph routeGraph, final ProcessHierarchy hierarchy, final int node) {
+        int leavingNode = node;
+
+        // A sub-process without outgoing flows is itself an end of its parent, so keep walking up
+        while (routeGraph.edgesStart(leavingNode) == routeGraph.edgesEnd(leavingNode)
+                && hierarchy.scopeOf(leavingNode) != ProcessHierarchy.NO_SCOPE) {
+            leavingNode = hierarchy.scopeOf(leavingNode);
+        }
+
+        return leavingNode;
+    }
+
+    /**
+     * Collects the sub-processes enclosing a node, innermost first.
+     *
+     * @param hierarchy The process hierarchy.
+     * @param node      The node index.
+     * @return The node indexes of the enclosing sub-processes.
+     * @complexity Time: O(D), where D is the nesting depth of the node.
+     *             Space: O(D).
+     */
+    private static int[] enclosingScopes(final ProcessHierarchy hierarchy, final int node) {
+        int[] scopes = new int[0];
+
+        // Nesting is shallow, so growing the array by one per level is cheap
+        int scope = hierarchy.scopeOf(node);
+        while (scope != ProcessHierarchy.NO_SCOPE) {
+            scopes = Arrays.copyOf(scopes, scopes.length + 1);
+            scopes[scopes.length - 1] = scope;
+            scope = hierarchy.scopeOf(scope);
+        }
+
+        return scopes;
+    }
+
+    /**
+     * Checks if a small array contains a value.
+     *
+     * @param values The values.
+     * @param value  The value to look for.
+     * @return True if the value is contained.
+     * @complexity Time: O(k), where k is the number of values.
+     *             Space: O(1).
+     */
+    private static boolean contains(final int[] values, final int value) {
+        for (final int candidate : values) {
+            if (candidate == value) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Enqueues a node reached from the current node unless it was reached before.
+     *
+     * @param node        The reached node index.
+     * @param currentNode The node index it was reached from.
+     * @param parents     The parent array.
+     * @param queue       The queue.
+     * @param queueTail   The current queue tail.
+     * @return The new queue tail.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    private static int visit(final int node, final int currentNode, final int[] parents, final int[] queue,
+                             final int queueTail) {
+        if (parents[node] != SearchTree.UNREACHED) {
+            return queueTail;
+        }
+
+        parents[node] = currentNode;
+        queue[queueTail] = node;
+
+        return queueTail + 1;
+    }
+
+    /**
+     * The summary of a resolved called process definition.
+     *
+     * @param contentVersion The content version of the definition the summary was computed from, or null if unknown.
+     * @param completes      True if the called process can complete.
+     */
+    private record Summary(String contentVersion, boolean completes) {
+    }
+
+}
@@ -0,0 +1,203 @@
+package org.samvelaivazian.diagramtraversal.solution.traversal;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of node indexes keyed by a {@code double} priority, with decrease-key.
+ * <p>
+ * All storage is held in primitive arrays that are allocated once and reused across searches, so no operation
+ * allocates or boxes. Instances are not thread-safe; use one heap per search at a time.
+ */
+public final class IndexedMinHeap {
+
+    /**
+     * Marker for nodes that are not in the heap.
+     */
+    private static final int ABSENT = -1;
+
+    /**
+     * The nodes in heap order.
+     */
+    private int[] heap;
+
+    /**
+     * The position of every node in {@link #heap}, or {@link #ABSENT}.
+     */
+    private int[] positions;
+
+    /**
+     * The priority of every node currently in the heap.
+     */
+    private double[] priorities;
+
+    /**
+     * The number of nodes in the heap.
+     */
+    private int size;
+
+    /**
+     * Constructor to initialize the IndexedMinHeap for node indexes below the given capacity.
+     *
+     * @param capacity The number of distinct node indexes.
+     */
+    public IndexedMinHeap(final int capacity) {
+        this.heap = new int[capacity];
+        this.positions = new int[capacity];
+        this.priorities = new double[capacity];
+        Arrays.fill(positions, ABSENT);
+    }
+
+    /**
+     * Makes room for node indexes below the given capacity, reallocating only if the heap is too small.
+     *
+     * @param capacity The number of distinct node indexes.
+     * @complexity Time: O(1) if large enough, O(capacity) otherwise.
+     *             Space: O(capacity) if reallocated.
+     */
+    public void ensureCapacity(final int capacity) {
+        if (capacity > positions.length) {
+            final int oldCapacity = positions.length;
+            heap = Arrays.copyOf(heap, capacity);
+            positions = Arrays.copyOf(positions, capacity);
+            priorities = Arrays.copyOf(priorities, capacity);
+            Arrays.fill(positions, oldCapacity, capacity, ABSENT);
+        }
+    }
+
+    /**
+     * Checks if the heap is empty.
+     *
+     * @return True if the heap holds no nodes.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Inserts a node, or lowers its priority if it is already in the heap with a higher one.
+     *
+     * @param node     The node index.
+     * @param priority The priority.
+     * @complexity Time: O(log n), where n is the number of nodes in the heap.
+     *             Space: O(1).
+     */
+    public void insertOrDecrease(final int node, final double priority) {
+        int position = positions[node];
+
+        if (position == ABSENT) {
+            position = size++;
+            heap[position] = node;
+            positions[node] = position;
+        } else if (priority >= priorities[node]) {
+            return;
+        }
+
+        priorities[node] = priority;
+        siftUp(position);
+    }
+
+    /**
+     * Removes and returns the node with the lowest priority.
+     *
+     * @return The node index.
+     * @throws IllegalStateException if the heap is empty.
+     * @complexity Time: O(log n), where n is the number of nodes in the heap.
+     *             Space: O(1).
+     */
+    public int pollMin() {
+        if (size == 0) {
+            throw new IllegalStateException("Heap is empty");
+        }
+
+        final int minNode = heap[0];
+        positions[minNode] = ABSENT;
+        size--;
+
+        if (size > 0) {
+            heap[0] = heap[size];
+            positions[heap[0]] = 0;
+            siftDown(0);
+        }
+
+        return minNode;
+    }
+
+    /**
+     * Removes all nodes, keeping the allocated arrays.
+     *
+     * @complexity Time: O(n), where n is the number of nodes in the heap.
+     *             Space: O(1).
+     */
+    public void clear() {
+        for (int position = 0; position < size; position++) {
+            positions[heap[position]] = ABSENT;
+        }
+
+        size = 0;
+    }
+
+    /**
+     * Moves the node at the given position up until its parent has a lower or equal priority.
+     *
+     * @param position The heap position.
+     * @complexity Time: O(log n).
+     *             Space: O(1).
+     */
+    private void siftUp(int position) {
+        final int node = heap[position];
+        final double priority = priorities[node];
+
+        while (position > 0) {
+            final int parentPosition = (position - 1) >>> 1;
+            final int parentNode = heap[parentPosition];
+
+            if (priorities[parentNode] <= priority) {
+                break;
+            }
+
+            heap[position] = parentNode;
+            positions[parentNode] = position;
+            position = parentPosition;
+        }
+
+        heap[position] = node;
+        positions[node] = position;
+    }
+
+    /**
+     * Moves the node at the given position down until both children have a higher or equal priority.
+     *
+     * @param position The heap position.
+     * @complexity Time: O(log n).
+     *             Space: O(1).
+     */
+    private void siftDown(int position) {
+        final int node = heap[position];
+        final double priority = priorities[node];
+        final int half = size >>> 1;
+
+        while (position < half) {
+            int childPosition = 2 * position + 1;
+            final int rightPosition = childPosition + 1;
+
+            if (rightPosition < size && priorities[heap[rightPosition]] < priorities[heap[childPosition]]) {
+                childPosition = rightPosition;
+            }
+
+            final int childNode = heap[childPosition];
+            if (priority <= priorities[childNode]) {
+                break;
+            }
+
+            heap[position] = childNode;
+            positions[childNode] = position;
+            position = childPosition;
+        }
+
+        heap[position] = node;
+        positions[node] = position;
+    }
+
+}
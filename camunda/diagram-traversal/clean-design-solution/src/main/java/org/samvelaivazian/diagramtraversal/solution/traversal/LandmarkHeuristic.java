@@ -0,0 +1,104 @@
+package org.samvelaivazian.diagramtraversal.solution.traversal;
+
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraph;
+
+import java.util.Arrays;
+
+/**
+ * Landmark (ALT) heuristic: precomputed cheapest-route costs from a few landmark nodes give lower bounds
+ * by the triangle inequality, {@code cost(v, t) >= cost(L, t) - cost(L, v)}.
+ * <p>
+ * Landmarks are the nodes without incoming edges, i.e. the start events, since every route of a process
+ * diagram hangs off one of them. Instances are immutable and safe to share between threads.
+ */
+public final class LandmarkHeuristic implements RouteHeuristic {
+
+    /**
+     * The maximum number of landmarks.
+     */
+    private static final int MAX_LANDMARKS = 4;
+
+    /**
+     * The cost of the cheapest route from every landmark to every node, indexed by landmark and then by node.
+     */
+    private final double[][] landmarkCosts;
+
+    /**
+     * Constructor to initialize the LandmarkHeuristic with precomputed landmark costs.
+     *
+     * @param landmarkCosts The costs from every landmark to every node.
+     */
+    private LandmarkHeuristic(final double[][] landmarkCosts) {
+        this.landmarkCosts = landmarkCosts;
+    }
+
+    /**
+     * Selects the landmarks of the graph and computes the costs from each of them to every node.
+     *
+     * @param routeGraph The route graph.
+     * @return The landmark heuristic.
+     * @complexity Time: O(k * (V + E) log V), where k is the number of landmarks (at most 4).
+     *             Space: O(k * V), for the cost table.
+     */
+    public static LandmarkHeuristic build(final RouteGraph routeGraph) {
+        final int nodeCount = routeGraph.nodeCount();
+
+        // Nodes without incoming edges are the entry points of the diagram
+        final boolean[] hasIncoming = new boolean[nodeCount];
+        for (int edge = 0; edge < routeGraph.edgeCount(); edge++) {
+            hasIncoming[routeGraph.edgeTarget(edge)] = true;
+        }
+
+        final double[][] landmarkCosts = new double[MAX_LANDMARKS][];
+        final IndexedMinHeap heap = new IndexedMinHeap(nodeCount);
+        int landmarkCount = 0;
+
+        for (int node = 0; node < nodeCount && landmarkCount < MAX_LANDMARKS; node++) {
+            if (!hasIncoming[node]) {
+                landmarkCosts[landmarkCount++] = SearchTree.cheapestFirst(routeGraph, node, SearchTree.NO_STOP_NODE,
+                        RouteHeuristic.zero(), heap).costs();
+            }
+        }
+
+        return new LandmarkHeuristic(Arrays.copyOf(landmarkCosts, landmarkCount));
+    }
+
+    /**
+     * Returns the number of landmarks of this heuristic.
+     *
+     * @return The number of landmarks.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public int getLandmarkCount() {
+        return landmarkCosts.length;
+    }
+
+    /**
+     * Estimates the remaining cost as the largest lower bound over all landmarks.
+     *
+     * @param node       The node index.
+     * @param targetNode The node index of the target.
+     * @return A lower bound on the cost, or {@link Double#POSITIVE_INFINITY} if a landmark reaches the node
+     *         but not the target, which proves that the node cannot reach the target either.
+     * @complexity Time: O(k), where k is the number of landmarks.
+     *             Space: O(1).
+     */
+    @Override
+    public double estimate(final int node, final int targetNode) {
+        double estimate = 0;
+
+        for (final double[] costs : landmarkCosts) {
+            // A landmark that does not reach the node says nothing about it
+            if (costs[node] == Double.POSITIVE_INFINITY) {
+                continue;
+            }
+
+            // Unreachable targets yield infinity here, pruning the node
+            estimate = Math.max(estimate, costs[targetNode] - costs[node]);
+        }
+
+        return estimate;
+    }
+
+}
@@ -0,0 +1,304 @@
+package org.samvelaivazian.diagramtraversal.solution.traversal;
+
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Level-synchronous parallel BFS answering one-to-all queries over large route graphs.
+ * <p>
+ * Every level of the search is split into chunks of the frontier that are expanded on a dedicated
+ * {@link ForkJoinPool}. Workers claim nodes through an atomic bitset, so every node is reached exactly once and gets
+ * exactly one parent; the next level starts only when the whole current level is expanded, so the route to every
+ * node still has the fewest hops. Which of several equally short routes wins may differ between runs.
+ * <p>
+ * Graphs below the sequential threshold are searched with {@link SearchTree#breadthFirst(RouteGraph, int, int)},
+ * since splitting their levels costs more than it saves. Likewise, levels narrower than one chunk are expanded on the
+ * calling thread, so long chains of a diagram do not pay a hand-off to the pool per node.
+ */
+public final class ParallelBreadthFirstSearch implements AutoCloseable {
+
+    /**
+     * The node count below which graphs are searched sequentially if no threshold is given.
+     */
+    public static final int DEFAULT_SEQUENTIAL_THRESHOLD = 50_000;
+
+    /**
+     * The number of frontier nodes a single task expands without splitting further.
+     */
+    private static final int FRONTIER_CHUNK_SIZE = 1_024;
+
+    /**
+     * The number of bits in one word of the visited bitset.
+     */
+    private static final int BITS_PER_WORD = 64;
+
+    /**
+     * The pool expanding the levels.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * The node count below which graphs are searched sequentially.
+     */
+    private final int sequentialThreshold;
+
+    /**
+     * Constructor to initialize the ParallelBreadthFirstSearch with one worker per available processor and the
+     * default sequential threshold.
+     */
+    public ParallelBreadthFirstSearch() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_SEQUENTIAL_THRESHOLD);
+    }
+
+    /**
+     * Constructor to initialize the ParallelBreadthFirstSearch.
+     *
+     * @param parallelism         The number of worker threads.
+     * @param sequentialThreshold The node count below which graphs are searched sequentially.
+     * @throws IllegalArgumentException if the parallelism is not positive or the threshold is negative.
+     */
+    public ParallelBreadthFirstSearch(final int parallelism, final int sequentialThreshold) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        if (sequentialThreshold < 0) {
+            throw new IllegalArgumentException("Sequential threshold must be non-negative: " + sequentialThreshold);
+        }
+
+        this.pool = new ForkJoinPool(parallelism);
+        this.sequentialThreshold = sequentialThreshold;
+    }
+
+    /**
+     * Searches the graph from the root to completion.
+     *
+     * @param routeGraph The route graph.
+     * @param root       The node index of the root.
+     * @return The search tree, in which the route to every reachable node has the fewest hops.
+     * @complexity Time: O((V + E) / P + D) on P workers, where V is the number of vertices (nodes), E is the number
+     *             of edges and D the number of levels.
+     *             Space: O(V), due to the frontier, parent and visited arrays.
+     */
+    public SearchTree search(final RouteGraph routeGraph, final int root) {
+        final int nodeCount = routeGraph.nodeCount();
+        if (nodeCount < sequentialThreshold) {
+            return SearchTree.breadthFirst(routeGraph, root, SearchTree.NO_STOP_NODE);
+        }
+
+        final AtomicLongArray visited = new AtomicLongArray((nodeCount + BITS_PER_WORD - 1) / BITS_PER_WORD);
+        final int[] parents = new int[nodeCount];
+        Arrays.fill(parents, SearchTree.UNREACHED);
+        final AtomicInteger nextFrontierSize = new AtomicInteger();
+        int[] frontier = new int[nodeCount];
+        int[] nextFrontier = new int[nodeCount];
+        int frontierSize = 0;
+        int expandedNodeCount = 0;
+        final LongAdder examinedEdgeCount = new LongAdder();
+
+        // Start with the root as the only node of the first level
+        tryVisit(visited, root);
+        parents[root] = SearchTree.NO_PARENT;
+        frontier[frontierSize++] = root;
+
+        // Expand one level at a time; the pool's join orders all writes of a level before the next one
+        while (frontierSize > 0) {
+            nextFrontierSize.set(0);
+            expandedNodeCount += frontierSize;
+            final LevelTask levelTask = new LevelTask(routeGraph, visited, parents, frontier, 0, frontierSize,
+                    nextFrontier, nextFrontierSize, examinedEdgeCount);
+
+            // Narrow levels, typical of long chains, would not be split anyway, so skip the round trip to the pool
+            if (frontierSize <= FRONTIER_CHUNK_SIZE) {
+                levelTask.compute();
+            } else {
+                pool.invoke(levelTask);
+            }
+
+            final int[] expandedFrontier = frontier;
+            frontier = nextFrontier;
+            nextFrontier = expandedFrontier;
+            frontierSize = nextFrontierSize.get();
+        }
+
+        return SearchTree.fromParents(routeGraph, parents, expandedNodeCount, examinedEdgeCount.sum());
+    }
+
+    /**
+     * Returns the number of worker threads.
+     *
+     * @return The parallelism of the pool.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Shuts the pool down, waiting for running searches to finish.
+     */
+    @Override
+    public void close() {
+        pool.close();
+    }
+
+    /**
+     * Marks a node as visited unless another worker did so first.
+     *
+     * @param visited The visited bitset.
+     * @param node    The node index.
+     * @return True if this call marked the node.
+     * @complexity Time: O(1) amortized; retries only while other nodes of the same word are being marked.
+     *             Space: O(1).
+     */
+    private static boolean tryVisit(final AtomicLongArray visited, final int node) {
+        final int word = node / BITS_PER_WORD;
+        final long bit = 1L << (node % BITS_PER_WORD);
+        long current = visited.get(word);
+
+        while ((current & bit) == 0) {
+            final long witness = visited.compareAndExchange(word, current, current | bit);
+
+            if (witness == current) {
+                return true;
+            }
+            current = witness;
+        }
+
+        return false;
+    }
+
+    /**
+     * Task expanding a range of the current frontier into the next one. Tasks only live within one search and are
+     * never serialized, although {@link RecursiveAction} is serializable.
+     */
+    @SuppressWarnings("serial")
+    private static final class LevelTask extends RecursiveAction {
+
+        /**
+         * The searched route graph.
+         */
+        private final RouteGraph routeGraph;
+
+        /**
+         * The visited bitset shared by all workers.
+         */
+        private final AtomicLongArray visited;
+
+        /**
+         * The parent of every node, written once by the worker that visits it.
+         */
+        private final int[] parents;
+
+        /**
+         * The current frontier.
+         */
+        private final int[] frontier;
+
+        /**
+         * The first frontier position of this task, inclusive.
+         */
+        private final int from;
+
+        /**
+         * The last frontier position of this task, exclusive.
+         */
+        private final int to;
+
+        /**
+         * The next frontier, filled by all workers.
+         */
+        private final int[] nextFrontier;
+
+        /**
+         * The number of nodes in the next frontier, used to reserve slots in it.
+         */
+        private final AtomicInteger nextFrontierSize;
+
+        /**
+         * The number of edges examined by all workers, added to once per chunk.
+         */
+        private final LongAdder examinedEdgeCount;
+
+        /**
+         * Constructor to initialize the LevelTask.
+         *
+         * @param routeGraph        The searched route graph.
+         * @param visited           The visited bitset.
+         * @param parents           The parent array.
+         * @param frontier          The current frontier.
+         * @param from              The first frontier position, inclusive.
+         * @param to                The last frontier position, exclusive.
+         * @param nextFrontier      The next frontier.
+         * @param nextFrontierSize  The number of nodes in the next frontier.
+         * @param examinedEdgeCount The number of edges examined by all workers.
+         */
+        private LevelTask(final RouteGraph routeGraph, final AtomicLongArray visited, final int[] parents,
+                          final int[] frontier, final int from, final int to, final int[] nextFrontier,
+                          final AtomicInteger nextFrontierSize, final LongAdder examinedEdgeCount) {
+            this.routeGraph = routeGraph;
+            this.visited = visited;
+            this.parents = parents;
+            this.frontier = frontier;
+            this.from = from;
+            this.to = to;
+            this.nextFrontier = nextFrontier;
+            this.nextFrontierSize = nextFrontierSize;
+            this.examinedEdgeCount = examinedEdgeCount;
+        }
+
+        /**
+         * Splits the range in halves until it is small enough, then expands it.
+         *
+         * @complexity Time: O(N + E_N), where N is the number of frontier nodes of the range and E_N their edges.
+         *             Space: O(E_N), due to the buffer of newly visited nodes.
+         */
+        @Override
+        protected void compute() {
+            if (to - from > FRONTIER_CHUNK_SIZE) {
+                final int middle = (from + to) >>> 1;
+
+                invokeAll(new LevelTask(routeGraph, visited, parents, frontier, from, middle, nextFrontier,
+                                nextFrontierSize, examinedEdgeCount),
+                        new LevelTask(routeGraph, visited, parents, frontier, middle, to, nextFrontier,
+                                nextFrontierSize, examinedEdgeCount));
+                return;
+            }
+
+            // Collect the newly visited nodes locally, so the shared counter is touched once per chunk
+            int[] visitedNodes = new int[to - from];
+            int visitedCount = 0;
+            long chunkEdgeCount = 0;
+
+            for (int i = from; i < to; i++) {
+                final int currentNode = frontier[i];
+                chunkEdgeCount += routeGraph.edgesEnd(currentNode) - routeGraph.edgesStart(currentNode);
+
+                for (int edge = routeGraph.edgesStart(currentNode); edge < routeGraph.edgesEnd(currentNode); edge++) {
+                    final int targetNode = routeGraph.edgeTarget(edge);
+
+                    if (tryVisit(visited, targetNode)) {
+                        parents[targetNode] = currentNode;
+
+                        if (visitedCount == visitedNodes.length) {
+                            visitedNodes = Arrays.copyOf(visitedNodes, visitedCount * 2);
+                        }
+                        visitedNodes[visitedCount++] = targetNode;
+                    }
+                }
+            }
+
+            final int offset = nextFrontierSize.getAndAdd(visitedCount);
+            System.arraycopy(visitedNodes, 0, nextFrontier, offset, visitedCount);
+            examinedEdgeCount.add(chunkEdgeCount);
+        }
+
+    }
+
+}
@@ -0,0 +1,107 @@
+package org.samvelaivazian.diagramtraversal.solution.traversal;
+
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraph;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reusable buffer receiving a route as node indexes, from the root to the target.
+ * <p>
+ * The buffer grows to the longest route written into it and is never shrunk, so a caller answering many queries
+ * with one buffer does not allocate per query. Instances are not thread-safe; use one buffer per search at a time.
+ */
+public final class RouteBuffer {
+
+    /**
+     * The node indexes of the route.
+     */
+    private int[] nodes;
+
+    /**
+     * The number of nodes of the route.
+     */
+    private int length;
+
+    /**
+     * Constructor to initialize the RouteBuffer for routes of up to the given length without growing.
+     *
+     * @param capacity The initial capacity.
+     */
+    public RouteBuffer(final int capacity) {
+        this.nodes = new int[capacity];
+    }
+
+    /**
+     * Returns the number of nodes of the route.
+     *
+     * @return The route length, 0 if no route was written.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Returns a node of the route.
+     *
+     * @param position The position on the route, 0 for the root.
+     * @return The node index.
+     * @throws IndexOutOfBoundsException if the position is not below the route length.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public int node(final int position) {
+        if (position >= length) {
+            throw new IndexOutOfBoundsException("Position " + position + " is beyond route length " + length);
+        }
+
+        return nodes[position];
+    }
+
+    /**
+     * Resolves the route to node IDs.
+     *
+     * @param routeGraph The route graph the route was found in.
+     * @return Immutable list of node IDs representing the route.
+     * @complexity Time: O(L), where L is the length of the route.
+     *             Space: O(L), due to the route list.
+     */
+    public List<String> toNodeIds(final RouteGraph routeGraph) {
+        final String[] nodeIds = new String[length];
+        for (int position = 0; position < length; position++) {
+            nodeIds[position] = routeGraph.nodeId(nodes[position]);
+        }
+
+        return List.of(nodeIds);
+    }
+
+    /**
+     * Empties the buffer and makes room for a route of the given length.
+     *
+     * @param routeLength The length of the route about to be written.
+     * @complexity Time: O(1) if large enough, O(routeLength) otherwise.
+     *             Space: O(routeLength) if reallocated.
+     */
+    void reset(final int routeLength) {
+        if (routeLength > nodes.length) {
+            nodes = Arrays.copyOf(nodes, Math.max(routeLength, 2 * nodes.length));
+        }
+
+        length = routeLength;
+    }
+
+    /**
+     * Writes a node of the route.
+     *
+     * @param position The position on the route, below the length passed to {@link #reset(int)}.
+     * @param node     The node index.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    void set(final int position, final int node) {
+        nodes[position] = node;
+    }
+
+}
@@ -0,0 +1,526 @@
+package org.samvelaivazian.diagramtraversal.solution.traversal;
+
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraph;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazy enumeration of all routes from a root node to a target node that respect the gateway semantics of the model.
+ * <p>
+ * Routes are played like a token game in which
+ * <ul>
+ *     <li>a node with several outgoing flows is an exclusive choice, and every choice yields its own routes,</li>
+ *     <li>a parallel gateway forks one token into each of its outgoing flows, and every branch belongs to the same
+ *         route, in the order of the flows,</li>
+ *     <li>a parallel gateway with several incoming flows waits until a token arrived along each of them, and</li>
+ *     <li>a token ends at the target or at a node without outgoing flows.</li>
+ * </ul>
+ * A route is complete once no token is left to play, and it is produced if the target was reached; tokens of other
+ * branches may then still wait at a join behind the target. The branches of a fork are played one after the other
+ * instead of in every interleaving, so every route is produced once.
+ * <p>
+ * Loops are bounded by the number of times a node may be entered per route, not by a visited set, so a bound of one
+ * yields the simple routes and higher bounds unroll each loop that many times. Routes longer than the maximum length
+ * are pruned, as are branches from which the target is unreachable once no other token could still reach it.
+ * <p>
+ * Choices are explored depth-first and undone through a trail of the state changes made after each choice, so memory
+ * stays proportional to the current route rather than to the number of routes. Instances are not thread-safe.
+ */
+public final class RouteEnumerator implements Iterator<List<String>> {
+
+    /**
+     * Trail entry kind restoring the visit count of a node.
+     */
+    private static final int VISITS = 0;
+
+    /**
+     * Trail entry kind restoring the number of tokens waiting at a join.
+     */
+    private static final int ARRIVALS = 1;
+
+    /**
+     * Trail entry kind restoring a slot of the token stack.
+     */
+    private static final int TOKEN = 2;
+
+    /**
+     * Trail entry kind restoring one of the scalar counters.
+     */
+    private static final int COUNTER = 3;
+
+    /**
+     * Counter index of the route length.
+     */
+    private static final int ROUTE_SIZE = 0;
+
+    /**
+     * Counter index of the token stack size.
+     */
+    private static final int TOKEN_COUNT = 1;
+
+    /**
+     * Counter index of the number of tokens waiting at joins.
+     */
+    private static final int WAITING_TOKENS = 2;
+
+    /**
+     * Counter index of the flag telling whether the target was reached, 1 if so.
+     */
+    private static final int TARGET_REACHED = 3;
+
+    /**
+     * The enumerated route graph.
+     */
+    private final RouteGraph routeGraph;
+
+    /**
+     * The node index of the root.
+     */
+    private final int root;
+
+    /**
+     * The node index of the target.
+     */
+    private final int target;
+
+    /**
+     * The maximum number of times a node may be entered per route.
+     */
+    private final int maxVisits;
+
+    /**
+     * Whether the target is reachable from every node along sequence flows.
+     */
+    private final boolean[] reachesTarget;
+
+    /**
+     * The nodes of the current route, of the maximum route length.
+     */
+    private final int[] route;
+
+    /**
+     * The number of times every node was entered by the current route.
+     */
+    private final int[] visits;
+
+    /**
+     * The number of tokens waiting at every join.
+     */
+    private final int[] arrivals;
+
+    /**
+     * The scalar counters, indexed by {@link #ROUTE_SIZE}, {@link #TOKEN_COUNT}, {@link #WAITING_TOKENS} and
+     * {@link #TARGET_REACHED}.
+     */
+    private final int[] counters = new int[4];
+
+    /**
+     * The stack of tokens still to be played.
+     */
+    private int[] tokens = new int[8];
+
+    /**
+     * The trail of state changes, as triples of kind, index and previous value.
+     */
+    private int[] trail = new int[48];
+
+    /**
+     * The number of used trail slots.
+     */
+    private int trailSize;
+
+    /**
+     * The trail size right after every open choice was entered.
+     */
+    private int[] choiceMarks = new int[8];
+
+    /**
+     * The node of every open choice.
+     */
+    private int[] choiceNodes = new int[8];
+
+    /**
+     * The next outgoing edge of every open choice.
+     */
+    private int[] choiceEdges = new int[8];
+
+    /**
+     * The number of open choices.
+     */
+    private int choiceDepth;
+
+    /**
+     * Whether the first route was searched for.
+     */
+    private boolean started;
+
+    /**
+     * The next route, or null if it has yet to be searched for or no route is left.
+     */
+    private List<String> nextRoute;
+
+    /**
+     * Constructor to initialize the RouteEnumerator.
+     *
+     * @param routeGraph The route graph.
+     * @param root       The node index of the root.
+     * @param target     The node index of the target.
+     * @param maxLength  The maximum number of nodes of a route.
+     * @param maxVisits  The maximum number of times a node may be entered per route.
+     * @throws IllegalArgumentException if either bound is not positive.
+     * @complexity Time: O(V + E), due to the reachability of the target.
+     *             Space: O(V), due to the per-node arrays.
+     */
+    public RouteEnumerator(final RouteGraph routeGraph, final int root, final int target, final int maxLength,
+                           final int maxVisits) {
+        if (maxLength < 1) {
+            throw new IllegalArgumentException("Maximum route length must be positive: " + maxLength);
+        }
+        if (maxVisits < 1) {
+            throw new IllegalArgumentException("Maximum visits per node must be positive: " + maxVisits);
+        }
+
+        this.routeGraph = routeGraph;
+        this.root = root;
+        this.target = target;
+        this.maxVisits = maxVisits;
+        this.reachesTarget = reachesTarget(routeGraph, target);
+        this.route = new int[(int) Math.min(maxLength, (long) routeGraph.nodeCount() * maxVisits)];
+        this.visits = new int[routeGraph.nodeCount()];
+        this.arrivals = new int[routeGraph.nodeCount()];
+    }
+
+    /**
+     * Enumerates the routes lazily as a sequential stream, so that {@code limit} bounds the work to the first routes.
+     *
+     * @param routeGraph The route graph.
+     * @param root       The node index of the root.
+     * @param target     The node index of the target.
+     * @param maxLength  The maximum number of nodes of a route.
+     * @param maxVisits  The maximum number of times a node may be entered per route.
+     * @return The stream of routes, each a list of node IDs.
+     * @throws IllegalArgumentException if either bound is not positive.
+     * @complexity Time: O(V + E) until the first route is requested.
+     *             Space: O(V).
+     */
+    public static Stream<List<String>> stream(final RouteGraph routeGraph, final int root, final int target,
+                                              final int maxLength, final int maxVisits) {
+        final RouteEnumerator routes = new RouteEnumerator(routeGraph, root, target, maxLength, maxVisits);
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(routes,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Checks if another route exists, searching for it on first call.
+     *
+     * @return True if another route exists.
+     * @complexity Time: exponential in the number of choices in the worst case, bounded by the maximum length.
+     *             Space: O(L), where L is the maximum route length.
+     */
+    @Override
+    public boolean hasNext() {
+        if (nextRoute == null) {
+            nextRoute = findNextRoute();
+        }
+
+        return nextRoute != null;
+    }
+
+    /**
+     * Returns the next route.
+     *
+     * @return The node IDs of the next route.
+     * @throws NoSuchElementException if no route is left.
+     * @complexity Time: see {@link #hasNext()}.
+     *             Space: O(L), for the returned route.
+     */
+    @Override
+    public List<String> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more routes");
+        }
+
+        final List<String> currentRoute = nextRoute;
+        nextRoute = null;
+
+        return currentRoute;
+    }
+
+    /**
+     * Plays the token game until the next complete route, backtracking from the previous one.
+     *
+     * @return The node IDs of the next route, or null if none is left.
+     * @complexity Time: exponential in the number of choices in the worst case, bounded by the maximum length.
+     *             Space: O(L), where L is the maximum route length.
+     */
+    private List<String> findNextRoute() {
+        boolean resumed;
+        if (!started) {
+            started = true;
+            pushToken(root);
+            resumed = true;
+        } else {
+            resumed = backtrack();
+        }
+
+        while (resumed) {
+            if (play()) {
+                final String[] routeNodeIds = new String[counters[ROUTE_SIZE]];
+                for (int i = 0; i < routeNodeIds.length; i++) {
+                    routeNodeIds[i] = routeGraph.nodeId(route[i]);
+                }
+
+                return List.of(routeNodeIds);
+            }
+            resumed = backtrack();
+        }
+
+        return null;
+    }
+
+    /**
+     * Plays tokens until none is left or the current route is pruned, opening a choice at every exclusive split.
+     *
+     * @return True if the route is complete and reached the target, false if it was pruned or ended without it.
+     * @complexity Time: O(L + E_L), where E_L is the number of edges of the played nodes.
+     *             Space: O(L) of trail per played node.
+     */
+    private boolean play() {
+        while (counters[TOKEN_COUNT] > 0) {
+            final int node = tokens[counters[TOKEN_COUNT] - 1];
+            setCounter(TOKEN_COUNT, counters[TOKEN_COUNT] - 1);
+
+            // A lone token that cannot reach the target any more can only end the route without it
+            if (counters[TARGET_REACHED] == 0 && counters[TOKEN_COUNT] == 0 && counters[WAITING_TOKENS] == 0
+                    && !reachesTarget[node]) {
+                return false;
+            }
+
+            // A parallel join lets the token pass only once a token arrived along every incoming flow
+            final int incomingCount = routeGraph.incomingEnd(node) - routeGraph.incomingStart(node);
+            if (routeGraph.isParallelGateway(node) && incomingCount > 1) {
+                if (arrivals[node] + 1 < incomingCount) {
+                    setArrivals(node, arrivals[node] + 1);
+                    setCounter(WAITING_TOKENS, counters[WAITING_TOKENS] + 1);
+                    continue;
+                }
+                setCounter(WAITING_TOKENS, counters[WAITING_TOKENS] - arrivals[node]);
+                setArrivals(node, 0);
+            }
+
+            // Bound loops and route length instead of tracking visited nodes
+            if (visits[node] == maxVisits || counters[ROUTE_SIZE] == route.length) {
+                return false;
+            }
+            setVisits(node, visits[node] + 1);
+            route[counters[ROUTE_SIZE]] = node;
+            setCounter(ROUTE_SIZE, counters[ROUTE_SIZE] + 1);
+
+            final int edgesStart = routeGraph.edgesStart(node);
+            final int edgesEnd = routeGraph.edgesEnd(node);
+
+            if (node == target) {
+                setCounter(TARGET_REACHED, 1);
+            } else if (routeGraph.isParallelGateway(node)) {
+                // Push in reverse, so the branches are played in the order of the outgoing flows
+                for (int edge = edgesEnd - 1; edge >= edgesStart; edge--) {
+                    pushToken(routeGraph.edgeTarget(edge));
+                }
+            } else if (edgesEnd - edgesStart == 1) {
+                pushToken(routeGraph.edgeTarget(edgesStart));
+            } else if (edgesEnd - edgesStart > 1) {
+                openChoice(node, edgesStart);
+            }
+        }
+
+        return counters[TARGET_REACHED] == 1;
+    }
+
+    /**
+     * Undoes the state back to the innermost choice with an alternative left and takes that alternative.
+     *
+     * @return True if an alternative was taken, false if all choices are exhausted.
+     * @complexity Time: O(T), where T is the number of undone trail entries.
+     *             Space: O(1).
+     */
+    private boolean backtrack() {
+        while (choiceDepth > 0) {
+            final int choice = choiceDepth - 1;
+            undo(choiceMarks[choice]);
+
+            final int edge = choiceEdges[choice];
+            if (edge < routeGraph.edgesEnd(choiceNodes[choice])) {
+                choiceEdges[choice] = edge + 1;
+                pushToken(routeGraph.edgeTarget(edge));
+                return true;
+            }
+            choiceDepth--;
+        }
+
+        return false;
+    }
+
+    /**
+     * Opens a choice at an exclusive split and takes its first outgoing flow.
+     *
+     * @param node       The node index of the split.
+     * @param edgesStart The position of its first outgoing edge.
+     * @complexity Time: O(1) amortized.
+     *             Space: O(1) amortized.
+     */
+    private void openChoice(final int node, final int edgesStart) {
+        if (choiceDepth == choiceMarks.length) {
+            choiceMarks = Arrays.copyOf(choiceMarks, choiceDepth * 2);
+            choiceNodes = Arrays.copyOf(choiceNodes, choiceDepth * 2);
+            choiceEdges = Arrays.copyOf(choiceEdges, choiceDepth * 2);
+        }
+
+        choiceMarks[choiceDepth] = trailSize;
+        choiceNodes[choiceDepth] = node;
+        choiceEdges[choiceDepth] = edgesStart + 1;
+        choiceDepth++;
+
+        pushToken(routeGraph.edgeTarget(edgesStart));
+    }
+
+    /**
+     * Pushes a token onto the token stack.
+     *
+     * @param node The node index the token moves to.
+     * @complexity Time: O(1) amortized.
+     *             Space: O(1) amortized.
+     */
+    private void pushToken(final int node) {
+        final int tokenCount = counters[TOKEN_COUNT];
+        if (tokenCount == tokens.length) {
+            tokens = Arrays.copyOf(tokens, tokenCount * 2);
+        }
+
+        // The slot may still hold a token of an earlier state, so record it as well
+        record(TOKEN, tokenCount, tokens[tokenCount]);
+        tokens[tokenCount] = node;
+        setCounter(TOKEN_COUNT, tokenCount + 1);
+    }
+
+    /**
+     * Sets the visit count of a node, recording the previous one.
+     *
+     * @param node  The node index.
+     * @param value The new visit count.
+     * @complexity Time: O(1) amortized.
+     *             Space: O(1) amortized.
+     */
+    private void setVisits(final int node, final int value) {
+        record(VISITS, node, visits[node]);
+        visits[node] = value;
+    }
+
+    /**
+     * Sets the number of tokens waiting at a join, recording the previous one.
+     *
+     * @param node  The node index of the join.
+     * @param value The new number of waiting tokens.
+     * @complexity Time: O(1) amortized.
+     *             Space: O(1) amortized.
+     */
+    private void setArrivals(final int node, final int value) {
+        record(ARRIVALS, node, arrivals[node]);
+        arrivals[node] = value;
+    }
+
+    /**
+     * Sets a scalar counter, recording the previous value.
+     *
+     * @param counter The counter index.
+     * @param value   The new value.
+     * @complexity Time: O(1) amortized.
+     *             Space: O(1) amortized.
+     */
+    private void setCounter(final int counter, final int value) {
+        record(COUNTER, counter, counters[counter]);
+        counters[counter] = value;
+    }
+
+    /**
+     * Appends a state change to the trail.
+     *
+     * @param kind          The kind of the changed state.
+     * @param index         The index of the changed slot.
+     * @param previousValue The value before the change.
+     * @complexity Time: O(1) amortized.
+     *             Space: O(1) amortized.
+     */
+    private void record(final int kind, final int index, final int previousValue) {
+        if (trailSize + 3 > trail.length) {
+            trail = Arrays.copyOf(trail, trail.length * 2);
+        }
+
+        trail[trailSize++] = kind;
+        trail[trailSize++] = index;
+        trail[trailSize++] = previousValue;
+    }
+
+    /**
+     * Restores every state change recorded after the mark, latest first.
+     *
+     * @param mark The trail size to restore to.
+     * @complexity Time: O(T), where T is the number of undone trail entries.
+     *             Space: O(1).
+     */
+    private void undo(final int mark) {
+        while (trailSize > mark) {
+            final int previousValue = trail[--trailSize];
+            final int index = trail[--trailSize];
+
+            switch (trail[--trailSize]) {
+                case VISITS -> visits[index] = previousValue;
+                case ARRIVALS -> arrivals[index] = previousValue;
+                case TOKEN -> tokens[index] = previousValue;
+                default -> counters[index] = previousValue;
+            }
+        }
+    }
+
+    /**
+     * Computes which nodes reach the target along sequence flows by searching the reverse adjacency from it.
+     *
+     * @param routeGraph The route graph.
+     * @param target     The node index of the target.
+     * @return Whether every node reaches the target.
+     * @complexity Time: O(V + E).
+     *             Space: O(V), due to the queue.
+     */
+    private static boolean[] reachesTarget(final RouteGraph routeGraph, final int target) {
+        final boolean[] reaches = new boolean[routeGraph.nodeCount()];
+        final int[] queue = new int[routeGraph.nodeCount()];
+        int queueHead = 0;
+        int queueTail = 0;
+
+        reaches[target] = true;
+        queue[queueTail++] = target;
+
+        while (queueHead < queueTail) {
+            final int currentNode = queue[queueHead++];
+
+            for (int edge = routeGraph.incomingStart(currentNode); edge < routeGraph.incomingEnd(currentNode); edge++) {
+                final int sourceNode = routeGraph.incomingSource(edge);
+
+                if (!reaches[sourceNode]) {
+                    reaches[sourceNode] = true;
+                    queue[queueTail++] = sourceNode;
+                }
+            }
+        }
+
+        return reaches;
+    }
+
+}
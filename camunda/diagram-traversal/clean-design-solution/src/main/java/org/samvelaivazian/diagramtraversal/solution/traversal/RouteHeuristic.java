@@ -0,0 +1,33 @@
+package org.samvelaivazian.diagramtraversal.solution.traversal;
+
+/**
+ * Lower bound on the remaining cost of a route, used to guide {@link SearchTree#cheapestFirst}.
+ * <p>
+ * Estimates must never exceed the true cost and must be consistent, i.e. {@code estimate(u, t)} is at most
+ * the weight of {@code v} plus {@code estimate(v, t)} for every edge {@code u -> v}, so that every node is
+ * settled at most once.
+ */
+@FunctionalInterface
+public interface RouteHeuristic {
+
+    /**
+     * Estimates the cost of the cheapest route from a node to the target.
+     *
+     * @param node       The node index.
+     * @param targetNode The node index of the target.
+     * @return A lower bound on the cost, or {@link Double#POSITIVE_INFINITY} if the target is known to be unreachable.
+     */
+    double estimate(int node, int targetNode);
+
+    /**
+     * Returns the heuristic that estimates zero for every node, turning A* into Dijkstra's algorithm.
+     *
+     * @return The zero heuristic.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    static RouteHeuristic zero() {
+        return (node, targetNode) -> 0;
+    }
+
+}
@@ -0,0 +1,243 @@
+package org.samvelaivazian.diagramtraversal.solution.traversal;
+
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraph;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Precomputed all-pairs routing table of a {@link RouteGraph}, answering DFS or BFS route queries without a search.
+ * <p>
+ * Like the forwarding table of a router, the table holds one row per start node, computed once with a search from
+ * every start node in parallel. A row stores the search tree of its start node: the last hop before every node, i.e.
+ * its parent. A route is read off its row from the end node back to the start node, in time proportional to its
+ * length, and is exactly the route {@link SearchTree#depthFirst(RouteGraph, int, int)} or
+ * {@link SearchTree#breadthFirst(RouteGraph, int, int)} finds, since both never reassign a parent. Storing last hops
+ * instead of first hops keeps the whole route in one row, so it never mixes the trees of different start nodes.
+ * <p>
+ * The rows are stored in one flat array of {@code short} hops for graphs of up to {@value Short#MAX_VALUE} nodes and
+ * of {@code int} hops otherwise. The table grows quadratically with the number of nodes, so callers check
+ * {@link #fits(int, long)} against their memory budget and fall back to searching when it does not fit.
+ * Instances are immutable and safe to share between threads.
+ */
+public final class RoutingTable {
+
+    /**
+     * The estimated JVM header size of an array object, in bytes.
+     */
+    private static final long ARRAY_HEADER_BYTES = 16;
+
+    /**
+     * The largest number of entries a Java array can hold.
+     */
+    private static final long MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    /**
+     * The routed graph.
+     */
+    private final RouteGraph routeGraph;
+
+    /**
+     * The strategy of the searches the rows were computed with.
+     */
+    private final TraversalStrategy strategy;
+
+    /**
+     * The last hop before every node by start node, in start-node-major order, for graphs of up to
+     * {@value Short#MAX_VALUE} nodes; null otherwise.
+     */
+    private final short[] shortHops;
+
+    /**
+     * The last hop before every node by start node, in start-node-major order, for larger graphs; null otherwise.
+     */
+    private final int[] intHops;
+
+    /**
+     * Constructor to initialize the RoutingTable with its computed rows.
+     *
+     * @param routeGraph The routed graph.
+     * @param strategy   The strategy of the searches.
+     * @param shortHops  The rows as short hops, or null.
+     * @param intHops    The rows as int hops, or null.
+     */
+    private RoutingTable(final RouteGraph routeGraph, final TraversalStrategy strategy, final short[] shortHops,
+                         final int[] intHops) {
+        this.routeGraph = routeGraph;
+        this.strategy = strategy;
+        this.shortHops = shortHops;
+        this.intHops = intHops;
+    }
+
+    /**
+     * Estimates the heap memory a routing table of a graph would retain.
+     *
+     * @param nodeCount The number of nodes of the graph.
+     * @return The estimated footprint in bytes.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public static long estimateBytes(final int nodeCount) {
+        final long hopBytes = nodeCount <= Short.MAX_VALUE ? Short.BYTES : Integer.BYTES;
+
+        return ARRAY_HEADER_BYTES + hopBytes * nodeCount * nodeCount;
+    }
+
+    /**
+     * Checks if the routing table of a graph can be built within a memory budget.
+     *
+     * @param nodeCount The number of nodes of the graph.
+     * @param maxBytes  The memory budget in bytes; 0 disables the table.
+     * @return True if the table fits into the budget and into a single array.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public static boolean fits(final int nodeCount, final long maxBytes) {
+        return (long) nodeCount * nodeCount <= MAX_ARRAY_LENGTH && estimateBytes(nodeCount) <= maxBytes;
+    }
+
+    /**
+     * Builds the routing table of a graph with a search from every node, spread over the common fork-join pool.
+     *
+     * @param routeGraph The route graph.
+     * @param strategy   {@link TraversalStrategy#DEPTH_FIRST} or {@link TraversalStrategy#BREADTH_FIRST}.
+     * @return The routing table.
+     * @throws IllegalArgumentException if the strategy is not supported or the graph has too many nodes for a single
+     *                                  array.
+     * @complexity Time: O(V * (V + E) / P) on P workers, where V is the number of vertices (nodes) and E is the
+     *             number of edges.
+     *             Space: O(V^2), for the table.
+     */
+    public static RoutingTable build(final RouteGraph routeGraph, final TraversalStrategy strategy) {
+        if (!supports(strategy)) {
+            throw new IllegalArgumentException("Routing tables only support DFS and BFS: " + strategy);
+        }
+        final int nodeCount = routeGraph.nodeCount();
+        if (!fits(nodeCount, Long.MAX_VALUE)) {
+            throw new IllegalArgumentException("Too many nodes for a routing table: " + nodeCount);
+        }
+
+        final boolean compact = nodeCount <= Short.MAX_VALUE;
+        final short[] shortHops = compact ? new short[nodeCount * nodeCount] : null;
+        final int[] intHops = compact ? null : new int[nodeCount * nodeCount];
+
+        // Every start node writes only its own row, so the searches run independently
+        IntStream.range(0, nodeCount).parallel().forEach(root -> {
+            final int[] parents = (strategy == TraversalStrategy.DEPTH_FIRST
+                    ? SearchTree.depthFirst(routeGraph, root, SearchTree.NO_STOP_NODE)
+                    : SearchTree.breadthFirst(routeGraph, root, SearchTree.NO_STOP_NODE)).parents();
+            final int rowStart = root * nodeCount;
+
+            if (compact) {
+                for (int node = 0; node < nodeCount; node++) {
+                    shortHops[rowStart + node] = (short) parents[node];
+                }
+            } else {
+                System.arraycopy(parents, 0, intHops, rowStart, nodeCount);
+            }
+        });
+
+        return new RoutingTable(routeGraph, strategy, shortHops, intHops);
+    }
+
+    /**
+     * Checks if routing tables can answer the queries of a strategy.
+     *
+     * @param strategy The traversal strategy.
+     * @return True for DFS and BFS, whose routes only depend on the start node's search tree.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public static boolean supports(final TraversalStrategy strategy) {
+        return strategy == TraversalStrategy.DEPTH_FIRST || strategy == TraversalStrategy.BREADTH_FIRST;
+    }
+
+    /**
+     * Checks if there is a route from one node to another; every node reaches itself.
+     *
+     * @param startNode The node index of the start node.
+     * @param endNode   The node index of the end node.
+     * @return True if the end node is reachable from the start node.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public boolean reaches(final int startNode, final int endNode) {
+        return lastHop(startNode, endNode) != SearchTree.UNREACHED;
+    }
+
+    /**
+     * Reads the route from one node to another off the table.
+     *
+     * @param startNode The node index of the start node.
+     * @param endNode   The node index of the end node, which must be reachable.
+     * @return Immutable list of node IDs representing the path from the start node to the end node.
+     * @complexity Time: O(L), where L is the length of the route.
+     *             Space: O(L), due to the route list.
+     */
+    public List<String> routeTo(final int startNode, final int endNode) {
+        // Count the route length first so the route can be filled from the back
+        int routeLength = 0;
+        for (int node = endNode; node != SearchTree.NO_PARENT; node = lastHop(startNode, node)) {
+            routeLength++;
+        }
+
+        final String[] route = new String[routeLength];
+        int node = endNode;
+        for (int i = routeLength - 1; i >= 0; i--) {
+            route[i] = routeGraph.nodeId(node);
+            node = lastHop(startNode, node);
+        }
+
+        return List.of(route);
+    }
+
+    /**
+     * Returns the routed graph.
+     *
+     * @return The route graph.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public RouteGraph getRouteGraph() {
+        return routeGraph;
+    }
+
+    /**
+     * Returns the strategy of the searches the rows were computed with.
+     *
+     * @return The traversal strategy.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public TraversalStrategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Returns the heap memory retained by the table, excluding the route graph.
+     *
+     * @return The footprint in bytes.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public long getMemoryFootprintBytes() {
+        return estimateBytes(routeGraph.nodeCount());
+    }
+
+    /**
+     * Returns the node before a node on the route from a start node.
+     *
+     * @param startNode The node index of the start node.
+     * @param node      The node index.
+     * @return The last hop, {@link SearchTree#NO_PARENT} for the start node itself or {@link SearchTree#UNREACHED} if
+     *         the node is not reachable.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    private int lastHop(final int startNode, final int node) {
+        final int position = startNode * routeGraph.nodeCount() + node;
+
+        return shortHops != null ? shortHops[position] : intHops[position];
+    }
+
+}
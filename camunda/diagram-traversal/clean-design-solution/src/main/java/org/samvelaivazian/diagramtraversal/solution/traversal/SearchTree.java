@@ -0,0 +1,507 @@
+package org.samvelaivazian.diagramtraversal.solution.traversal;
+
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraph;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Parent tree of a search over a {@link RouteGraph} from a single root node.
+ * <p>
+ * A tree searched to completion answers the route to every reachable node, so many queries sharing
+ * the same start node need only one traversal.
+ */
+public final class SearchTree {
+
+    /**
+     * Marker for a search that runs to completion instead of stopping at a node.
+     */
+    public static final int NO_STOP_NODE = -1;
+
+    /**
+     * Marker for nodes that were not reached by the search.
+     */
+    static final int UNREACHED = -2;
+
+    /**
+     * Marker for the root node, which has no parent.
+     */
+    static final int NO_PARENT = -1;
+
+    /**
+     * The searched route graph.
+     */
+    private final RouteGraph routeGraph;
+
+    /**
+     * The parent of every node, {@link #NO_PARENT} for the root and {@link #UNREACHED} for unreached nodes.
+     */
+    private final int[] parents;
+
+    /**
+     * The cost of the route to every node for cost-based searches, or null.
+     */
+    private final double[] costs;
+
+    /**
+     * The number of nodes whose edges the search examined.
+     */
+    private final int expandedNodeCount;
+
+    /**
+     * The number of edges the search examined.
+     */
+    private final long examinedEdgeCount;
+
+    /**
+     * Constructor to initialize the SearchTree with the parents found by a search.
+     *
+     * @param routeGraph        The searched route graph.
+     * @param parents           The parent of every node.
+     * @param costs             The cost of the route to every node, or null if the search did not track costs.
+     * @param expandedNodeCount The number of nodes whose edges the search examined.
+     * @param examinedEdgeCount The number of edges the search examined.
+     */
+    private SearchTree(final RouteGraph routeGraph, final int[] parents, final double[] costs,
+                       final int expandedNodeCount, final long examinedEdgeCount) {
+        this.routeGraph = routeGraph;
+        this.parents = parents;
+        this.costs = costs;
+        this.expandedNodeCount = expandedNodeCount;
+        this.examinedEdgeCount = examinedEdgeCount;
+    }
+
+    /**
+     * Wraps the parents found by a search running outside this class, such as {@link ParallelBreadthFirstSearch}.
+     *
+     * @param routeGraph        The searched route graph.
+     * @param parents           The parent of every node, {@link #NO_PARENT} for the root and {@link #UNREACHED} for
+     *                          unreached nodes.
+     * @param expandedNodeCount The number of nodes whose edges the search examined.
+     * @param examinedEdgeCount The number of edges the search examined.
+     * @return The search tree.
+     * @complexity Time: O(1).
+     *             Space: O(1), the array is not copied.
+     */
+    static SearchTree fromParents(final RouteGraph routeGraph, final int[] parents, final int expandedNodeCount,
+                                  final long examinedEdgeCount) {
+        return new SearchTree(routeGraph, parents, null, expandedNodeCount, examinedEdgeCount);
+    }
+
+    /**
+     * Searches the graph from the root with the iterative, stack-based DFS used by {@code Solution}.
+     * <p>
+     * Nodes are marked and assigned their parent when pushed and never reassigned afterwards, so stopping
+     * at a node yields the same route to it as searching to completion.
+     *
+     * @param routeGraph The route graph.
+     * @param root       The node index of the root.
+     * @param stopNode   The node index to stop at once popped, or {@link #NO_STOP_NODE}.
+     * @return The search tree.
+     * @complexity Time: O(V + E), where V is the number of vertices (nodes) and E is the number of edges.
+     *             Space: O(V), due to the stack and parent arrays.
+     */
+    public static SearchTree depthFirst(final RouteGraph routeGraph, final int root, final int stopNode) {
+        // Initialize stack for DFS and the parent array that doubles as the visited set
+        final int[] stack = new int[routeGraph.nodeCount()];
+        final int[] parents = new int[routeGraph.nodeCount()];
+        Arrays.fill(parents, UNREACHED);
+        int stackSize = 0;
+        int expandedNodeCount = 0;
+        long examinedEdgeCount = 0;
+
+        // Push the root onto the stack and mark it as visited
+        stack[stackSize++] = root;
+        parents[root] = NO_PARENT;
+
+        // Perform iterative DFS
+        while (stackSize > 0) {
+            final int currentNode = stack[--stackSize];
+
+            // If the stop node is found, the route to it is complete
+            if (currentNode == stopNode) {
+                break;
+            }
+            expandedNodeCount++;
+            examinedEdgeCount += routeGraph.edgesEnd(currentNode) - routeGraph.edgesStart(currentNode);
+
+            // Traverse all outgoing edges
+            for (int edge = routeGraph.edgesStart(currentNode); edge < routeGraph.edgesEnd(currentNode); edge++) {
+                final int targetNode = routeGraph.edgeTarget(edge);
+
+                if (parents[targetNode] == UNREACHED) {
+                    stack[stackSize++] = targetNode;
+                    parents[targetNode] = currentNode;
+                }
+            }
+        }
+
+        return new SearchTree(routeGraph, parents, null, expandedNodeCount, examinedEdgeCount);
+    }
+
+    /**
+     * Searches the graph from the root with a queue-based BFS, so the route to every node has the fewest hops.
+     *
+     * @param routeGraph The route graph.
+     * @param root       The node index of the root.
+     * @param stopNode   The node index to stop at once dequeued, or {@link #NO_STOP_NODE}.
+     * @return The search tree.
+     * @complexity Time: O(V + E), where V is the number of vertices (nodes) and E is the number of edges.
+     *             Space: O(V), due to the queue and parent arrays.
+     */
+    public static SearchTree breadthFirst(final RouteGraph routeGraph, final int root, final int stopNode) {
+        // Every node is enqueued at most once, so a plain array serves as the queue
+        final int[] queue = new int[routeGraph.nodeCount()];
+        final int[] parents = new int[routeGraph.nodeCount()];
+        Arrays.fill(parents, UNREACHED);
+        int queueHead = 0;
+        int queueTail = 0;
+        int expandedNodeCount = 0;
+        long examinedEdgeCount = 0;
+
+        // Enqueue the root and mark it as visited
+        queue[queueTail++] = root;
+        parents[root] = NO_PARENT;
+
+        // Perform BFS level by level
+        while (queueHead < queueTail) {
+            final int currentNode = queue[queueHead++];
+
+            // If the stop node is found, the route to it is complete
+            if (currentNode == stopNode) {
+                break;
+            }
+            expandedNodeCount++;
+            examinedEdgeCount += routeGraph.edgesEnd(currentNode) - routeGraph.edgesStart(currentNode);
+
+            // Traverse all outgoing edges
+            for (int edge = routeGraph.edgesStart(currentNode); edge < routeGraph.edgesEnd(currentNode); edge++) {
+                final int targetNode = routeGraph.edgeTarget(edge);
+
+                if (parents[targetNode] == UNREACHED) {
+                    queue[queueTail++] = targetNode;
+                    parents[targetNode] = currentNode;
+                }
+            }
+        }
+
+        return new SearchTree(routeGraph, parents, null, expandedNodeCount, examinedEdgeCount);
+    }
+
+    /**
+     * Searches the graph with two BFS frontiers that meet in the middle: one forward from the root along the
+     * outgoing edges and one backward from the target along the incoming edges. The smaller frontier is always
+     * expanded by one full level, so a long route in a wide graph touches roughly the square root of the nodes a
+     * one-sided BFS would.
+     * <p>
+     * The returned tree holds the nodes reached forward plus the route to the target, which has the fewest hops.
+     * Other nodes reached only backward are not part of the tree.
+     *
+     * @param routeGraph The route graph.
+     * @param root       The node index of the root.
+     * @param target     The node index of the target.
+     * @return The search tree; it reaches the target if and only if there is a route to it.
+     * @complexity Time: O(V + E) in the worst case, where V is the number of vertices (nodes) and E is the number of
+     *             edges, typically far less for routes between distant nodes.
+     *             Space: O(V), due to the queue, parent, successor and depth arrays.
+     */
+    public static SearchTree bidirectional(final RouteGraph routeGraph, final int root, final int target) {
+        final int nodeCount = routeGraph.nodeCount();
+        final int[] parents = new int[nodeCount];
+        final int[] successors = new int[nodeCount];
+        final int[] forwardDepths = new int[nodeCount];
+        final int[] backwardDepths = new int[nodeCount];
+        Arrays.fill(parents, UNREACHED);
+        Arrays.fill(successors, UNREACHED);
+
+        // Each side enqueues a node at most once, so one array holds both queues: forward from the front,
+        // backward from the back
+        final int[] queues = new int[2 * nodeCount];
+        int forwardHead = 0;
+        int forwardTail = 0;
+        int backwardHead = nodeCount;
+        int backwardTail = nodeCount;
+
+        parents[root] = NO_PARENT;
+        successors[target] = NO_PARENT;
+        queues[forwardTail++] = root;
+        queues[backwardTail++] = target;
+
+        int meetingNode = root == target ? root : UNREACHED;
+        int meetingLength = Integer.MAX_VALUE;
+        int expandedNodeCount = 0;
+        long examinedEdgeCount = 0;
+
+        // Expand the smaller frontier one full level at a time until both frontiers meet or one runs dry
+        while (meetingNode == UNREACHED && forwardHead < forwardTail && backwardHead < backwardTail) {
+            if (forwardTail - forwardHead <= backwardTail - backwardHead) {
+                final int levelEnd = forwardTail;
+
+                for (; forwardHead < levelEnd; forwardHead++) {
+                    final int currentNode = queues[forwardHead];
+                    expandedNodeCount++;
+                    examinedEdgeCount += routeGraph.edgesEnd(currentNode) - routeGraph.edgesStart(currentNode);
+
+                    for (int edge = routeGraph.edgesStart(currentNode); edge < routeGraph.edgesEnd(currentNode);
+                         edge++) {
+                        final int nextNode = routeGraph.edgeTarget(edge);
+                        if (parents[nextNode] != UNREACHED) {
+                            continue;
+                        }
+
+                        parents[nextNode] = currentNode;
+                        forwardDepths[nextNode] = forwardDepths[currentNode] + 1;
+                        queues[forwardTail++] = nextNode;
+
+                        // Keep the shortest of all routes through the nodes the backward side already reached
+                        if (successors[nextNode] != UNREACHED
+                                && forwardDepths[nextNode] + backwardDepths[nextNode] < meetingLength) {
+                            meetingNode = nextNode;
+                            meetingLength = forwardDepths[nextNode] + backwardDepths[nextNode];
+                        }
+                    }
+                }
+            } else {
+                final int levelEnd = backwardTail;
+
+                for (; backwardHead < levelEnd; backwardHead++) {
+                    final int currentNode = queues[backwardHead];
+                    expandedNodeCount++;
+                    examinedEdgeCount += routeGraph.incomingEnd(currentNode) - routeGraph.incomingStart(currentNode);
+
+                    for (int edge = routeGraph.incomingStart(currentNode); edge < routeGraph.incomingEnd(currentNode);
+                         edge++) {
+                        final int previousNode = routeGraph.incomingSource(edge);
+                        if (successors[previousNode] != UNREACHED) {
+                            continue;
+                        }
+
+                        successors[previousNode] = currentNode;
+                        backwardDepths[previousNode] = backwardDepths[currentNode] + 1;
+                        queues[backwardTail++] = previousNode;
+
+                        // Keep the shortest of all routes through the nodes the forward side already reached
+                        if (parents[previousNode] != UNREACHED
+                                && forwardDepths[previousNode] + backwardDepths[previousNode] < meetingLength) {
+                            meetingNode = previousNode;
+                            meetingLength = forwardDepths[previousNode] + backwardDepths[previousNode];
+                        }
+                    }
+                }
+            }
+        }
+
+        // Splice the backward half of the route into the parent tree
+        if (meetingNode != UNREACHED) {
+            for (int currentNode = meetingNode; currentNode != target; currentNode = successors[currentNode]) {
+                parents[successors[currentNode]] = currentNode;
+            }
+        }
+
+        return new SearchTree(routeGraph, parents, null, expandedNodeCount, examinedEdgeCount);
+    }
+
+    /**
+     * Searches the graph from the root in order of route cost, where entering a node costs its weight.
+     * <p>
+     * With {@link RouteHeuristic#zero()} this is Dijkstra's algorithm; with any other consistent heuristic it is A*.
+     * Nodes whose estimate is infinite are never expanded. The route to the stop node, and to every node when
+     * searching to completion, is a cheapest one; routes to nodes still queued when the search stopped are not.
+     *
+     * @param routeGraph The route graph.
+     * @param root       The node index of the root.
+     * @param stopNode   The node index to stop at once settled, or {@link #NO_STOP_NODE} with the zero heuristic.
+     * @param heuristic  The lower bound on the remaining cost to the stop node.
+     * @param heap       The reusable priority queue; it is cleared before and after use.
+     * @return The search tree.
+     * @complexity Time: O((V + E) log V), where V is the number of vertices (nodes) and E is the number of edges.
+     *             Space: O(V), due to the parent, cost and settled arrays.
+     */
+    public static SearchTree cheapestFirst(final RouteGraph routeGraph, final int root, final int stopNode,
+                                           final RouteHeuristic heuristic, final IndexedMinHeap heap) {
+        final int nodeCount = routeGraph.nodeCount();
+        final int[] parents = new int[nodeCount];
+        final double[] costs = new double[nodeCount];
+        final boolean[] settled = new boolean[nodeCount];
+        Arrays.fill(parents, UNREACHED);
+        Arrays.fill(costs, Double.POSITIVE_INFINITY);
+        heap.ensureCapacity(nodeCount);
+        heap.clear();
+
+        // Queue the root at zero cost
+        parents[root] = NO_PARENT;
+        costs[root] = 0;
+        heap.insertOrDecrease(root, heuristic.estimate(root, stopNode));
+        int expandedNodeCount = 0;
+        long examinedEdgeCount = 0;
+
+        while (!heap.isEmpty()) {
+            final int currentNode = heap.pollMin();
+            settled[currentNode] = true;
+
+            // If the stop node is settled, the cheapest route to it is complete
+            if (currentNode == stopNode) {
+                break;
+            }
+            expandedNodeCount++;
+            examinedEdgeCount += routeGraph.edgesEnd(currentNode) - routeGraph.edgesStart(currentNode);
+
+            // Relax all outgoing edges
+            for (int edge = routeGraph.edgesStart(currentNode); edge < routeGraph.edgesEnd(currentNode); edge++) {
+                final int targetNode = routeGraph.edgeTarget(edge);
+                final double targetCost = costs[currentNode] + routeGraph.nodeWeight(targetNode);
+
+                if (settled[targetNode] || targetCost >= costs[targetNode]) {
+                    continue;
+                }
+
+                final double estimate = heuristic.estimate(targetNode, stopNode);
+                if (estimate == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+
+                parents[targetNode] = currentNode;
+                costs[targetNode] = targetCost;
+                heap.insertOrDecrease(targetNode, targetCost + estimate);
+            }
+        }
+
+        heap.clear();
+
+        return new SearchTree(routeGraph, parents, costs, expandedNodeCount, examinedEdgeCount);
+    }
+
+    /**
+     * Checks if the search reached the given node.
+     *
+     * @param node The node index.
+     * @return True if there is a route from the root to the node.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public boolean reaches(final int node) {
+        return parents[node] != UNREACHED;
+    }
+
+    /**
+     * Reconstructs the route from the root to the given node using the parent array.
+     *
+     * @param node The node index, which must be reached.
+     * @return Immutable list of node IDs representing the path from the root to the node.
+     * @complexity Time: O(L), where L is the length of the route.
+     *             Space: O(L), due to the route list.
+     */
+    public List<String> routeTo(final int node) {
+        // Count the route length first so the route can be filled from the back
+        int routeLength = 0;
+        for (int currentNode = node; currentNode != NO_PARENT; currentNode = parents[currentNode]) {
+            routeLength++;
+        }
+
+        final String[] route = new String[routeLength];
+        int currentNode = node;
+        for (int i = routeLength - 1; i >= 0; i--) {
+            route[i] = routeGraph.nodeId(currentNode);
+            currentNode = parents[currentNode];
+        }
+
+        return List.of(route);
+    }
+
+    /**
+     * Writes the route from the root to the given node into a buffer, without building a list of node IDs.
+     *
+     * @param node  The node index.
+     * @param route The buffer receiving the route if the node is reached; it is emptied otherwise.
+     * @return True if the node is reached.
+     * @complexity Time: O(L), where L is the length of the route.
+     *             Space: O(1) once the buffer is large enough.
+     */
+    public boolean writeRouteTo(final int node, final RouteBuffer route) {
+        if (!reaches(node)) {
+            route.reset(0);
+            return false;
+        }
+
+        int routeLength = 0;
+        for (int currentNode = node; currentNode != NO_PARENT; currentNode = parents[currentNode]) {
+            routeLength++;
+        }
+
+        route.reset(routeLength);
+        int currentNode = node;
+        for (int position = routeLength - 1; position >= 0; position--) {
+            route.set(position, currentNode);
+            currentNode = parents[currentNode];
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the cost of the route from the root to the given node, i.e. the sum of the weights of all nodes
+     * on the route after the root.
+     *
+     * @param node The node index, which must be reached.
+     * @return The route cost.
+     * @complexity Time: O(1) for cost-based searches, O(L) otherwise, where L is the length of the route.
+     *             Space: O(1).
+     */
+    public double costTo(final int node) {
+        if (costs != null) {
+            return costs[node];
+        }
+
+        double cost = 0;
+        for (int currentNode = node; parents[currentNode] != NO_PARENT; currentNode = parents[currentNode]) {
+            cost += routeGraph.nodeWeight(currentNode);
+        }
+
+        return cost;
+    }
+
+    /**
+     * Returns the number of nodes whose edges the search examined; the stop node is not expanded.
+     *
+     * @return The number of expanded nodes.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public int expandedNodeCount() {
+        return expandedNodeCount;
+    }
+
+    /**
+     * Returns the number of edges the search examined, in either direction.
+     *
+     * @return The number of examined edges.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public long examinedEdgeCount() {
+        return examinedEdgeCount;
+    }
+
+    /**
+     * Returns the cost of the route to every node of a cost-based search, without copying.
+     *
+     * @return The costs, {@link Double#POSITIVE_INFINITY} for unreached nodes; null for DFS and BFS trees.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    double[] costs() {
+        return costs;
+    }
+
+    /**
+     * Returns the parent of every node, without copying.
+     *
+     * @return The parents, {@link #NO_PARENT} for the root and {@link #UNREACHED} for unreached nodes.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    int[] parents() {
+        return parents;
+    }
+
+}
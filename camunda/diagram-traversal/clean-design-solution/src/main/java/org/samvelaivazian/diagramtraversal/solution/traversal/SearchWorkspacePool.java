@@ -0,0 +1,120 @@
+package org.samvelaivazian.diagramtraversal.solution.traversal;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded pool of the working memory of route searches, shared by all threads.
+ * <p>
+ * A search borrows a {@link Workspace} and returns it when done, so the arrays it grew to the size of the searched
+ * graph serve the next search, whichever thread runs it. Unlike a thread-local, this also holds on a virtual thread
+ * per query, where every query would otherwise start from empty arrays and grow them again. At most the given number
+ * of idle workspaces is kept, so a burst of concurrent searches does not pin its workspaces afterwards; the surplus is
+ * left to the garbage collector. Instances are safe to share between threads.
+ */
+public final class SearchWorkspacePool {
+
+    /**
+     * The idle workspaces, ready to be borrowed.
+     */
+    private final ConcurrentLinkedQueue<Workspace> idleWorkspaces = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The number of idle workspaces, tracked separately since the size of the queue takes linear time.
+     */
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    /**
+     * The number of workspaces created because none was idle.
+     */
+    private final LongAdder createdCount = new LongAdder();
+
+    /**
+     * The maximum number of idle workspaces kept.
+     */
+    private final int maxIdleWorkspaces;
+
+    /**
+     * Constructor to initialize the SearchWorkspacePool.
+     *
+     * @param maxIdleWorkspaces The maximum number of idle workspaces kept.
+     * @throws IllegalArgumentException if the maximum is negative.
+     */
+    public SearchWorkspacePool(final int maxIdleWorkspaces) {
+        if (maxIdleWorkspaces < 0) {
+            throw new IllegalArgumentException("Maximum idle workspaces must be non-negative: " + maxIdleWorkspaces);
+        }
+
+        this.maxIdleWorkspaces = maxIdleWorkspaces;
+    }
+
+    /**
+     * Borrows an idle workspace, or creates an empty one if none is idle.
+     * The workspace must be returned with {@link #release(Workspace)} and not be used afterwards.
+     *
+     * @return The workspace, used by the caller only.
+     * @complexity Time: O(1).
+     *             Space: O(1); the arrays of a new workspace grow on first use.
+     */
+    public Workspace borrow() {
+        final Workspace workspace = idleWorkspaces.poll();
+        if (workspace != null) {
+            idleCount.decrementAndGet();
+
+            return workspace;
+        }
+
+        createdCount.increment();
+
+        return new Workspace(new TraversalContext(0), new IndexedMinHeap(0), new RouteBuffer(0));
+    }
+
+    /**
+     * Returns a borrowed workspace to the pool, dropping it if the pool already holds the maximum of idle workspaces.
+     *
+     * @param workspace The workspace.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public void release(final Workspace workspace) {
+        if (idleCount.incrementAndGet() <= maxIdleWorkspaces) {
+            idleWorkspaces.offer(workspace);
+        } else {
+            idleCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Returns the number of workspaces created because none was idle, i.e. the number of borrows that allocated.
+     *
+     * @return The number of created workspaces.
+     * @complexity Time: O(c), where c is the number of cells of the adder.
+     *             Space: O(1).
+     */
+    public long createdCount() {
+        return createdCount.sum();
+    }
+
+    /**
+     * Returns the number of idle workspaces.
+     *
+     * @return The number of idle workspaces.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public int idleCount() {
+        return idleCount.get();
+    }
+
+    /**
+     * The working memory of one search.
+     *
+     * @param context The working memory of DFS and BFS searches.
+     * @param heap    The priority queue of cost-based searches.
+     * @param route   The buffer receiving the route.
+     */
+    public record Workspace(TraversalContext context, IndexedMinHeap heap, RouteBuffer route) {
+    }
+
+}
@@ -0,0 +1,245 @@
+package org.samvelaivazian.diagramtraversal.solution.traversal;
+
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraph;
+
+import java.util.Arrays;
+
+/**
+ * Reusable working memory for DFS and BFS route queries that allocates nothing per query.
+ * <p>
+ * The stack or queue and the parent array are allocated once per graph size. A node counts as visited only if it is
+ * stamped with the epoch of the current search, so starting a search clears the visited set in O(1) by bumping the
+ * epoch instead of refilling the arrays. The searches follow {@link SearchTree#depthFirst} and
+ * {@link SearchTree#breadthFirst} exactly and write the route into a caller-supplied {@link RouteBuffer}.
+ * Instances are not thread-safe; use one context per search at a time, e.g. borrowed from a
+ * {@link SearchWorkspacePool}.
+ */
+public final class TraversalContext {
+
+    /**
+     * The stack of a DFS or the queue of a BFS.
+     */
+    private int[] frontier;
+
+    /**
+     * The parent of every node visited in the current epoch, {@link SearchTree#NO_PARENT} for the root.
+     */
+    private int[] parents;
+
+    /**
+     * The epoch in which every node was last visited.
+     */
+    private int[] visitEpochs;
+
+    /**
+     * The epoch of the current search; never 0, the initial stamp of unvisited nodes.
+     */
+    private int epoch;
+
+    /**
+     * The number of nodes whose edges the last search examined.
+     */
+    private int expandedNodeCount;
+
+    /**
+     * The number of edges the last search examined.
+     */
+    private long examinedEdgeCount;
+
+    /**
+     * Constructor to initialize the TraversalContext for graphs of up to the given number of nodes.
+     *
+     * @param capacity The number of nodes.
+     */
+    public TraversalContext(final int capacity) {
+        this.frontier = new int[capacity];
+        this.parents = new int[capacity];
+        this.visitEpochs = new int[capacity];
+    }
+
+    /**
+     * Searches the graph from the root with the iterative, stack-based DFS until the target is popped.
+     *
+     * @param routeGraph The route graph.
+     * @param root       The node index of the root.
+     * @param target     The node index of the target.
+     * @param route      The buffer receiving the route if the target is reached.
+     * @return True if the target is reachable from the root.
+     * @complexity Time: O(V + E), where V is the number of vertices (nodes) and E is the number of edges.
+     *             Space: O(1) once the context and the buffer are large enough.
+     */
+    public boolean depthFirst(final RouteGraph routeGraph, final int root, final int target, final RouteBuffer route) {
+        startSearch(routeGraph.nodeCount());
+        int stackSize = 0;
+
+        frontier[stackSize++] = root;
+        visit(root, SearchTree.NO_PARENT);
+
+        while (stackSize > 0) {
+            final int currentNode = frontier[--stackSize];
+
+            if (currentNode == target) {
+                break;
+            }
+            expandCount(routeGraph, currentNode);
+
+            for (int edge = routeGraph.edgesStart(currentNode); edge < routeGraph.edgesEnd(currentNode); edge++) {
+                final int targetNode = routeGraph.edgeTarget(edge);
+
+                if (visitEpochs[targetNode] != epoch) {
+                    frontier[stackSize++] = targetNode;
+                    visit(targetNode, currentNode);
+                }
+            }
+        }
+
+        return writeRoute(target, route);
+    }
+
+    /**
+     * Searches the graph from the root with the queue-based BFS until the target is dequeued, so the route has the
+     * fewest hops.
+     *
+     * @param routeGraph The route graph.
+     * @param root       The node index of the root.
+     * @param target     The node index of the target.
+     * @param route      The buffer receiving the route if the target is reached.
+     * @return True if the target is reachable from the root.
+     * @complexity Time: O(V + E), where V is the number of vertices (nodes) and E is the number of edges.
+     *             Space: O(1) once the context and the buffer are large enough.
+     */
+    public boolean breadthFirst(final RouteGraph routeGraph, final int root, final int target,
+                                final RouteBuffer route) {
+        startSearch(routeGraph.nodeCount());
+        int queueHead = 0;
+        int queueTail = 0;
+
+        frontier[queueTail++] = root;
+        visit(root, SearchTree.NO_PARENT);
+
+        while (queueHead < queueTail) {
+            final int currentNode = frontier[queueHead++];
+
+            if (currentNode == target) {
+                break;
+            }
+            expandCount(routeGraph, currentNode);
+
+            for (int edge = routeGraph.edgesStart(currentNode); edge < routeGraph.edgesEnd(currentNode); edge++) {
+                final int targetNode = routeGraph.edgeTarget(edge);
+
+                if (visitEpochs[targetNode] != epoch) {
+                    frontier[queueTail++] = targetNode;
+                    visit(targetNode, currentNode);
+                }
+            }
+        }
+
+        return writeRoute(target, route);
+    }
+
+    /**
+     * Returns the number of nodes whose edges the last search examined; the target is not expanded.
+     *
+     * @return The number of expanded nodes.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public int expandedNodeCount() {
+        return expandedNodeCount;
+    }
+
+    /**
+     * Returns the number of edges the last search examined.
+     *
+     * @return The number of examined edges.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public long examinedEdgeCount() {
+        return examinedEdgeCount;
+    }
+
+    /**
+     * Prepares a search: grows the arrays if the graph is larger than any before and starts a new epoch.
+     *
+     * @param nodeCount The number of nodes of the searched graph.
+     * @complexity Time: O(1), or O(V) when growing or once every 2^32 searches when the epoch wraps around.
+     *             Space: O(V) when growing.
+     */
+    private void startSearch(final int nodeCount) {
+        if (nodeCount > visitEpochs.length) {
+            frontier = new int[nodeCount];
+            parents = new int[nodeCount];
+            visitEpochs = Arrays.copyOf(visitEpochs, nodeCount);
+        }
+
+        // Stamps of an epoch that wrapped around would look current again, so clear them once instead
+        epoch++;
+        if (epoch == 0) {
+            Arrays.fill(visitEpochs, 0);
+            epoch = 1;
+        }
+
+        expandedNodeCount = 0;
+        examinedEdgeCount = 0;
+    }
+
+    /**
+     * Marks a node as visited in the current epoch.
+     *
+     * @param node   The node index.
+     * @param parent The node index it was reached from, or {@link SearchTree#NO_PARENT}.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    private void visit(final int node, final int parent) {
+        visitEpochs[node] = epoch;
+        parents[node] = parent;
+    }
+
+    /**
+     * Counts the expansion of a node and its outgoing edges.
+     *
+     * @param routeGraph The route graph.
+     * @param node       The expanded node index.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    private void expandCount(final RouteGraph routeGraph, final int node) {
+        expandedNodeCount++;
+        examinedEdgeCount += routeGraph.edgesEnd(node) - routeGraph.edgesStart(node);
+    }
+
+    /**
+     * Writes the route to the target into the buffer by following the parents of the current epoch.
+     *
+     * @param target The node index of the target.
+     * @param route  The buffer receiving the route.
+     * @return True if the target was visited; the buffer is emptied otherwise.
+     * @complexity Time: O(L), where L is the length of the route.
+     *             Space: O(1) once the buffer is large enough.
+     */
+    private boolean writeRoute(final int target, final RouteBuffer route) {
+        if (visitEpochs[target] != epoch) {
+            route.reset(0);
+            return false;
+        }
+
+        // Count the route length first so the route can be filled from the back
+        int routeLength = 0;
+        for (int currentNode = target; currentNode != SearchTree.NO_PARENT; currentNode = parents[currentNode]) {
+            routeLength++;
+        }
+
+        route.reset(routeLength);
+        int currentNode = target;
+        for (int position = routeLength - 1; position >= 0; position--) {
+            route.set(position, currentNode);
+            currentNode = parents[currentNode];
+        }
+
+        return true;
+    }
+
+}
@@ -0,0 +1,57 @@
+package org.samvelaivazian.diagramtraversal.solution.traversal;
+
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraph;
+
+/**
+ * The search algorithm used to build a route over a {@link RouteGraph}.
+ */
+public enum TraversalStrategy {
+
+    /**
+     * Iterative DFS; returns the first route found, which is not necessarily the shortest.
+     */
+    DEPTH_FIRST,
+
+    /**
+     * BFS; returns a route with the fewest hops.
+     */
+    BREADTH_FIRST,
+
+    /**
+     * BFS from both ends meeting in the middle over the incoming edges; returns a route with the fewest hops
+     * like {@link #BREADTH_FIRST} while touching far fewer nodes on long routes in wide graphs.
+     */
+    BIDIRECTIONAL_BREADTH_FIRST,
+
+    /**
+     * BFS through the process hierarchy; enters sub-processes holding the end node, leaves sub-processes through
+     * their end events, follows boundary events and passes sub-processes and call activities only if they can
+     * complete. Returns a route with the fewest hops.
+     */
+    HIERARCHICAL,
+
+    /**
+     * Dijkstra's algorithm; returns a route with the lowest total node weight.
+     */
+    DIJKSTRA,
+
+    /**
+     * A* guided by landmark lower bounds; returns a route with the lowest total node weight
+     * while settling fewer nodes than {@link #DIJKSTRA}.
+     */
+    A_STAR;
+
+    /**
+     * Checks if the strategy only follows the sequence flows of the route graph, so that its routes exist only
+     * between pairs the flat reachability of the graph connects.
+     *
+     * @return False for {@link #HIERARCHICAL}, which also enters sub-processes and follows boundary events; true
+     *         otherwise.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public boolean followsSequenceFlowsOnly() {
+        return this != HIERARCHICAL;
+    }
+
+}
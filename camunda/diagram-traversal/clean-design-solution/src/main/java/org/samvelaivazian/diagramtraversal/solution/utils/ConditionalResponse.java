@@ -0,0 +1,29 @@
+package org.samvelaivazian.diagramtraversal.solution.utils;
+
+/**
+ * Response to a conditional GET request.
+ *
+ * @param statusCode The HTTP status code.
+ * @param body       The response body, or null if the resource was not modified.
+ * @param validators The validators to send with the next request for the same resource.
+ * @param <T>        The type of the response body.
+ */
+public record ConditionalResponse<T>(int statusCode, T body, HttpValidators validators) {
+
+    /**
+     * The status code of a response to a conditional request for an unchanged resource.
+     */
+    public static final int NOT_MODIFIED = 304;
+
+    /**
+     * Checks if the resource was not modified since the validators were issued.
+     *
+     * @return True for a {@code 304 Not Modified} response without a body.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public boolean notModified() {
+        return statusCode == NOT_MODIFIED;
+    }
+
+}
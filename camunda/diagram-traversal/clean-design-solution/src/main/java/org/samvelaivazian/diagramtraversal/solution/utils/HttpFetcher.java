@@ -0,0 +1,257 @@
+package org.samvelaivazian.diagramtraversal.solution.utils;
+
+import org.samvelaivazian.diagramtraversal.solution.exceptions.FetchResponseDataException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Long-lived HTTP fetcher sharing one {@link HttpClient}, so that connections, TLS sessions and HTTP/2
+ * streams are reused across requests.
+ * <p>
+ * Besides plain GET requests it supports conditional requests with {@code If-None-Match} and
+ * {@code If-Modified-Since}, and asynchronous requests for fetching many resources concurrently.
+ * Instances are safe to share between threads.
+ */
+public final class HttpFetcher {
+
+    /**
+     * The default timeout for connecting and for HTTP requests.
+     */
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * The shared HTTP client.
+     */
+    private final HttpClient httpClient;
+
+    /**
+     * The timeout of every request.
+     */
+    private final Duration requestTimeout;
+
+    /**
+     * Constructor to initialize the HttpFetcher with an HTTP/2 client and the default timeouts.
+     */
+    public HttpFetcher() {
+        this(HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(DEFAULT_TIMEOUT)
+                .build(), DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Constructor to initialize the HttpFetcher with a configured client.
+     *
+     * @param httpClient     The HTTP client to share between all requests.
+     * @param requestTimeout The timeout of every request.
+     */
+    public HttpFetcher(final HttpClient httpClient, final Duration requestTimeout) {
+        this.httpClient = httpClient;
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * Fetches the response from the given URL.
+     *
+     * @param url The URL to fetch the response from.
+     * @return The response body as a String.
+     * @throws FetchResponseDataException if there is an error fetching the data.
+     * @complexity Time: O(n) for reading the body of length n. The actual time depends on network latency.
+     *             Space: O(n), for the body.
+     */
+    public String fetch(final String url) {
+        return send(createHttpRequest(url, HttpValidators.NONE), HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    /**
+     * Fetches the response from the given URL as a stream, without buffering the body.
+     * The caller must close the stream to release the connection.
+     *
+     * @param url The URL to fetch the response from.
+     * @return The response body as an InputStream.
+     * @throws FetchResponseDataException if there is an error fetching the data.
+     * @complexity Time: O(1) for sending the HTTP request. The actual time depends on network latency.
+     *             Space: O(1), the body is read on demand by the caller.
+     */
+    public InputStream fetchStream(final String url) {
+        return send(createHttpRequest(url, HttpValidators.NONE), HttpResponse.BodyHandlers.ofInputStream()).body();
+    }
+
+    /**
+     * Fetches the response from the given URL only if it changed since the given validators were issued.
+     *
+     * @param url         The URL to fetch the response from.
+     * @param validators  The validators of the previous response, or {@link HttpValidators#NONE}.
+     * @param bodyHandler The handler converting the response body.
+     * @param <T>         The type of the response body.
+     * @return The response; its body is null and its validators are the given ones if the resource is unchanged.
+     * @throws FetchResponseDataException if there is an error fetching the data.
+     * @complexity Time: O(1) plus the cost of the body handler. The actual time depends on network latency.
+     *             Space: O(1) plus the body, if any.
+     */
+    public <T> ConditionalResponse<T> fetchIfChanged(final String url, final HttpValidators validators,
+                                                     final HttpResponse.BodyHandler<T> bodyHandler) {
+        final HttpResponse<T> response = send(createHttpRequest(url, validators), bodyHandler);
+
+        return toConditionalResponse(response, validators);
+    }
+
+    /**
+     * Fetches the response from the given URL asynchronously.
+     *
+     * @param url The URL to fetch the response from.
+     * @return The future response body, failing with a {@link FetchResponseDataException}.
+     * @throws FetchResponseDataException if the URL is invalid.
+     * @complexity Time: O(1) to send the request; the body is read on the client's executor.
+     *             Space: O(n) once completed, for the body of length n.
+     */
+    public CompletableFuture<String> fetchAsync(final String url) {
+        return sendAsync(createHttpRequest(url, HttpValidators.NONE), HttpResponse.BodyHandlers.ofString())
+                .thenApply(HttpResponse::body);
+    }
+
+    /**
+     * Fetches the response from the given URL asynchronously as a stream, without buffering the body.
+     * The caller must close the stream to release the connection.
+     *
+     * @param url The URL to fetch the response from.
+     * @return The future response body, failing with a {@link FetchResponseDataException}.
+     * @throws FetchResponseDataException if the URL is invalid.
+     * @complexity Time: O(1) to send the request; the body is read on demand by the caller.
+     *             Space: O(1).
+     */
+    public CompletableFuture<InputStream> fetchStreamAsync(final String url) {
+        return sendAsync(createHttpRequest(url, HttpValidators.NONE), HttpResponse.BodyHandlers.ofInputStream())
+                .thenApply(HttpResponse::body);
+    }
+
+    /**
+     * Fetches the response from the given URL asynchronously, only if it changed since the validators were issued.
+     *
+     * @param url         The URL to fetch the response from.
+     * @param validators  The validators of the previous response, or {@link HttpValidators#NONE}.
+     * @param bodyHandler The handler converting the response body.
+     * @param <T>         The type of the response body.
+     * @return The future response, failing with a {@link FetchResponseDataException}.
+     * @throws FetchResponseDataException if the URL is invalid.
+     * @complexity Time: O(1) to send the request; the body is read on the client's executor.
+     *             Space: O(1) plus the body, if any.
+     */
+    public <T> CompletableFuture<ConditionalResponse<T>> fetchIfChangedAsync(
+            final String url, final HttpValidators validators, final HttpResponse.BodyHandler<T> bodyHandler) {
+        return sendAsync(createHttpRequest(url, validators), bodyHandler)
+                .thenApply(response -> toConditionalResponse(response, validators));
+    }
+
+    /**
+     * Creates a GET request for the given URL, conditional on the given validators.
+     *
+     * @param url        The URL to create the request for.
+     * @param validators The validators to send, or {@link HttpValidators#NONE}.
+     * @return An instance of HttpRequest.
+     * @throws FetchResponseDataException if the URL is invalid.
+     * @complexity Time: O(1), constant time to create the HttpRequest.
+     *             Space: O(1), constant space for the HttpRequest.
+     */
+    private HttpRequest createHttpRequest(final String url, final HttpValidators validators) {
+        try {
+            final HttpRequest.Builder builder = HttpRequest.newBuilder()
+                    .uri(URI.create(url))
+                    .timeout(requestTimeout)
+                    .GET();
+
+            if (validators.eTag() != null) {
+                builder.header("If-None-Match", validators.eTag());
+            }
+            if (validators.lastModified() != null) {
+                builder.header("If-Modified-Since", validators.lastModified());
+            }
+
+            return builder.build();
+        } catch (final IllegalArgumentException e) {
+            throw new FetchResponseDataException("Failed to create HTTP request from " + url, e);
+        }
+    }
+
+    /**
+     * Sends the HTTP request and returns the response.
+     *
+     * @param request     The HttpRequest to send.
+     * @param bodyHandler The handler converting the response body.
+     * @param <T>         The type of the response body.
+     * @return The HttpResponse received.
+     * @throws FetchResponseDataException if there is an error sending the request.
+     * @complexity Time: O(1) for sending the HTTP request. The actual time depends on network latency.
+     *             Space: O(1), assuming constant space for the HttpResponse.
+     */
+    private <T> HttpResponse<T> send(final HttpRequest request, final HttpResponse.BodyHandler<T> bodyHandler) {
+        try {
+            return httpClient.send(request, bodyHandler);
+        } catch (final IOException e) {
+            throw new FetchResponseDataException("Failed to send request from " + request.uri(), e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FetchResponseDataException("Failed to send request from " + request.uri(), e);
+        }
+    }
+
+    /**
+     * Sends the HTTP request asynchronously, translating failures like {@link #send}.
+     *
+     * @param request     The HttpRequest to send.
+     * @param bodyHandler The handler converting the response body.
+     * @param <T>         The type of the response body.
+     * @return The future HttpResponse.
+     * @complexity Time: O(1) to send the request.
+     *             Space: O(1).
+     */
+    private <T> CompletableFuture<HttpResponse<T>> sendAsync(final HttpRequest request,
+                                                            final HttpResponse.BodyHandler<T> bodyHandler) {
+        return httpClient.sendAsync(request, bodyHandler).exceptionallyCompose(e -> CompletableFuture.failedFuture(
+                new FetchResponseDataException("Failed to send request from " + request.uri(),
+                        e instanceof CompletionException && e.getCause() != null ? e.getCause() : e)));
+    }
+
+    /**
+     * Converts a response into a conditional response, keeping the previous validators on 304.
+     *
+     * @param response           The HTTP response.
+     * @param previousValidators The validators sent with the request.
+     * @param <T>                The type of the response body.
+     * @return The conditional response.
+     * @throws FetchResponseDataException if releasing an unneeded streamed body fails.
+     * @complexity Time: O(h), where h is the number of response headers.
+     *             Space: O(1).
+     */
+    private static <T> ConditionalResponse<T> toConditionalResponse(final HttpResponse<T> response,
+                                                                    final HttpValidators previousValidators) {
+        if (response.statusCode() == ConditionalResponse.NOT_MODIFIED) {
+            // A streamed body must be closed even if empty, to return the connection to the pool
+            if (response.body() instanceof InputStream bodyStream) {
+                try {
+                    bodyStream.close();
+                } catch (final IOException e) {
+                    throw new FetchResponseDataException("Failed to release response from " + response.uri(), e);
+                }
+            }
+
+            return new ConditionalResponse<>(response.statusCode(), null, previousValidators);
+        }
+
+        final HttpValidators validators = new HttpValidators(
+                response.headers().firstValue("ETag").orElse(null),
+                response.headers().firstValue("Last-Modified").orElse(null));
+
+        return new ConditionalResponse<>(response.statusCode(), response.body(), validators);
+    }
+
+}
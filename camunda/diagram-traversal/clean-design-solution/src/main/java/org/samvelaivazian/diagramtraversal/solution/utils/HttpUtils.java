@@ -2,22 +2,21 @@ package org.samvelaivazian.diagramtraversal.solution.utils;
 
 import org.samvelaivazian.diagramtraversal.solution.exceptions.FetchResponseDataException;
 
-import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
+import java.io.InputStream;
 import java.net.http.HttpResponse;
-import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Utility class for making HTTP requests.
+ * <p>
+ * All requests go through one shared {@link HttpFetcher}, so connections are reused across calls.
  */
 public final class HttpUtils {
 
     /**
-     * The default timeout for HTTP requests.
+     * The fetcher shared by all requests of the application.
      */
-    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+    private static final HttpFetcher SHARED_FETCHER = new HttpFetcher();
 
     /**
      * Private constructor to prevent instantiation of this utility class.
@@ -25,6 +24,17 @@ public final class HttpUtils {
     private HttpUtils() {
     }
 
+    /**
+     * Returns the fetcher shared by all requests, for callers that need its full API.
+     *
+     * @return The shared fetcher.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public static HttpFetcher sharedFetcher() {
+        return SHARED_FETCHER;
+    }
+
     /**
      * Fetches the response from the given URL.
      *
@@ -35,63 +45,49 @@ public final class HttpUtils {
      *             Space: O(1), assuming constant space for the HTTP request and response.
      */
     public static String fetchResponse(final String url) {
-        final HttpClient client = createHttpClient();
-        final HttpRequest request = createHttpRequest(url);
-        final HttpResponse<String> httpResponse = sendHttpRequest(client, request);
-
-        return httpResponse.body();
+        return SHARED_FETCHER.fetch(url);
     }
 
     /**
-     * Creates an HttpClient with the default timeout.
+     * Fetches the response from the given URL as a stream, without buffering the body.
+     * The caller must close the stream to release the connection.
      *
-     * @return An instance of HttpClient.
-     * @complexity Time: O(1), constant time to create the HttpClient.
-     *             Space: O(1), constant space for the HttpClient.
+     * @param url The URL to fetch the response from.
+     * @return The response body as an InputStream.
+     * @throws FetchResponseDataException if there is an error fetching the data.
+     * @complexity Time: O(1) for creating and sending the HTTP request. The actual time depends on network latency.
+     *             Space: O(1), the body is read on demand by the caller.
      */
-    private static HttpClient createHttpClient() {
-        return HttpClient.newBuilder()
-                .connectTimeout(DEFAULT_TIMEOUT)
-                .build();
+    public static InputStream fetchResponseStream(final String url) {
+        return SHARED_FETCHER.fetchStream(url);
     }
 
     /**
-     * Creates an HttpRequest for the given URL.
+     * Fetches the response from the given URL as a stream, only if it changed since the validators were issued.
      *
-     * @param url The URL to create the request for.
-     * @return An instance of HttpRequest.
-     * @throws FetchResponseDataException if the URL is invalid.
-     * @complexity Time: O(1), constant time to create the HttpRequest.
-     *             Space: O(1), constant space for the HttpRequest.
+     * @param url        The URL to fetch the response from.
+     * @param validators The validators of the previous response, or {@link HttpValidators#NONE}.
+     * @return The response; its body is null if the resource is unchanged, otherwise the caller must close it.
+     * @throws FetchResponseDataException if there is an error fetching the data.
+     * @complexity Time: O(1) for creating and sending the HTTP request. The actual time depends on network latency.
+     *             Space: O(1), the body is read on demand by the caller.
      */
-    private static HttpRequest createHttpRequest(final String url) {
-        try {
-            return HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .timeout(DEFAULT_TIMEOUT)
-                    .GET()
-                    .build();
-        } catch (final IllegalArgumentException e) {
-            throw new FetchResponseDataException("Failed to create HTTP request from " + url, e);
-        }
+    public static ConditionalResponse<InputStream> fetchResponseStreamIfChanged(final String url,
+                                                                                final HttpValidators validators) {
+        return SHARED_FETCHER.fetchIfChanged(url, validators, HttpResponse.BodyHandlers.ofInputStream());
     }
 
     /**
-     * Sends the HTTP request and returns the response.
+     * Fetches the response from the given URL asynchronously.
      *
-     * @param client  The HttpClient to use.
-     * @param request The HttpRequest to send.
-     * @return The HttpResponse received.
-     * @throws FetchResponseDataException if there is an error sending the request.
-     * @complexity Time: O(1) for sending the HTTP request. The actual time depends on network latency.
-     *             Space: O(1), assuming constant space for the HttpResponse.
+     * @param url The URL to fetch the response from.
+     * @return The future response body, failing with a {@link FetchResponseDataException}.
+     * @throws FetchResponseDataException if the URL is invalid.
+     * @complexity Time: O(1) to send the request; the body is read asynchronously.
+     *             Space: O(1) until the body is read.
      */
-    private static HttpResponse<String> sendHttpRequest(final HttpClient client, final HttpRequest request) {
-        try {
-            return client.send(request, HttpResponse.BodyHandlers.ofString());
-        } catch (final IOException | InterruptedException e) {
-            throw new FetchResponseDataException("Failed to send request from " + request.uri(), e);
-        }
+    public static CompletableFuture<String> fetchResponseAsync(final String url) {
+        return SHARED_FETCHER.fetchAsync(url);
     }
 
 }
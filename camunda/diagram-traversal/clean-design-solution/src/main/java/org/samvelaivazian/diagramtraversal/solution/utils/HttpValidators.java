@@ -0,0 +1,28 @@
+package org.samvelaivazian.diagramtraversal.solution.utils;
+
+/**
+ * Cache validators of a fetched resource, sent back on the next request so that an unchanged resource
+ * is answered with {@code 304 Not Modified} instead of its body.
+ *
+ * @param eTag         The {@code ETag} response header, or null.
+ * @param lastModified The {@code Last-Modified} response header, or null.
+ */
+public record HttpValidators(String eTag, String lastModified) {
+
+    /**
+     * The validators of a resource that was never fetched; requests with them are unconditional.
+     */
+    public static final HttpValidators NONE = new HttpValidators(null, null);
+
+    /**
+     * Checks if there is no validator to send.
+     *
+     * @return True if neither an ETag nor a Last-Modified date is known.
+     * @complexity Time: O(1).
+     *             Space: O(1).
+     */
+    public boolean isEmpty() {
+        return eTag == null && lastModified == null;
+    }
+
+}
@@ -12,10 +12,16 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.samvelaivazian.diagramtraversal.solution.exceptions.BuildRouteException;
 import org.samvelaivazian.diagramtraversal.solution.exceptions.IncorrectNumberOfNodesException;
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraph;
+import org.samvelaivazian.diagramtraversal.solution.metrics.MetricsRecorder;
 import org.samvelaivazian.diagramtraversal.solution.parsers.BpmnParser;
+import org.samvelaivazian.diagramtraversal.solution.parsers.ParseMode;
+import org.samvelaivazian.diagramtraversal.solution.sources.FileModelSource;
+import org.samvelaivazian.diagramtraversal.solution.traversal.TraversalStrategy;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.List;
 
@@ -23,6 +29,9 @@ import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.samvelaivazian.diagramtraversal.solution.constants.FileConstants.PATH_TO_INVOICE_XML;
 
@@ -32,6 +41,11 @@ import static org.samvelaivazian.diagramtraversal.solution.constants.FileConstan
 @ExtendWith(MockitoExtension.class)
 final class SolutionTest {
 
+    /**
+     * The process definition key of the invoice approval diagram.
+     */
+    private static final String INVOICE_DEFINITION_KEY = "invoice";
+
     /**
      * Mock instance of BpmnParser for testing purposes.
      */
@@ -70,8 +84,6 @@ final class SolutionTest {
 
         when(mockParser.getBpmn20XmlFromJson(anyString())).thenReturn(bpmnXml);
         when(mockParser.getBpmnModelFromXml(anyString())).thenReturn(mockModel);
-        when(mockModel.getModelElementById(startNodeId)).thenReturn(startNode);
-        when(mockModel.getModelElementById(endNodeId)).thenReturn(endNode);
 
         // Set up the mock to return a valid ID
         when(startNode.getId()).thenReturn(startNodeId);
@@ -81,9 +93,32 @@ final class SolutionTest {
         when(startNode.getOutgoing()).thenReturn(List.of(sequenceFlow));
         when(sequenceFlow.getTarget()).thenReturn(endNode);
 
+        // Expose the flow nodes to the route graph compilation
+        when(mockModel.getModelElementsByType(FlowNode.class)).thenReturn(List.of(startNode));
+
         assertDoesNotThrow(() -> solution.run(args));
     }
 
+    /**
+     * Tests that the run method finds the route in streaming graph mode without building a model instance.
+     * This ensures that the XML is streamed into the extractor and nodes are validated against the extracted graph.
+     * The diagram is read from a file, so every run reads the same content, independent of the network.
+     */
+    @Test
+    void testRun_StreamingGraphMode() {
+        final String[] args = {"approveInvoice", "invoiceProcessed"};
+        final Solution streamingSolution = Solution.builder(mockParser)
+                .modelSource(new FileModelSource(PATH_TO_INVOICE_XML, INVOICE_DEFINITION_KEY))
+                .parseMode(ParseMode.STREAMING_GRAPH)
+                .metricsRecorder(MetricsRecorder.noop())
+                .build();
+
+        assertDoesNotThrow(() -> streamingSolution.run(args));
+        assertThrows(BuildRouteException.class, () -> streamingSolution.run(new String[]{"approveInvoice", "unknownNode"}));
+        assertEquals(1, streamingSolution.getModelCacheStats().loadCount());
+        verify(mockParser, never()).getBpmnModelFromXml(anyString());
+    }
+
     /**
      * Tests that the run method throws an IncorrectNumberOfNodesException when too few arguments are provided.
      * This ensures that the method correctly validates the number of input arguments.
@@ -119,8 +154,6 @@ final class SolutionTest {
         final BpmnModelInstance mockModel = Mockito.mock(BpmnModelInstance.class);
         when(mockParser.getBpmn20XmlFromJson(anyString())).thenReturn("<definitions></definitions>");
         when(mockParser.getBpmnModelFromXml(anyString())).thenReturn(mockModel);
-        when(mockModel.getModelElementById("invalidStartNode")).thenReturn(null);
-        when(mockModel.getModelElementById("endNodeId")).thenReturn(null);
 
         assertThrows(BuildRouteException.class, () -> solution.run(args));
     }
@@ -139,8 +172,8 @@ final class SolutionTest {
 
         when(mockParser.getBpmn20XmlFromJson(anyString())).thenReturn("<definitions></definitions>");
         when(mockParser.getBpmnModelFromXml(anyString())).thenReturn(mockModel);
-        when(mockModel.getModelElementById("startNodeId")).thenReturn(startNode);
-        when(mockModel.getModelElementById("invalidEndNode")).thenReturn(null);
+        when(mockModel.getModelElementsByType(FlowNode.class)).thenReturn(List.of(startNode));
+        when(startNode.getId()).thenReturn("startNodeId");
 
         assertThrows(BuildRouteException.class, () -> solution.run(args));
     }
@@ -159,8 +192,9 @@ final class SolutionTest {
 
         when(mockParser.getBpmn20XmlFromJson(anyString())).thenReturn("<definitions></definitions>");
         when(mockParser.getBpmnModelFromXml(anyString())).thenReturn(mockModel);
-        when(mockModel.getModelElementById("startNodeId")).thenReturn(startNode);
-        when(mockModel.getModelElementById("endNodeId")).thenReturn(endNode);
+        when(mockModel.getModelElementsByType(FlowNode.class)).thenReturn(List.of(startNode, endNode));
+        when(startNode.getId()).thenReturn("startNodeId");
+        when(endNode.getId()).thenReturn("endNodeId");
         when(startNode.getOutgoing()).thenReturn(Collections.emptyList()); // Ensure no outgoing flows
 
         assertThrows(BuildRouteException.class, () -> solution.run(args));
@@ -203,10 +237,125 @@ final class SolutionTest {
 
         when(mockParser.getBpmn20XmlFromJson(anyString())).thenReturn(bpmnXml);
         when(mockParser.getBpmnModelFromXml(anyString())).thenReturn(mockModel);
-        when(mockModel.getModelElementById(startNodeId)).thenReturn(startNode);
-        when(mockModel.getModelElementById(endNodeId)).thenReturn(endNode);
+        when(mockModel.getModelElementsByType(FlowNode.class)).thenReturn(List.of(startNode, targetNode, endNode));
 
         assertDoesNotThrow(() -> solution.run(args));
     }
 
+    /**
+     * Tests that repeated runs against unchanged BPMN XML parse and compile the model only once.
+     * This ensures that the compiled model cache is hit for identical content. The diagram is read from a file, so
+     * every run reads the same content, independent of the network.
+     */
+    @Test
+    void testRun_ReusesCompiledModel() {
+        final String startNodeId = "approveInvoice";
+        final String endNodeId = "invoiceProcessed";
+        final String[] args = {startNodeId, endNodeId};
+        final Solution fileSolution = Solution.builder(mockParser)
+                .modelSource(new FileModelSource(PATH_TO_INVOICE_XML, INVOICE_DEFINITION_KEY))
+                .metricsRecorder(MetricsRecorder.noop())
+                .build();
+
+        final BpmnModelInstance mockModel = Mockito.mock(BpmnModelInstance.class);
+        final FlowNode startNode = Mockito.mock(FlowNode.class);
+        final FlowNode endNode = Mockito.mock(FlowNode.class);
+        final SequenceFlow sequenceFlow = Mockito.mock(SequenceFlow.class);
+
+        when(mockParser.getBpmnModelFromXml(anyString())).thenReturn(mockModel);
+        when(mockModel.getModelElementsByType(FlowNode.class)).thenReturn(List.of(startNode));
+        when(startNode.getId()).thenReturn(startNodeId);
+        when(endNode.getId()).thenReturn(endNodeId);
+        when(startNode.getOutgoing()).thenReturn(List.of(sequenceFlow));
+        when(sequenceFlow.getTarget()).thenReturn(endNode);
+
+        fileSolution.run(args);
+        fileSolution.run(args);
+
+        verify(mockParser, times(1)).getBpmnModelFromXml(anyString());
+        assertEquals(1, fileSolution.getModelCacheStats().loadCount());
+        assertEquals(1, fileSolution.getModelCacheStats().hitCount());
+    }
+
+    /**
+     * Tests that the builder rejects a graph directory combined with a model source or with the model instance parse
+     * mode, and a missing parse mode.
+     * This ensures that contradictory options fail fast instead of being silently ignored.
+     */
+    @Test
+    void testBuilder_RejectsContradictoryOptions() {
+        final Path graphDirectory = PATH_TO_INVOICE_XML.getParent();
+        final FileModelSource modelSource = new FileModelSource(PATH_TO_INVOICE_XML, INVOICE_DEFINITION_KEY);
+
+        assertThrows(IllegalStateException.class, () -> Solution.builder(mockParser)
+                .parseMode(ParseMode.STREAMING_GRAPH)
+                .graphDirectory(graphDirectory)
+                .modelSource(modelSource)
+                .build());
+        assertThrows(IllegalStateException.class, () -> Solution.builder(mockParser)
+                .graphDirectory(graphDirectory)
+                .build());
+        assertThrows(IllegalArgumentException.class, () -> Solution.builder(mockParser).parseMode(null).build());
+        assertDoesNotThrow(() -> Solution.builder(mockParser)
+                .parseMode(ParseMode.STREAMING_GRAPH)
+                .graphDirectory(graphDirectory)
+                .metricsRecorder(MetricsRecorder.noop())
+                .build());
+    }
+
+    /**
+     * Tests that the findRoute method returns the expected route from a route graph compiled from the invoice diagram.
+     * This ensures that the search over the compiled graph follows the outgoing sequence flows in model order.
+     *
+     * @throws IOException if reading the BPMN XML file fails
+     */
+    @Test
+    void testFindRoute_CompiledGraph() throws IOException {
+        final String bpmnXml = Files.readString(PATH_TO_INVOICE_XML);
+        final RouteGraph routeGraph = RouteGraph.compile(new BpmnParser().getBpmnModelFromXml(bpmnXml));
+
+        final List<String> route = solution.findRoute(routeGraph, "approveInvoice", "invoiceProcessed");
+
+        assertEquals(
+                List.of("approveInvoice", "invoice_approved", "prepareBankTransfer", "ServiceTask_1", "invoiceProcessed"),
+                route
+        );
+    }
+
+    /**
+     * Tests that every traversal strategy finds the single route through the invoice diagram.
+     * This ensures that the strategy only decides between alternative routes, never whether one is found.
+     *
+     * @throws IOException if reading the BPMN XML file fails
+     */
+    @Test
+    void testFindRoute_AllStrategies() throws IOException {
+        final String bpmnXml = Files.readString(PATH_TO_INVOICE_XML);
+        final RouteGraph routeGraph = RouteGraph.compile(new BpmnParser().getBpmnModelFromXml(bpmnXml));
+
+        for (final TraversalStrategy strategy : TraversalStrategy.values()) {
+            assertEquals(
+                    List.of("approveInvoice", "invoice_approved", "prepareBankTransfer", "ServiceTask_1", "invoiceProcessed"),
+                    solution.findRoute(routeGraph, "approveInvoice", "invoiceProcessed", strategy),
+                    strategy.name()
+            );
+            assertThrows(BuildRouteException.class,
+                    () -> solution.findRoute(routeGraph, "invoiceProcessed", "approveInvoice", strategy));
+        }
+    }
+
+    /**
+     * Tests that the findRoute method throws a BuildRouteException for a node that is not part of the compiled graph.
+     * This ensures that unknown node IDs are rejected before any traversal.
+     *
+     * @throws IOException if reading the BPMN XML file fails
+     */
+    @Test
+    void testFindRoute_UnknownNode() throws IOException {
+        final String bpmnXml = Files.readString(PATH_TO_INVOICE_XML);
+        final RouteGraph routeGraph = RouteGraph.compile(new BpmnParser().getBpmnModelFromXml(bpmnXml));
+
+        assertThrows(BuildRouteException.class, () -> solution.findRoute(routeGraph, "unknownNode", "invoiceProcessed"));
+    }
+
 }
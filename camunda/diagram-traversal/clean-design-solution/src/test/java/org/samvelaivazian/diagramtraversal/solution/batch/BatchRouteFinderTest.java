@@ -0,0 +1,195 @@
+package org.samvelaivazian.diagramtraversal.solution.batch;
+
+import org.camunda.bpm.engine.impl.util.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.samvelaivazian.diagramtraversal.solution.Solution;
+import org.samvelaivazian.diagramtraversal.solution.exceptions.BuildRouteException;
+import org.samvelaivazian.diagramtraversal.solution.exceptions.IncorrectNumberOfNodesException;
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraph;
+import org.samvelaivazian.diagramtraversal.solution.parsers.BpmnParser;
+import org.samvelaivazian.diagramtraversal.solution.traversal.ParallelBreadthFirstSearch;
+import org.samvelaivazian.diagramtraversal.solution.traversal.SearchTree;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.samvelaivazian.diagramtraversal.solution.constants.FileConstants.PATH_TO_INVOICE_XML;
+
+/**
+ * Unit tests for the BatchRouteFinder and JsonLinesRouteWriter classes.
+ */
+final class BatchRouteFinderTest {
+
+    /**
+     * The BatchRouteFinder instance to be tested.
+     */
+    private final BatchRouteFinder batchRouteFinder = new BatchRouteFinder();
+
+    /**
+     * The route graph compiled from the invoice diagram.
+     */
+    private RouteGraph routeGraph;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        final String bpmnXml = Files.readString(PATH_TO_INVOICE_XML);
+
+        routeGraph = RouteGraph.compile(new BpmnParser().getBpmnModelFromXml(bpmnXml));
+    }
+
+    /**
+     * Tests that every batch result equals the result of the corresponding single query.
+     * This ensures that sharing one search tree per start node does not change any route.
+     */
+    @Test
+    void testFindRoutes_MatchesSingleQueries() {
+        final Solution solution = new Solution(new BpmnParser());
+        final List<RouteQuery> queries = new ArrayList<>();
+        for (int start = 0; start < routeGraph.nodeCount(); start++) {
+            for (int end = 0; end < routeGraph.nodeCount(); end++) {
+                queries.add(new RouteQuery(routeGraph.nodeId(start), routeGraph.nodeId(end)));
+            }
+        }
+
+        final List<RouteResult> results = new ArrayList<>();
+        batchRouteFinder.findRoutes(routeGraph, queries, results::add);
+
+        assertEquals(queries.size(), results.size());
+        for (final RouteResult result : results) {
+            try {
+                assertEquals(solution.findRoute(routeGraph, result.startNodeId(), result.endNodeId()), result.route());
+            } catch (final BuildRouteException e) {
+                assertNull(result.route());
+                assertEquals(e.getMessage(), result.error());
+            }
+        }
+    }
+
+    /**
+     * Tests that queries with unknown nodes produce an error result instead of failing the batch.
+     */
+    @Test
+    void testFindRoutesFromSource_UnknownAndUnreachableNodes() {
+        final List<RouteResult> results = new ArrayList<>();
+        batchRouteFinder.findRoutesFromSource(routeGraph, "invoiceProcessed",
+                List.of("invoiceProcessed", "StartEvent_1", "unknownNode"), results::add);
+
+        assertEquals(List.of("invoiceProcessed"), results.get(0).route());
+        assertEquals("Failed to build route from model", results.get(1).error());
+        assertEquals("Failed to obtain FlowNode from startNodeId 'invoiceProcessed' or/and endNodeId 'unknownNode'",
+                results.get(2).error());
+    }
+
+    /**
+     * Tests that the parallel one-to-all search reports a shortest route to every end event reachable from the
+     * start event, and rejects unknown start nodes.
+     */
+    @Test
+    void testFindRoutesToEndEvents_AllReachableEndEvents() {
+        final SearchTree breadthFirstTree = SearchTree.breadthFirst(routeGraph, routeGraph.indexOf("StartEvent_1"),
+                SearchTree.NO_STOP_NODE);
+        final List<RouteResult> results = new ArrayList<>();
+
+        try (ParallelBreadthFirstSearch search = new ParallelBreadthFirstSearch(2, 0)) {
+            batchRouteFinder.findRoutesToEndEvents(routeGraph, "StartEvent_1", search, results::add);
+
+            assertThrows(BuildRouteException.class,
+                    () -> batchRouteFinder.findRoutesToEndEvents(routeGraph, "unknownNode", search, results::add));
+        }
+
+        assertEquals(List.of("invoiceNotProcessed", "invoiceProcessed"),
+                results.stream().map(RouteResult::endNodeId).sorted().toList());
+        for (final RouteResult result : results) {
+            assertEquals(breadthFirstTree.routeTo(routeGraph.indexOf(result.endNodeId())), result.route());
+        }
+    }
+
+    /**
+     * Tests that batch queries for all end events are answered with the parallel search after the other queries,
+     * once per start node, and that an unknown start node is reported instead of failing the batch.
+     *
+     * @throws IOException if reading fails
+     */
+    @Test
+    void testFindRoutes_AllEndEventsQueries() throws IOException {
+        final List<RouteQuery> queries = BatchRouteFinder.readQueries(new StringReader("""
+                StartEvent_1 *
+                approveInvoice invoiceProcessed
+                unknownNode *
+                StartEvent_1 *
+                """));
+        final List<RouteResult> results = new ArrayList<>();
+
+        try (ParallelBreadthFirstSearch search = new ParallelBreadthFirstSearch(2, 0)) {
+            batchRouteFinder.findRoutes(routeGraph, queries, search, results::add);
+        }
+
+        assertEquals(List.of("approveInvoice", "StartEvent_1", "StartEvent_1", "unknownNode"),
+                results.stream().map(RouteResult::startNodeId).toList());
+        assertEquals("invoiceProcessed", results.get(0).endNodeId());
+        assertEquals(List.of("invoiceNotProcessed", "invoiceProcessed"),
+                results.subList(1, 3).stream().map(RouteResult::endNodeId).sorted().toList());
+        assertEquals("Failed to obtain FlowNode from startNodeId 'unknownNode' or/and endNodeId '*'",
+                results.get(3).error());
+    }
+
+    /**
+     * Tests that query lines with one start node and several end nodes expand into one query per end node.
+     *
+     * @throws IOException if reading fails
+     */
+    @Test
+    void testReadQueries_SourceWithManyTargets() throws IOException {
+        final String lines = """
+                # start end...
+                approveInvoice invoiceProcessed, invoiceNotProcessed
+
+                StartEvent_1,assignApprover
+                """;
+
+        final List<RouteQuery> queries = BatchRouteFinder.readQueries(new StringReader(lines));
+
+        assertEquals(List.of(
+                new RouteQuery("approveInvoice", "invoiceProcessed"),
+                new RouteQuery("approveInvoice", "invoiceNotProcessed"),
+                new RouteQuery("StartEvent_1", "assignApprover")
+        ), queries);
+    }
+
+    /**
+     * Tests that a query line with a single node ID is rejected.
+     */
+    @Test
+    void testReadQueries_MissingEndNode() {
+        assertThrows(IncorrectNumberOfNodesException.class,
+                () -> BatchRouteFinder.readQueries(new StringReader("approveInvoice\n")));
+    }
+
+    /**
+     * Tests that the JSON Lines writer writes one JSON object per result.
+     */
+    @Test
+    void testJsonLinesRouteWriter_OneLinePerResult() {
+        final StringWriter output = new StringWriter();
+        final JsonLinesRouteWriter writer = new JsonLinesRouteWriter(output);
+
+        batchRouteFinder.findRoutesFromSource(routeGraph, "ServiceTask_1",
+                List.of("invoiceProcessed", "StartEvent_1"), writer);
+
+        final String[] lines = output.toString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("[\"ServiceTask_1\",\"invoiceProcessed\"]",
+                new JSONObject(lines[0]).getJSONArray("route").toString());
+        assertEquals("Failed to build route from model",
+                new JSONObject(lines[1]).getString("error"));
+    }
+
+}
@@ -0,0 +1,41 @@
+package org.samvelaivazian.diagramtraversal.solution.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.samvelaivazian.diagramtraversal.solution.constants.FileConstants.PATH_TO_INVOICE_XML;
+
+/**
+ * Unit tests for the ContentHashingReader class.
+ */
+final class ContentHashingReaderTest {
+
+    /**
+     * Tests that hashing while streaming yields the same content version as hashing the whole String.
+     * This ensures that streamed and buffered loads of the same model share one cache entry.
+     *
+     * @throws IOException if reading the BPMN XML file fails
+     */
+    @Test
+    void testFinishContentVersion_MatchesOfContent() throws IOException {
+        final String bpmnXml = Files.readString(PATH_TO_INVOICE_XML) + "ü€😀 \uD800 \uDC00";
+
+        try (ContentHashingReader reader = new ContentHashingReader(new StringReader(bpmnXml))) {
+            // Read part of the content in odd-sized chunks and leave the rest to finishContentVersion
+            final char[] buffer = new char[3];
+            for (int i = 0; i < 100; i++) {
+                reader.read(buffer);
+            }
+            reader.read();
+
+            final String expectedVersion = CompiledModelKey.ofContent("invoice", bpmnXml).contentVersion();
+
+            assertEquals(expectedVersion, reader.finishContentVersion());
+        }
+    }
+
+}
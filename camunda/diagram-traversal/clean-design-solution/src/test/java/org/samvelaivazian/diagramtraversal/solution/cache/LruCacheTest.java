@@ -0,0 +1,179 @@
+package org.samvelaivazian.diagramtraversal.solution.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the LruCache class.
+ */
+final class LruCacheTest {
+
+    /**
+     * Tests that the get method loads a value on the first lookup and serves it from the cache afterwards.
+     * This ensures that hits, misses and loads are counted correctly.
+     */
+    @Test
+    void testGet_CountsHitsAndMisses() {
+        final LruCache<String, String> cache = new LruCache<>(10, value -> 1);
+
+        assertEquals("A", cache.get("a", String::toUpperCase));
+        assertEquals("A", cache.get("a", key -> "unexpected"));
+
+        final CacheStats stats = cache.stats();
+        assertEquals(1, stats.hitCount());
+        assertEquals(1, stats.missCount());
+        assertEquals(1, stats.loadCount());
+        assertEquals(0.5, stats.hitRatio());
+    }
+
+    /**
+     * Tests that the least recently used values are evicted once the weight bound is exceeded.
+     * This ensures that recently read values survive eviction and the total weight stays bounded.
+     */
+    @Test
+    void testPut_EvictsLeastRecentlyUsed() {
+        final LruCache<String, Integer> cache = new LruCache<>(5, Integer::longValue);
+        cache.put("a", 2);
+        cache.put("b", 2);
+        cache.getIfPresent("a");
+        cache.put("c", 2);
+
+        assertNull(cache.getIfPresent("b"));
+        assertEquals(2, cache.getIfPresent("a"));
+        assertEquals(2, cache.getIfPresent("c"));
+        assertEquals(1, cache.stats().evictionCount());
+        assertEquals(4, cache.stats().weight());
+    }
+
+    /**
+     * Tests that only the values matching the predicate are invalidated.
+     * This ensures that selective invalidation keeps the other values and the total weight consistent.
+     */
+    @Test
+    void testInvalidateIf_RemovesMatchingValues() {
+        final LruCache<String, Integer> cache = new LruCache<>(10, Integer::longValue);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 3);
+
+        assertEquals(2, cache.invalidateIf((key, value) -> value % 2 == 1));
+
+        assertNull(cache.getIfPresent("a"));
+        assertEquals(2, cache.getIfPresent("b"));
+        assertNull(cache.getIfPresent("c"));
+        assertEquals(2, cache.stats().weight());
+    }
+
+    /**
+     * Tests that a failed load is propagated and not cached.
+     * This ensures that a later lookup retries the load.
+     */
+    @Test
+    void testGet_FailedLoadIsNotCached() {
+        final LruCache<String, String> cache = new LruCache<>(10, value -> 1);
+
+        assertThrows(IllegalStateException.class, () -> cache.get("a", key -> {
+            throw new IllegalStateException("load failed");
+        }));
+        assertEquals("A", cache.get("a", String::toUpperCase));
+        assertEquals(2, cache.stats().loadCount());
+    }
+
+    /**
+     * Tests that concurrent misses on the same key invoke the loader only once.
+     * This ensures that single-flight loading coalesces concurrent loads.
+     *
+     * @throws Exception if a worker thread fails
+     */
+    @Test
+    void testGet_SingleFlightLoading() throws Exception {
+        final int threadCount = 8;
+        final LruCache<String, String> cache = new LruCache<>(10, value -> 1);
+        final AtomicInteger loaderInvocations = new AtomicInteger();
+        final CountDownLatch loadStarted = new CountDownLatch(1);
+        final CountDownLatch releaseLoad = new CountDownLatch(1);
+        final List<Future<String>> results = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(threadCount)) {
+            for (int i = 0; i < threadCount; i++) {
+                results.add(executor.submit(() -> cache.get("a", key -> {
+                    loaderInvocations.incrementAndGet();
+                    loadStarted.countDown();
+                    awaitUninterruptibly(releaseLoad);
+
+                    return "A";
+                })));
+            }
+
+            assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+            releaseLoad.countDown();
+
+            for (final Future<String> result : results) {
+                assertEquals("A", result.get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        assertEquals(1, loaderInvocations.get());
+        assertEquals(1, cache.stats().loadCount());
+        assertNotEquals(0, cache.stats().missCount());
+    }
+
+    /**
+     * Tests that a segmented cache keeps every segment within its share of the bound and sums the statistics and
+     * invalidations over all segments.
+     * This ensures that lock striping keeps the cache bounded and its statistics complete.
+     */
+    @Test
+    void testSegments_BoundedAndSummed() {
+        final LruCache<Integer, Integer> cache = new LruCache<>(40, value -> 1, 4);
+        for (int key = 0; key < 1_000; key++) {
+            cache.put(key, key);
+        }
+
+        final CacheStats stats = cache.stats();
+        assertTrue(stats.size() <= 40 && stats.size() > 4, "Cached " + stats.size() + " values");
+        assertEquals(stats.size(), stats.weight());
+        assertEquals(1_000, stats.size() + stats.evictionCount());
+        assertEquals(999, cache.getIfPresent(999));
+
+        assertEquals(stats.size(), cache.invalidateIf((key, value) -> true));
+        assertEquals(0, cache.stats().weight());
+    }
+
+    /**
+     * Tests that the constructor rejects a non-positive weight bound or segment count.
+     */
+    @Test
+    void testConstructor_InvalidMaxWeight() {
+        assertThrows(IllegalArgumentException.class, () -> new LruCache<String, String>(0, value -> 1));
+        assertThrows(IllegalArgumentException.class, () -> new LruCache<String, String>(10, value -> 1, 0));
+    }
+
+    /**
+     * Waits for the latch, ignoring interrupts.
+     *
+     * @param latch The latch to wait for.
+     */
+    private static void awaitUninterruptibly(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,289 @@
+package org.samvelaivazian.diagramtraversal.solution.cache;
+
+import org.junit.jupiter.api.Test;
+import org.samvelaivazian.diagramtraversal.solution.Solution;
+import org.samvelaivazian.diagramtraversal.solution.exceptions.BuildRouteException;
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraph;
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraphBuilder;
+import org.samvelaivazian.diagramtraversal.solution.parsers.BpmnParser;
+import org.samvelaivazian.diagramtraversal.solution.traversal.HierarchicalRouter;
+import org.samvelaivazian.diagramtraversal.solution.traversal.RoutingTable;
+import org.samvelaivazian.diagramtraversal.solution.traversal.TraversalStrategy;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.samvelaivazian.diagramtraversal.solution.graph.TestGraphs.graphOf;
+
+/**
+ * Unit tests for the RouteCache class.
+ */
+final class RouteCacheTest {
+
+    /**
+     * A process whose only route from the start event to the inner task enters an embedded sub-process.
+     */
+    private static final String SUB_PROCESS_XML = """
+            <bpmn:definitions xmlns:bpmn="http://www.omg.org/spec/BPMN/20100524/MODEL" targetNamespace="test">
+              <bpmn:process id="parent">
+                <bpmn:startEvent id="start"><bpmn:outgoing>f1</bpmn:outgoing></bpmn:startEvent>
+                <bpmn:task id="task"><bpmn:incoming>f1</bpmn:incoming><bpmn:outgoing>f2</bpmn:outgoing></bpmn:task>
+                <bpmn:subProcess id="sub">
+                  <bpmn:incoming>f2</bpmn:incoming><bpmn:outgoing>f3</bpmn:outgoing>
+                  <bpmn:startEvent id="subStart"><bpmn:outgoing>f4</bpmn:outgoing></bpmn:startEvent>
+                  <bpmn:task id="inner"><bpmn:incoming>f4</bpmn:incoming><bpmn:outgoing>f5</bpmn:outgoing></bpmn:task>
+                  <bpmn:endEvent id="subEnd"><bpmn:incoming>f5</bpmn:incoming></bpmn:endEvent>
+                  <bpmn:sequenceFlow id="f4" sourceRef="subStart" targetRef="inner"/>
+                  <bpmn:sequenceFlow id="f5" sourceRef="inner" targetRef="subEnd"/>
+                </bpmn:subProcess>
+                <bpmn:endEvent id="end"><bpmn:incoming>f3</bpmn:incoming></bpmn:endEvent>
+                <bpmn:sequenceFlow id="f1" sourceRef="start" targetRef="task"/>
+                <bpmn:sequenceFlow id="f2" sourceRef="task" targetRef="sub"/>
+                <bpmn:sequenceFlow id="f3" sourceRef="sub" targetRef="end"/>
+              </bpmn:process>
+            </bpmn:definitions>
+            """;
+
+    /**
+     * The Solution instance finding the routes on a miss.
+     */
+    private final Solution solution = new Solution(new BpmnParser());
+
+    /**
+     * The number of route searches run on a miss.
+     */
+    private final AtomicInteger searchCount = new AtomicInteger();
+
+    /**
+     * Tests that installing a new version invalidates only the cached routes through changed nodes.
+     * This ensures that a reload keeps the routes that are still valid and recomputes the others.
+     */
+    @Test
+    void testAdvance_InvalidatesOnlyTouchedRoutes() {
+        final RouteCache routeCache = new RouteCache(100);
+        assertNull(routeCache.advance(graphOf("a>b", "b>c", "c>d", "x>y")).diff());
+
+        assertEquals(List.of("a", "b", "c", "d"), route(routeCache, "a", "d"));
+        assertEquals(List.of("x", "y"), route(routeCache, "x", "y"));
+        assertEquals(2, searchCount.get());
+
+        final RouteCache.Update update = routeCache.advance(graphOf("a>b", "b>d", "c>d", "x>y", "d>e"));
+
+        assertEquals(1, update.invalidatedRouteCount());
+        assertEquals(2, update.reusedRowCount());
+        assertEquals(List.of("x", "y"), route(routeCache, "x", "y"));
+        assertEquals(2, searchCount.get());
+        assertEquals(List.of("a", "b", "d"), route(routeCache, "a", "d"));
+        assertEquals(3, searchCount.get());
+    }
+
+    /**
+     * Tests that an added edge invalidates the cached BFS routes and a lighter node the cached Dijkstra routes, even
+     * if they do not touch the changed nodes, while a DFS route that is still a route is kept.
+     * This ensures that a reload never serves a route a shorter or cheaper route of the new version replaces.
+     */
+    @Test
+    void testAdvance_InvalidatesRoutesAShorterOrCheaperRouteMayReplace() {
+        final RouteCache routeCache = new RouteCache(100);
+        routeCache.advance(graphOf("s>a", "a>b", "b>e", "s>c"));
+        assertEquals(List.of("s", "a", "b", "e"), route(routeCache, "s", "e", TraversalStrategy.BREADTH_FIRST));
+        assertEquals(List.of("s", "a", "b", "e"), route(routeCache, "s", "e"));
+        assertEquals(2, searchCount.get());
+
+        assertEquals(1, routeCache.advance(graphOf("s>a", "a>b", "b>e", "s>c", "c>e")).invalidatedRouteCount());
+        assertEquals(List.of("s", "a", "b", "e"), route(routeCache, "s", "e"));
+        assertEquals(2, searchCount.get());
+        assertEquals(List.of("s", "c", "e"), route(routeCache, "s", "e", TraversalStrategy.BREADTH_FIRST));
+        assertEquals(3, searchCount.get());
+
+        final RouteCache weightedCache = new RouteCache(100);
+        weightedCache.advance(weightedGraphOf(10.0));
+        assertEquals(List.of("s", "a", "e"), route(weightedCache, "s", "e", TraversalStrategy.DIJKSTRA));
+        assertEquals(1, weightedCache.advance(weightedGraphOf(0.5)).invalidatedRouteCount());
+        assertEquals(List.of("s", "c", "e"), route(weightedCache, "s", "e", TraversalStrategy.DIJKSTRA));
+        assertEquals(5, searchCount.get());
+    }
+
+    /**
+     * Tests that unreachable pairs are rejected from the reachability index without a search.
+     * This ensures that misses for impossible routes do not cost a traversal.
+     */
+    @Test
+    void testGet_RejectsUnreachablePairsWithoutSearch() {
+        final RouteCache routeCache = new RouteCache(100);
+        assertThrows(IllegalStateException.class, () -> route(routeCache, "a", "b"));
+        routeCache.advance(graphOf("a>b", "x>y"));
+
+        assertThrows(BuildRouteException.class, () -> route(routeCache, "a", "y"));
+        assertThrows(BuildRouteException.class, () -> route(routeCache, "a", "unknown"));
+        assertEquals(0, searchCount.get());
+    }
+
+    /**
+     * Tests that a hierarchical route entering a sub-process is found although the flat reachability index does not
+     * connect its ends, while a flat query between the same nodes is still rejected without a search.
+     * This ensures that the reachability short-circuit only applies to strategies following sequence flows only.
+     */
+    @Test
+    void testGet_HierarchicalRouteThroughSubProcess() {
+        final RouteCache routeCache = new RouteCache(100);
+        routeCache.advance(RouteGraph.compile(new BpmnParser().getBpmnModelFromXml(SUB_PROCESS_XML)));
+        final HierarchicalRouter hierarchicalRouter = new HierarchicalRouter(processDefinitionKey -> null);
+
+        final List<String> route = routeCache.get("start", "inner", TraversalStrategy.HIERARCHICAL, routeGraph -> {
+            searchCount.incrementAndGet();
+
+            return hierarchicalRouter.search(routeGraph, routeGraph.indexOf("start"), routeGraph.indexOf("inner"))
+                    .routeTo(routeGraph.indexOf("inner"));
+        });
+
+        assertEquals(List.of("start", "task", "sub", "subStart", "inner"), route);
+        assertEquals(1, searchCount.get());
+        assertThrows(BuildRouteException.class, () -> route(routeCache, "start", "inner"));
+        assertEquals(1, searchCount.get());
+    }
+
+    /**
+     * Tests that a search finding no route is cached until the graph changes, and that the failure is rethrown on
+     * every hit.
+     * This ensures that repeated queries without a route do not repeat the search.
+     */
+    @Test
+    void testGet_CachesMissingRoutes() {
+        final RouteCache routeCache = new RouteCache(100);
+        final Function<RouteGraph, List<String>> failingFinder = routeGraph -> {
+            searchCount.incrementAndGet();
+            throw new BuildRouteException("No weighted route");
+        };
+        routeCache.advance(graphOf("a>b", "x>y"));
+
+        for (int i = 0; i < 3; i++) {
+            final BuildRouteException exception = assertThrows(BuildRouteException.class,
+                    () -> routeCache.get("a", "b", TraversalStrategy.DIJKSTRA, failingFinder));
+            assertEquals("No weighted route", exception.getMessage());
+        }
+        assertEquals(1, searchCount.get());
+        assertEquals(List.of("a", "b"), route(routeCache, "a", "b"));
+
+        assertEquals(0, routeCache.advance(graphOf("a>b", "x>y")).invalidatedRouteCount());
+        assertThrows(BuildRouteException.class,
+                () -> routeCache.get("a", "b", TraversalStrategy.DIJKSTRA, failingFinder));
+        assertEquals(2, searchCount.get());
+
+        assertEquals(1, routeCache.advance(graphOf("a>b", "x>y", "y>z")).invalidatedRouteCount());
+        assertThrows(BuildRouteException.class,
+                () -> routeCache.get("a", "b", TraversalStrategy.DIJKSTRA, failingFinder));
+        assertEquals(3, searchCount.get());
+    }
+
+    /**
+     * Tests that hierarchical routes and failures are invalidated by every new version, also an unchanged one.
+     * This ensures that a reload picks up changes of the called definitions, which the route graph does not show.
+     */
+    @Test
+    void testAdvance_InvalidatesHierarchicalRoutes() {
+        final RouteCache routeCache = new RouteCache(100);
+        final Function<RouteGraph, List<String>> failingFinder = routeGraph -> {
+            searchCount.incrementAndGet();
+            throw new BuildRouteException("No hierarchical route");
+        };
+        routeCache.advance(graphOf("a>b", "x>y"));
+        assertThrows(BuildRouteException.class,
+                () -> routeCache.get("a", "b", TraversalStrategy.HIERARCHICAL, failingFinder));
+        assertEquals(List.of("x", "y"), routeCache.get("x", "y", TraversalStrategy.HIERARCHICAL,
+                routeGraph -> List.of("x", "y")));
+
+        assertEquals(2, routeCache.advance(graphOf("a>b", "x>y")).invalidatedRouteCount());
+        assertThrows(BuildRouteException.class,
+                () -> routeCache.get("a", "b", TraversalStrategy.HIERARCHICAL, failingFinder));
+        assertEquals(2, searchCount.get());
+    }
+
+    /**
+     * Tests that DFS and BFS queries are read off the routing tables of every version without a search, that other
+     * strategies still search, and that a budget too small for the tables falls back to searching.
+     * This ensures that route lookups on small stable diagrams never traverse the graph.
+     */
+    @Test
+    void testGet_ReadsRoutesOffRoutingTables() {
+        final RouteCache routeCache = new RouteCache(100, RoutingTable.estimateBytes(5) * 2);
+        assertEquals(Set.of(TraversalStrategy.DEPTH_FIRST, TraversalStrategy.BREADTH_FIRST),
+                routeCache.advance(graphOf("a>b", "b>c", "a>c")).routedStrategies());
+
+        assertEquals(List.of("a", "c"), route(routeCache, "a", "c"));
+        assertEquals(List.of("a", "c"), routeCache.get("a", "c", TraversalStrategy.BREADTH_FIRST, routeGraph -> {
+            throw new AssertionError("Searched despite a routing table");
+        }));
+        assertEquals(0, searchCount.get());
+
+        assertEquals(List.of("a", "c"), routeCache.get("a", "c", TraversalStrategy.DIJKSTRA, routeGraph -> {
+            searchCount.incrementAndGet();
+
+            return solution.findRoute(routeGraph, "a", "c", TraversalStrategy.DIJKSTRA);
+        }));
+        assertEquals(1, searchCount.get());
+
+        assertEquals(Set.of(TraversalStrategy.DEPTH_FIRST),
+                routeCache.advance(graphOf("a>b", "b>c", "c>d", "d>e", "e>f")).routedStrategies());
+        assertEquals(List.of("a", "b", "c", "d", "e", "f"), route(routeCache, "a", "f"));
+        assertEquals(1, searchCount.get());
+
+        final RouteCache untabledCache = new RouteCache(100);
+        assertEquals(Set.of(), untabledCache.advance(graphOf("a>b")).routedStrategies());
+        assertEquals(List.of("a", "b"), route(untabledCache, "a", "b"));
+        assertEquals(2, searchCount.get());
+    }
+
+    /**
+     * Finds a depth-first route through the cache, counting the searches.
+     *
+     * @param routeCache  The route cache.
+     * @param startNodeId ID of the start node.
+     * @param endNodeId   ID of the end node.
+     * @return The route.
+     */
+    private List<String> route(final RouteCache routeCache, final String startNodeId, final String endNodeId) {
+        return route(routeCache, startNodeId, endNodeId, TraversalStrategy.DEPTH_FIRST);
+    }
+
+    /**
+     * Finds a route with the given strategy through the cache, counting the searches.
+     *
+     * @param routeCache  The route cache.
+     * @param startNodeId ID of the start node.
+     * @param endNodeId   ID of the end node.
+     * @param strategy    The traversal strategy.
+     * @return The route.
+     */
+    private List<String> route(final RouteCache routeCache, final String startNodeId, final String endNodeId,
+                               final TraversalStrategy strategy) {
+        return routeCache.get(startNodeId, endNodeId, strategy, routeGraph -> {
+            searchCount.incrementAndGet();
+
+            return solution.findRoute(routeGraph, startNodeId, endNodeId, strategy);
+        });
+    }
+
+    /**
+     * Builds a diamond from s to e whose upper branch passes a and whose lower branch passes c.
+     *
+     * @param lowerWeight The weight of c; every other node weighs 1.
+     * @return The route graph.
+     */
+    private static RouteGraph weightedGraphOf(final double lowerWeight) {
+        final RouteGraphBuilder builder = new RouteGraphBuilder();
+        builder.addEdge("s", "a");
+        builder.addEdge("a", "e");
+        builder.addEdge("s", "c");
+        builder.addEdge("c", "e");
+        builder.setNodeWeight(builder.indexOf("c"), lowerWeight);
+
+        return builder.build();
+    }
+
+}
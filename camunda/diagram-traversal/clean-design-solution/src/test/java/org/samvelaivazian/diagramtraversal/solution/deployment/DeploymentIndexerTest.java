@@ -0,0 +1,217 @@
+package org.samvelaivazian.diagramtraversal.solution.deployment;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.camunda.bpm.engine.impl.util.json.JSONArray;
+import org.camunda.bpm.engine.impl.util.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.samvelaivazian.diagramtraversal.solution.Solution;
+import org.samvelaivazian.diagramtraversal.solution.exceptions.BuildRouteException;
+import org.samvelaivazian.diagramtraversal.solution.exceptions.FetchResponseDataException;
+import org.samvelaivazian.diagramtraversal.solution.exceptions.ParseBpmnModelException;
+import org.samvelaivazian.diagramtraversal.solution.generator.BpmnDiagramGenerator;
+import org.samvelaivazian.diagramtraversal.solution.generator.DiagramSpec;
+import org.samvelaivazian.diagramtraversal.solution.parsers.BpmnParser;
+import org.samvelaivazian.diagramtraversal.solution.parsers.StreamingBpmnGraphExtractor;
+import org.samvelaivazian.diagramtraversal.solution.traversal.TraversalStrategy;
+import org.samvelaivazian.diagramtraversal.solution.utils.HttpFetcher;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the DeploymentIndexer and DeploymentIndex classes against a local stub engine-rest server.
+ */
+final class DeploymentIndexerTest {
+
+    /**
+     * The number of definition keys of the stub deployment.
+     */
+    private static final int DEFINITION_KEY_COUNT = 10;
+
+    /**
+     * The number of versions of every definition key.
+     */
+    private static final int VERSION_COUNT = 3;
+
+    /**
+     * The maximum number of definitions being fetched or parsed at the same time.
+     */
+    private static final int MAX_IN_FLIGHT_DEFINITIONS = 4;
+
+    /**
+     * The BPMN XML of every definition of the stub deployment, by definition ID.
+     */
+    private final Map<String, String> bpmnXmlById = new LinkedHashMap<>();
+
+    /**
+     * The number of XML requests the stub server is currently answering.
+     */
+    private final AtomicInteger inFlightRequests = new AtomicInteger();
+
+    /**
+     * The highest number of XML requests the stub server answered at the same time.
+     */
+    private final AtomicInteger maxInFlightRequests = new AtomicInteger();
+
+    /**
+     * The executor handling the stub server's exchanges concurrently.
+     */
+    private final ExecutorService stubExecutor = Executors.newCachedThreadPool();
+
+    /**
+     * The extractor of the indexer and of the expected graphs.
+     */
+    private final StreamingBpmnGraphExtractor graphExtractor = new StreamingBpmnGraphExtractor(null, 1.0);
+
+    /**
+     * The body of the process definition list.
+     */
+    private String definitionList;
+
+    /**
+     * The stub server.
+     */
+    private HttpServer stubServer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        final JSONArray definitionsJson = new JSONArray();
+        for (int key = 0; key < DEFINITION_KEY_COUNT; key++) {
+            for (int version = 1; version <= VERSION_COUNT; version++) {
+                final String id = "process" + key + ":" + version + ":" + (key * VERSION_COUNT + version);
+                bpmnXmlById.put(id, new BpmnDiagramGenerator().generate(
+                        new DiagramSpec(20 + 10 * key + version, 0.3, 0.2, key * VERSION_COUNT + version)));
+                definitionsJson.put(new JSONObject().put("id", id).put("key", "process" + key).put("version", version));
+            }
+        }
+        definitionList = definitionsJson.toString();
+
+        stubServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        stubServer.createContext("/engine-rest/process-definition", this::handle);
+        stubServer.setExecutor(stubExecutor);
+        stubServer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stubServer.stop(0);
+        stubExecutor.close();
+    }
+
+    /**
+     * Tests that every version of every definition is indexed with its own graph and answers route queries, while
+     * no more definitions than allowed were fetched at the same time.
+     * This ensures that concurrent loading neither mixes up definitions nor overruns the bound.
+     */
+    @Test
+    void testIndex_AllDefinitionsWithBoundedConcurrency() {
+        final DeploymentIndexer indexer = new DeploymentIndexer(new HttpFetcher(), engineRestUrl() + "/",
+                graphExtractor, MAX_IN_FLIGHT_DEFINITIONS, 2);
+
+        final DeploymentIndex deploymentIndex = indexer.index();
+
+        assertEquals(DEFINITION_KEY_COUNT * VERSION_COUNT, deploymentIndex.definitionCount());
+        assertEquals(DEFINITION_KEY_COUNT, deploymentIndex.definitionKeys().size());
+        for (final ProcessDefinition definition : indexer.listDefinitions()) {
+            assertEquals(graphExtractor.extractRouteGraph(bpmnXmlById.get(definition.id())).nodeCount(),
+                    deploymentIndex.routeGraph(definition.key(), definition.version()).nodeCount(), definition.id());
+            assertEquals(VERSION_COUNT, deploymentIndex.latestVersion(definition.key()));
+        }
+        assertTrue(maxInFlightRequests.get() <= MAX_IN_FLIGHT_DEFINITIONS,
+                "Fetched " + maxInFlightRequests.get() + " definitions at the same time");
+
+        final List<String> route = new Solution(new BpmnParser()).findRoute(deploymentIndex, "process4", 2,
+                BpmnDiagramGenerator.START_EVENT_ID, BpmnDiagramGenerator.END_EVENT_ID,
+                TraversalStrategy.BREADTH_FIRST);
+        assertEquals(BpmnDiagramGenerator.START_EVENT_ID, route.get(0));
+        assertEquals(BpmnDiagramGenerator.END_EVENT_ID, route.get(route.size() - 1));
+        assertThrows(BuildRouteException.class, () -> deploymentIndex.routeGraph("process4", VERSION_COUNT + 1));
+        assertThrows(BuildRouteException.class, () -> deploymentIndex.latestVersion("unknown"));
+    }
+
+    /**
+     * Tests that a malformed definition list or definition fails the indexing.
+     * This ensures that a partially loaded deployment is never served.
+     */
+    @Test
+    void testIndex_FailsOnMalformedResponses() {
+        final DeploymentIndexer indexer = new DeploymentIndexer(new HttpFetcher(), engineRestUrl(), graphExtractor);
+        bpmnXmlById.put(bpmnXmlById.keySet().iterator().next(), "<bpmn:definitions");
+
+        assertThrows(ParseBpmnModelException.class, indexer::index);
+
+        definitionList = "{\"not\": \"a list\"}";
+        assertThrows(FetchResponseDataException.class, indexer::index);
+        assertThrows(IllegalArgumentException.class,
+                () -> new DeploymentIndexer(new HttpFetcher(), engineRestUrl(), graphExtractor, 0, 1));
+    }
+
+    /**
+     * Answers the process definition list, or the XML of a definition after a short delay.
+     *
+     * @param exchange The HTTP exchange.
+     * @throws IOException if writing the response fails
+     */
+    private void handle(final HttpExchange exchange) throws IOException {
+        final String path = exchange.getRequestURI().getPath();
+
+        if (path.equals("/engine-rest/process-definition")) {
+            send(exchange, 200, definitionList);
+            return;
+        }
+
+        final String id = path.substring("/engine-rest/process-definition/".length(), path.length() - "/xml".length());
+        maxInFlightRequests.accumulateAndGet(inFlightRequests.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(5);
+            send(exchange, 200, new JSONObject().put("id", id).put("bpmn20Xml", bpmnXmlById.get(id)).toString());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlightRequests.decrementAndGet();
+        }
+    }
+
+    /**
+     * Sends a response and closes the exchange.
+     *
+     * @param exchange   The HTTP exchange.
+     * @param statusCode The HTTP status code.
+     * @param body       The body.
+     * @throws IOException if writing the response fails
+     */
+    private static void send(final HttpExchange exchange, final int statusCode, final String body) throws IOException {
+        final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(statusCode, bytes.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(bytes);
+        }
+    }
+
+    /**
+     * Returns the engine-rest base URL of the stub server.
+     *
+     * @return The URL.
+     */
+    private String engineRestUrl() {
+        return "http://" + stubServer.getAddress().getHostString() + ":" + stubServer.getAddress().getPort()
+                + "/engine-rest";
+    }
+
+}
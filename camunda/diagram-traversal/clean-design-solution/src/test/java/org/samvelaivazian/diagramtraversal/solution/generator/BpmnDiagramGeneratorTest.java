@@ -0,0 +1,123 @@
+package org.samvelaivazian.diagramtraversal.solution.generator;
+
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.camunda.bpm.model.bpmn.instance.BoundaryEvent;
+import org.camunda.bpm.model.bpmn.instance.ExclusiveGateway;
+import org.camunda.bpm.model.bpmn.instance.SubProcess;
+import org.junit.jupiter.api.Test;
+import org.samvelaivazian.diagramtraversal.solution.graph.FlowNodeWeigher;
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraph;
+import org.samvelaivazian.diagramtraversal.solution.parsers.BpmnParser;
+import org.samvelaivazian.diagramtraversal.solution.parsers.StreamingBpmnGraphExtractor;
+import org.samvelaivazian.diagramtraversal.solution.traversal.SearchTree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the BpmnDiagramGenerator and DiagramSpec classes.
+ */
+final class BpmnDiagramGeneratorTest {
+
+    /**
+     * The generator to be tested.
+     */
+    private final BpmnDiagramGenerator generator = new BpmnDiagramGenerator();
+
+    /**
+     * Tests that a generated diagram is valid for the Camunda model API and that the streaming extractor reads
+     * the same graph from it.
+     * This ensures that benchmarks of both parse modes work on identical graphs.
+     */
+    @Test
+    void testGenerate_ParsesInBothModes() {
+        final String bpmnXml = generator.generate(new DiagramSpec(500, 0.3, 0.1, 42));
+
+        final RouteGraph compiledGraph = RouteGraph.compile(new BpmnParser().getBpmnModelFromXml(bpmnXml),
+                FlowNodeWeigher.extensionProperty(BpmnDiagramGenerator.DURATION_PROPERTY_NAME, 1.0));
+        final RouteGraph extractedGraph = new StreamingBpmnGraphExtractor(
+                BpmnDiagramGenerator.DURATION_PROPERTY_NAME, 1.0).extractRouteGraph(bpmnXml);
+
+        assertEquals(500, compiledGraph.nodeCount());
+        assertEquals(compiledGraph.nodeCount(), extractedGraph.nodeCount());
+        assertEquals(compiledGraph.edgeCount(), extractedGraph.edgeCount());
+        assertTrue(compiledGraph.edgeCount() > 499, "Expected branches or loops on top of the chain");
+        for (int node = 0; node < compiledGraph.nodeCount(); node++) {
+            final int extractedNode = extractedGraph.indexOf(compiledGraph.nodeId(node));
+
+            assertEquals(compiledGraph.nodeWeight(node), extractedGraph.nodeWeight(extractedNode));
+        }
+    }
+
+    /**
+     * Tests that nested sub-processes, boundary events and gateway fan-out are valid for the Camunda model API and
+     * that the streaming extractor reads the same graph from them.
+     * This ensures that scale tests on hierarchical diagrams compare both parse modes on identical graphs.
+     */
+    @Test
+    void testGenerate_HierarchicalParsesInBothModes() {
+        final DiagramSpec spec = new DiagramSpec(300, 2, 0.3, 3, 0.1, 0.3, 6, 2, 0.2, 5);
+        final String bpmnXml = generator.generate(spec);
+
+        final BpmnModelInstance bpmnModelInstance = new BpmnParser().getBpmnModelFromXml(bpmnXml);
+        final RouteGraph compiledGraph = RouteGraph.compile(bpmnModelInstance);
+        final RouteGraph extractedGraph = new StreamingBpmnGraphExtractor(null, 1.0).extractRouteGraph(bpmnXml);
+
+        assertFalse(bpmnModelInstance.getModelElementsByType(SubProcess.class).isEmpty());
+        assertFalse(bpmnModelInstance.getModelElementsByType(BoundaryEvent.class).isEmpty());
+        assertTrue(bpmnModelInstance.getModelElementsByType(SubProcess.class).stream()
+                .anyMatch(subProcess -> subProcess.getParentElement() instanceof SubProcess), "Expected nesting");
+        assertTrue(bpmnModelInstance.getModelElementsByType(ExclusiveGateway.class).stream()
+                .anyMatch(gateway -> gateway.getOutgoing().size() >= 4), "Expected a gateway with fan-out 3");
+        assertEquals(compiledGraph.nodeCount(), extractedGraph.nodeCount());
+        assertEquals(compiledGraph.edgeCount(), extractedGraph.edgeCount());
+    }
+
+    /**
+     * Tests that the end event is reachable from the start event.
+     * This ensures that route queries between the well-known IDs always succeed.
+     */
+    @Test
+    void testGenerate_EndReachableFromStart() {
+        final RouteGraph routeGraph = new StreamingBpmnGraphExtractor(null, 1.0)
+                .extractRouteGraph(generator.generate(new DiagramSpec(1_000, 0.2, 0.2, 7)));
+        final int startNode = routeGraph.indexOf(BpmnDiagramGenerator.START_EVENT_ID);
+        final int endNode = routeGraph.indexOf(BpmnDiagramGenerator.END_EVENT_ID);
+
+        assertTrue(SearchTree.depthFirst(routeGraph, startNode, endNode).reaches(endNode));
+    }
+
+    /**
+     * Tests that equal specs generate identical diagrams and different seeds different ones.
+     * This ensures that benchmark inputs are reproducible.
+     */
+    @Test
+    void testGenerate_Deterministic() {
+        assertEquals(generator.generate(new DiagramSpec(200, 0.3, 0.1, 1)),
+                generator.generate(new DiagramSpec(200, 0.3, 0.1, 1)));
+        assertNotEquals(generator.generate(new DiagramSpec(200, 0.3, 0.1, 1)),
+                generator.generate(new DiagramSpec(200, 0.3, 0.1, 2)));
+    }
+
+    /**
+     * Tests that specs are parsed from their textual form and validated.
+     * This ensures that malformed benchmark parameters fail fast.
+     */
+    @Test
+    void testDiagramSpec_ParseAndValidate() {
+        assertEquals(new DiagramSpec(1000, 0.2, 0.05, 3), DiagramSpec.parse("1000/0.2/0.05", 3));
+        assertThrows(IllegalArgumentException.class, () -> DiagramSpec.parse("1000/0.2", 3));
+        assertThrows(IllegalArgumentException.class, () -> DiagramSpec.parse("many/0.2/0.05", 3));
+        assertThrows(IllegalArgumentException.class, () -> new DiagramSpec(1, 0.2, 0.05, 3));
+        assertThrows(IllegalArgumentException.class, () -> new DiagramSpec(10, 1.5, 0.05, 3));
+        assertEquals(new DiagramSpec(1000, 4, 0.2, 3, 0.05, 0.01, 20, 2, 0.1, 3),
+                DiagramSpec.parse("1000/0.2/0.05:chainLength=4:gatewayFanOut=3:subProcessDensity=0.01"
+                        + ":subProcessSize=20:nestingDepth=2:boundaryEventDensity=0.1", 3));
+        assertThrows(IllegalArgumentException.class, () -> DiagramSpec.parse("1000/0.2/0.05:fanOut=3", 3));
+        assertThrows(IllegalArgumentException.class, () -> DiagramSpec.parse("1000/0.2/0.05:gatewayFanOut=0", 3));
+    }
+
+}
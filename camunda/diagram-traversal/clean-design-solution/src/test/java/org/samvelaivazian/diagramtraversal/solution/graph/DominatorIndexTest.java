@@ -0,0 +1,161 @@
+package org.samvelaivazian.diagramtraversal.solution.graph;
+
+import org.junit.jupiter.api.Test;
+import org.samvelaivazian.diagramtraversal.solution.exceptions.BuildRouteException;
+import org.samvelaivazian.diagramtraversal.solution.generator.BpmnDiagramGenerator;
+import org.samvelaivazian.diagramtraversal.solution.generator.DiagramSpec;
+import org.samvelaivazian.diagramtraversal.solution.parsers.BpmnParser;
+import org.samvelaivazian.diagramtraversal.solution.parsers.StreamingBpmnGraphExtractor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.samvelaivazian.diagramtraversal.solution.constants.FileConstants.PATH_TO_INVOICE_XML;
+import static org.samvelaivazian.diagramtraversal.solution.graph.TestGraphs.graphOf;
+
+/**
+ * Unit tests for the DominatorIndex and DominatorTree classes.
+ */
+final class DominatorIndexTest {
+
+    /**
+     * Tests that the must-pass nodes of every pair of the invoice diagram, a generated diagram and a cyclic graph are
+     * exactly the nodes without which the end node is no longer reachable from the start node.
+     * This ensures that the trees answer the queries otherwise answered by repeated searches with excluded nodes.
+     *
+     * @throws IOException if reading the BPMN XML file fails
+     */
+    @Test
+    void testCheckpoints_MatchSearchesWithExcludedNodes() throws IOException {
+        final DominatorIndex invoiceIndex = DominatorIndex.build(
+                new BpmnParser().getBpmnModelFromXml(Files.readString(PATH_TO_INVOICE_XML)));
+        final DominatorIndex generatedIndex = DominatorIndex.build(new StreamingBpmnGraphExtractor(null, 1.0)
+                .extractRouteGraph(new BpmnDiagramGenerator().generate(new DiagramSpec(60, 0.3, 0.2, 5))));
+        final DominatorIndex cyclicIndex = DominatorIndex.build(
+                graphOf("s>a", "a>b", "b>a", "b>c", "a>c", "c>d", "d>b", "d>e", "x>y"));
+
+        for (final DominatorIndex index : List.of(invoiceIndex, generatedIndex, cyclicIndex)) {
+            assertCheckpointsMatchSearch(index);
+        }
+        assertEquals(List.of("s", "a", "c", "d", "e"), cyclicIndex.checkpoints("s", "e"));
+        assertEquals(4, cyclicIndex.getTreeCount());
+    }
+
+    /**
+     * Tests the nearest common dominator and post-dominator of the two branches of a diamond, and the dominance
+     * checks and depths of its trees.
+     * This ensures that the gateways where branches split and join are found without a search.
+     */
+    @Test
+    void testNearestCommonDominator_FindsSplitAndJoin() {
+        final DominatorIndex index = DominatorIndex.build(graphOf("s>a", "a>b", "a>c", "b>d", "c>d", "d>e"));
+        final RouteGraph routeGraph = index.getRouteGraph();
+        final DominatorTree dominatorTree = index.getDominatorTree(routeGraph.indexOf("s"));
+        final DominatorTree postDominatorTree = index.getPostDominatorTree(routeGraph.indexOf("e"));
+
+        assertEquals("a", index.nearestCommonDominator("s", "b", "c"));
+        assertEquals("d", index.nearestCommonPostDominator("e", "b", "c"));
+        assertEquals("b", index.nearestCommonDominator("a", "b", "b"));
+        assertNull(index.nearestCommonDominator("b", "c", "d"));
+        assertEquals(List.of("s", "a", "d", "e"), index.checkpoints("s", "e"));
+        assertEquals(List.of("b", "d", "e"), index.checkpoints("b", "e"));
+
+        assertTrue(dominatorTree.dominates(routeGraph.indexOf("a"), routeGraph.indexOf("d")));
+        assertFalse(dominatorTree.dominates(routeGraph.indexOf("b"), routeGraph.indexOf("d")));
+        assertEquals(routeGraph.indexOf("a"), dominatorTree.immediateDominator(routeGraph.indexOf("d")));
+        assertEquals(DominatorTree.NO_DOMINATOR, dominatorTree.immediateDominator(routeGraph.indexOf("s")));
+        assertEquals(2, dominatorTree.depth(routeGraph.indexOf("d")));
+        assertTrue(postDominatorTree.dominates(routeGraph.indexOf("d"), routeGraph.indexOf("a")));
+        assertEquals(2, postDominatorTree.depth(routeGraph.indexOf("a")));
+    }
+
+    /**
+     * Tests that unknown node IDs and unreachable end nodes are rejected like in Solution.
+     */
+    @Test
+    void testCheckpoints_UnknownOrUnreachableNode() {
+        final DominatorIndex index = DominatorIndex.build(graphOf("a>b", "c>d"));
+
+        assertThrows(BuildRouteException.class, () -> index.checkpoints("a", "unknownNode"));
+        assertThrows(BuildRouteException.class, () -> index.checkpoints("a", "d"));
+        assertThrows(BuildRouteException.class, () -> index.checkpoints("b", "a"));
+        assertThrows(BuildRouteException.class, () -> index.nearestCommonDominator("a", "b", "unknownNode"));
+    }
+
+    /**
+     * Asserts that the must-pass nodes of every reachable pair are the nodes whose exclusion disconnects the pair.
+     *
+     * @param index The dominator index.
+     */
+    private static void assertCheckpointsMatchSearch(final DominatorIndex index) {
+        final RouteGraph routeGraph = index.getRouteGraph();
+        final int nodeCount = routeGraph.nodeCount();
+
+        for (int start = 0; start < nodeCount; start++) {
+            final boolean[] reachable = reachableAvoiding(routeGraph, start, -1);
+            final List<boolean[]> reachableAvoidingNode = new ArrayList<>(nodeCount);
+            for (int excluded = 0; excluded < nodeCount; excluded++) {
+                reachableAvoidingNode.add(reachableAvoiding(routeGraph, start, excluded));
+            }
+
+            for (int end = 0; end < nodeCount; end++) {
+                final String startNodeId = routeGraph.nodeId(start);
+                final String endNodeId = routeGraph.nodeId(end);
+                if (!reachable[end]) {
+                    assertThrows(BuildRouteException.class, () -> index.checkpoints(startNodeId, endNodeId));
+                    continue;
+                }
+
+                final List<String> checkpoints = index.checkpoints(startNodeId, endNodeId);
+                for (int node = 0; node < nodeCount; node++) {
+                    final boolean mustPass = node == start || node == end || !reachableAvoidingNode.get(node)[end];
+                    assertEquals(mustPass, checkpoints.contains(routeGraph.nodeId(node)),
+                            startNodeId + " -> " + endNodeId + " via " + routeGraph.nodeId(node));
+                }
+                assertEquals(startNodeId, checkpoints.getFirst());
+                assertEquals(endNodeId, checkpoints.getLast());
+            }
+        }
+    }
+
+    /**
+     * Finds the nodes reachable from a start node without passing through an excluded node.
+     *
+     * @param routeGraph The route graph.
+     * @param start      The node index of the start node.
+     * @param excluded   The node index of the excluded node, or -1 to exclude none.
+     * @return Whether every node is reachable.
+     */
+    private static boolean[] reachableAvoiding(final RouteGraph routeGraph, final int start, final int excluded) {
+        final boolean[] reachable = new boolean[routeGraph.nodeCount()];
+        final Queue<Integer> queue = new ArrayDeque<>();
+        reachable[start] = true;
+        queue.add(start);
+
+        while (!queue.isEmpty()) {
+            final int node = queue.remove();
+            if (node == excluded) {
+                continue;
+            }
+            for (int edge = routeGraph.edgesStart(node); edge < routeGraph.edgesEnd(node); edge++) {
+                final int target = routeGraph.edgeTarget(edge);
+                if (!reachable[target]) {
+                    reachable[target] = true;
+                    queue.add(target);
+                }
+            }
+        }
+
+        return reachable;
+    }
+
+}
@@ -0,0 +1,65 @@
+package org.samvelaivazian.diagramtraversal.solution.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.samvelaivazian.diagramtraversal.solution.graph.TestGraphs.graphOf;
+
+/**
+ * Unit tests for the GraphDiff class.
+ */
+final class GraphDiffTest {
+
+    /**
+     * Tests that added, removed and rewired nodes and edges are reported, independent of the node order.
+     * This ensures that only the elements that really differ are considered changed.
+     */
+    @Test
+    void testBetween_ReportsStructuralChanges() {
+        final RouteGraph oldGraph = graphOf("a>b", "b>c", "c>d", "x>y");
+        final RouteGraph newGraph = graphOf("x>y", "a>b", "b>d", "c>d", "d>e");
+
+        final GraphDiff diff = GraphDiff.between(oldGraph, newGraph);
+
+        assertEquals(Set.of("e"), diff.addedNodeIds());
+        assertEquals(Set.of(), diff.removedNodeIds());
+        assertEquals(Set.of("b", "d"), diff.changedNodeIds());
+        assertEquals(Set.of(new GraphDiff.Edge("b", "d"), new GraphDiff.Edge("d", "e")), diff.addedEdges());
+        assertEquals(Set.of(new GraphDiff.Edge("b", "c")), diff.removedEdges());
+        assertTrue(diff.touches(List.of("a", "b", "c")));
+        assertFalse(diff.touches(List.of("x", "y")));
+        assertTrue(GraphDiff.between(oldGraph, graphOf("a>b", "b>c", "c>d", "x>y")).isEmpty());
+
+        final GraphDiff removal = GraphDiff.between(oldGraph, graphOf("a>b", "b>c", "c>d"));
+        assertEquals(Set.of("x", "y"), removal.removedNodeIds());
+        assertEquals(Set.of(new GraphDiff.Edge("x", "y")), removal.removedEdges());
+    }
+
+    /**
+     * Tests that a node with the same edges but a different weight or gateway kind is changed.
+     * This ensures that weighted and gateway-aware routes through it are not reused.
+     */
+    @Test
+    void testBetween_ReportsAttributeChanges() {
+        final RouteGraphBuilder builder = new RouteGraphBuilder();
+        builder.addEdge("a", "b");
+        builder.addEdge("b", "c");
+        builder.setNodeWeight(builder.indexOf("b"), 5.0);
+        builder.markParallelGateway(builder.indexOf("c"));
+
+        final GraphDiff diff = GraphDiff.between(graphOf("a>b", "b>c"), builder.build());
+
+        assertEquals(Set.of("b", "c"), diff.changedNodeIds());
+        assertTrue(diff.addedEdges().isEmpty());
+        assertTrue(diff.removedEdges().isEmpty());
+        assertTrue(diff.lighterNodeIds().isEmpty());
+        assertFalse(diff.mayCheapenRoutes());
+        assertEquals(Set.of("b"), GraphDiff.between(builder.build(), graphOf("a>b", "b>c")).lighterNodeIds());
+    }
+
+}
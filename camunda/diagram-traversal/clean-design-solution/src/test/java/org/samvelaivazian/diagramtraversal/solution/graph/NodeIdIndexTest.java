@@ -0,0 +1,80 @@
+package org.samvelaivazian.diagramtraversal.solution.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the NodeIdIndex class.
+ */
+final class NodeIdIndexTest {
+
+    /**
+     * Tests that every ID of a large set, including IDs with colliding hash codes, resolves to its node index, and
+     * that unknown IDs resolve to -1.
+     * This ensures that the open-addressing table finds every ID however its probe sequences overlap.
+     */
+    @Test
+    void testIndexOf_ResolvesEveryId() {
+        final Random random = new Random(11);
+        final String[] nodeIds = new String[5_000];
+        for (int node = 0; node < nodeIds.length - 2; node++) {
+            nodeIds[node] = "Task_" + Long.toString(random.nextLong() & Long.MAX_VALUE, 36) + "_" + node;
+        }
+        // "Aa" and "BB" have the same hash code
+        nodeIds[nodeIds.length - 2] = "Aa";
+        nodeIds[nodeIds.length - 1] = "BB";
+        final NodeIdIndex index = NodeIdIndex.build(nodeIds);
+
+        for (int node = 0; node < nodeIds.length; node++) {
+            assertEquals(node, index.indexOf(new String(nodeIds[node])), nodeIds[node]);
+        }
+        assertEquals(-1, index.indexOf("C#"));
+        assertEquals(-1, index.indexOf("Task_"));
+        assertEquals(-1, NodeIdIndex.build(new String[0]).indexOf("any"));
+    }
+
+    /**
+     * Tests that prefix queries return the matching IDs in lexicographic order, up to the limit.
+     * This ensures that autocompletion suggests exactly the IDs a user can still complete.
+     */
+    @Test
+    void testWithPrefix_ReturnsSortedMatches() {
+        final String[] nodeIds = {"reviewInvoice", "approveInvoice", "reviewSuccessful_gw", "review", "invoiceProcessed",
+                "prepareBankTransfer", "StartEvent_1"};
+        final NodeIdIndex index = NodeIdIndex.build(nodeIds);
+
+        assertEquals(List.of("review", "reviewInvoice", "reviewSuccessful_gw"), index.withPrefix("review", 10));
+        assertEquals(List.of("review", "reviewInvoice"), index.withPrefix("review", 2));
+        assertEquals(List.of(), index.withPrefix("review", 0));
+        assertEquals(List.of("approveInvoice"), index.withPrefix("approveInvoice", 10));
+        assertEquals(List.of(), index.withPrefix("approveInvoiceX", 10));
+        assertEquals(List.of(), index.withPrefix("zzz", 10));
+
+        final List<String> sortedIds = Arrays.stream(nodeIds).sorted().toList();
+        assertEquals(sortedIds, index.withPrefix("", nodeIds.length));
+
+        assertTrue(index.hasPrefix("prep"));
+        assertTrue(index.hasPrefix(""));
+        assertFalse(index.hasPrefix("prepay"));
+        assertFalse(index.hasPrefix("zzz"));
+        assertThrows(IllegalArgumentException.class, () -> index.withPrefix("", -1));
+    }
+
+    /**
+     * Tests that duplicate IDs are rejected.
+     * This ensures that an ID never silently resolves to one of several nodes.
+     */
+    @Test
+    void testBuild_RejectsDuplicateIds() {
+        assertThrows(IllegalArgumentException.class, () -> NodeIdIndex.build(new String[]{"a", "b", "a"}));
+    }
+
+}
@@ -0,0 +1,124 @@
+package org.samvelaivazian.diagramtraversal.solution.graph;
+
+import org.junit.jupiter.api.Test;
+import org.samvelaivazian.diagramtraversal.solution.exceptions.BuildRouteException;
+import org.samvelaivazian.diagramtraversal.solution.parsers.BpmnParser;
+import org.samvelaivazian.diagramtraversal.solution.traversal.SearchTree;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.samvelaivazian.diagramtraversal.solution.constants.FileConstants.PATH_TO_INVOICE_XML;
+import static org.samvelaivazian.diagramtraversal.solution.graph.TestGraphs.graphOf;
+
+/**
+ * Unit tests for the ReachabilityIndex class.
+ */
+final class ReachabilityIndexTest {
+
+    /**
+     * Tests that the index agrees with a full search from every node of the invoice diagram.
+     *
+     * @throws IOException if reading the BPMN XML file fails
+     */
+    @Test
+    void testIsReachable_MatchesSearch() throws IOException {
+        final String bpmnXml = Files.readString(PATH_TO_INVOICE_XML);
+        final ReachabilityIndex index = ReachabilityIndex.build(new BpmnParser().getBpmnModelFromXml(bpmnXml));
+
+        assertReachabilityMatchesSearch(index);
+        assertTrue(index.isReachable("approveInvoice", "invoiceProcessed"));
+        assertFalse(index.isReachable("invoiceProcessed", "approveInvoice"));
+        assertTrue(index.getMemoryFootprintBytes() > 0);
+    }
+
+    /**
+     * Tests that nodes on a cycle are condensed into one component and reach each other.
+     */
+    @Test
+    void testBuild_CondensesCycles() {
+        final ReachabilityIndex index = ReachabilityIndex.build(graphOf("a>b", "b>c", "c>a", "c>d"));
+
+        assertEquals(2, index.getComponentCount());
+        assertTrue(index.isReachable("c", "b"));
+        assertTrue(index.isReachable("a", "d"));
+        assertFalse(index.isReachable("d", "a"));
+        assertReachabilityMatchesSearch(index);
+    }
+
+    /**
+     * Tests that unknown node IDs are rejected like in Solution.
+     */
+    @Test
+    void testIsReachable_UnknownNode() {
+        final ReachabilityIndex index = ReachabilityIndex.build(graphOf("a>b"));
+
+        assertThrows(BuildRouteException.class, () -> index.isReachable("a", "unknownNode"));
+    }
+
+    /**
+     * Tests that rebuilding after a local change reuses the rows below the change and recomputes the rest.
+     * This ensures that the rebuilt index is identical to one built from scratch.
+     */
+    @Test
+    void testRebuild_ReusesUnchangedRows() {
+        final ReachabilityIndex previousIndex = ReachabilityIndex.build(graphOf("a>b", "b>c", "c>d", "x>y"));
+        final RouteGraph changedGraph = graphOf("a>b", "b>d", "c>d", "x>y", "d>e");
+
+        final ReachabilityIndex rebuiltIndex = ReachabilityIndex.rebuild(previousIndex, changedGraph);
+
+        // Only x and y lie outside the changed region above d
+        assertEquals(2, rebuiltIndex.getReusedRowCount());
+        assertFalse(rebuiltIndex.isReachable("a", "c"));
+        assertTrue(rebuiltIndex.isReachable("a", "e"));
+        assertReachabilityMatchesSearch(rebuiltIndex);
+    }
+
+    /**
+     * Tests that the slots of removed nodes are reused across versions until they outnumber half the live nodes,
+     * and that the index is then rebuilt with dense slots.
+     * This ensures that the rows do not grow without bound when node IDs change on every redeploy.
+     */
+    @Test
+    void testRebuild_CompactsDeadSlots() {
+        ReachabilityIndex index = ReachabilityIndex.build(graphOf("a>b", "b>c", "c>d", "x>y"));
+        assertEquals(6, index.getSlotCount());
+
+        // Every version replaces the node between x and z, so one more slot is dead each time
+        for (int version = 0; version < 20; version++) {
+            final RouteGraph routeGraph = graphOf("a>b", "b>c", "c>d", "x>v" + version, "v" + version + ">z");
+            index = ReachabilityIndex.rebuild(index, routeGraph);
+
+            assertTrue(index.getSlotCount() <= routeGraph.nodeCount() * 3 / 2, "slots of version " + version);
+            assertReachabilityMatchesSearch(index);
+        }
+
+        final ReachabilityIndex reusingIndex = ReachabilityIndex.rebuild(index,
+                graphOf("a>b", "b>c", "c>d", "x>v19", "v19>z", "z>w"));
+        assertEquals(index.getSlotCount() + 1, reusingIndex.getSlotCount());
+        assertTrue(reusingIndex.getReusedRowCount() > 0);
+    }
+
+    /**
+     * Asserts that the index agrees with a full search from every node.
+     *
+     * @param index The reachability index.
+     */
+    private static void assertReachabilityMatchesSearch(final ReachabilityIndex index) {
+        final RouteGraph routeGraph = index.getRouteGraph();
+
+        for (int start = 0; start < routeGraph.nodeCount(); start++) {
+            final SearchTree searchTree = SearchTree.depthFirst(routeGraph, start, SearchTree.NO_STOP_NODE);
+
+            for (int end = 0; end < routeGraph.nodeCount(); end++) {
+                assertEquals(searchTree.reaches(end), index.isReachable(start, end),
+                        routeGraph.nodeId(start) + " -> " + routeGraph.nodeId(end));
+            }
+        }
+    }
+
+}
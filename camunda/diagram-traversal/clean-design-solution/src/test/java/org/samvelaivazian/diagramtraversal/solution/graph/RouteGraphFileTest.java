@@ -0,0 +1,201 @@
+package org.samvelaivazian.diagramtraversal.solution.graph;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.samvelaivazian.diagramtraversal.solution.generator.BpmnDiagramGenerator;
+import org.samvelaivazian.diagramtraversal.solution.generator.DiagramSpec;
+import org.samvelaivazian.diagramtraversal.solution.parsers.BpmnParser;
+import org.samvelaivazian.diagramtraversal.solution.parsers.StreamingBpmnGraphExtractor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.samvelaivazian.diagramtraversal.solution.constants.FileConstants.PATH_TO_INVOICE_XML;
+
+/**
+ * Unit tests for the RouteGraphFile class.
+ */
+final class RouteGraphFileTest {
+
+    /**
+     * Tests that a written graph is loaded back with the same nodes, edges, weights, gateways and hierarchy, for the
+     * invoice diagram and a generated diagram with nested sub-processes, boundary events and weights.
+     * This ensures that a restarted process answers the same routes from the file as from the fetched XML.
+     */
+    @Test
+    void testWriteAndRead_RoundTrip(@TempDir final Path directory) throws IOException {
+        final RouteGraph invoiceGraph = RouteGraph.compile(
+                new BpmnParser().getBpmnModelFromXml(Files.readString(PATH_TO_INVOICE_XML)));
+        final RouteGraph generatedGraph = new StreamingBpmnGraphExtractor(BpmnDiagramGenerator.DURATION_PROPERTY_NAME,
+                FlowNodeWeigher.DEFAULT_WEIGHT).extractRouteGraph(new BpmnDiagramGenerator().generate(
+                new DiagramSpec(500, 2, 0.3, 3, 0.1, 0.3, 6, 2, 0.2, 7)));
+
+        final RouteGraphBuilder builder = new RouteGraphBuilder();
+        builder.addEdge("fork", "left");
+        builder.addEdge("fork", "right");
+        builder.markParallelGateway(builder.indexOf("fork"));
+        builder.setCalledElement(builder.indexOf("right"), "child-process");
+        final RouteGraph gatewayGraph = builder.build();
+
+        for (final RouteGraph routeGraph : new RouteGraph[]{invoiceGraph, generatedGraph, gatewayGraph}) {
+            final Path file = directory.resolve("graph.bin");
+            RouteGraphFile.write(routeGraph, "\"etag-1\"", file);
+
+            assertEquals("\"etag-1\"", RouteGraphFile.readSourceVersion(file));
+            assertSameGraph(routeGraph, RouteGraphFile.read(file));
+        }
+
+        RouteGraphFile.write(gatewayGraph, null, directory.resolve("unversioned.bin"));
+        assertNull(RouteGraphFile.readSourceVersion(directory.resolve("unversioned.bin")));
+    }
+
+    /**
+     * Tests that corrupt, truncated and foreign files are rejected.
+     * This ensures that a damaged file is never served as a graph.
+     */
+    @Test
+    void testRead_RejectsCorruptFiles(@TempDir final Path directory) throws IOException {
+        final Path file = directory.resolve("graph.bin");
+        RouteGraphFile.write(RouteGraph.compile(
+                new BpmnParser().getBpmnModelFromXml(Files.readString(PATH_TO_INVOICE_XML))), "v1", file);
+        final byte[] bytes = Files.readAllBytes(file);
+
+        final byte[] flipped = bytes.clone();
+        flipped[flipped.length / 2] ^= 0x01;
+        Files.write(file, flipped);
+        assertThrows(IOException.class, () -> RouteGraphFile.read(file));
+
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 8));
+        assertThrows(IOException.class, () -> RouteGraphFile.read(file));
+
+        Files.writeString(file, "<bpmn:definitions/>");
+        assertThrows(IOException.class, () -> RouteGraphFile.read(file));
+        assertThrows(IOException.class, () -> RouteGraphFile.readSourceVersion(file));
+
+        // A header cut off within the source version, and a source version length out of range
+        Files.write(file, Arrays.copyOf(bytes, 16 + Integer.BYTES + 1));
+        assertThrows(IOException.class, () -> RouteGraphFile.readSourceVersion(file));
+        final byte[] negativeLength = bytes.clone();
+        negativeLength[16] = (byte) 0x80;
+        Files.write(file, negativeLength);
+        assertThrows(IOException.class, () -> RouteGraphFile.readSourceVersion(file));
+    }
+
+    /**
+     * Tests that a failed write leaves neither a temporary file nor a changed target behind.
+     * This ensures that a full disk or an unwritable target does not litter the graph directory.
+     */
+    @Test
+    void testWrite_FailureRemovesTemporaryFile(@TempDir final Path directory) throws IOException {
+        final RouteGraphBuilder builder = new RouteGraphBuilder();
+        builder.addEdge("a", "b");
+        final Path target = Files.createDirectory(directory.resolve("graph.bin"));
+        Files.writeString(target.resolve("occupied"), "");
+
+        assertThrows(IOException.class, () -> RouteGraphFile.write(builder.build(), "v1", target));
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of(target), files.toList());
+        }
+        assertTrue(Files.isDirectory(target));
+    }
+
+    /**
+     * Tests that concurrent writers of the same file each write their own temporary file, so the file always holds
+     * one complete version and no temporary file is left behind.
+     * This ensures that two route servers sharing a graph directory cannot corrupt each other's files.
+     */
+    @Test
+    void testWrite_ConcurrentWritersOfOneFile(@TempDir final Path directory) throws Exception {
+        final RouteGraph routeGraph = RouteGraph.compile(
+                new BpmnParser().getBpmnModelFromXml(Files.readString(PATH_TO_INVOICE_XML)));
+        final Path file = directory.resolve("graph.bin");
+        final int writerCount = 8;
+        final List<Callable<Void>> writers = new ArrayList<>();
+        for (int i = 0; i < writerCount; i++) {
+            final String sourceVersion = "v" + i;
+            writers.add(() -> {
+                for (int round = 0; round < 10; round++) {
+                    RouteGraphFile.write(routeGraph, sourceVersion, file);
+                }
+                return null;
+            });
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(writerCount);
+        try {
+            for (final Future<Void> writer : executor.invokeAll(writers)) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertTrue(RouteGraphFile.readSourceVersion(file).startsWith("v"));
+        assertSameGraph(routeGraph, RouteGraphFile.read(file));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of(file), files.toList());
+        }
+    }
+
+    /**
+     * Asserts that two graphs are identical, index by index.
+     *
+     * @param expected The written graph.
+     * @param actual   The loaded graph.
+     */
+    private static void assertSameGraph(final RouteGraph expected, final RouteGraph actual) {
+        assertEquals(expected.nodeCount(), actual.nodeCount());
+        assertEquals(expected.edgeCount(), actual.edgeCount());
+        assertEquals(expected.hierarchy().processCompletes(), actual.hierarchy().processCompletes());
+
+        for (int node = 0; node < expected.nodeCount(); node++) {
+            final String nodeId = expected.nodeId(node);
+            final ProcessHierarchy expectedHierarchy = expected.hierarchy();
+            final ProcessHierarchy actualHierarchy = actual.hierarchy();
+
+            assertEquals(nodeId, actual.nodeId(node));
+            assertEquals(node, actual.indexOf(nodeId));
+            assertEquals(expected.nodeWeight(node), actual.nodeWeight(node), nodeId);
+            assertEquals(expected.isParallelGateway(node), actual.isParallelGateway(node), nodeId);
+            assertEquals(expected.edgesStart(node), actual.edgesStart(node), nodeId);
+            assertEquals(expected.edgesEnd(node), actual.edgesEnd(node), nodeId);
+            assertEquals(expected.incomingStart(node), actual.incomingStart(node), nodeId);
+            assertEquals(expected.incomingEnd(node), actual.incomingEnd(node), nodeId);
+            assertEquals(expectedHierarchy.scopeOf(node), actualHierarchy.scopeOf(node), nodeId);
+            assertEquals(expectedHierarchy.completes(node), actualHierarchy.completes(node), nodeId);
+            assertEquals(expectedHierarchy.calledElement(node), actualHierarchy.calledElement(node), nodeId);
+            assertEquals(expectedHierarchy.entriesStart(node), actualHierarchy.entriesStart(node), nodeId);
+            assertEquals(expectedHierarchy.entriesEnd(node), actualHierarchy.entriesEnd(node), nodeId);
+            assertEquals(expectedHierarchy.boundaryEventsStart(node), actualHierarchy.boundaryEventsStart(node),
+                    nodeId);
+            assertEquals(expectedHierarchy.boundaryEventsEnd(node), actualHierarchy.boundaryEventsEnd(node), nodeId);
+        }
+        for (int edge = 0; edge < expected.edgeCount(); edge++) {
+            assertEquals(expected.edgeTarget(edge), actual.edgeTarget(edge));
+            assertEquals(expected.incomingSource(edge), actual.incomingSource(edge));
+        }
+        final int entryCount = expected.hierarchy().entriesEnd(expected.nodeCount() - 1);
+        for (int position = 0; position < entryCount; position++) {
+            assertEquals(expected.hierarchy().entry(position), actual.hierarchy().entry(position));
+        }
+        final int boundaryEventCount = expected.hierarchy().boundaryEventsEnd(expected.nodeCount() - 1);
+        for (int position = 0; position < boundaryEventCount; position++) {
+            assertEquals(expected.hierarchy().boundaryEvent(position), actual.hierarchy().boundaryEvent(position));
+        }
+    }
+
+}
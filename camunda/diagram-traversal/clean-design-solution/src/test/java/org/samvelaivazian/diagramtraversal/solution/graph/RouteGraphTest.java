@@ -0,0 +1,234 @@
+package org.samvelaivazian.diagramtraversal.solution.graph;
+
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.camunda.bpm.model.bpmn.instance.FlowNode;
+import org.camunda.bpm.model.bpmn.instance.SequenceFlow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.samvelaivazian.diagramtraversal.solution.parsers.BpmnParser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.samvelaivazian.diagramtraversal.solution.constants.FileConstants.PATH_TO_INVOICE_XML;
+
+/**
+ * Unit tests for the RouteGraph and RouteGraphBuilder classes.
+ */
+final class RouteGraphTest {
+
+    /**
+     * The route graph compiled from the invoice diagram.
+     */
+    private RouteGraph routeGraph;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        final String bpmnXml = Files.readString(PATH_TO_INVOICE_XML);
+
+        routeGraph = RouteGraph.compile(new BpmnParser().getBpmnModelFromXml(bpmnXml));
+    }
+
+    /**
+     * Tests that compile interns every flow node and every sequence flow of the invoice diagram.
+     * This ensures that the compiled graph has exactly one node per flow node and one edge per sequence flow.
+     */
+    @Test
+    void testCompile_InvoiceDiagram() {
+        assertEquals(10, routeGraph.nodeCount());
+        assertEquals(10, routeGraph.edgeCount());
+    }
+
+    /**
+     * Tests that the outgoing edges of a node keep the order of FlowNode.getOutgoing().
+     * This ensures that searches over the compiled graph find the same routes as searches over the model.
+     */
+    @Test
+    void testCompile_KeepsOutgoingOrder() {
+        assertEquals(List.of("reviewInvoice", "prepareBankTransfer"), targetsOf(routeGraph, "invoice_approved"));
+        assertEquals(List.of(), targetsOf(routeGraph, "invoiceProcessed"));
+    }
+
+    /**
+     * Tests that indexOf returns -1 for an ID that is not a flow node.
+     * This ensures that callers can reject unknown IDs without a model lookup.
+     */
+    @Test
+    void testIndexOf_UnknownNode() {
+        assertEquals(-1, routeGraph.indexOf("unknownNode"));
+        assertEquals(-1, routeGraph.indexOf("sequenceFlow_180"));
+    }
+
+    /**
+     * Tests that the builder groups edges by source node while keeping their insertion order.
+     * This ensures that the CSR arrays are built correctly for edges added in arbitrary order.
+     */
+    @Test
+    void testBuild_GroupsEdgesBySource() {
+        final RouteGraphBuilder builder = new RouteGraphBuilder();
+        builder.addEdge("a", "c");
+        builder.addEdge("b", "a");
+        builder.addEdge("a", "b");
+        builder.addNode("d");
+
+        final RouteGraph graph = builder.build();
+
+        assertEquals(4, graph.nodeCount());
+        assertEquals(3, graph.edgeCount());
+        assertEquals(List.of("c", "b"), targetsOf(graph, "a"));
+        assertEquals(List.of("a"), targetsOf(graph, "b"));
+        assertEquals(List.of(), targetsOf(graph, "d"));
+        assertEquals(List.of("b"), sourcesOf(graph, "a"));
+        assertEquals(List.of("a"), sourcesOf(graph, "b"));
+        assertEquals(List.of("a"), sourcesOf(graph, "c"));
+        assertEquals(List.of(), sourcesOf(graph, "d"));
+    }
+
+    /**
+     * Tests that the incoming edges of every node of the invoice diagram match FlowNode.getIncoming().
+     * This ensures that backward searches see the same graph as the model.
+     *
+     * @throws IOException if reading the BPMN XML file fails
+     */
+    @Test
+    void testCompile_IncomingMatchesModel() throws IOException {
+        final BpmnModelInstance bpmnModelInstance =
+                new BpmnParser().getBpmnModelFromXml(Files.readString(PATH_TO_INVOICE_XML));
+
+        for (final FlowNode flowNode : bpmnModelInstance.getModelElementsByType(FlowNode.class)) {
+            final List<String> expectedSources = new ArrayList<>();
+            for (final SequenceFlow incoming : flowNode.getIncoming()) {
+                expectedSources.add(incoming.getSource().getId());
+            }
+
+            final List<String> sources = sourcesOf(routeGraph, flowNode.getId());
+            Collections.sort(expectedSources);
+            Collections.sort(sources);
+            assertEquals(expectedSources, sources, flowNode.getId());
+        }
+    }
+
+    /**
+     * Tests that the extension property weigher reads numeric camunda:property values.
+     * This ensures that nodes without a usable property, including negative, infinite and NaN values, fall back to
+     * the default weight.
+     */
+    @Test
+    void testCompile_ExtensionPropertyWeights() {
+        final String bpmnXml = """
+                <definitions xmlns="http://www.omg.org/spec/BPMN/20100524/MODEL"
+                             xmlns:camunda="http://camunda.org/schema/1.0/bpmn"
+                             targetNamespace="http://example.org">
+                  <process id="weighted" isExecutable="true">
+                    <startEvent id="start"/>
+                    <sequenceFlow id="flow1" sourceRef="start" targetRef="task"/>
+                    <userTask id="task">
+                      <extensionElements>
+                        <camunda:properties>
+                          <camunda:property name="expectedDuration" value="30"/>
+                        </camunda:properties>
+                      </extensionElements>
+                    </userTask>
+                    <sequenceFlow id="flow2" sourceRef="task" targetRef="check"/>
+                    <serviceTask id="check">
+                      <extensionElements>
+                        <camunda:properties>
+                          <camunda:property name="expectedDuration" value="soon"/>
+                        </camunda:properties>
+                      </extensionElements>
+                    </serviceTask>
+                    <sequenceFlow id="flow3" sourceRef="check" targetRef="negative"/>
+                    <task id="negative">
+                      <extensionElements>
+                        <camunda:properties>
+                          <camunda:property name="expectedDuration" value="-1"/>
+                        </camunda:properties>
+                      </extensionElements>
+                    </task>
+                    <sequenceFlow id="flow4" sourceRef="negative" targetRef="notANumber"/>
+                    <task id="notANumber">
+                      <extensionElements>
+                        <camunda:properties>
+                          <camunda:property name="expectedDuration" value="NaN"/>
+                        </camunda:properties>
+                      </extensionElements>
+                    </task>
+                    <sequenceFlow id="flow5" sourceRef="notANumber" targetRef="infinite"/>
+                    <task id="infinite">
+                      <extensionElements>
+                        <camunda:properties>
+                          <camunda:property name="expectedDuration" value="Infinity"/>
+                        </camunda:properties>
+                      </extensionElements>
+                    </task>
+                    <sequenceFlow id="flow6" sourceRef="infinite" targetRef="end"/>
+                    <endEvent id="end"/>
+                  </process>
+                </definitions>
+                """;
+
+        final RouteGraph graph = RouteGraph.compile(new BpmnParser().getBpmnModelFromXml(bpmnXml),
+                FlowNodeWeigher.extensionProperty("expectedDuration", 2.0));
+
+        assertEquals(30.0, graph.nodeWeight(graph.indexOf("task")));
+        assertEquals(2.0, graph.nodeWeight(graph.indexOf("check")));
+        assertEquals(2.0, graph.nodeWeight(graph.indexOf("negative")));
+        assertEquals(2.0, graph.nodeWeight(graph.indexOf("notANumber")));
+        assertEquals(2.0, graph.nodeWeight(graph.indexOf("infinite")));
+        assertEquals(2.0, graph.nodeWeight(graph.indexOf("end")));
+        assertEquals(FlowNodeWeigher.DEFAULT_WEIGHT, routeGraph.nodeWeight(routeGraph.indexOf("approveInvoice")));
+    }
+
+    /**
+     * Tests that the builder rejects negative weights.
+     */
+    @Test
+    void testSetNodeWeight_Negative() {
+        final RouteGraphBuilder builder = new RouteGraphBuilder();
+        final int node = builder.addNode("a");
+
+        assertThrows(IllegalArgumentException.class, () -> builder.setNodeWeight(node, -1));
+    }
+
+    /**
+     * Collects the IDs of the sources of all incoming edges of a node.
+     *
+     * @param graph  The route graph.
+     * @param nodeId The flow node ID.
+     * @return The source IDs in edge order.
+     */
+    private static List<String> sourcesOf(final RouteGraph graph, final String nodeId) {
+        final int node = graph.indexOf(nodeId);
+        final List<String> sources = new ArrayList<>();
+
+        for (int edge = graph.incomingStart(node); edge < graph.incomingEnd(node); edge++) {
+            sources.add(graph.nodeId(graph.incomingSource(edge)));
+        }
+
+        return sources;
+    }
+
+    /**
+     * Collects the IDs of the targets of all outgoing edges of a node.
+     *
+     * @param graph  The route graph.
+     * @param nodeId The flow node ID.
+     * @return The target IDs in edge order.
+     */
+    private static List<String> targetsOf(final RouteGraph graph, final String nodeId) {
+        final int node = graph.indexOf(nodeId);
+        final List<String> targets = new ArrayList<>();
+
+        for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+            targets.add(graph.nodeId(graph.edgeTarget(edge)));
+        }
+
+        return targets;
+    }
+
+}
@@ -0,0 +1,36 @@
+package org.samvelaivazian.diagramtraversal.solution.graph;
+
+/**
+ * Route graph fixtures shared by the unit tests.
+ */
+public final class TestGraphs {
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private TestGraphs() {
+    }
+
+    /**
+     * Builds a route graph from edges written as "source>target" or "source>target:weight",
+     * where the weight applies to the target node.
+     *
+     * @param edges The edges.
+     * @return The route graph.
+     */
+    public static RouteGraph graphOf(final String... edges) {
+        final RouteGraphBuilder builder = new RouteGraphBuilder();
+        for (final String edge : edges) {
+            final String[] nodeIds = edge.split(">");
+            final String[] target = nodeIds[1].split(":");
+            builder.addEdge(nodeIds[0], target[0]);
+
+            if (target.length > 1) {
+                builder.setNodeWeight(builder.addNode(target[0]), Double.parseDouble(target[1]));
+            }
+        }
+
+        return builder.build();
+    }
+
+}
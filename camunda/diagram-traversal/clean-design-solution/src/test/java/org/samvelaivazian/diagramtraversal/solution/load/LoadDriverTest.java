@@ -0,0 +1,56 @@
+package org.samvelaivazian.diagramtraversal.solution.load;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.samvelaivazian.diagramtraversal.solution.Solution;
+import org.samvelaivazian.diagramtraversal.solution.generator.BpmnDiagramGenerator;
+import org.samvelaivazian.diagramtraversal.solution.generator.DiagramSpec;
+import org.samvelaivazian.diagramtraversal.solution.parsers.BpmnParser;
+import org.samvelaivazian.diagramtraversal.solution.traversal.TraversalStrategy;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the LoadDriver class.
+ */
+final class LoadDriverTest {
+
+    /**
+     * Tests that a run against a generated diagram file answers every query and reports throughput and latencies.
+     * This ensures that the load driver covers the whole path from the file on disk to the route queries.
+     *
+     * @param directory A temporary directory for the diagram file.
+     * @throws IOException if writing or reading the diagram file fails.
+     */
+    @Test
+    void testRun_GeneratedDiagramFile(@TempDir final Path directory) throws IOException {
+        final Path diagramFile = directory.resolve("diagram.bpmn");
+        new BpmnDiagramGenerator().write(new DiagramSpec(2_000, 0.2, 0.05, 11), diagramFile);
+
+        final LoadReport report = new LoadDriver(new Solution(new BpmnParser()), 3)
+                .run(diagramFile, 1_000, TraversalStrategy.BREADTH_FIRST, 11);
+
+        assertEquals(2_000, report.nodeCount());
+        assertEquals(3, report.threadCount());
+        assertEquals(1_000, report.queryCount());
+        assertTrue(report.routedCount() > 0 && report.routedCount() < 1_000, "Expected routed and unroutable pairs");
+        assertTrue(report.compileNanos() > 0);
+        assertTrue(report.queriesPerSecond() > 0);
+        assertTrue(report.p50Nanos() <= report.p99Nanos());
+    }
+
+    /**
+     * Tests that the driver rejects a non-positive thread count.
+     * This ensures that misconfigured load runs fail fast instead of never issuing a query.
+     */
+    @Test
+    void testConstructor_NonPositiveThreadCount() {
+        assertThrows(IllegalArgumentException.class, () -> new LoadDriver(new Solution(new BpmnParser()), 0));
+    }
+
+}
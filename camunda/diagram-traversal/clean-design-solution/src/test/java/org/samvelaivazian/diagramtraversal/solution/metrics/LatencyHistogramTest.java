@@ -0,0 +1,80 @@
+package org.samvelaivazian.diagramtraversal.solution.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the LatencyHistogram class.
+ */
+final class LatencyHistogramTest {
+
+    /**
+     * Tests that an empty histogram reports zero for every statistic.
+     */
+    @Test
+    void testPercentile_Empty() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.percentileNanos(99));
+        assertEquals(0, histogram.meanNanos());
+    }
+
+    /**
+     * Tests that small values are recorded exactly.
+     */
+    @Test
+    void testPercentile_SmallValuesAreExact() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 1; value <= 10; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(5, histogram.percentileNanos(50));
+        assertEquals(10, histogram.percentileNanos(99));
+        assertEquals(5.5, histogram.meanNanos());
+    }
+
+    /**
+     * Tests that percentiles of large values stay within the relative bucket error.
+     * This ensures that p50 and p99 are accurate to within 1/16 of the recorded latency.
+     */
+    @Test
+    void testPercentile_LargeValuesWithinRelativeError() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 1_000; micros++) {
+            histogram.record(micros * 1_000);
+        }
+
+        assertWithinRelativeError(500_000, histogram.percentileNanos(50));
+        assertWithinRelativeError(990_000, histogram.percentileNanos(99));
+        assertWithinRelativeError(Long.MAX_VALUE, bucketBoundOf(Long.MAX_VALUE));
+    }
+
+    /**
+     * Records one value in a fresh histogram and returns its p100.
+     *
+     * @param value The value to record.
+     * @return The upper bound of the bucket the value falls into.
+     */
+    private static long bucketBoundOf(final long value) {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(value);
+
+        return histogram.percentileNanos(100);
+    }
+
+    /**
+     * Asserts that a reported value is not below the expected value and at most 1/16 above it.
+     *
+     * @param expected The expected value.
+     * @param actual   The reported value.
+     */
+    private static void assertWithinRelativeError(final long expected, final long actual) {
+        assertTrue(actual >= expected && actual - expected <= expected / 16,
+                "Expected about " + expected + " but was " + actual);
+    }
+
+}
@@ -0,0 +1,86 @@
+package org.samvelaivazian.diagramtraversal.solution.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.samvelaivazian.diagramtraversal.solution.Solution;
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraph;
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraphBuilder;
+import org.samvelaivazian.diagramtraversal.solution.parsers.BpmnParser;
+import org.samvelaivazian.diagramtraversal.solution.parsers.ParseMode;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for the SolutionMetrics, MetricsRecorder and CountingInputStream classes.
+ */
+final class SolutionMetricsTest {
+
+    /**
+     * Tests that every search of a Solution records its latency and the nodes and edges it visited, and that a
+     * composite recorder forwards every measurement to all recorders.
+     * This ensures that a slow query can be attributed to the traversal.
+     */
+    @Test
+    void testRecord_SearchesAndBytes() throws IOException {
+        final SolutionMetrics metrics = new SolutionMetrics();
+        final SolutionMetrics secondMetrics = new SolutionMetrics();
+        final Solution solution = Solution.builder(new BpmnParser())
+                .parseMode(ParseMode.STREAMING_GRAPH)
+                .metricsRecorder(MetricsRecorder.of(List.of(metrics, secondMetrics)))
+                .build();
+        final RouteGraphBuilder builder = new RouteGraphBuilder();
+        builder.addEdge("a", "b");
+        builder.addEdge("b", "c");
+        builder.addEdge("b", "d");
+        final RouteGraph routeGraph = builder.build();
+
+        assertEquals(List.of("a", "b", "c"), solution.findRoute(routeGraph, "a", "c"));
+
+        assertEquals(1, metrics.stageLatencies(Stage.SEARCH).count());
+        assertEquals(0, metrics.stageLatencies(Stage.FETCH).count());
+        assertEquals(1, metrics.getSearchCount());
+        assertEquals(3, metrics.getExpandedNodeCount(), "a, b and d are expanded before c is popped");
+        assertEquals(3, metrics.getExaminedEdgeCount());
+        assertEquals(1, secondMetrics.getSearchCount());
+
+        try (InputStream body = new CountingInputStream(new ByteArrayInputStream(new byte[100]), metrics)) {
+            body.readNBytes(40);
+            body.skip(10);
+        }
+        assertEquals(50, metrics.getBytesRead());
+    }
+
+    /**
+     * Tests that the metrics are readable through the platform MBean server once registered.
+     * This ensures that a running server can be inspected with standard JMX tools.
+     */
+    @Test
+    void testRegisterPlatformMBean_ExposesAttributes() throws Exception {
+        final SolutionMetrics metrics = new SolutionMetrics();
+        final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName objectName = new ObjectName(SolutionMetrics.OBJECT_NAME);
+
+        metrics.registerPlatformMBean();
+        try {
+            metrics.recordTraversal(7, 11);
+            metrics.recordModelCacheLookup(true);
+            metrics.recordModelCacheLookup(false);
+
+            assertEquals(7L, mBeanServer.getAttribute(objectName, "ExpandedNodeCount"));
+            assertEquals(11L, mBeanServer.getAttribute(objectName, "ExaminedEdgeCount"));
+            assertEquals(0.5, mBeanServer.getAttribute(objectName, "ModelCacheHitRatio"));
+            assertThrows(IllegalStateException.class, new SolutionMetrics()::registerPlatformMBean);
+        } finally {
+            mBeanServer.unregisterMBean(objectName);
+        }
+    }
+
+}
@@ -0,0 +1,88 @@
+package org.samvelaivazian.diagramtraversal.solution.parsers;
+
+import org.camunda.bpm.engine.impl.util.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.samvelaivazian.diagramtraversal.solution.constants.FileConstants.PATH_TO_INVOICE_XML;
+
+/**
+ * Unit tests for the JsonStringValueReader class.
+ */
+final class JsonStringValueReaderTest {
+
+    /**
+     * Tests that the streamed value equals the value extracted through a JSONObject.
+     * This ensures that the streaming pipeline feeds the XML parser exactly the same XML.
+     *
+     * @throws IOException if reading the BPMN XML file fails
+     */
+    @Test
+    void testRead_MatchesJsonObject() throws IOException {
+        final String bpmnXml = Files.readString(PATH_TO_INVOICE_XML);
+        final String jsonResponse = new JSONObject().put("id", "invoice:1:42").put("bpmn20Xml", bpmnXml).toString();
+
+        assertEquals(new BpmnParser().getBpmn20XmlFromJson(jsonResponse),
+                readFully(new BpmnParser().getBpmn20XmlReaderFromJson(new StringReader(jsonResponse))));
+    }
+
+    /**
+     * Tests that all escape sequences are decoded and that preceding properties of any type are skipped.
+     *
+     * @throws IOException if reading fails
+     */
+    @Test
+    void testRead_EscapesAndSkippedProperties() throws IOException {
+        final String json = "{ \"n\": -1.5e3, \"ok\": true, \"nested\": {\"a\": [1, \"]}\\\"\", {}]}, \"x\" : null,"
+                + " \"value\": \"a\\\"b\\\\c\\/d\\n\\t\\u00e9\\ud83d\\ude00\", \"after\": 1}";
+
+        assertEquals("a\"b\\c/d\n\té😀", readValue(json));
+    }
+
+    /**
+     * Tests that a missing property, a non-string value and truncated input fail with an IOException.
+     */
+    @Test
+    void testRead_InvalidInput() {
+        assertThrows(IOException.class, () -> readValue("{\"a\": \"b\"}"));
+        assertThrows(IOException.class, () -> readValue("{\"value\": 1}"));
+        assertThrows(IOException.class, () -> readValue("{\"value\": \"ab"));
+        assertThrows(IOException.class, () -> readValue("[]"));
+    }
+
+    /**
+     * Streams the "value" property of a JSON document.
+     *
+     * @param json The JSON document.
+     * @return The unescaped value.
+     * @throws IOException if reading fails
+     */
+    private static String readValue(final String json) throws IOException {
+        return readFully(new JsonStringValueReader(new StringReader(json), "value"));
+    }
+
+    /**
+     * Reads a reader to its end through a small buffer, so values span several reads.
+     *
+     * @param reader The reader.
+     * @return All characters read.
+     * @throws IOException if reading fails
+     */
+    private static String readFully(final Reader reader) throws IOException {
+        final StringBuilder builder = new StringBuilder();
+        final char[] buffer = new char[7];
+
+        for (int count = reader.read(buffer); count >= 0; count = reader.read(buffer)) {
+            builder.append(buffer, 0, count);
+        }
+
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,215 @@
+package org.samvelaivazian.diagramtraversal.solution.parsers;
+
+import org.junit.jupiter.api.Test;
+import org.samvelaivazian.diagramtraversal.solution.exceptions.ParseBpmnModelException;
+import org.samvelaivazian.diagramtraversal.solution.graph.FlowNodeWeigher;
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraph;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.samvelaivazian.diagramtraversal.solution.constants.FileConstants.PATH_TO_INVOICE_XML;
+
+/**
+ * Unit tests for the StreamingBpmnGraphExtractor class.
+ */
+final class StreamingBpmnGraphExtractorTest {
+
+    /**
+     * The extractor to be tested, reading the same weight property as Solution.
+     */
+    private final StreamingBpmnGraphExtractor extractor =
+            new StreamingBpmnGraphExtractor("expectedDuration", FlowNodeWeigher.DEFAULT_WEIGHT);
+
+    /**
+     * Tests that the extracted graph of the invoice diagram equals the graph compiled from the Camunda model.
+     * This ensures that both parse modes return the same routes.
+     *
+     * @throws IOException if reading the BPMN XML file fails
+     */
+    @Test
+    void testExtractRouteGraph_MatchesModelCompilation() throws IOException {
+        final String bpmnXml = Files.readString(PATH_TO_INVOICE_XML);
+        final RouteGraph compiledGraph = RouteGraph.compile(new BpmnParser().getBpmnModelFromXml(bpmnXml));
+
+        final RouteGraph extractedGraph = extractor.extractRouteGraph(bpmnXml);
+
+        assertEquals(compiledGraph.nodeCount(), extractedGraph.nodeCount());
+        assertEquals(compiledGraph.edgeCount(), extractedGraph.edgeCount());
+        for (int node = 0; node < compiledGraph.nodeCount(); node++) {
+            final String nodeId = compiledGraph.nodeId(node);
+
+            assertTrue(extractedGraph.indexOf(nodeId) >= 0, nodeId);
+            assertEquals(targetsOf(compiledGraph, nodeId), targetsOf(extractedGraph, nodeId), nodeId);
+        }
+    }
+
+    /**
+     * Tests that nested flow nodes, prefixed references and weight properties are extracted.
+     * This ensures that <outgoing> and camunda:property elements are attributed to the innermost open flow node.
+     */
+    @Test
+    void testExtractRouteGraph_NestedAndWeighted() {
+        final String bpmnXml = """
+                <bpmn:definitions xmlns:bpmn="http://www.omg.org/spec/BPMN/20100524/MODEL"
+                                  xmlns:camunda="http://camunda.org/schema/1.0/bpmn">
+                  <bpmn:process id="nested">
+                    <bpmn:startEvent id="start"><bpmn:outgoing>bpmn:f1</bpmn:outgoing></bpmn:startEvent>
+                    <bpmn:subProcess id="sub">
+                      <bpmn:incoming>f1</bpmn:incoming>
+                      <bpmn:startEvent id="innerStart"><bpmn:outgoing>f2</bpmn:outgoing></bpmn:startEvent>
+                      <bpmn:userTask id="inner">
+                        <bpmn:extensionElements>
+                          <camunda:properties><camunda:property name="expectedDuration" value="7.5"/></camunda:properties>
+                        </bpmn:extensionElements>
+                        <bpmn:incoming>f2</bpmn:incoming>
+                      </bpmn:userTask>
+                      <bpmn:sequenceFlow id="f2" sourceRef="innerStart" targetRef="inner"/>
+                      <bpmn:outgoing>f3</bpmn:outgoing>
+                    </bpmn:subProcess>
+                    <bpmn:endEvent id="end"/>
+                    <bpmn:sequenceFlow id="f1" sourceRef="start" targetRef="sub"/>
+                    <bpmn:sequenceFlow id="f3" sourceRef="sub" targetRef="end"/>
+                  </bpmn:process>
+                </bpmn:definitions>
+                """;
+
+        final RouteGraph graph = extractor.extractRouteGraph(bpmnXml);
+
+        assertEquals(5, graph.nodeCount());
+        assertEquals(List.of("sub"), targetsOf(graph, "start"));
+        assertEquals(List.of("end"), targetsOf(graph, "sub"));
+        assertEquals(List.of("inner"), targetsOf(graph, "innerStart"));
+        assertEquals(7.5, graph.nodeWeight(graph.indexOf("inner")));
+        assertEquals(FlowNodeWeigher.DEFAULT_WEIGHT, graph.nodeWeight(graph.indexOf("sub")));
+    }
+
+    /**
+     * Tests that weight values that are negative, infinite or not a number get the default weight, in the extracted
+     * graph as well as in the graph compiled from the Camunda model.
+     * This ensures that no parse mode hands invalid weights to the cost-based searches.
+     */
+    @Test
+    void testExtractRouteGraph_InvalidWeights() {
+        final StringBuilder tasks = new StringBuilder();
+        final List<String> values = List.of("-1", "-0.5", "NaN", "Infinity", "-Infinity", "soon", "0", "2.5");
+        for (int i = 0; i < values.size(); i++) {
+            tasks.append("""
+                    <bpmn:task id="task%d">
+                      <bpmn:extensionElements>
+                        <camunda:properties><camunda:property name="expectedDuration" value="%s"/></camunda:properties>
+                      </bpmn:extensionElements>
+                    </bpmn:task>
+                    """.formatted(i, values.get(i)));
+        }
+        final String bpmnXml = """
+                <bpmn:definitions xmlns:bpmn="http://www.omg.org/spec/BPMN/20100524/MODEL"
+                                  xmlns:camunda="http://camunda.org/schema/1.0/bpmn" targetNamespace="test">
+                  <bpmn:process id="weighted">%s</bpmn:process>
+                </bpmn:definitions>
+                """.formatted(tasks);
+        final List<Double> expectedWeights = List.of(3.0, 3.0, 3.0, 3.0, 3.0, 3.0, 0.0, 2.5);
+
+        final RouteGraph extractedGraph = new StreamingBpmnGraphExtractor("expectedDuration", 3.0)
+                .extractRouteGraph(bpmnXml);
+        final RouteGraph compiledGraph = RouteGraph.compile(new BpmnParser().getBpmnModelFromXml(bpmnXml),
+                FlowNodeWeigher.extensionProperty("expectedDuration", 3.0));
+
+        for (int i = 0; i < values.size(); i++) {
+            assertEquals(expectedWeights.get(i), extractedGraph.nodeWeight(extractedGraph.indexOf("task" + i)),
+                    values.get(i));
+            assertEquals(expectedWeights.get(i), compiledGraph.nodeWeight(compiledGraph.indexOf("task" + i)),
+                    values.get(i));
+        }
+    }
+
+    /**
+     * Tests that malformed XML is reported like in BpmnParser.
+     */
+    @Test
+    void testExtractRouteGraph_MalformedXml() {
+        assertThrows(ParseBpmnModelException.class, () -> extractor.extractRouteGraph("<definitions><process>"));
+    }
+
+    /**
+     * Tests that the edges of nodes without {@code <outgoing>} references follow the {@code sourceRef} of the
+     * sequence flows, while nodes with references keep exactly those, in both parse modes.
+     * This ensures that diagrams written without the optional references still have their edges.
+     */
+    @Test
+    void testExtractRouteGraph_WithoutOutgoingReferences() {
+        final String bpmnXml = """
+                <bpmn:definitions xmlns:bpmn="http://www.omg.org/spec/BPMN/20100524/MODEL" targetNamespace="test">
+                  <bpmn:process id="process">
+                    <bpmn:startEvent id="start"/>
+                    <bpmn:exclusiveGateway id="split"/>
+                    <bpmn:task id="left"><bpmn:outgoing>f4</bpmn:outgoing></bpmn:task>
+                    <bpmn:task id="right"/>
+                    <bpmn:endEvent id="end"/>
+                    <bpmn:sequenceFlow id="f1" sourceRef="start" targetRef="split"/>
+                    <bpmn:sequenceFlow id="f2" sourceRef="split" targetRef="right"/>
+                    <bpmn:sequenceFlow id="f3" sourceRef="split" targetRef="left"/>
+                    <bpmn:sequenceFlow id="f4" sourceRef="left" targetRef="end"/>
+                    <bpmn:sequenceFlow id="f5" sourceRef="right" targetRef="end"/>
+                    <bpmn:sequenceFlow id="f6" sourceRef="left" targetRef="right"/>
+                  </bpmn:process>
+                </bpmn:definitions>
+                """;
+        final RouteGraph compiledGraph = RouteGraph.compile(new BpmnParser().getBpmnModelFromXml(bpmnXml));
+        final RouteGraph extractedGraph = extractor.extractRouteGraph(bpmnXml);
+
+        for (final RouteGraph graph : List.of(compiledGraph, extractedGraph)) {
+            assertEquals(5, graph.edgeCount());
+            assertEquals(List.of("split"), targetsOf(graph, "start"));
+            assertEquals(List.of("right", "left"), targetsOf(graph, "split"));
+            assertEquals(List.of("end"), targetsOf(graph, "left"));
+            assertEquals(List.of("end"), targetsOf(graph, "right"));
+        }
+    }
+
+    /**
+     * Tests that a flow node without an ID is rejected as malformed in both parse modes.
+     * This ensures that an invalid document fails with a parse error instead of a NullPointerException.
+     */
+    @Test
+    void testExtractRouteGraph_FlowNodeWithoutId() {
+        final String bpmnXml = """
+                <bpmn:definitions xmlns:bpmn="http://www.omg.org/spec/BPMN/20100524/MODEL" targetNamespace="test">
+                  <bpmn:process id="process">
+                    <bpmn:startEvent id="start"/>
+                    <bpmn:task name="Unnamed"/>
+                  </bpmn:process>
+                </bpmn:definitions>
+                """;
+
+        final ParseBpmnModelException exception =
+                assertThrows(ParseBpmnModelException.class, () -> extractor.extractRouteGraph(bpmnXml));
+        assertTrue(exception.getMessage().contains("<task> without an id"), exception.getMessage());
+        assertThrows(ParseBpmnModelException.class,
+                () -> RouteGraph.compile(new BpmnParser().getBpmnModelFromXml(bpmnXml)));
+    }
+
+    /**
+     * Collects the IDs of the targets of all outgoing edges of a node.
+     *
+     * @param graph  The route graph.
+     * @param nodeId The flow node ID.
+     * @return The target IDs in edge order.
+     */
+    private static List<String> targetsOf(final RouteGraph graph, final String nodeId) {
+        final int node = graph.indexOf(nodeId);
+        final List<String> targets = new ArrayList<>();
+
+        for (int edge = graph.edgesStart(node); edge < graph.edgesEnd(node); edge++) {
+            targets.add(graph.nodeId(graph.edgeTarget(edge)));
+        }
+
+        return targets;
+    }
+
+}
@@ -0,0 +1,262 @@
+package org.samvelaivazian.diagramtraversal.solution.server;
+
+import org.camunda.bpm.engine.impl.util.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.samvelaivazian.diagramtraversal.solution.Solution;
+import org.samvelaivazian.diagramtraversal.solution.exceptions.FetchResponseDataException;
+import org.samvelaivazian.diagramtraversal.solution.exceptions.ParseBpmnModelException;
+import org.samvelaivazian.diagramtraversal.solution.graph.CompiledModel;
+import org.samvelaivazian.diagramtraversal.solution.parsers.BpmnParser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.samvelaivazian.diagramtraversal.solution.constants.FileConstants.PATH_TO_INVOICE_XML;
+
+/**
+ * Unit tests for the RouteServer class.
+ */
+final class RouteServerTest {
+
+    /**
+     * The number of times the model loader was invoked.
+     */
+    private final AtomicInteger modelLoads = new AtomicInteger();
+
+    /**
+     * The failure the model loader throws instead of loading the model, or null to load it.
+     */
+    private final AtomicReference<RuntimeException> loadFailure = new AtomicReference<>();
+
+    /**
+     * The HTTP client used to query the server.
+     */
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    /**
+     * The RouteServer instance to be tested.
+     */
+    private RouteServer routeServer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        final BpmnParser bpmnParser = new BpmnParser();
+        final String bpmnXml = Files.readString(PATH_TO_INVOICE_XML);
+        final InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+
+        routeServer = new RouteServer(new Solution(bpmnParser), () -> {
+            modelLoads.incrementAndGet();
+            if (loadFailure.get() != null) {
+                throw loadFailure.get();
+            }
+
+            return CompiledModel.compile(bpmnParser.getBpmnModelFromXml(bpmnXml));
+        }, address);
+        routeServer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        routeServer.close();
+        httpClient.close();
+    }
+
+    /**
+     * Tests that a route query returns the route found in the warm model.
+     * This ensures that repeated queries are answered without loading the model again.
+     *
+     * @throws Exception if the request fails
+     */
+    @Test
+    void testRoute_ValidNodes() throws Exception {
+        final HttpResponse<String> response = send("GET", "/route?start=approveInvoice&end=invoiceProcessed");
+        send("GET", "/route?start=approveInvoice&end=invoiceProcessed");
+
+        assertEquals(200, response.statusCode());
+        assertEquals(
+                "[\"approveInvoice\",\"invoice_approved\",\"prepareBankTransfer\",\"ServiceTask_1\",\"invoiceProcessed\"]",
+                new JSONObject(response.body()).getJSONArray("route").toString()
+        );
+        assertEquals(1, modelLoads.get());
+        assertEquals(2, routeServer.getRouteLatencies().count());
+    }
+
+    /**
+     * Tests that a route query for an unknown node returns 404.
+     *
+     * @throws Exception if the request fails
+     */
+    @Test
+    void testRoute_UnknownNode() throws Exception {
+        final HttpResponse<String> response = send("GET", "/route?start=unknownNode&end=invoiceProcessed");
+
+        assertEquals(404, response.statusCode());
+    }
+
+    /**
+     * Tests that the node endpoint autocompletes flow node IDs by prefix and rejects an invalid limit.
+     *
+     * @throws Exception if the request fails
+     */
+    @Test
+    void testNodes_CompletesPrefix() throws Exception {
+        final HttpResponse<String> response = send("GET", "/nodes?prefix=approve");
+        final HttpResponse<String> allNodesResponse = send("GET", "/nodes?limit=1000");
+
+        assertEquals(200, response.statusCode());
+        assertEquals("[\"approveInvoice\"]", new JSONObject(response.body()).getJSONArray("nodes").toString());
+        assertTrue(new JSONObject(allNodesResponse.body()).getJSONArray("nodes").length() > 1);
+        assertEquals(400, send("GET", "/nodes?prefix=approve&limit=many").statusCode());
+    }
+
+    /**
+     * Tests that a must-pass query returns the nodes every route of the invoice diagram passes through, and 404 for
+     * an unreachable end node.
+     *
+     * @throws Exception if the request fails
+     */
+    @Test
+    void testCheckpoints_ReturnsMustPassNodes() throws Exception {
+        final HttpResponse<String> response = send("GET", "/checkpoints?start=StartEvent_1&end=invoiceProcessed");
+
+        assertEquals(200, response.statusCode());
+        assertEquals("[\"StartEvent_1\",\"assignApprover\",\"approveInvoice\",\"invoice_approved\","
+                        + "\"prepareBankTransfer\",\"ServiceTask_1\",\"invoiceProcessed\"]",
+                new JSONObject(response.body()).getJSONArray("checkpoints").toString());
+        assertEquals(404, send("GET", "/checkpoints?start=invoiceProcessed&end=StartEvent_1").statusCode());
+        assertEquals(400, send("GET", "/checkpoints?start=StartEvent_1").statusCode());
+    }
+
+    /**
+     * Tests that a route query without both node IDs returns 400.
+     *
+     * @throws Exception if the request fails
+     */
+    @Test
+    void testRoute_MissingParameter() throws Exception {
+        final HttpResponse<String> response = send("GET", "/route?start=approveInvoice");
+
+        assertEquals(400, response.statusCode());
+    }
+
+    /**
+     * Tests that the statistics endpoint reports the number of answered queries.
+     *
+     * @throws Exception if the request fails
+     */
+    @Test
+    void testStats_ReportsQueryCount() throws Exception {
+        send("GET", "/route?start=StartEvent_1&end=invoiceNotProcessed");
+
+        final JSONObject stats = new JSONObject(send("GET", "/stats").body());
+
+        assertEquals(1, stats.getLong("count"));
+    }
+
+    /**
+     * Tests that a reload request loads the model again.
+     *
+     * @throws Exception if the request fails
+     */
+    @Test
+    void testReload_LoadsModelAgain() throws Exception {
+        assertEquals(405, send("GET", "/reload").statusCode());
+        final HttpResponse<String> response = send("POST", "/reload");
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("\"invalidatedRoutes\":0"));
+        assertEquals(2, modelLoads.get());
+    }
+
+    /**
+     * Tests that malformed escapes and invalid parameters are answered with 400, and that the latency of every route
+     * query that reaches the handler is recorded, whether it succeeds or not.
+     * This ensures that bad input never leaves an exchange without a response.
+     *
+     * @throws Exception if the request fails
+     */
+    @Test
+    void testBadInput_ReturnsBadRequest() throws Exception {
+        assertEquals(400, sendRaw("/route?start=%zz&end=invoiceProcessed"));
+        assertEquals(400, sendRaw("/nodes?prefix=approve%"));
+        assertEquals(400, sendRaw("/checkpoints?start=%E0%A4%A&end=invoiceProcessed"));
+        assertEquals(400, send("GET", "/route?start=approveInvoice&end=invoiceProcessed&strategy=FASTEST")
+                .statusCode());
+        assertEquals(400, send("GET", "/route?end=invoiceProcessed").statusCode());
+        assertEquals(404, send("GET", "/route?start=invoiceProcessed&end=approveInvoice").statusCode());
+
+        assertEquals(3, routeServer.getRouteLatencies().count());
+    }
+
+    /**
+     * Tests that a failing reload is answered with 502 if the model cannot be fetched or parsed and with 500
+     * otherwise, and that the previous model keeps serving queries.
+     *
+     * @throws Exception if the request fails
+     */
+    @Test
+    void testReload_LoadFailures() throws Exception {
+        loadFailure.set(new FetchResponseDataException("Engine unavailable", new IOException("Connection refused")));
+        assertEquals(502, send("POST", "/reload").statusCode());
+        loadFailure.set(new ParseBpmnModelException("Malformed BPMN XML", new IllegalStateException()));
+        assertEquals(502, send("POST", "/reload").statusCode());
+        loadFailure.set(new IllegalStateException("Loader closed"));
+        final HttpResponse<String> response = send("POST", "/reload");
+
+        assertEquals(500, response.statusCode());
+        assertEquals("Loader closed", new JSONObject(response.body()).getString("error"));
+        assertEquals(200, send("GET", "/route?start=approveInvoice&end=invoiceProcessed").statusCode());
+        assertEquals(4, modelLoads.get());
+    }
+
+    /**
+     * Sends a request without a body to the server.
+     *
+     * @param method The HTTP method.
+     * @param path   The path including the query string.
+     * @return The HTTP response.
+     * @throws Exception if the request fails
+     */
+    private HttpResponse<String> send(final String method, final String path) throws Exception {
+        final HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:" + routeServer.getPort() + path))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Sends a GET request over a plain socket, so that the path may hold escapes the HTTP client would reject.
+     *
+     * @param path The path including the query string.
+     * @return The HTTP status code.
+     * @throws IOException if the request fails
+     */
+    private int sendRaw(final String path) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), routeServer.getPort())) {
+            socket.getOutputStream().write(("GET " + path + " HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            final String statusLine = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                    StandardCharsets.US_ASCII)).readLine();
+
+            return Integer.parseInt(statusLine.split(" ")[1]);
+        }
+    }
+
+}
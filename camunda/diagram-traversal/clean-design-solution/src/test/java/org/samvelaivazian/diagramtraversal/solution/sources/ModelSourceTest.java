@@ -0,0 +1,264 @@
+package org.samvelaivazian.diagramtraversal.solution.sources;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.samvelaivazian.diagramtraversal.solution.Solution;
+import org.samvelaivazian.diagramtraversal.solution.exceptions.BuildRouteException;
+import org.samvelaivazian.diagramtraversal.solution.exceptions.FetchResponseDataException;
+import org.samvelaivazian.diagramtraversal.solution.graph.CompiledModel;
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraph;
+import org.samvelaivazian.diagramtraversal.solution.metrics.MetricsRecorder;
+import org.samvelaivazian.diagramtraversal.solution.parsers.BpmnParser;
+import org.samvelaivazian.diagramtraversal.solution.parsers.ParseMode;
+import org.samvelaivazian.diagramtraversal.solution.traversal.TraversalStrategy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.samvelaivazian.diagramtraversal.solution.constants.FileConstants.PATH_TO_INVOICE_XML;
+
+/**
+ * Unit tests for the file, directory and classpath model sources and the ModelWatcher class.
+ */
+final class ModelSourceTest {
+
+    /**
+     * The process definition key of the invoice approval diagram.
+     */
+    private static final String INVOICE_DEFINITION_KEY = "invoice";
+
+    /**
+     * The route from the approval task to the end of the invoice approval diagram.
+     */
+    private static final List<String> INVOICE_ROUTE =
+            List.of("approveInvoice", "invoice_approved", "prepareBankTransfer", "ServiceTask_1", "invoiceProcessed");
+
+    /**
+     * How long to wait for the watcher to report a change.
+     */
+    private static final long WATCH_TIMEOUT_SECONDS = 30;
+
+    /**
+     * A process passing a call activity of the "child" definition on its only route.
+     */
+    private static final String CALLING_XML = """
+            <bpmn:definitions xmlns:bpmn="http://www.omg.org/spec/BPMN/20100524/MODEL" targetNamespace="test">
+              <bpmn:process id="parent">
+                <bpmn:startEvent id="start"><bpmn:outgoing>f1</bpmn:outgoing></bpmn:startEvent>
+                <bpmn:callActivity id="call" calledElement="child">
+                  <bpmn:incoming>f1</bpmn:incoming><bpmn:outgoing>f2</bpmn:outgoing>
+                </bpmn:callActivity>
+                <bpmn:endEvent id="end"><bpmn:incoming>f2</bpmn:incoming></bpmn:endEvent>
+                <bpmn:sequenceFlow id="f1" sourceRef="start" targetRef="call"/>
+                <bpmn:sequenceFlow id="f2" sourceRef="call" targetRef="end"/>
+              </bpmn:process>
+            </bpmn:definitions>
+            """;
+
+    /**
+     * A called process that never completes, since its start event leads into an endless loop.
+     */
+    private static final String STUCK_CHILD_XML = """
+            <bpmn:definitions xmlns:bpmn="http://www.omg.org/spec/BPMN/20100524/MODEL" targetNamespace="test">
+              <bpmn:process id="child">
+                <bpmn:startEvent id="childStart"><bpmn:outgoing>c1</bpmn:outgoing></bpmn:startEvent>
+                <bpmn:task id="childA">
+                  <bpmn:incoming>c1</bpmn:incoming><bpmn:incoming>c3</bpmn:incoming><bpmn:outgoing>c2</bpmn:outgoing>
+                </bpmn:task>
+                <bpmn:task id="childB"><bpmn:incoming>c2</bpmn:incoming><bpmn:outgoing>c3</bpmn:outgoing></bpmn:task>
+                <bpmn:sequenceFlow id="c1" sourceRef="childStart" targetRef="childA"/>
+                <bpmn:sequenceFlow id="c2" sourceRef="childA" targetRef="childB"/>
+                <bpmn:sequenceFlow id="c3" sourceRef="childB" targetRef="childA"/>
+              </bpmn:process>
+            </bpmn:definitions>
+            """;
+
+    /**
+     * The next version of the called process, which completes.
+     */
+    private static final String COMPLETING_CHILD_XML = """
+            <bpmn:definitions xmlns:bpmn="http://www.omg.org/spec/BPMN/20100524/MODEL" targetNamespace="test">
+              <bpmn:process id="child">
+                <bpmn:startEvent id="childStart"><bpmn:outgoing>c1</bpmn:outgoing></bpmn:startEvent>
+                <bpmn:endEvent id="childEnd"><bpmn:incoming>c1</bpmn:incoming></bpmn:endEvent>
+                <bpmn:sequenceFlow id="c1" sourceRef="childStart" targetRef="childEnd"/>
+              </bpmn:process>
+            </bpmn:definitions>
+            """;
+
+    /**
+     * Tests that the invoice diagram is loaded from a file, a directory and the classpath in both parse modes, and
+     * that the loaded graph yields the same route as the fetched one.
+     * This ensures that the offline sources are drop-in replacements for engine-rest.
+     */
+    @Test
+    void testLoadModel_FromEverySource(@TempDir final Path directory) throws IOException {
+        Files.copy(PATH_TO_INVOICE_XML, directory.resolve("invoice.bpmn"));
+        final List<ModelSource> sources = List.of(
+                new FileModelSource(PATH_TO_INVOICE_XML, INVOICE_DEFINITION_KEY),
+                new DirectoryModelSource(directory),
+                new DirectoryModelSource(PATH_TO_INVOICE_XML.getParent()),
+                new ClasspathModelSource(ModelSourceTest.class.getClassLoader(), ""));
+
+        for (final ParseMode parseMode : ParseMode.values()) {
+            for (final ModelSource source : sources) {
+                final Solution solution = Solution.builder(new BpmnParser())
+                        .modelSource(source)
+                        .parseMode(parseMode)
+                        .metricsRecorder(MetricsRecorder.noop())
+                        .build();
+                final CompiledModel compiledModel = solution.loadModel(source, INVOICE_DEFINITION_KEY);
+
+                assertEquals(INVOICE_ROUTE, solution.findRoute(compiledModel.routeGraph(), "approveInvoice",
+                        "invoiceProcessed"), source + " " + parseMode);
+                assertEquals(compiledModel.routeGraph().nodeCount(),
+                        solution.loadInvoiceModel().routeGraph().nodeCount(), source + " " + parseMode);
+            }
+        }
+    }
+
+    /**
+     * Tests that a missing definition, a key of another file and a key escaping the directory are rejected.
+     * This ensures that a source only serves the definitions it holds.
+     */
+    @Test
+    void testLoadModel_MissingDefinition(@TempDir final Path directory) throws IOException {
+        final Path modelDirectory = Files.createDirectory(directory.resolve("models"));
+        Files.copy(PATH_TO_INVOICE_XML, modelDirectory.resolve("invoice.bpmn"));
+        Files.copy(PATH_TO_INVOICE_XML, directory.resolve("outside.bpmn"));
+        final Solution solution = new Solution(new BpmnParser());
+
+        for (final ModelSource source : List.of(
+                new FileModelSource(PATH_TO_INVOICE_XML, INVOICE_DEFINITION_KEY),
+                new DirectoryModelSource(modelDirectory),
+                new ClasspathModelSource(ModelSourceTest.class.getClassLoader(), "models"))) {
+            assertThrows(FetchResponseDataException.class, () -> solution.loadModel(source, "missing"));
+        }
+        assertThrows(FetchResponseDataException.class,
+                () -> solution.loadModel(new DirectoryModelSource(modelDirectory), "../outside"));
+    }
+
+    /**
+     * Tests that a hierarchical query passes call activities whose called definition is missing or malformed.
+     * This ensures that a definition that cannot be loaded is treated as unknown instead of failing the query.
+     *
+     * @throws IOException if writing the BPMN XML files fails
+     */
+    @Test
+    void testFindRoute_HierarchicalWithUnloadableCalledDefinitions(@TempDir final Path directory)
+            throws IOException {
+        Files.writeString(directory.resolve("parent.bpmn"), """
+                <bpmn:definitions xmlns:bpmn="http://www.omg.org/spec/BPMN/20100524/MODEL" targetNamespace="test">
+                  <bpmn:process id="parent">
+                    <bpmn:startEvent id="start"><bpmn:outgoing>f1</bpmn:outgoing></bpmn:startEvent>
+                    <bpmn:callActivity id="callMissing" calledElement="missing">
+                      <bpmn:incoming>f1</bpmn:incoming><bpmn:outgoing>f2</bpmn:outgoing>
+                    </bpmn:callActivity>
+                    <bpmn:callActivity id="callBroken" calledElement="broken">
+                      <bpmn:incoming>f2</bpmn:incoming><bpmn:outgoing>f3</bpmn:outgoing>
+                    </bpmn:callActivity>
+                    <bpmn:endEvent id="end"><bpmn:incoming>f3</bpmn:incoming></bpmn:endEvent>
+                    <bpmn:sequenceFlow id="f1" sourceRef="start" targetRef="callMissing"/>
+                    <bpmn:sequenceFlow id="f2" sourceRef="callMissing" targetRef="callBroken"/>
+                    <bpmn:sequenceFlow id="f3" sourceRef="callBroken" targetRef="end"/>
+                  </bpmn:process>
+                </bpmn:definitions>
+                """);
+        Files.writeString(directory.resolve("broken.bpmn"), "<bpmn:definitions");
+
+        for (final ParseMode parseMode : ParseMode.values()) {
+            final DirectoryModelSource source = new DirectoryModelSource(directory);
+            final Solution solution = Solution.builder(new BpmnParser())
+                    .modelSource(source)
+                    .parseMode(parseMode)
+                    .metricsRecorder(MetricsRecorder.noop())
+                    .build();
+
+            assertEquals(List.of("start", "callMissing", "callBroken", "end"), solution.findRoute(
+                    solution.loadModel(source, "parent").routeGraph(), "start", "end",
+                    TraversalStrategy.HIERARCHICAL));
+        }
+    }
+
+    /**
+     * Tests that the definitions of a directory are listed by file name and that other files are ignored.
+     * This ensures that only BPMN files are served and watched.
+     */
+    @Test
+    void testDefinitionKeys_OnlyBpmnFiles(@TempDir final Path directory) throws IOException {
+        Files.copy(PATH_TO_INVOICE_XML, directory.resolve("invoice.bpmn"));
+        Files.copy(PATH_TO_INVOICE_XML, directory.resolve("review.xml"));
+        Files.writeString(directory.resolve("notes.txt"), "not a model");
+        final DirectoryModelSource source = new DirectoryModelSource(directory);
+
+        assertEquals(Set.of("invoice", "review"), source.definitionKeys());
+        assertNull(source.definitionKeyOf(Path.of("notes.txt")));
+        assertNull(source.definitionKeyOf(Path.of(".bpmn")));
+    }
+
+    /**
+     * Tests that the watcher reports created and modified BPMN files by definition key, ignores other files, and
+     * reports a file written in several steps once the directory is quiet.
+     * This ensures that an edited diagram is reloaded without restarting the server, but never while half-written.
+     */
+    @Test
+    void testModelWatcher_ReportsChangedDefinitions(@TempDir final Path directory) throws Exception {
+        final BlockingQueue<Set<String>> changedKeys = new LinkedBlockingQueue<>();
+
+        try (ModelWatcher modelWatcher = new ModelWatcher(new DirectoryModelSource(directory), changedKeys::add)) {
+            modelWatcher.start();
+
+            Files.writeString(directory.resolve("notes.txt"), "not a model");
+            Files.copy(PATH_TO_INVOICE_XML, directory.resolve("invoice.bpmn"));
+            assertEquals(Set.of(INVOICE_DEFINITION_KEY), changedKeys.poll(WATCH_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+            final String bpmnXml = Files.readString(PATH_TO_INVOICE_XML);
+            final Path reviewFile = directory.resolve("review.xml");
+            Files.writeString(reviewFile, bpmnXml.substring(0, bpmnXml.length() / 2));
+            Files.writeString(directory.resolve("invoice.bpmn"), bpmnXml);
+            Files.writeString(reviewFile, bpmnXml);
+            assertEquals(Set.of("review", INVOICE_DEFINITION_KEY),
+                    changedKeys.poll(WATCH_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        }
+    }
+
+    /**
+     * Tests that refreshing a changed called definition picks up its new version for hierarchical routes, and that
+     * refreshing an unchanged one keeps its summary.
+     * This ensures that editing a called diagram in a watched directory takes effect without a restart.
+     */
+    @Test
+    void testRefreshDefinitions_PicksUpChangedCalledDefinitions(@TempDir final Path directory) throws IOException {
+        Files.writeString(directory.resolve("parent.bpmn"), CALLING_XML);
+        Files.writeString(directory.resolve("child.bpmn"), STUCK_CHILD_XML);
+        final DirectoryModelSource source = new DirectoryModelSource(directory);
+        final Solution solution = Solution.builder(new BpmnParser())
+                .modelSource(source)
+                .metricsRecorder(MetricsRecorder.noop())
+                .build();
+        final RouteGraph parentGraph = solution.loadModel(source, "parent").routeGraph();
+
+        assertThrows(BuildRouteException.class, () -> solution.findRoute(parentGraph, "start", "end",
+                TraversalStrategy.HIERARCHICAL));
+        solution.refreshDefinitions(Set.of("child"));
+
+        // The summary of the unchanged content was kept, so the file is not read again until the next refresh
+        Files.writeString(directory.resolve("child.bpmn"), COMPLETING_CHILD_XML);
+        assertThrows(BuildRouteException.class, () -> solution.findRoute(parentGraph, "start", "end",
+                TraversalStrategy.HIERARCHICAL));
+
+        solution.refreshDefinitions(Set.of("child"));
+        assertEquals(List.of("start", "call", "end"),
+                solution.findRoute(parentGraph, "start", "end", TraversalStrategy.HIERARCHICAL));
+    }
+
+}
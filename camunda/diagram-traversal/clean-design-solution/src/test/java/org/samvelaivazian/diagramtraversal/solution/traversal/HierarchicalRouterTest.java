@@ -0,0 +1,304 @@
+package org.samvelaivazian.diagramtraversal.solution.traversal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.samvelaivazian.diagramtraversal.solution.generator.BpmnDiagramGenerator;
+import org.samvelaivazian.diagramtraversal.solution.generator.DiagramSpec;
+import org.samvelaivazian.diagramtraversal.solution.graph.CompiledModel;
+import org.samvelaivazian.diagramtraversal.solution.graph.ProcessHierarchy;
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraph;
+import org.samvelaivazian.diagramtraversal.solution.parsers.BpmnParser;
+import org.samvelaivazian.diagramtraversal.solution.parsers.StreamingBpmnGraphExtractor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the HierarchicalRouter and ProcessHierarchy classes.
+ */
+final class HierarchicalRouterTest {
+
+    /**
+     * A process with an embedded sub-process, a sub-process that never completes, a boundary event and a call
+     * activity calling the {@code child} definition.
+     */
+    private static final String PARENT_XML = """
+            <bpmn:definitions xmlns:bpmn="http://www.omg.org/spec/BPMN/20100524/MODEL" targetNamespace="test">
+              <bpmn:process id="parent">
+                <bpmn:startEvent id="start"><bpmn:outgoing>f1</bpmn:outgoing></bpmn:startEvent>
+                <bpmn:task id="task">
+                  <bpmn:incoming>f1</bpmn:incoming><bpmn:outgoing>f2</bpmn:outgoing><bpmn:outgoing>f8</bpmn:outgoing>
+                </bpmn:task>
+                <bpmn:boundaryEvent id="timer" attachedToRef="task"><bpmn:outgoing>f5</bpmn:outgoing></bpmn:boundaryEvent>
+                <bpmn:endEvent id="escalated"><bpmn:incoming>f5</bpmn:incoming></bpmn:endEvent>
+                <bpmn:subProcess id="sub">
+                  <bpmn:incoming>f2</bpmn:incoming><bpmn:outgoing>f3</bpmn:outgoing>
+                  <bpmn:startEvent id="subStart"><bpmn:outgoing>f6</bpmn:outgoing></bpmn:startEvent>
+                  <bpmn:task id="inner"><bpmn:incoming>f6</bpmn:incoming><bpmn:outgoing>f7</bpmn:outgoing></bpmn:task>
+                  <bpmn:endEvent id="subEnd"><bpmn:incoming>f7</bpmn:incoming></bpmn:endEvent>
+                  <bpmn:sequenceFlow id="f6" sourceRef="subStart" targetRef="inner"/>
+                  <bpmn:sequenceFlow id="f7" sourceRef="inner" targetRef="subEnd"/>
+                </bpmn:subProcess>
+                <bpmn:subProcess id="deadSub">
+                  <bpmn:incoming>f8</bpmn:incoming><bpmn:outgoing>f9</bpmn:outgoing>
+                  <bpmn:startEvent id="deadStart"><bpmn:outgoing>f10</bpmn:outgoing></bpmn:startEvent>
+                  <bpmn:task id="loopA">
+                    <bpmn:incoming>f10</bpmn:incoming><bpmn:incoming>f12</bpmn:incoming><bpmn:outgoing>f11</bpmn:outgoing>
+                  </bpmn:task>
+                  <bpmn:task id="loopB"><bpmn:incoming>f11</bpmn:incoming><bpmn:outgoing>f12</bpmn:outgoing></bpmn:task>
+                  <bpmn:sequenceFlow id="f10" sourceRef="deadStart" targetRef="loopA"/>
+                  <bpmn:sequenceFlow id="f11" sourceRef="loopA" targetRef="loopB"/>
+                  <bpmn:sequenceFlow id="f12" sourceRef="loopB" targetRef="loopA"/>
+                </bpmn:subProcess>
+                <bpmn:endEvent id="afterDead"><bpmn:incoming>f9</bpmn:incoming></bpmn:endEvent>
+                <bpmn:callActivity id="call" calledElement="child">
+                  <bpmn:incoming>f3</bpmn:incoming><bpmn:outgoing>f4</bpmn:outgoing>
+                </bpmn:callActivity>
+                <bpmn:endEvent id="end"><bpmn:incoming>f4</bpmn:incoming></bpmn:endEvent>
+                <bpmn:sequenceFlow id="f1" sourceRef="start" targetRef="task"/>
+                <bpmn:sequenceFlow id="f2" sourceRef="task" targetRef="sub"/>
+                <bpmn:sequenceFlow id="f3" sourceRef="sub" targetRef="call"/>
+                <bpmn:sequenceFlow id="f4" sourceRef="call" targetRef="end"/>
+                <bpmn:sequenceFlow id="f5" sourceRef="timer" targetRef="escalated"/>
+                <bpmn:sequenceFlow id="f8" sourceRef="task" targetRef="deadSub"/>
+                <bpmn:sequenceFlow id="f9" sourceRef="deadSub" targetRef="afterDead"/>
+              </bpmn:process>
+            </bpmn:definitions>
+            """;
+
+    /**
+     * A called process that never reaches an end, since it only loops.
+     */
+    private static final String STUCK_CHILD_XML = """
+            <bpmn:definitions xmlns:bpmn="http://www.omg.org/spec/BPMN/20100524/MODEL" targetNamespace="test">
+              <bpmn:process id="child">
+                <bpmn:startEvent id="childStart"><bpmn:outgoing>c1</bpmn:outgoing></bpmn:startEvent>
+                <bpmn:task id="childA">
+                  <bpmn:incoming>c1</bpmn:incoming><bpmn:incoming>c3</bpmn:incoming><bpmn:outgoing>c2</bpmn:outgoing>
+                </bpmn:task>
+                <bpmn:task id="childB"><bpmn:incoming>c2</bpmn:incoming><bpmn:outgoing>c3</bpmn:outgoing></bpmn:task>
+                <bpmn:sequenceFlow id="c1" sourceRef="childStart" targetRef="childA"/>
+                <bpmn:sequenceFlow id="c2" sourceRef="childA" targetRef="childB"/>
+                <bpmn:sequenceFlow id="c3" sourceRef="childB" targetRef="childA"/>
+              </bpmn:process>
+            </bpmn:definitions>
+            """;
+
+    /**
+     * The route graph of the parent process, compiled from the Camunda model.
+     */
+    private RouteGraph routeGraph;
+
+    @BeforeEach
+    void setUp() {
+        routeGraph = RouteGraph.compile(new BpmnParser().getBpmnModelFromXml(PARENT_XML));
+    }
+
+    /**
+     * Tests that sub-processes are entered only towards a target inside them and left through their end events.
+     * This ensures that routes reach and leave nodes nested in embedded sub-processes.
+     */
+    @Test
+    void testSearch_EntersAndLeavesSubProcesses() {
+        final HierarchicalRouter router = new HierarchicalRouter(key -> null);
+
+        assertEquals(List.of("start", "task", "sub", "subStart", "inner"), route(router, "start", "inner"));
+        assertEquals(List.of("inner", "subEnd", "call", "end"), route(router, "inner", "end"));
+        assertEquals(List.of("start", "task", "sub", "call", "end"), route(router, "start", "end"));
+        assertFalse(SearchTree.breadthFirst(routeGraph, routeGraph.indexOf("start"), SearchTree.NO_STOP_NODE)
+                .reaches(routeGraph.indexOf("inner")), "Plain BFS must not see nested nodes");
+    }
+
+    /**
+     * Tests that boundary events are followed from the activity they are attached to, and that a sub-process that
+     * never completes is not passed.
+     */
+    @Test
+    void testSearch_BoundaryEventsAndStuckSubProcesses() {
+        final HierarchicalRouter router = new HierarchicalRouter(key -> null);
+
+        assertEquals(List.of("start", "task", "timer", "escalated"), route(router, "start", "escalated"));
+        assertNull(route(router, "start", "afterDead"));
+        assertEquals(List.of("start", "task", "deadSub", "deadStart", "loopA", "loopB"),
+                route(router, "start", "loopB"));
+    }
+
+    /**
+     * Tests that a call activity is passed only if the called definition can complete, and that every called
+     * definition is resolved only once.
+     * This ensures that the called definitions are not fetched again for every query.
+     */
+    @Test
+    void testSearch_CallActivitiesMemoized() {
+        final AtomicInteger resolutions = new AtomicInteger();
+        final RouteGraph childGraph = RouteGraph.compile(new BpmnParser().getBpmnModelFromXml(STUCK_CHILD_XML));
+        final HierarchicalRouter router = new HierarchicalRouter(key -> {
+            resolutions.incrementAndGet();
+            return "child".equals(key) ? CompiledModel.ofRouteGraph(childGraph, "v1") : null;
+        });
+
+        assertNull(route(router, "start", "end"));
+        assertNull(route(router, "inner", "end"));
+        assertEquals(List.of("start", "task", "sub", "call"), route(router, "start", "call"));
+        assertEquals(1, resolutions.get());
+        assertFalse(childGraph.hierarchy().processCompletes());
+    }
+
+    /**
+     * Tests that a summary is kept while the called definition is unchanged, resolved again once its content version
+     * changes or all summaries are cleared, and that a definition that cannot be resolved is not memoized.
+     * This ensures that new versions of called definitions are picked up and transient failures are retried.
+     */
+    @Test
+    void testSearch_CallActivitiesFollowNewVersions() {
+        final RouteGraph stuckGraph = RouteGraph.compile(new BpmnParser().getBpmnModelFromXml(STUCK_CHILD_XML));
+        final AtomicReference<CompiledModel> childModel = new AtomicReference<>();
+        final AtomicInteger resolutions = new AtomicInteger();
+        final HierarchicalRouter router = new HierarchicalRouter(key -> {
+            resolutions.incrementAndGet();
+            return childModel.get();
+        });
+
+        assertEquals(List.of("start", "task", "sub", "call", "end"), route(router, "start", "end"));
+        assertEquals(List.of("start", "task", "sub", "call", "end"), route(router, "start", "end"));
+        assertEquals(2, resolutions.get());
+
+        childModel.set(CompiledModel.ofRouteGraph(stuckGraph, "v1"));
+        assertNull(route(router, "start", "end"));
+        router.invalidateCalledProcess("child", "v1");
+        assertNull(route(router, "start", "end"));
+        assertEquals(3, resolutions.get());
+
+        childModel.set(CompiledModel.ofRouteGraph(routeGraph, "v2"));
+        router.invalidateCalledProcess("child", "v2");
+        assertEquals(List.of("start", "task", "sub", "call", "end"), route(router, "start", "end"));
+        assertEquals(4, resolutions.get());
+
+        childModel.set(CompiledModel.ofRouteGraph(stuckGraph, "v3"));
+        router.clearCalledProcessSummaries();
+        assertNull(route(router, "start", "end"));
+        assertEquals(5, resolutions.get());
+    }
+
+    /**
+     * Tests that a call activity is resolved only when the search needs to pass it to reach the target.
+     * This ensures that queries never fetch definitions called off the way to the end node.
+     */
+    @Test
+    void testSearch_ResolvesCallActivitiesOnlyOnTheWayToTheTarget() {
+        final List<String> resolvedKeys = new ArrayList<>();
+        final HierarchicalRouter router = new HierarchicalRouter(key -> {
+            resolvedKeys.add(key);
+            return null;
+        });
+
+        assertEquals(List.of("start", "task", "sub", "subStart", "inner"), route(router, "start", "inner"));
+        assertEquals(List.of("start", "task", "timer", "escalated"), route(router, "start", "escalated"));
+        assertEquals(List.of(), resolvedKeys);
+
+        assertEquals(List.of("start", "task", "sub", "call", "end"), route(router, "start", "end"));
+        assertEquals(List.of("child"), resolvedKeys);
+    }
+
+    /**
+     * Tests the compiled summaries and that the streaming extractor records the same hierarchy as the Camunda model,
+     * also for generated diagrams with nested sub-processes and boundary events.
+     * This ensures that hierarchical routes do not depend on the parse mode.
+     */
+    @Test
+    void testHierarchy_SummariesAndParseModes() {
+        final ProcessHierarchy hierarchy = routeGraph.hierarchy();
+
+        assertTrue(hierarchy.completes(routeGraph.indexOf("sub")));
+        assertFalse(hierarchy.completes(routeGraph.indexOf("deadSub")));
+        assertTrue(hierarchy.isSubProcess(routeGraph.indexOf("sub")));
+        assertFalse(hierarchy.isSubProcess(routeGraph.indexOf("task")));
+        assertTrue(hierarchy.processCompletes());
+        assertEquals("child", hierarchy.calledElement(routeGraph.indexOf("call")));
+        assertEquals(routeGraph.indexOf("sub"), hierarchy.scopeOf(routeGraph.indexOf("inner")));
+        assertEquals(ProcessHierarchy.NO_SCOPE, hierarchy.scopeOf(routeGraph.indexOf("sub")));
+
+        final String generatedXml = new BpmnDiagramGenerator().generate(
+                new DiagramSpec(300, 2, 0.3, 3, 0.1, 0.3, 6, 2, 0.2, 5));
+        for (final String bpmnXml : List.of(PARENT_XML, generatedXml)) {
+            assertSameHierarchy(RouteGraph.compile(new BpmnParser().getBpmnModelFromXml(bpmnXml)),
+                    new StreamingBpmnGraphExtractor(null, 1.0).extractRouteGraph(bpmnXml));
+        }
+    }
+
+    /**
+     * Finds the hierarchical route between two nodes of the parent process.
+     *
+     * @param router      The router.
+     * @param startNodeId ID of the start node.
+     * @param endNodeId   ID of the end node.
+     * @return The route, or null if there is none.
+     */
+    private List<String> route(final HierarchicalRouter router, final String startNodeId, final String endNodeId) {
+        final int endNode = routeGraph.indexOf(endNodeId);
+        final SearchTree searchTree = router.search(routeGraph, routeGraph.indexOf(startNodeId), endNode);
+
+        return searchTree.reaches(endNode) ? searchTree.routeTo(endNode) : null;
+    }
+
+    /**
+     * Asserts that two graphs of the same diagram have the same hierarchy, comparing nodes by ID.
+     *
+     * @param expectedGraph The graph compiled from the Camunda model.
+     * @param actualGraph   The graph extracted by streaming.
+     */
+    private static void assertSameHierarchy(final RouteGraph expectedGraph, final RouteGraph actualGraph) {
+        assertEquals(expectedGraph.nodeCount(), actualGraph.nodeCount());
+        assertEquals(expectedGraph.hierarchy().processCompletes(), actualGraph.hierarchy().processCompletes());
+
+        for (int node = 0; node < expectedGraph.nodeCount(); node++) {
+            final ProcessHierarchy expected = expectedGraph.hierarchy();
+            final ProcessHierarchy actual = actualGraph.hierarchy();
+            final int actualNode = actualGraph.indexOf(expectedGraph.nodeId(node));
+            final String nodeId = expectedGraph.nodeId(node);
+
+            assertEquals(idOf(expectedGraph, expected.scopeOf(node)), idOf(actualGraph, actual.scopeOf(actualNode)),
+                    nodeId);
+            assertEquals(expected.completes(node), actual.completes(actualNode), nodeId);
+            assertEquals(expected.calledElement(node), actual.calledElement(actualNode), nodeId);
+            assertEquals(boundaryEventIds(expectedGraph, node), boundaryEventIds(actualGraph, actualNode), nodeId);
+        }
+    }
+
+    /**
+     * Resolves a node index to its ID.
+     *
+     * @param graph The route graph.
+     * @param node  The node index, or {@link ProcessHierarchy#NO_SCOPE}.
+     * @return The node ID, or null.
+     */
+    private static String idOf(final RouteGraph graph, final int node) {
+        return node == ProcessHierarchy.NO_SCOPE ? null : graph.nodeId(node);
+    }
+
+    /**
+     * Collects the IDs of the boundary events attached to a node.
+     *
+     * @param graph The route graph.
+     * @param node  The node index.
+     * @return The boundary event IDs.
+     */
+    private static List<String> boundaryEventIds(final RouteGraph graph, final int node) {
+        final List<String> boundaryEventIds = new ArrayList<>();
+        final ProcessHierarchy hierarchy = graph.hierarchy();
+
+        for (int i = hierarchy.boundaryEventsStart(node); i < hierarchy.boundaryEventsEnd(node); i++) {
+            boundaryEventIds.add(graph.nodeId(hierarchy.boundaryEvent(i)));
+        }
+
+        return boundaryEventIds;
+    }
+
+}
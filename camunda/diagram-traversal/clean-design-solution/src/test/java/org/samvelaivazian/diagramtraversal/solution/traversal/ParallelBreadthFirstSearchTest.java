@@ -0,0 +1,103 @@
+package org.samvelaivazian.diagramtraversal.solution.traversal;
+
+import org.junit.jupiter.api.Test;
+import org.samvelaivazian.diagramtraversal.solution.generator.BpmnDiagramGenerator;
+import org.samvelaivazian.diagramtraversal.solution.generator.DiagramSpec;
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraph;
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraphBuilder;
+import org.samvelaivazian.diagramtraversal.solution.parsers.StreamingBpmnGraphExtractor;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for the ParallelBreadthFirstSearch class.
+ */
+final class ParallelBreadthFirstSearchTest {
+
+    /**
+     * Tests that the parallel search reaches the same nodes as the sequential BFS, with routes of the same length,
+     * on a generated diagram with branches and loops.
+     * This ensures that claiming nodes through the bitset keeps the level-by-level order of the BFS.
+     */
+    @Test
+    void testSearch_MatchesBreadthFirst() {
+        final RouteGraph routeGraph = new StreamingBpmnGraphExtractor(null, 1.0).extractRouteGraph(
+                new BpmnDiagramGenerator().generate(new DiagramSpec(20_000, 0.3, 0.2, 11)));
+
+        try (ParallelBreadthFirstSearch search = new ParallelBreadthFirstSearch(4, 0)) {
+            for (final String rootId : List.of(BpmnDiagramGenerator.START_EVENT_ID, "node_5000", "node_15000")) {
+                final int root = routeGraph.indexOf(rootId);
+
+                assertSameRouteLengths(routeGraph, SearchTree.breadthFirst(routeGraph, root, SearchTree.NO_STOP_NODE),
+                        search.search(routeGraph, root));
+            }
+        }
+    }
+
+    /**
+     * Tests the parallel search on a wide graph whose levels are split across many tasks and whose nodes are
+     * claimed by several workers at once.
+     * This ensures that every node gets exactly one parent and the next frontier loses no nodes.
+     */
+    @Test
+    void testSearch_WideLevels() {
+        final RouteGraphBuilder builder = new RouteGraphBuilder();
+        for (int child = 0; child < 10_000; child++) {
+            builder.addEdge("root", "child" + child);
+            // Every grandchild is shared by ten children, so workers race for it
+            builder.addEdge("child" + child, "grandchild" + child % 1_000);
+            builder.addEdge("grandchild" + child % 1_000, "sink");
+        }
+        final RouteGraph routeGraph = builder.build();
+        final int root = routeGraph.indexOf("root");
+
+        try (ParallelBreadthFirstSearch search = new ParallelBreadthFirstSearch(8, 0)) {
+            final SearchTree searchTree = search.search(routeGraph, root);
+
+            assertSameRouteLengths(routeGraph, SearchTree.breadthFirst(routeGraph, root, SearchTree.NO_STOP_NODE),
+                    searchTree);
+            assertEquals(4, searchTree.routeTo(routeGraph.indexOf("sink")).size());
+        }
+    }
+
+    /**
+     * Tests that graphs below the threshold are searched sequentially and that invalid settings are rejected.
+     */
+    @Test
+    void testSearch_SequentialFallbackAndValidation() {
+        final RouteGraphBuilder builder = new RouteGraphBuilder();
+        builder.addEdge("a", "b");
+        builder.addEdge("b", "c");
+        final RouteGraph routeGraph = builder.build();
+
+        try (ParallelBreadthFirstSearch search = new ParallelBreadthFirstSearch(2, 100)) {
+            assertEquals(List.of("a", "b", "c"), search.search(routeGraph, 0).routeTo(2));
+            assertEquals(2, search.getParallelism());
+        }
+        assertThrows(IllegalArgumentException.class, () -> new ParallelBreadthFirstSearch(0, 100));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelBreadthFirstSearch(2, -1));
+    }
+
+    /**
+     * Asserts that two search trees reach the same nodes with routes of the same length.
+     *
+     * @param routeGraph   The searched route graph.
+     * @param expectedTree The tree of the sequential BFS.
+     * @param actualTree   The tree of the parallel search.
+     */
+    private static void assertSameRouteLengths(final RouteGraph routeGraph, final SearchTree expectedTree,
+                                               final SearchTree actualTree) {
+        for (int node = 0; node < routeGraph.nodeCount(); node++) {
+            assertEquals(expectedTree.reaches(node), actualTree.reaches(node), routeGraph.nodeId(node));
+
+            if (expectedTree.reaches(node)) {
+                assertEquals(expectedTree.routeTo(node).size(), actualTree.routeTo(node).size(),
+                        routeGraph.nodeId(node));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,157 @@
+package org.samvelaivazian.diagramtraversal.solution.traversal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraph;
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraphBuilder;
+import org.samvelaivazian.diagramtraversal.solution.parsers.BpmnParser;
+import org.samvelaivazian.diagramtraversal.solution.parsers.StreamingBpmnGraphExtractor;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the RouteEnumerator class.
+ */
+final class RouteEnumeratorTest {
+
+    /**
+     * A process with an exclusive split, a parallel fork and join, and a loop back from an exclusive check.
+     */
+    private static final String GATEWAYS_XML = """
+            <bpmn:definitions xmlns:bpmn="http://www.omg.org/spec/BPMN/20100524/MODEL" targetNamespace="test">
+              <bpmn:process id="gateways">
+                <bpmn:startEvent id="start"><bpmn:outgoing>f1</bpmn:outgoing></bpmn:startEvent>
+                <bpmn:exclusiveGateway id="split">
+                  <bpmn:incoming>f1</bpmn:incoming><bpmn:outgoing>f2</bpmn:outgoing><bpmn:outgoing>f3</bpmn:outgoing>
+                </bpmn:exclusiveGateway>
+                <bpmn:task id="a"><bpmn:incoming>f2</bpmn:incoming><bpmn:outgoing>f4</bpmn:outgoing></bpmn:task>
+                <bpmn:task id="b"><bpmn:incoming>f3</bpmn:incoming><bpmn:outgoing>f5</bpmn:outgoing></bpmn:task>
+                <bpmn:exclusiveGateway id="merge">
+                  <bpmn:incoming>f4</bpmn:incoming><bpmn:incoming>f5</bpmn:incoming><bpmn:incoming>f13</bpmn:incoming>
+                  <bpmn:outgoing>f6</bpmn:outgoing>
+                </bpmn:exclusiveGateway>
+                <bpmn:parallelGateway id="fork">
+                  <bpmn:incoming>f6</bpmn:incoming><bpmn:outgoing>f7</bpmn:outgoing><bpmn:outgoing>f8</bpmn:outgoing>
+                </bpmn:parallelGateway>
+                <bpmn:task id="p1"><bpmn:incoming>f7</bpmn:incoming><bpmn:outgoing>f9</bpmn:outgoing></bpmn:task>
+                <bpmn:task id="p2"><bpmn:incoming>f8</bpmn:incoming><bpmn:outgoing>f10</bpmn:outgoing></bpmn:task>
+                <bpmn:parallelGateway id="join">
+                  <bpmn:incoming>f9</bpmn:incoming><bpmn:incoming>f10</bpmn:incoming><bpmn:outgoing>f11</bpmn:outgoing>
+                </bpmn:parallelGateway>
+                <bpmn:exclusiveGateway id="check">
+                  <bpmn:incoming>f11</bpmn:incoming><bpmn:outgoing>f12</bpmn:outgoing><bpmn:outgoing>f13</bpmn:outgoing>
+                </bpmn:exclusiveGateway>
+                <bpmn:endEvent id="end"><bpmn:incoming>f12</bpmn:incoming></bpmn:endEvent>
+                <bpmn:sequenceFlow id="f1" sourceRef="start" targetRef="split"/>
+                <bpmn:sequenceFlow id="f2" sourceRef="split" targetRef="a"/>
+                <bpmn:sequenceFlow id="f3" sourceRef="split" targetRef="b"/>
+                <bpmn:sequenceFlow id="f4" sourceRef="a" targetRef="merge"/>
+                <bpmn:sequenceFlow id="f5" sourceRef="b" targetRef="merge"/>
+                <bpmn:sequenceFlow id="f6" sourceRef="merge" targetRef="fork"/>
+                <bpmn:sequenceFlow id="f7" sourceRef="fork" targetRef="p1"/>
+                <bpmn:sequenceFlow id="f8" sourceRef="fork" targetRef="p2"/>
+                <bpmn:sequenceFlow id="f9" sourceRef="p1" targetRef="join"/>
+                <bpmn:sequenceFlow id="f10" sourceRef="p2" targetRef="join"/>
+                <bpmn:sequenceFlow id="f11" sourceRef="join" targetRef="check"/>
+                <bpmn:sequenceFlow id="f12" sourceRef="check" targetRef="end"/>
+                <bpmn:sequenceFlow id="f13" sourceRef="check" targetRef="merge"/>
+              </bpmn:process>
+            </bpmn:definitions>
+            """;
+
+    /**
+     * The route graph of the gateways process, compiled from the Camunda model.
+     */
+    private RouteGraph routeGraph;
+
+    @BeforeEach
+    void setUp() {
+        routeGraph = RouteGraph.compile(new BpmnParser().getBpmnModelFromXml(GATEWAYS_XML));
+    }
+
+    /**
+     * Tests that exclusive branches yield separate routes while both parallel branches belong to the same route.
+     * This ensures that the routes respect the gateway semantics.
+     */
+    @Test
+    void testEnumerate_SimpleRoutesRespectGateways() {
+        assertEquals(List.of(
+                List.of("start", "split", "a", "merge", "fork", "p1", "p2", "join", "check", "end"),
+                List.of("start", "split", "b", "merge", "fork", "p1", "p2", "join", "check", "end")
+        ), routes("start", "end", 100, 1));
+        assertTrue(routeGraph.isParallelGateway(routeGraph.indexOf("fork")));
+        assertFalse(routeGraph.isParallelGateway(routeGraph.indexOf("split")));
+
+        final RouteGraph extractedGraph = new StreamingBpmnGraphExtractor(null, 1.0).extractRouteGraph(GATEWAYS_XML);
+        for (int node = 0; node < routeGraph.nodeCount(); node++) {
+            assertEquals(routeGraph.isParallelGateway(node),
+                    extractedGraph.isParallelGateway(extractedGraph.indexOf(routeGraph.nodeId(node))));
+        }
+    }
+
+    /**
+     * Tests that loops are unrolled up to the visit bound and that the maximum length prunes longer routes.
+     * This ensures that cyclic diagrams yield a finite number of routes.
+     */
+    @Test
+    void testEnumerate_LoopsBoundedByVisitsAndLength() {
+        final List<List<String>> routes = routes("start", "end", 100, 2);
+
+        assertEquals(4, routes.size());
+        assertEquals(List.of("start", "split", "a", "merge", "fork", "p1", "p2", "join", "check",
+                "merge", "fork", "p1", "p2", "join", "check", "end"), routes.get(1));
+        assertEquals(2, routes("start", "end", 15, 2).size());
+        assertEquals(List.of(), routes("start", "end", 9, 1));
+        assertEquals(List.of(), routes("p1", "end", 100, 1),
+                "A single token must not pass a join that expects a token along every incoming flow");
+        assertThrows(IllegalArgumentException.class, () -> routes("start", "end", 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> routes("start", "end", 10, 0));
+    }
+
+    /**
+     * Tests that the first routes of a chain of many diamonds are produced without enumerating all of them.
+     * This ensures that the enumeration is lazy and its memory independent of the number of routes.
+     */
+    @Test
+    void testEnumerate_LazyOnExponentialRouteCount() {
+        final RouteGraphBuilder builder = new RouteGraphBuilder();
+        final int diamondCount = 40;
+        for (int i = 0; i < diamondCount; i++) {
+            builder.addEdge("g" + i, "l" + i);
+            builder.addEdge("g" + i, "r" + i);
+            builder.addEdge("l" + i, "g" + (i + 1));
+            builder.addEdge("r" + i, "g" + (i + 1));
+        }
+        final RouteGraph diamonds = builder.build();
+
+        final List<List<String>> firstRoutes = RouteEnumerator.stream(diamonds, diamonds.indexOf("g0"),
+                diamonds.indexOf("g" + diamondCount), Integer.MAX_VALUE, 1).limit(1_000).collect(Collectors.toList());
+
+        assertEquals(1_000, firstRoutes.size());
+        assertEquals(1_000, new HashSet<>(firstRoutes).size());
+        assertTrue(firstRoutes.stream().allMatch(route -> route.size() == 2 * diamondCount + 1));
+    }
+
+    /**
+     * Enumerates all routes between two nodes of the gateways process.
+     *
+     * @param startNodeId ID of the start node.
+     * @param endNodeId   ID of the end node.
+     * @param maxLength   The maximum number of nodes of a route.
+     * @param maxVisits   The maximum number of times a node may be entered per route.
+     * @return The routes in enumeration order.
+     */
+    private List<List<String>> routes(final String startNodeId, final String endNodeId, final int maxLength,
+                                      final int maxVisits) {
+        return RouteEnumerator.stream(routeGraph, routeGraph.indexOf(startNodeId), routeGraph.indexOf(endNodeId),
+                maxLength, maxVisits).collect(Collectors.toList());
+    }
+
+}
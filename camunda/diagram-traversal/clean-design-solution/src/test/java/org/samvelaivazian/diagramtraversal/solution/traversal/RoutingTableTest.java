@@ -0,0 +1,91 @@
+package org.samvelaivazian.diagramtraversal.solution.traversal;
+
+import org.junit.jupiter.api.Test;
+import org.samvelaivazian.diagramtraversal.solution.generator.BpmnDiagramGenerator;
+import org.samvelaivazian.diagramtraversal.solution.generator.DiagramSpec;
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraph;
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraphBuilder;
+import org.samvelaivazian.diagramtraversal.solution.parsers.BpmnParser;
+import org.samvelaivazian.diagramtraversal.solution.parsers.StreamingBpmnGraphExtractor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.samvelaivazian.diagramtraversal.solution.constants.FileConstants.PATH_TO_INVOICE_XML;
+
+/**
+ * Unit tests for the RoutingTable class.
+ */
+final class RoutingTableTest {
+
+    /**
+     * Tests that the DFS and BFS tables of the invoice diagram, a larger generated diagram and a cyclic graph answer
+     * the same routes as the DFS and BFS search trees between every pair of nodes.
+     * This ensures that reading a route off the table is indistinguishable from searching for it.
+     *
+     * @throws IOException if reading the BPMN XML file fails
+     */
+    @Test
+    void testRouteTo_MatchesSearchTree() throws IOException {
+        final RouteGraph invoiceGraph = RouteGraph.compile(
+                new BpmnParser().getBpmnModelFromXml(Files.readString(PATH_TO_INVOICE_XML)));
+        final RouteGraph generatedGraph = new StreamingBpmnGraphExtractor(null, 1.0).extractRouteGraph(
+                new BpmnDiagramGenerator().generate(new DiagramSpec(300, 0.3, 0.2, 5)));
+        final RouteGraphBuilder builder = new RouteGraphBuilder();
+        builder.addEdge("a", "b");
+        builder.addEdge("b", "a");
+        builder.addNode("x");
+        final RouteGraph cyclicGraph = builder.build();
+
+        for (final RouteGraph graph : List.of(invoiceGraph, generatedGraph, cyclicGraph)) {
+            final RoutingTable depthFirstTable = RoutingTable.build(graph, TraversalStrategy.DEPTH_FIRST);
+            final RoutingTable breadthFirstTable = RoutingTable.build(graph, TraversalStrategy.BREADTH_FIRST);
+
+            for (int start = 0; start < graph.nodeCount(); start++) {
+                final SearchTree depthFirstTree = SearchTree.depthFirst(graph, start, SearchTree.NO_STOP_NODE);
+                final SearchTree breadthFirstTree = SearchTree.breadthFirst(graph, start, SearchTree.NO_STOP_NODE);
+
+                for (int end = 0; end < graph.nodeCount(); end++) {
+                    final String pair = graph.nodeId(start) + " -> " + graph.nodeId(end);
+
+                    assertEquals(depthFirstTree.reaches(end), depthFirstTable.reaches(start, end), pair);
+                    assertEquals(breadthFirstTree.reaches(end), breadthFirstTable.reaches(start, end), pair);
+                    if (breadthFirstTree.reaches(end)) {
+                        assertEquals(depthFirstTree.routeTo(end), depthFirstTable.routeTo(start, end), pair);
+                        assertEquals(breadthFirstTree.routeTo(end), breadthFirstTable.routeTo(start, end), pair);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests the memory estimate, the budget check and the rejection of strategies whose routes depend on more than
+     * the start node's search tree.
+     * This ensures that callers fall back to searching for graphs whose table would exceed their budget.
+     */
+    @Test
+    void testFits_RespectsBudget() {
+        final RouteGraphBuilder builder = new RouteGraphBuilder();
+        builder.addEdge("a", "b");
+        final RouteGraph graph = builder.build();
+
+        assertEquals(16 + 2L * 4_000 * 4_000, RoutingTable.estimateBytes(4_000));
+        assertEquals(16 + 4L * 40_000 * 40_000, RoutingTable.estimateBytes(40_000));
+        assertTrue(RoutingTable.fits(4_000, 64L * 1024 * 1024));
+        assertFalse(RoutingTable.fits(10_000, 64L * 1024 * 1024));
+        assertFalse(RoutingTable.fits(100_000, Long.MAX_VALUE));
+        assertFalse(RoutingTable.fits(2, 0));
+        assertEquals(RoutingTable.estimateBytes(2),
+                RoutingTable.build(graph, TraversalStrategy.BREADTH_FIRST).getMemoryFootprintBytes());
+
+        assertFalse(RoutingTable.supports(TraversalStrategy.DIJKSTRA));
+        assertThrows(IllegalArgumentException.class, () -> RoutingTable.build(graph, TraversalStrategy.A_STAR));
+    }
+
+}
@@ -0,0 +1,241 @@
+package org.samvelaivazian.diagramtraversal.solution.traversal;
+
+import org.junit.jupiter.api.Test;
+import org.samvelaivazian.diagramtraversal.solution.generator.BpmnDiagramGenerator;
+import org.samvelaivazian.diagramtraversal.solution.generator.DiagramSpec;
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraph;
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraphBuilder;
+import org.samvelaivazian.diagramtraversal.solution.parsers.BpmnParser;
+import org.samvelaivazian.diagramtraversal.solution.parsers.StreamingBpmnGraphExtractor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.samvelaivazian.diagramtraversal.solution.constants.FileConstants.PATH_TO_INVOICE_XML;
+import static org.samvelaivazian.diagramtraversal.solution.graph.TestGraphs.graphOf;
+
+/**
+ * Unit tests for the SearchTree, IndexedMinHeap and LandmarkHeuristic classes.
+ */
+final class SearchTreeTest {
+
+    /**
+     * Tests that the heap polls nodes in priority order after decreases and ignores increases.
+     */
+    @Test
+    void testIndexedMinHeap_PollsInPriorityOrder() {
+        final IndexedMinHeap heap = new IndexedMinHeap(2);
+        heap.ensureCapacity(5);
+        heap.insertOrDecrease(0, 5);
+        heap.insertOrDecrease(1, 3);
+        heap.insertOrDecrease(2, 4);
+        heap.insertOrDecrease(3, 1);
+        heap.insertOrDecrease(4, 2);
+        heap.insertOrDecrease(0, 0.5);
+        heap.insertOrDecrease(3, 9);
+
+        assertEquals(0, heap.pollMin());
+        assertEquals(3, heap.pollMin());
+        assertEquals(4, heap.pollMin());
+        assertEquals(1, heap.pollMin());
+        assertEquals(2, heap.pollMin());
+        assertTrue(heap.isEmpty());
+        assertThrows(IllegalStateException.class, heap::pollMin);
+
+        // A cleared heap accepts the same nodes again
+        heap.insertOrDecrease(4, 1);
+        heap.clear();
+        heap.insertOrDecrease(4, 7);
+        assertEquals(4, heap.pollMin());
+    }
+
+    /**
+     * Tests that BFS returns the route with the fewest hops where DFS returns a longer one.
+     */
+    @Test
+    void testBreadthFirst_FewestHops() {
+        final RouteGraph graph = graphOf("a>b", "a>c", "b>t", "c>d", "d>t");
+        final int root = graph.indexOf("a");
+        final int target = graph.indexOf("t");
+
+        assertEquals(List.of("a", "c", "d", "t"), SearchTree.depthFirst(graph, root, target).routeTo(target));
+        assertEquals(List.of("a", "b", "t"), SearchTree.breadthFirst(graph, root, target).routeTo(target));
+        assertEquals(2.0, SearchTree.breadthFirst(graph, root, target).costTo(target));
+    }
+
+    /**
+     * Tests that the bidirectional BFS finds routes with as few hops as BFS between every pair of nodes of the
+     * invoice diagram and of a generated diagram with branches and loops, and no route where BFS finds none.
+     * This ensures that meeting in the middle keeps the shortest route and the no-route behaviour.
+     *
+     * @throws IOException if reading the BPMN XML file fails
+     */
+    @Test
+    void testBidirectional_MatchesBreadthFirst() throws IOException {
+        final String bpmnXml = Files.readString(PATH_TO_INVOICE_XML);
+        final RouteGraph invoiceGraph = RouteGraph.compile(new BpmnParser().getBpmnModelFromXml(bpmnXml));
+        final RouteGraph generatedGraph = new StreamingBpmnGraphExtractor(null, 1.0).extractRouteGraph(
+                new BpmnDiagramGenerator().generate(new DiagramSpec(200, 0.3, 0.2, 3)));
+
+        for (final RouteGraph graph : List.of(invoiceGraph, generatedGraph)) {
+            for (int start = 0; start < graph.nodeCount(); start++) {
+                final SearchTree breadthFirstTree = SearchTree.breadthFirst(graph, start, SearchTree.NO_STOP_NODE);
+
+                for (int end = 0; end < graph.nodeCount(); end++) {
+                    final SearchTree bidirectionalTree = SearchTree.bidirectional(graph, start, end);
+                    final String pair = graph.nodeId(start) + " -> " + graph.nodeId(end);
+
+                    assertEquals(breadthFirstTree.reaches(end), bidirectionalTree.reaches(end), pair);
+                    if (breadthFirstTree.reaches(end)) {
+                        final List<String> route = bidirectionalTree.routeTo(end);
+
+                        assertEquals(breadthFirstTree.routeTo(end).size(), route.size(), pair);
+                        assertEquals(graph.nodeId(start), route.get(0), pair);
+                        assertEquals(graph.nodeId(end), route.get(route.size() - 1), pair);
+                        assertTrue(isRoute(graph, route), pair);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests that the bidirectional BFS on a long chain with many side branches reaches far fewer nodes forward
+     * than BFS, while returning the same route.
+     * This ensures that the backward frontier actually takes over expanding wide parts of the graph.
+     */
+    @Test
+    void testBidirectional_TouchesFewerNodes() {
+        final RouteGraphBuilder builder = new RouteGraphBuilder();
+        for (int node = 0; node < 10; node++) {
+            builder.addEdge("n" + node, "n" + (node + 1));
+
+            for (int branch = 0; branch < 100; branch++) {
+                builder.addEdge("n" + node, "n" + node + "_" + branch);
+            }
+        }
+        final RouteGraph graph = builder.build();
+        final int root = graph.indexOf("n0");
+        final int target = graph.indexOf("n10");
+
+        final SearchTree breadthFirstTree = SearchTree.breadthFirst(graph, root, target);
+        final SearchTree bidirectionalTree = SearchTree.bidirectional(graph, root, target);
+
+        assertEquals(breadthFirstTree.routeTo(target), bidirectionalTree.routeTo(target));
+        assertTrue(reachedCount(bidirectionalTree, graph) * 5 < reachedCount(breadthFirstTree, graph));
+        assertTrue(bidirectionalTree.examinedEdgeCount() * 5 < breadthFirstTree.examinedEdgeCount());
+        assertEquals(graph.edgeCount(), breadthFirstTree.examinedEdgeCount());
+    }
+
+    /**
+     * Tests that Dijkstra's algorithm prefers more hops over a heavy node.
+     */
+    @Test
+    void testCheapestFirst_Dijkstra() {
+        final RouteGraph graph = graphOf("a>b:10", "a>c", "b>t", "c>d", "d>t");
+        final int root = graph.indexOf("a");
+        final int target = graph.indexOf("t");
+
+        final SearchTree searchTree = SearchTree.cheapestFirst(graph, root, target, RouteHeuristic.zero(),
+                new IndexedMinHeap(graph.nodeCount()));
+
+        assertEquals(List.of("a", "c", "d", "t"), searchTree.routeTo(target));
+        assertEquals(3.0, searchTree.costTo(target));
+    }
+
+    /**
+     * Tests that A* with landmarks finds routes as cheap as Dijkstra's algorithm between every pair of nodes.
+     * This ensures that the landmark heuristic never overestimates and prunes only unreachable targets.
+     *
+     * @throws IOException if reading the BPMN XML file fails
+     */
+    @Test
+    void testCheapestFirst_AStarMatchesDijkstra() throws IOException {
+        final String bpmnXml = Files.readString(PATH_TO_INVOICE_XML);
+        final RouteGraph invoiceGraph = RouteGraph.compile(new BpmnParser().getBpmnModelFromXml(bpmnXml));
+        final RouteGraph weightedGraph = graphOf("s>a:4", "s>b", "a>c", "b>a:1", "b>c:7", "c>b:2", "c>e:3", "x>c:5");
+
+        for (final RouteGraph graph : List.of(invoiceGraph, weightedGraph)) {
+            final LandmarkHeuristic heuristic = LandmarkHeuristic.build(graph);
+            final IndexedMinHeap heap = new IndexedMinHeap(graph.nodeCount());
+            assertTrue(heuristic.getLandmarkCount() > 0);
+
+            for (int start = 0; start < graph.nodeCount(); start++) {
+                final SearchTree dijkstraTree = SearchTree.cheapestFirst(graph, start, SearchTree.NO_STOP_NODE,
+                        RouteHeuristic.zero(), heap);
+
+                for (int end = 0; end < graph.nodeCount(); end++) {
+                    final SearchTree aStarTree = SearchTree.cheapestFirst(graph, start, end, heuristic, heap);
+                    final String pair = graph.nodeId(start) + " -> " + graph.nodeId(end);
+
+                    assertEquals(dijkstraTree.reaches(end), aStarTree.reaches(end), pair);
+                    if (dijkstraTree.reaches(end)) {
+                        assertEquals(dijkstraTree.costTo(end), aStarTree.costTo(end), pair);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests that the landmark heuristic proves unreachable targets and gives zero for the target itself.
+     */
+    @Test
+    void testLandmarkHeuristic_Estimates() {
+        final RouteGraph graph = graphOf("s>a", "a>b:3", "x>c");
+        final LandmarkHeuristic heuristic = LandmarkHeuristic.build(graph);
+
+        assertEquals(2, heuristic.getLandmarkCount());
+        assertEquals(3.0, heuristic.estimate(graph.indexOf("a"), graph.indexOf("b")));
+        assertEquals(0.0, heuristic.estimate(graph.indexOf("b"), graph.indexOf("b")));
+        assertEquals(Double.POSITIVE_INFINITY, heuristic.estimate(graph.indexOf("c"), graph.indexOf("b")));
+        assertFalse(SearchTree.cheapestFirst(graph, graph.indexOf("c"), graph.indexOf("b"), heuristic,
+                new IndexedMinHeap(0)).reaches(graph.indexOf("b")));
+    }
+
+    /**
+     * Checks that consecutive nodes of a route are connected by an edge.
+     *
+     * @param graph The route graph.
+     * @param route The node IDs of the route.
+     * @return True if every hop of the route is an edge of the graph.
+     */
+    private static boolean isRoute(final RouteGraph graph, final List<String> route) {
+        for (int i = 1; i < route.size(); i++) {
+            final int source = graph.indexOf(route.get(i - 1));
+            final int target = graph.indexOf(route.get(i));
+            boolean connected = false;
+
+            for (int edge = graph.edgesStart(source); edge < graph.edgesEnd(source); edge++) {
+                connected |= graph.edgeTarget(edge) == target;
+            }
+            if (!connected) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Counts the nodes a search tree reached.
+     *
+     * @param searchTree The search tree.
+     * @param graph      The searched route graph.
+     * @return The number of reached nodes.
+     */
+    private static int reachedCount(final SearchTree searchTree, final RouteGraph graph) {
+        int count = 0;
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            count += searchTree.reaches(node) ? 1 : 0;
+        }
+
+        return count;
+    }
+
+}
@@ -0,0 +1,196 @@
+package org.samvelaivazian.diagramtraversal.solution.traversal;
+
+import org.junit.jupiter.api.Test;
+import org.samvelaivazian.diagramtraversal.solution.Solution;
+import org.samvelaivazian.diagramtraversal.solution.generator.BpmnDiagramGenerator;
+import org.samvelaivazian.diagramtraversal.solution.generator.DiagramSpec;
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraph;
+import org.samvelaivazian.diagramtraversal.solution.graph.RouteGraphBuilder;
+import org.samvelaivazian.diagramtraversal.solution.parsers.BpmnParser;
+import org.samvelaivazian.diagramtraversal.solution.parsers.StreamingBpmnGraphExtractor;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.samvelaivazian.diagramtraversal.solution.constants.FileConstants.PATH_TO_INVOICE_XML;
+
+/**
+ * Unit tests for the TraversalContext and RouteBuffer classes.
+ */
+final class TraversalContextTest {
+
+    /**
+     * Tests that one context reused across the invoice diagram, a larger generated diagram and a small graph finds the
+     * same routes as DFS and BFS search trees between every pair of nodes, after expanding as many nodes and examining
+     * as many edges.
+     * This ensures that stale visit stamps of earlier searches, on the same or another graph, never leak into a search.
+     *
+     * @throws IOException if reading the BPMN XML file fails
+     */
+    @Test
+    void testSearch_MatchesSearchTree() throws IOException {
+        final String bpmnXml = Files.readString(PATH_TO_INVOICE_XML);
+        final RouteGraph invoiceGraph = RouteGraph.compile(new BpmnParser().getBpmnModelFromXml(bpmnXml));
+        final RouteGraph generatedGraph = new StreamingBpmnGraphExtractor(null, 1.0).extractRouteGraph(
+                new BpmnDiagramGenerator().generate(new DiagramSpec(200, 0.3, 0.2, 3)));
+        final RouteGraphBuilder builder = new RouteGraphBuilder();
+        builder.addEdge("a", "b");
+        builder.addEdge("b", "a");
+        builder.addNode("x");
+        final RouteGraph smallGraph = builder.build();
+
+        final TraversalContext context = new TraversalContext(0);
+        final RouteBuffer route = new RouteBuffer(0);
+        for (final RouteGraph graph : List.of(invoiceGraph, generatedGraph, smallGraph, invoiceGraph)) {
+            for (int start = 0; start < graph.nodeCount(); start++) {
+                for (int end = 0; end < graph.nodeCount(); end++) {
+                    final String pair = graph.nodeId(start) + " -> " + graph.nodeId(end);
+
+                    final SearchTree depthFirstTree = SearchTree.depthFirst(graph, start, end);
+                    assertEquals(depthFirstTree.reaches(end), context.depthFirst(graph, start, end, route), pair);
+                    assertSameSearch(depthFirstTree, context, route, graph, end, pair);
+
+                    final SearchTree breadthFirstTree = SearchTree.breadthFirst(graph, start, end);
+                    assertEquals(breadthFirstTree.reaches(end), context.breadthFirst(graph, start, end, route), pair);
+                    assertSameSearch(breadthFirstTree, context, route, graph, end, pair);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests that repeated searches in a warm context allocate no memory beyond a small tolerance for the measurement.
+     * This ensures that hot-loop queries do not pressure the garbage collector.
+     */
+    @Test
+    void testSearch_AllocationFreeWhenWarm() {
+        final RouteGraph graph = new StreamingBpmnGraphExtractor(null, 1.0).extractRouteGraph(
+                new BpmnDiagramGenerator().generate(new DiagramSpec(2_000, 0.3, 0.2, 3)));
+        final TraversalContext context = new TraversalContext(graph.nodeCount());
+        final RouteBuffer route = new RouteBuffer(graph.nodeCount());
+        final com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        // Warm up, so that the searches are compiled and the buffers are grown
+        searchAllPairs(context, route, graph, 5);
+
+        final long threadId = Thread.currentThread().threadId();
+        final long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        final int searchCount = searchAllPairs(context, route, graph, 20);
+        final long allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        assertTrue(searchCount > 0);
+        assertTrue(allocatedBytes < 64 * 1024, "Allocated " + allocatedBytes + " bytes");
+    }
+
+    /**
+     * Tests that queries answered one after another on fresh virtual threads, as the route server runs them, share a
+     * single search workspace, and that concurrent queries create no more workspaces than run at the same time.
+     * This ensures that server queries reuse the grown search arrays instead of allocating them per query.
+     *
+     * @throws Exception if reading the BPMN XML file or a query fails
+     */
+    @Test
+    void testFindRoute_ReusesWorkspacesAcrossVirtualThreads() throws Exception {
+        final RouteGraph graph = RouteGraph.compile(
+                new BpmnParser().getBpmnModelFromXml(Files.readString(PATH_TO_INVOICE_XML)));
+        final Solution solution = new Solution(new BpmnParser());
+        final SearchWorkspacePool searchWorkspaces = solution.getSearchWorkspaces();
+        final List<TraversalStrategy> strategies =
+                List.of(TraversalStrategy.DEPTH_FIRST, TraversalStrategy.BREADTH_FIRST, TraversalStrategy.DIJKSTRA);
+
+        for (int i = 0; i < 100; i++) {
+            final TraversalStrategy strategy = strategies.get(i % strategies.size());
+            Thread.ofVirtual().start(() -> solution.findRoute(graph, "approveInvoice", "invoiceProcessed", strategy))
+                    .join();
+        }
+        assertEquals(1, searchWorkspaces.createdCount());
+        assertEquals(1, searchWorkspaces.idleCount());
+
+        final List<Future<List<String>>> routes = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 1_000; i++) {
+                final TraversalStrategy strategy = strategies.get(i % strategies.size());
+                routes.add(executor.submit(() ->
+                        solution.findRoute(graph, "approveInvoice", "invoiceProcessed", strategy)));
+            }
+        }
+        for (final Future<List<String>> route : routes) {
+            assertEquals("invoiceProcessed", route.get().getLast());
+        }
+        assertTrue(searchWorkspaces.createdCount() <= Runtime.getRuntime().availableProcessors() + 1,
+                "Created " + searchWorkspaces.createdCount() + " workspaces");
+    }
+
+    /**
+     * Tests that the route buffer is empty for unreached targets and rejects positions beyond the route.
+     */
+    @Test
+    void testRouteBuffer_Bounds() {
+        final RouteGraphBuilder builder = new RouteGraphBuilder();
+        builder.addEdge("a", "b");
+        final RouteGraph graph = builder.build();
+        final TraversalContext context = new TraversalContext(0);
+        final RouteBuffer route = new RouteBuffer(0);
+
+        assertTrue(context.depthFirst(graph, graph.indexOf("a"), graph.indexOf("b"), route));
+        assertEquals(List.of("a", "b"), route.toNodeIds(graph));
+        assertEquals(graph.indexOf("b"), route.node(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> route.node(2));
+
+        assertFalse(context.breadthFirst(graph, graph.indexOf("b"), graph.indexOf("a"), route));
+        assertEquals(0, route.length());
+        assertEquals(List.of(), route.toNodeIds(graph));
+    }
+
+    /**
+     * Asserts that a context search wrote the same route and counted the same work as a search tree.
+     *
+     * @param searchTree The search tree.
+     * @param context    The context after the search.
+     * @param route      The buffer the context wrote the route into.
+     * @param graph      The searched route graph.
+     * @param end        The target node.
+     * @param pair       The message identifying the query.
+     */
+    private static void assertSameSearch(final SearchTree searchTree, final TraversalContext context,
+                                         final RouteBuffer route, final RouteGraph graph, final int end,
+                                         final String pair) {
+        assertEquals(searchTree.reaches(end) ? searchTree.routeTo(end) : List.of(), route.toNodeIds(graph), pair);
+        assertEquals(searchTree.expandedNodeCount(), context.expandedNodeCount(), pair);
+        assertEquals(searchTree.examinedEdgeCount(), context.examinedEdgeCount(), pair);
+    }
+
+    /**
+     * Runs DFS and BFS from every n-th node to every n-th node.
+     *
+     * @param context The traversal context.
+     * @param route   The route buffer.
+     * @param graph   The route graph.
+     * @param step    The distance between the picked node indices.
+     * @return The number of searches that found a route.
+     */
+    private static int searchAllPairs(final TraversalContext context, final RouteBuffer route, final RouteGraph graph,
+                                      final int step) {
+        int foundCount = 0;
+        for (int start = 0; start < graph.nodeCount(); start += step) {
+            for (int end = 0; end < graph.nodeCount(); end += step) {
+                foundCount += context.depthFirst(graph, start, end, route) ? 1 : 0;
+                foundCount += context.breadthFirst(graph, start, end, route) ? 1 : 0;
+            }
+        }
+
+        return foundCount;
+    }
+
+}
@@ -0,0 +1,180 @@
+package org.samvelaivazian.diagramtraversal.solution.utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.samvelaivazian.diagramtraversal.solution.exceptions.FetchResponseDataException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the HttpFetcher class against a local stub server.
+ */
+final class HttpFetcherTest {
+
+    /**
+     * The ETag of the stub resource.
+     */
+    private static final String ETAG = "\"v1\"";
+
+    /**
+     * The Last-Modified date of the stub resource.
+     */
+    private static final String LAST_MODIFIED = "Wed, 21 Oct 2015 07:28:00 GMT";
+
+    /**
+     * The client ports of all connections accepted by the stub server.
+     */
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The fetcher to be tested.
+     */
+    private final HttpFetcher httpFetcher = new HttpFetcher();
+
+    /**
+     * The stub server.
+     */
+    private HttpServer stubServer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stubServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        stubServer.createContext("/", this::handle);
+        stubServer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stubServer.stop(0);
+    }
+
+    /**
+     * Tests that a request with the ETag of the previous response is answered with 304 and no body.
+     * This ensures that unchanged resources are neither transferred nor parsed again.
+     */
+    @Test
+    void testFetchIfChanged_ETag() {
+        final ConditionalResponse<String> firstResponse =
+                httpFetcher.fetchIfChanged(url("/definition"), HttpValidators.NONE, HttpResponse.BodyHandlers.ofString());
+        final ConditionalResponse<String> secondResponse =
+                httpFetcher.fetchIfChanged(url("/definition"), firstResponse.validators(),
+                        HttpResponse.BodyHandlers.ofString());
+
+        assertFalse(firstResponse.notModified());
+        assertEquals("body of /definition", firstResponse.body());
+        assertEquals(new HttpValidators(ETAG, LAST_MODIFIED), firstResponse.validators());
+        assertTrue(secondResponse.notModified());
+        assertNull(secondResponse.body());
+        assertEquals(firstResponse.validators(), secondResponse.validators());
+    }
+
+    /**
+     * Tests that a Last-Modified date alone is sent as If-Modified-Since and that streamed 304 responses work.
+     */
+    @Test
+    void testFetchIfChanged_LastModified() {
+        final ConditionalResponse<InputStream> response = httpFetcher.fetchIfChanged(url("/definition"),
+                new HttpValidators(null, LAST_MODIFIED), HttpResponse.BodyHandlers.ofInputStream());
+
+        assertTrue(response.notModified());
+    }
+
+    /**
+     * Tests that sequential requests reuse one pooled connection instead of connecting every time.
+     */
+    @Test
+    void testFetch_ReusesConnection() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals("body of /definition", httpFetcher.fetch(url("/definition")));
+        }
+
+        assertEquals(1, clientPorts.size());
+    }
+
+    /**
+     * Tests that concurrent asynchronous fetches all complete with their own response.
+     */
+    @Test
+    void testFetchAsync_Concurrent() {
+        final List<CompletableFuture<String>> futures = IntStream.range(0, 8)
+                .mapToObj(i -> httpFetcher.fetchAsync(url("/definition/" + i)))
+                .toList();
+
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals("body of /definition/" + i, futures.get(i).join());
+        }
+    }
+
+    /**
+     * Tests that a failing asynchronous fetch completes exceptionally with a FetchResponseDataException.
+     */
+    @Test
+    void testFetchAsync_Failure() {
+        stubServer.stop(0);
+
+        final CompletionException exception = assertThrows(CompletionException.class,
+                () -> httpFetcher.fetchAsync(url("/definition")).join());
+
+        assertInstanceOf(FetchResponseDataException.class, exception.getCause());
+    }
+
+    /**
+     * Answers every request with a body naming its path, or with 304 if a validator matches.
+     *
+     * @param exchange The HTTP exchange.
+     * @throws IOException if writing the response fails
+     */
+    private void handle(final HttpExchange exchange) throws IOException {
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        final String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        final String ifModifiedSince = exchange.getRequestHeaders().getFirst("If-Modified-Since");
+
+        exchange.getResponseHeaders().add("ETag", ETAG);
+        exchange.getResponseHeaders().add("Last-Modified", LAST_MODIFIED);
+
+        if (ETAG.equals(ifNoneMatch) || (ifNoneMatch == null && LAST_MODIFIED.equals(ifModifiedSince))) {
+            exchange.sendResponseHeaders(ConditionalResponse.NOT_MODIFIED, -1);
+            exchange.close();
+            return;
+        }
+
+        final byte[] body = ("body of " + exchange.getRequestURI().getPath()).getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(body);
+        }
+    }
+
+    /**
+     * Returns the URL of a path on the stub server.
+     *
+     * @param path The path.
+     * @return The URL.
+     */
+    private String url(final String path) {
+        return "http://" + stubServer.getAddress().getHostString() + ":" + stubServer.getAddress().getPort() + path;
+    }
+
+}